@@ -14,6 +14,7 @@ import minecrafttransportsimulator.items.instances.ItemPartGun;
 import minecrafttransportsimulator.items.instances.ItemPartInteractable;
 import minecrafttransportsimulator.items.instances.ItemPartPropeller;
 import minecrafttransportsimulator.items.instances.ItemPartSeat;
+import minecrafttransportsimulator.mcinterface.BuilderCommandProfiler;
 import minecrafttransportsimulator.mcinterface.InterfaceChunkloader;
 import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.mcinterface.InterfaceInput;
@@ -27,6 +28,8 @@ import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.Mod.Instance;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 
 /**Master loader for the mod.  This class is not an interface, unlike everything else.
  * Instead, it keeps references to all interfaces, which are passed-in during construction.
@@ -111,4 +114,21 @@ public class MasterLoader{
 			InterfaceInput.initConfigKey();
 		}
 	}
+	
+	@EventHandler
+	public void serverStarting(FMLServerStartingEvent event){
+		//Register commands.
+		event.registerServerCommand(new BuilderCommandProfiler());
+		
+		//Reset packet queues, as they may have been left scheduled by a prior integrated server.
+		InterfacePacket.resetQueue(true);
+		InterfacePacket.resetQueue(false);
+	}
+	
+	@EventHandler
+	public void serverStopped(FMLServerStoppedEvent event){
+		//Reset packet queues, as tasks scheduled on the server thread won't run now that it has stopped.
+		InterfacePacket.resetQueue(true);
+		InterfacePacket.resetQueue(false);
+	}
 }
@@ -91,8 +91,8 @@ public class BoundingBox{
 	/**
 	 *  Sets the global center of this box to the position of the passed-in entity, rotated by the
 	 *  entity's rotation and offset by the local center.  Mostly used for updating hitboxes that
-	 *  rotate with the entity.  Rotation is done using the fine Point3d rotation to allow for
-	 *  better interaction while standing on entities.  Optional extra offset is present should
+	 *  rotate with the entity.  Rotation is done using the entity's rotation matrix, which is as precise
+	 *  as the fine Point3d rotation to allow for better interaction while standing on entities.  Optional extra offset is present should
 	 *  a supplemental translation need to be performed before aligning to the entity.
 	 */
 	public void updateToEntity(AEntityC_Definable<?> entity, Point3d optionalOffset){
@@ -100,7 +100,7 @@ public class BoundingBox{
 		if(optionalOffset != null){
 			globalCenter.add(optionalOffset);
 		}
-		globalCenter.rotateFine(entity.angles).add(entity.position);
+		globalCenter.rotate(entity.getOrientation()).add(entity.position);
 		if(isCollision){
 			//Need to round box to prevent floating-point errors.
 			globalCenter.x = ((int) (globalCenter.x/HITBOX_CLAMP))*HITBOX_CLAMP;
@@ -225,6 +225,45 @@ public class BoundingBox{
 		return intersection;
     }
 	
+	/**
+	 *  Like {@link #getIntersectionPoint(Point3d, Point3d)}, but returns how far along the line the first point
+	 *  of intersection is, from 0 at the start point to 1 at the end point, or NaN if there is no intersection.
+	 *  This doesn't create any points, so should be used when checking lots of boxes.
+	 */
+	public double getIntersectionFraction(Point3d start, Point3d end){
+		return getIntersectionFraction(start, end, globalCenter.x - widthRadius, globalCenter.y - heightRadius, globalCenter.z - depthRadius, globalCenter.x + widthRadius, globalCenter.y + heightRadius, globalCenter.z + depthRadius);
+	}
+	
+	/**
+	 *  Helper method for {@link #getIntersectionFraction(Point3d, Point3d)} that works on any box defined by its min and max points.
+	 *  Like the intersection point, if the start point is inside the box, the point the line leaves the box is used.
+	 */
+	public static double getIntersectionFraction(Point3d start, Point3d end, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		double entry = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		for(int axis=0; axis<3; ++axis){
+			double startValue = axis == 0 ? start.x : (axis == 1 ? start.y : start.z);
+			double delta = (axis == 0 ? end.x : (axis == 1 ? end.y : end.z)) - startValue;
+			double min = axis == 0 ? minX : (axis == 1 ? minY : minZ);
+			double max = axis == 0 ? maxX : (axis == 1 ? maxY : maxZ);
+			if(delta != 0){
+				double minFraction = (min - startValue)/delta;
+				double maxFraction = (max - startValue)/delta;
+				entry = Math.max(entry, Math.min(minFraction, maxFraction));
+				exit = Math.min(exit, Math.max(minFraction, maxFraction));
+			}else if(startValue < min || startValue > max){
+				return Double.NaN;
+			}
+		}
+		if(entry > exit || exit < 0){
+			return Double.NaN;
+		}else if(entry >= 0){
+			return entry <= 1 ? entry : Double.NaN;
+		}else{
+			return exit <= 1 ? exit : Double.NaN;
+		}
+	}
+	
 	/**
 	 *  Helper method to convert the BoundingBox to an AxisAlignedBB.
 	 */
@@ -0,0 +1,229 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**Bounding volume hierarchy for a set of boxes.  Checking a line against every box on a
+ * large multipart takes a while, so boxes are grouped into a binary tree where each node
+ * contains the bounds of all boxes under it.  Lines then only need to check the boxes in
+ * nodes they pass through.  The tree is re-built when the set of boxes changes.  When only the
+ * positions of the boxes change, which happens every tick for moving entities, the node bounds are
+ * re-fit to the boxes instead, which is much faster and keeps the grouping valid.
+ * <br><br>
+ * Nodes are stored in arrays, with children always after their parents.  This lets re-fitting
+ * be done in one pass backwards through the nodes, and lets queries walk the tree without recursion.
+ *
+ * @author don_bruce
+ */
+public class BoundingBoxTree{
+	private BoundingBox[] boxes = new BoundingBox[0];
+	private int nodeCount;
+	private double[] nodeBounds = new double[0];
+	/**Index of the second child of each node.  The first child is always the next node.  Leaf nodes have the negative box index minus 1.**/
+	private int[] nodeChildren = new int[0];
+	private int[] queryStack = new int[0];
+
+	/**
+	 *  Updates the tree for the passed-in boxes.  If they are the same boxes as the last update,
+	 *  the tree is re-fit to them.  Otherwise, it is re-built.
+	 */
+	public void update(List<BoundingBox> newBoxes){
+		boolean sameBoxes = newBoxes.size() == boxes.length;
+		if(sameBoxes){
+			for(int i=0; i<boxes.length; ++i){
+				if(newBoxes.get(i) != boxes[i]){
+					sameBoxes = false;
+					break;
+				}
+			}
+		}
+		if(sameBoxes){
+			refit();
+		}else{
+			rebuild(newBoxes);
+		}
+	}
+
+	/**
+	 *  Adds all boxes the line between the passed-in start and end points intersects to the passed-in hit list.
+	 *  No objects are created by this call, so it may be called frequently.
+	 */
+	public void getHits(Point3d start, Point3d end, Hits hits){
+		if(nodeCount == 0){
+			return;
+		}
+		int stackSize = 0;
+		queryStack[stackSize++] = 0;
+		while(stackSize > 0){
+			int node = queryStack[--stackSize];
+			int nodeIndex = node*6;
+			if(!Double.isNaN(BoundingBox.getIntersectionFraction(start, end, nodeBounds[nodeIndex], nodeBounds[nodeIndex + 1], nodeBounds[nodeIndex + 2], nodeBounds[nodeIndex + 3], nodeBounds[nodeIndex + 4], nodeBounds[nodeIndex + 5])) || isInside(start, nodeIndex)){
+				int children = nodeChildren[node];
+				if(children < 0){
+					BoundingBox box = boxes[-children - 1];
+					double fraction = box.getIntersectionFraction(start, end);
+					if(!Double.isNaN(fraction)){
+						hits.add(box, fraction);
+					}
+				}else{
+					queryStack[stackSize++] = node + 1;
+					queryStack[stackSize++] = children;
+				}
+			}
+		}
+	}
+
+	private boolean isInside(Point3d point, int nodeIndex){
+		//Lines that start and end inside a node don't intersect its bounds, but may still intersect its boxes.
+		return point.x >= nodeBounds[nodeIndex] && point.y >= nodeBounds[nodeIndex + 1] && point.z >= nodeBounds[nodeIndex + 2] && point.x <= nodeBounds[nodeIndex + 3] && point.y <= nodeBounds[nodeIndex + 4] && point.z <= nodeBounds[nodeIndex + 5];
+	}
+
+	private void rebuild(List<BoundingBox> newBoxes){
+		boxes = newBoxes.toArray(new BoundingBox[newBoxes.size()]);
+		int maxNodes = Math.max(2*boxes.length - 1, 0);
+		nodeBounds = new double[maxNodes*6];
+		nodeChildren = new int[maxNodes];
+		queryStack = new int[maxNodes + 1];
+		nodeCount = 0;
+		if(boxes.length > 0){
+			int[] boxIndexes = new int[boxes.length];
+			for(int i=0; i<boxIndexes.length; ++i){
+				boxIndexes[i] = i;
+			}
+			buildNode(boxIndexes, 0, boxIndexes.length);
+		}
+		refit();
+	}
+
+	/**
+	 *  Builds a node for the boxes in the passed-in range and returns its index.  Boxes are split
+	 *  in half along the axis their centers are spread out the most on.
+	 */
+	private int buildNode(int[] boxIndexes, int start, int end){
+		int node = nodeCount++;
+		if(end - start == 1){
+			nodeChildren[node] = -boxIndexes[start] - 1;
+		}else{
+			//Find the axis with the most spread.
+			double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+			double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+			for(int i=start; i<end; ++i){
+				for(int axis=0; axis<3; ++axis){
+					double center = getCenter(boxes[boxIndexes[i]], axis);
+					min[axis] = Math.min(min[axis], center);
+					max[axis] = Math.max(max[axis], center);
+				}
+			}
+			int splitAxis = 0;
+			for(int axis=1; axis<3; ++axis){
+				if(max[axis] - min[axis] > max[splitAxis] - min[splitAxis]){
+					splitAxis = axis;
+				}
+			}
+
+			//Sort the boxes along that axis and split them in half.
+			for(int i=start + 1; i<end; ++i){
+				int boxIndex = boxIndexes[i];
+				double center = getCenter(boxes[boxIndex], splitAxis);
+				int j = i - 1;
+				while(j >= start && getCenter(boxes[boxIndexes[j]], splitAxis) > center){
+					boxIndexes[j + 1] = boxIndexes[j];
+					--j;
+				}
+				boxIndexes[j + 1] = boxIndex;
+			}
+			int middle = (start + end)/2;
+			buildNode(boxIndexes, start, middle);
+			nodeChildren[node] = buildNode(boxIndexes, middle, end);
+		}
+		return node;
+	}
+
+	private void refit(){
+		for(int node=nodeCount-1; node>=0; --node){
+			int nodeIndex = node*6;
+			int children = nodeChildren[node];
+			if(children < 0){
+				BoundingBox box = boxes[-children - 1];
+				nodeBounds[nodeIndex] = box.globalCenter.x - box.widthRadius;
+				nodeBounds[nodeIndex + 1] = box.globalCenter.y - box.heightRadius;
+				nodeBounds[nodeIndex + 2] = box.globalCenter.z - box.depthRadius;
+				nodeBounds[nodeIndex + 3] = box.globalCenter.x + box.widthRadius;
+				nodeBounds[nodeIndex + 4] = box.globalCenter.y + box.heightRadius;
+				nodeBounds[nodeIndex + 5] = box.globalCenter.z + box.depthRadius;
+			}else{
+				int firstIndex = (node + 1)*6;
+				int secondIndex = children*6;
+				for(int i=0; i<3; ++i){
+					nodeBounds[nodeIndex + i] = Math.min(nodeBounds[firstIndex + i], nodeBounds[secondIndex + i]);
+					nodeBounds[nodeIndex + 3 + i] = Math.max(nodeBounds[firstIndex + 3 + i], nodeBounds[secondIndex + 3 + i]);
+				}
+			}
+		}
+	}
+
+	private static double getCenter(BoundingBox box, int axis){
+		return axis == 0 ? box.globalCenter.x : (axis == 1 ? box.globalCenter.y : box.globalCenter.z);
+	}
+
+	/**
+	 *  List of boxes hit by a line, sorted by how far along the line they were hit.
+	 *  Lists are meant to be re-used between queries by calling {@link #clear()},
+	 *  so they only create objects when they need to grow.
+	 */
+	public static class Hits{
+		private BoundingBox[] hitBoxes = new BoundingBox[8];
+		private double[] hitFractions = new double[8];
+		private int size;
+
+		/**
+		 *  Adds the passed-in box to this list, keeping the list sorted.
+		 */
+		public void add(BoundingBox box, double fraction){
+			if(size == hitBoxes.length){
+				hitBoxes = Arrays.copyOf(hitBoxes, size*2);
+				hitFractions = Arrays.copyOf(hitFractions, size*2);
+			}
+			int index = size++;
+			while(index > 0 && hitFractions[index - 1] > fraction){
+				hitBoxes[index] = hitBoxes[index - 1];
+				hitFractions[index] = hitFractions[index - 1];
+				--index;
+			}
+			hitBoxes[index] = box;
+			hitFractions[index] = fraction;
+		}
+
+		public void clear(){
+			Arrays.fill(hitBoxes, 0, size, null);
+			size = 0;
+		}
+
+		public int size(){
+			return size;
+		}
+
+		public BoundingBox getBox(int index){
+			return hitBoxes[index];
+		}
+
+		/**
+		 *  Returns how far along the line the box at the passed-in index was hit, from 0 at the start to 1 at the end.
+		 */
+		public double getFraction(int index){
+			return hitFractions[index];
+		}
+
+		/**
+		 *  Returns a new list with the boxes in this list, in order.
+		 */
+		public List<BoundingBox> toList(){
+			List<BoundingBox> list = new ArrayList<BoundingBox>(size);
+			for(int i=0; i<size; ++i){
+				list.add(hitBoxes[i]);
+			}
+			return list;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**Map of long keys to objects.  Spatial caches and indexes pack positions into long keys and look
+ * them up many times a tick, which with a HashMap boxes every key into a new Long, and makes a node for
+ * every entry.  Instead, keys and values are stored in two arrays with open addressing and linear probing,
+ * so lookups don't make any objects, and the arrays are only re-made when the map grows.  Null values are
+ * not allowed, as they mark empty slots.  Removal shifts the entries after the removed one back rather than
+ * leaving a marker, so maps that have entries added and removed often, like caches, don't slow down over time.
+ *
+ * @author don_bruce
+ */
+public class LongKeyedMap<ValueType>{
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+
+	public LongKeyedMap(){
+		keys = new long[MIN_CAPACITY];
+		values = new Object[MIN_CAPACITY];
+		mask = MIN_CAPACITY - 1;
+	}
+
+	/**
+	 *  Returns the value for the passed-in key, or null if there isn't one.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValueType get(long key){
+		return (ValueType) values[getSlot(key)];
+	}
+
+	/**
+	 *  Sets the value for the passed-in key, replacing any existing value.  Returns the
+	 *  replaced value, or null if there wasn't one.  The value may not be null.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValueType put(long key, ValueType value){
+		if(value == null){
+			throw new NullPointerException("Null values are not allowed.");
+		}
+		int slot = getSlot(key);
+		ValueType oldValue = (ValueType) values[slot];
+		keys[slot] = key;
+		values[slot] = value;
+		if(oldValue == null && ++size > values.length/2){
+			resize(values.length*2);
+		}
+		return oldValue;
+	}
+
+	/**
+	 *  Removes the value for the passed-in key.  Returns the value, or null if there wasn't one.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValueType remove(long key){
+		int slot = getSlot(key);
+		ValueType oldValue = (ValueType) values[slot];
+		if(oldValue != null){
+			//Shift entries after this one back into the gap if their probe started at or before it.
+			//This keeps every entry reachable from the slot of its hash without any removed markers.
+			int gap = slot;
+			for(int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask){
+				int nextStart = hash(keys[next]) & mask;
+				if(((next - nextStart) & mask) >= ((next - gap) & mask)){
+					keys[gap] = keys[next];
+					values[gap] = values[next];
+					gap = next;
+				}
+			}
+			values[gap] = null;
+			--size;
+		}
+		return oldValue;
+	}
+
+	/**
+	 *  Removes all entries.  The arrays are kept, so re-filling the map to the same size doesn't re-make them.
+	 */
+	public void clear(){
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 *  Calls the passed-in consumer for each value in the map, in no particular order.
+	 *  The map may not be changed while this is running.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachValue(Consumer<ValueType> consumer){
+		for(Object value : values){
+			if(value != null){
+				consumer.accept((ValueType) value);
+			}
+		}
+	}
+
+	/**
+	 *  Returns the slot the passed-in key is in, or the empty slot it would go in if it isn't in the map.
+	 */
+	private int getSlot(long key){
+		int slot = hash(key) & mask;
+		while(values[slot] != null && keys[slot] != key){
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void resize(int capacity){
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		for(int i=0; i<oldValues.length; ++i){
+			if(oldValues[i] != null){
+				int slot = getSlot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 *  Mixes the bits of the passed-in key.  Packed positions only change in a few bits between
+	 *  neighbors, so without this, neighbors would fill runs of slots next to each other.
+	 */
+	private static int hash(long key){
+		key = (key ^ (key >>> 33))*0xFF51AFD7ED558CCDL;
+		key = (key ^ (key >>> 33))*0xC4CEB9FE1A85EC53L;
+		return (int) (key ^ (key >>> 33));
+	}
+}
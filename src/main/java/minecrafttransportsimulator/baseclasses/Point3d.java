@@ -323,6 +323,21 @@ public class Point3d{
 		return this;
 	}
 	
+	/**
+     * Rotates this point by the passed-in rotation matrix.  This is the same rotation as
+     * {@link #rotateFine(Point3d)} with the angles of the matrix, but without any sin and cos calls.
+     * Use this when rotating multiple points by the same angles.
+     */
+	public Point3d rotate(RotationMatrix matrix){
+		if(!matrix.isIdentity){
+			set(	x*matrix.m00 	+ y*matrix.m01 	+ z*matrix.m02,
+					x*matrix.m10 	+ y*matrix.m11 	+ z*matrix.m12,
+					x*matrix.m20 	+ y*matrix.m21 	+ z*matrix.m22
+			);
+		}
+		return this;
+	}
+	
 	/**
      * Rotates this point about the passed-in angle on the Y-axis.  Useful for single-plane rotations,
      * as the Y=axis is also the first rotation to be performed on a point in all systems.
@@ -0,0 +1,52 @@
+package minecrafttransportsimulator.baseclasses;
+
+/**Rotation matrix for a set of angles.  Rotating a point by angles via {@link Point3d#rotateFine(Point3d)}
+ * requires six trig calls for every point, which adds up when lots of points are rotated by the same
+ * angles each tick, such as the boxes and parts on a vehicle.  Instead, this matrix is calculated once
+ * for the angles, and points are rotated with {@link Point3d#rotate(RotationMatrix)}.  The matrix keeps
+ * track of the angles it was calculated for, and is only re-calculated when they change.
+ *
+ * @author don_bruce
+ */
+public class RotationMatrix{
+	private final Point3d angles = new Point3d();
+	private boolean calculated;
+	boolean isIdentity = true;
+	double m00 = 1;
+	double m01;
+	double m02;
+	double m10;
+	double m11 = 1;
+	double m12;
+	double m20;
+	double m21;
+	double m22 = 1;
+
+	/**
+	 * Sets this matrix to the rotation for the passed-in angles, if it isn't already.
+	 * Returns the called object for nested operations.
+	 */
+	public RotationMatrix setToAngles(Point3d newAngles){
+		if(!calculated || angles.x != newAngles.x || angles.y != newAngles.y || angles.z != newAngles.z){
+			angles.setTo(newAngles);
+			calculated = true;
+			isIdentity = angles.isZero();
+			double cosX = Math.cos(Math.toRadians(angles.x));//A
+			double sinX = Math.sin(Math.toRadians(angles.x));//B
+			double cosY = Math.cos(Math.toRadians(angles.y));//C
+			double sinY = Math.sin(Math.toRadians(angles.y));//D
+			double cosZ = Math.cos(Math.toRadians(angles.z));//E
+			double sinZ = Math.sin(Math.toRadians(angles.z));//F
+			m00 = cosY*cosZ-sinX*-sinY*sinZ;
+			m01 = -sinX*-sinY*cosZ-cosY*sinZ;
+			m02 = -cosX*-sinY;
+			m10 = cosX*sinZ;
+			m11 = cosX*cosZ;
+			m12 = -sinX;
+			m20 = -sinY*cosZ+sinX*cosY*sinZ;
+			m21 = sinX*cosY*cosZ+sinY*sinZ;
+			m22 = cosX*cosY;
+		}
+		return this;
+	}
+}
@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
-import minecrafttransportsimulator.entities.components.AEntityC_Definable;
-import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
+import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
+import minecrafttransportsimulator.entities.components.EntitySpatialIndex;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.entities.instances.PartGroundDevice;
@@ -305,9 +305,8 @@ public class VehicleGroundDeviceBox{
 				didCollision = true;
 			}
 		}*/
-		for(AEntityC_Definable<?> entity : AEntityC_Definable.getRenderableEntities(vehicle.world)){
-			if(entity instanceof AEntityD_Interactable && !entity.equals(vehicle)){
-				AEntityD_Interactable<?> interactable = (AEntityD_Interactable<?>) entity;
+		for(AEntityE_Multipart<?> interactable : EntitySpatialIndex.getIndex(vehicle.world).getEntities(solidBox)){
+			if(!interactable.equals(vehicle)){
 				if(vehicle.canCollideWith(interactable) && !interactable.collidedEntities.contains(vehicle) && interactable.boundingBox.intersects(solidBox)){
 					//We know we could have hit this entity.  Check if we actually did.
 					BoundingBox collidingBox = null;
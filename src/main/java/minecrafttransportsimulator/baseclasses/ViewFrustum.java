@@ -0,0 +1,67 @@
+package minecrafttransportsimulator.baseclasses;
+
+/**View frustum of a camera, made of the six planes that bound what the camera can see.  This is used
+ * to cull things that are out of view before rendering them.  The frustum is set from the projection
+ * and model-view matrices of the camera, so it is in the same coordinate system as the model-view matrix.
+ * Matrices are in column-major order, as used by OpenGL.  Until the matrices are set, everything is in view.
+ *
+ * @author don_bruce
+ */
+public class ViewFrustum{
+	/**Planes of the frustum, in the order left, right, bottom, top, near, far.  Each plane is its normal, then its distance.**/
+	private final double[][] planes = new double[6][4];
+	private final double[] clipMatrix = new double[16];
+	private boolean isSet;
+
+	/**
+	 * Sets this frustum to the one of a camera with the passed-in projection and model-view matrices.
+	 * Plane normals point into the frustum and are normalized, so plane distances are in blocks.
+	 */
+	public void setToMatrices(float[] projection, float[] modelView){
+		//Combine the matrices to get the matrix that transforms points to clip space.
+		for(int column=0; column<4; ++column){
+			for(int row=0; row<4; ++row){
+				double value = 0;
+				for(int i=0; i<4; ++i){
+					value += projection[i*4 + row]*modelView[column*4 + i];
+				}
+				clipMatrix[column*4 + row] = value;
+			}
+		}
+
+		//Points are in view if -w <= x, y, z <= w in clip space.  Each of these six checks is a plane.
+		for(int i=0; i<6; ++i){
+			int row = i/2;
+			double sign = i%2 == 0 ? 1 : -1;
+			double[] plane = planes[i];
+			for(int column=0; column<4; ++column){
+				plane[column] = clipMatrix[column*4 + 3] + sign*clipMatrix[column*4 + row];
+			}
+			double length = Math.sqrt(plane[0]*plane[0] + plane[1]*plane[1] + plane[2]*plane[2]);
+			if(length != 0){
+				for(int column=0; column<4; ++column){
+					plane[column] /= length;
+				}
+			}
+		}
+		isSet = true;
+	}
+
+	/**
+	 * Returns true if any part of the box with the passed-in center and radius is in this frustum.
+	 * This may return true for some boxes just outside the corners of the frustum, but will never
+	 * return false for boxes that are in it.
+	 */
+	public boolean isBoxInView(double centerX, double centerY, double centerZ, double widthRadius, double heightRadius, double depthRadius){
+		if(isSet){
+			for(double[] plane : planes){
+				//Get how far the box extends towards the plane, and check if the center is further than that behind it.
+				double extent = Math.abs(plane[0])*widthRadius + Math.abs(plane[1])*heightRadius + Math.abs(plane[2])*depthRadius;
+				if(plane[0]*centerX + plane[1]*centerY + plane[2]*centerZ + plane[3] < -extent){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
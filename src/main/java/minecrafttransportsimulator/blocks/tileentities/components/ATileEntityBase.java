@@ -7,6 +7,7 @@ import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.item.ItemStack;
 
@@ -40,14 +41,24 @@ public abstract class ATileEntityBase<JSONDefinition extends AJSONMultiModelProv
     }
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		//Check generic block variables.
 		switch(variable){
-			case("redstone_active"): return world.getRedstonePower(position) > 0 ? 1 : 0;	
-			case("redstone_level"): return world.getRedstonePower(position);
+			case("redstone_active"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getRedstonePower(position) > 0 ? 1 : 0;
+				}
+			};
+			case("redstone_level"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getRedstonePower(position);
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	/**
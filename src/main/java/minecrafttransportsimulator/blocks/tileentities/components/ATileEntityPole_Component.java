@@ -6,6 +6,7 @@ import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityPole;
 import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.jsondefs.JSONPoleComponent;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.rendering.instances.RenderPoleComponent;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -32,30 +33,64 @@ public abstract class ATileEntityPole_Component extends AEntityC_Definable<JSONP
     }
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
-		double value = super.getRawVariableValue(variable, partialTicks);
-		if(!Double.isNaN(value)){
-			return value;
+	public AVariableBinding compileVariable(String variable){
+		//Super variables are checked first, so only use our variables if super doesn't have a value for them.
+		final AVariableBinding superBinding = super.compileVariable(variable);
+		final AVariableBinding componentBinding = compileComponentVariable(variable);
+		if(componentBinding == null){
+			return superBinding;
 		}
-		
+		return new AVariableBinding(variable){
+			@Override
+			public double getValue(float partialTicks){
+				double value = superBinding.getValue(partialTicks);
+				return !Double.isNaN(value) ? value : componentBinding.getValue(partialTicks);
+			}
+		};
+	}
+	
+	/**
+	 *  Compiles the passed-in variable if it is a component variable.  Returns null if it is not.
+	 */
+	private AVariableBinding compileComponentVariable(String variable){
 		//Check connector variables.
 		if(variable.startsWith("neighbor_present_")){
-			Axis connectionAxis = Axis.valueOf(variable.substring("neighbor_present_".length()).toUpperCase());
-			ABlockBase componentBlock = world.getBlock(core.position);
-			return componentBlock != null && componentBlock.equals(world.getBlock(connectionAxis.getOffsetPoint(position))) ? 1 : 0;
+			final Axis connectionAxis = Axis.valueOf(variable.substring("neighbor_present_".length()).toUpperCase());
+			return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					ABlockBase componentBlock = world.getBlock(core.position);
+					return componentBlock != null && componentBlock.equals(world.getBlock(connectionAxis.getOffsetPoint(position))) ? 1 : 0;
+				}
+			};
 		}
 		//Check solid block variables.
 		if(variable.startsWith("solid_present_")){
-			Axis connectionAxis = Axis.valueOf(variable.substring("solid_present_".length()).toUpperCase());
-			return world.isBlockSolid(connectionAxis.getOffsetPoint(position), connectionAxis.getOpposite()) ? 1 : 0;
+			final Axis connectionAxis = Axis.valueOf(variable.substring("solid_present_".length()).toUpperCase());
+			return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.isBlockSolid(connectionAxis.getOffsetPoint(position), connectionAxis.getOpposite()) ? 1 : 0;
+				}
+			};
 		}
 		//Check slab variables.
 		switch(variable){
-			case("slab_present_up") : return world.isBlockTopSlab(Axis.UP.getOffsetPoint(position)) ? 1 : 0;
-			case("slab_present_down") : return world.isBlockBottomSlab(Axis.DOWN.getOffsetPoint(position)) ? 1 : 0;
+			case("slab_present_up") : return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.isBlockTopSlab(Axis.UP.getOffsetPoint(position)) ? 1 : 0;
+				}
+			};
+			case("slab_present_down") : return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.isBlockBottomSlab(Axis.DOWN.getOffsetPoint(position)) ? 1 : 0;
+				}
+			};
 		}
 		
-		return Double.NaN;
+		return null;
 	}
 
 	@Override
@@ -1,7 +1,6 @@
 package minecrafttransportsimulator.blocks.tileentities.components;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.BezierCurve;
@@ -53,11 +52,11 @@ public class RoadLane{
 				
 				for(int j=0; j<numberPriorConnections; ++j){
 					WrapperNBT connectionData = data.getData("priorConnection" + i + "_" + j);
-					priorConnections.get(i).add(new RoadLaneConnection(connectionData));
+					addConnection(i, new RoadLaneConnection(connectionData), true);
 				}
 				for(int j=0; j<numberNextConnections; ++j){
 					WrapperNBT connectionData = data.getData("nextConnection" + i + "_" + j);
-					nextConnections.get(i).add(new RoadLaneConnection(connectionData));
+					addConnection(i, new RoadLaneConnection(connectionData), false);
 				}
 			}
 		}
@@ -150,29 +149,29 @@ public class RoadLane{
 								//This is because we call this method only once for all curves.
 								if(ownCurvePoint.distanceTo(otherCurveStart) < CURVE_CONNECTION_MAX_DISTANCE){
 									//Start to start connection.
-									priorConnections.get(curveNumber).add(new RoadLaneConnection(otherRoadLane, otherRoadCurve, true));
+									addConnection(curveNumber, new RoadLaneConnection(otherRoadLane, otherRoadCurve, true), true);
 									RoadLaneConnection ourConnection = new RoadLaneConnection(this, curve, true);
-									otherRoadLane.priorConnections.get(otherCurveNumber).add(ourConnection);
+									otherRoadLane.addConnection(otherCurveNumber, ourConnection, true);
 									InterfacePacket.sendToAllClients(new PacketTileEntityRoadConnectionUpdate(otherRoadLane, otherCurveNumber, true, ourConnection));
 								}else if(ownCurvePoint.distanceTo(otherCurveEnd) < CURVE_CONNECTION_MAX_DISTANCE){
 									//Start to end connection.
-									priorConnections.get(curveNumber).add(new RoadLaneConnection(otherRoadLane, otherRoadCurve, false));
+									addConnection(curveNumber, new RoadLaneConnection(otherRoadLane, otherRoadCurve, false), true);
 									RoadLaneConnection ourConnection = new RoadLaneConnection(this, curve, true);
-									otherRoadLane.nextConnections.get(otherCurveNumber).add(ourConnection);
+									otherRoadLane.addConnection(otherCurveNumber, ourConnection, false);
 									InterfacePacket.sendToAllClients(new PacketTileEntityRoadConnectionUpdate(otherRoadLane, otherCurveNumber, false, ourConnection));
 								}
 							}else{
 								if(ownCurvePoint.distanceTo(otherCurveStart) < CURVE_CONNECTION_MAX_DISTANCE){
 									//End to start connection.
-									nextConnections.get(curveNumber).add(new RoadLaneConnection(otherRoadLane, otherRoadCurve, true));
+									addConnection(curveNumber, new RoadLaneConnection(otherRoadLane, otherRoadCurve, true), false);
 									RoadLaneConnection ourConnection = new RoadLaneConnection(this, curve, false);
-									otherRoadLane.priorConnections.get(otherCurveNumber).add(ourConnection);
+									otherRoadLane.addConnection(otherCurveNumber, ourConnection, true);
 									InterfacePacket.sendToAllClients(new PacketTileEntityRoadConnectionUpdate(otherRoadLane, otherCurveNumber, true, ourConnection));
 								}else if(ownCurvePoint.distanceTo(otherCurveEnd) < CURVE_CONNECTION_MAX_DISTANCE){
 									//End to end connection.
-									nextConnections.get(curveNumber).add(new RoadLaneConnection(otherRoadLane, otherRoadCurve, false));
+									addConnection(curveNumber, new RoadLaneConnection(otherRoadLane, otherRoadCurve, false), false);
 									RoadLaneConnection ourConnection = new RoadLaneConnection(this, curve, false);
-									otherRoadLane.nextConnections.get(otherCurveNumber).add(ourConnection);
+									otherRoadLane.addConnection(otherCurveNumber, ourConnection, false);
 									InterfacePacket.sendToAllClients(new PacketTileEntityRoadConnectionUpdate(otherRoadLane, otherCurveNumber, false, ourConnection));
 								}
 							}
@@ -241,21 +240,28 @@ public class RoadLane{
 		}
 	}
 	
+	/**
+	 * Adds the passed-in connection to the prior or next connections for the passed-in curve.
+	 * Connections are kept sorted by curve net angle, with connections of the same angle kept
+	 * in the order they were added, so they don't need to be sorted every time one is requested.
+	 * Always use this rather than adding to the connection lists directly.
+	 */
+	public void addConnection(int curveNumber, RoadLaneConnection connection, boolean priorConnection){
+		List<RoadLaneConnection> connections = priorConnection ? priorConnections.get(curveNumber) : nextConnections.get(curveNumber);
+		int index = connections.size();
+		while(index > 0 && connections.get(index - 1).curveNetAngle > connection.curveNetAngle){
+			--index;
+		}
+		connections.add(index, connection);
+	}
+	
 	/**
 	 * Returns the next curve for the passed-in curve and request, or null if it doesn't exist.
 	 */
 	public RoadLaneConnection getConnection(BezierCurve curve, LaneSelectionRequest requestedNextCurve, boolean nextCurve){
 		List<RoadLaneConnection> connections = nextCurve ? nextConnections.get(curves.indexOf(curve)) : priorConnections.get(curves.indexOf(curve));
 		if(!connections.isEmpty()){
-			//Sort the connections by curve net angle.
-			connections.sort(new Comparator<RoadLaneConnection>(){
-				@Override
-				public int compare(RoadLaneConnection arg0, RoadLaneConnection arg1){
-					return arg0.curveNetAngle < arg1.curveNetAngle ? -1 : (arg0.curveNetAngle > arg1.curveNetAngle ? 1 : 0);
-				}
-			});	
-			
-			//Get the connection requested.
+			//Get the connection requested.  Connections are sorted by curve net angle when added.
 			switch(requestedNextCurve){
 				case LEFT: return connections.get(connections.size() - 1);	
 				case RIGHT: return connections.get(0);
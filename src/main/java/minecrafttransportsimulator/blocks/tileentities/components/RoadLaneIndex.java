@@ -0,0 +1,108 @@
+package minecrafttransportsimulator.blocks.tileentities.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.LongKeyedMap;
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
+
+/**Spatial index of the path-points of all lanes on a road.  Finding the lane a vehicle is
+ * on requires checking every path-point of every curve of every lane on the road, which gets
+ * expensive for large junctions.  Instead, path-points are sorted into a grid of block-sized cells
+ * when the index is created, and only the cells next to the queried point are checked.
+ * Points are stored relative to the road, like the curves they are from.
+ *
+ * @author don_bruce
+ */
+public class RoadLaneIndex{
+	private final LongKeyedMap<List<LanePoint>> cells = new LongKeyedMap<List<LanePoint>>();
+
+	public RoadLaneIndex(TileEntityRoad road){
+		Point3d testPoint = new Point3d();
+		Point3d testRotation = new Point3d();
+		int pointIndex = 0;
+		for(RoadLane lane : road.lanes){
+			for(BezierCurve curve : lane.curves){
+				for(float f=0; f<curve.pathLength; ++f){
+					curve.setPointToPositionAt(testPoint, f);
+					curve.setPointToRotationAt(testRotation, f);
+					long cellKey = getCellKey((int) Math.floor(testPoint.x), (int) Math.floor(testPoint.y), (int) Math.floor(testPoint.z));
+					List<LanePoint> cell = cells.get(cellKey);
+					if(cell == null){
+						cell = new ArrayList<LanePoint>();
+						cells.put(cellKey, cell);
+					}
+					cell.add(new LanePoint(pointIndex++, lane, curve, f, testPoint.copy(), testRotation.y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the following state for the lane at the passed-in road-relative point, or null
+	 * if there isn't one.  Lanes must have a path-point within 1 block of the point, and must be going
+	 * in the same or opposite direction as the passed-in yaw.  If multiple lanes match, the first lane,
+	 * curve, and path-point on the road is returned, as this is the one a full search would find.
+	 */
+	public RoadFollowingState getFollowingState(Point3d point, double yaw){
+		int cellX = (int) Math.floor(point.x);
+		int cellY = (int) Math.floor(point.y);
+		int cellZ = (int) Math.floor(point.z);
+		Point3d testRotation = new Point3d();
+		LanePoint bestPoint = null;
+		boolean bestSameDirection = false;
+		for(int i=-1; i<=1; ++i){
+			for(int j=-1; j<=1; ++j){
+				for(int k=-1; k<=1; ++k){
+					List<LanePoint> cell = cells.get(getCellKey(cellX + i, cellY + j, cellZ + k));
+					if(cell != null){
+						//Points in cells are in order, so the first match is the best for the cell.
+						for(LanePoint lanePoint : cell){
+							if(bestPoint != null && lanePoint.index > bestPoint.index){
+								break;
+							}
+							if(lanePoint.position.distanceTo(point) < 1){
+								testRotation.y = lanePoint.yaw;
+								boolean sameDirection = Math.abs(testRotation.getClampedYDelta(yaw)) < 10;
+								boolean oppositeDirection = Math.abs(testRotation.getClampedYDelta(yaw)) > 170;
+								if(sameDirection || oppositeDirection){
+									bestPoint = lanePoint;
+									bestSameDirection = sameDirection;
+									break;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return bestPoint != null ? new RoadFollowingState(bestPoint.lane, bestPoint.curve, bestSameDirection, bestPoint.segment) : null;
+	}
+
+	private static long getCellKey(int x, int y, int z){
+		return (((long) x) & 0x3FFFFFL) << 42 | (((long) z) & 0x3FFFFFL) << 20 | (((long) y) & 0xFFFFFL);
+	}
+
+	/**
+	 * A path-point on a lane curve.  Index is the order the point was added to the index in.
+	 */
+	private static class LanePoint{
+		private final int index;
+		private final RoadLane lane;
+		private final BezierCurve curve;
+		private final float segment;
+		private final Point3d position;
+		private final double yaw;
+
+		private LanePoint(int index, RoadLane lane, BezierCurve curve, float segment, Point3d position, double yaw){
+			this.index = index;
+			this.lane = lane;
+			this.curve = curve;
+			this.segment = segment;
+			this.position = position;
+			this.yaw = yaw;
+		}
+	}
+}
@@ -6,6 +6,7 @@ import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.instances.EntityInventoryContainer;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import net.minecraft.item.ItemStack;
 
 /**Chest tile entity.
@@ -22,32 +23,41 @@ public class TileEntityChest extends TileEntityDecor{
 	}
 
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("inventory_count"): {
-				if(inventory != null){
-					return inventory.getCount();
-				}else{
-					return 0;
+			case("inventory_count"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getCount();
+					}else{
+						return 0;
+					}
 				}
-			}
-			case("inventory_percent"): {
-				if(inventory != null){
-					return inventory.getCount()/(double)inventory.getSize();
-				}else{
-					return 0;
+			};
+			case("inventory_percent"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getCount()/(double)inventory.getSize();
+					}else{
+						return 0;
+					}
 				}
-			}
-			case("inventory_capacity"): {
-				if(inventory != null){
-					return inventory.getSize();
-				}else{
-					return 0;
+			};
+			case("inventory_capacity"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getSize();
+					}else{
+						return 0;
+					}
 				}
-			}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	@Override
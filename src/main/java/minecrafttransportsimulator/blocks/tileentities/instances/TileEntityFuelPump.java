@@ -19,6 +19,7 @@ import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packets.instances.PacketTileEntityFuelPumpConnection;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 
 public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityTickable, ITileEntityFluidTankProvider{
 	public EntityVehicleF_Physics connectedVehicle;
@@ -154,16 +155,41 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityTi
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("fuelpump_active"): return connectedVehicle != null ? 1 : 0;	
-			case("fuelpump_stored"): return getTank().getFluidLevel();
-			case("fuelpump_dispensed"): return getTank().getAmountDispensed();
-			case("fuelpump_free"): return isCreative ? 1 : 0;
-			case("fuelpump_purchased"): return fuelPurchasedRemaining;
+			case("fuelpump_active"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return connectedVehicle != null ? 1 : 0;
+				}
+			};
+			case("fuelpump_stored"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getTank().getFluidLevel();
+				}
+			};
+			case("fuelpump_dispensed"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getTank().getAmountDispensed();
+				}
+			};
+			case("fuelpump_free"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return isCreative ? 1 : 0;
+				}
+			};
+			case("fuelpump_purchased"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return fuelPurchasedRemaining;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	@Override
@@ -4,6 +4,7 @@ import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntitySignalController.SignalGroup;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 
 /**Traffic signal component for poles.  This doesn't tick, as the state of the light
  * is by default having the unlinked light on until changed by a {@link TileEntitySignalController}.
@@ -44,11 +45,16 @@ public class TileEntityPole_TrafficSignal extends ATileEntityPole_Component{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("linked"): return linkedController != null ? 1 : 0;
+			case("linked"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return linkedController != null ? 1 : 0;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 }
@@ -3,6 +3,7 @@ package minecrafttransportsimulator.blocks.tileentities.instances;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 
 /**Radio tile entity.
  *
@@ -22,14 +23,29 @@ public class TileEntityRadio extends TileEntityDecor{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		//Radio-specific variables.
 		switch(variable){
-			case("radio_active"): return radio.isPlaying() ? 1 : 0;	
-			case("radio_volume"): return radio.volume;
-			case("radio_preset"): return radio.preset;
+			case("radio_active"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return radio.isPlaying() ? 1 : 0;
+				}
+			};
+			case("radio_volume"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return radio.volume;
+				}
+			};
+			case("radio_preset"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return radio.preset;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 }
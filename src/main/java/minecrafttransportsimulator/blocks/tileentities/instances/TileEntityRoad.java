@@ -14,6 +14,7 @@ import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadClickData;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
+import minecrafttransportsimulator.blocks.tileentities.components.RoadLaneIndex;
 import minecrafttransportsimulator.items.instances.ItemRoadComponent;
 import minecrafttransportsimulator.jsondefs.JSONRoadComponent;
 import minecrafttransportsimulator.jsondefs.JSONRoadComponent.JSONLaneSector;
@@ -51,6 +52,7 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 
 	//Dynamic variables based on states.
 	private boolean isActive;
+	private RoadLaneIndex laneIndex;
 	public final Map<RoadComponent, ItemRoadComponent> components = new HashMap<RoadComponent, ItemRoadComponent>();
 	public final List<Point3d> collisionBlockOffsets;
 	public final List<Point3d> collidingBlockOffsets;
@@ -148,9 +150,10 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 	/**
 	 *  Helper method to populate the lanes for this road.  This depends on if we are
 	 *  a static or dynamic road.  Data is passed-in, but may be null if we're generating
-	 *  lanes for the first time.
+	 *  lanes for the first time.  This invalidates the lane index, as it is for the old lanes.
 	 */
 	public void generateLanes(WrapperNBT data){
+		laneIndex = null;
 		if(definition.road.isDynamic){
 			for(int i=0; i<definition.road.laneOffsets.length; ++i){
 				lanes.add(new RoadLane(this, 0, lanes.size(), data != null ? data.getData("lane" + lanes.size()) : null));
@@ -164,6 +167,17 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 		}
 	}
 	
+	/**
+	 *  Returns the spatial index for the lanes of this road.  The index is created the first
+	 *  time it is requested, and re-created if lanes have been generated since then.
+	 */
+	public RoadLaneIndex getLaneIndex(){
+		if(laneIndex == null){
+			laneIndex = new RoadLaneIndex(this);
+		}
+		return laneIndex;
+	}
+	
 	/**
 	 *  Helper method to spawn collision boxes for this road.  Returns true and makes
 	 *  this road non-holographic if the boxes could be spawned.  False if there are
@@ -6,11 +6,13 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
 import minecrafttransportsimulator.blocks.tileentities.components.ITileEntityTickable;
-import minecrafttransportsimulator.entities.components.AEntityC_Definable;
+import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
+import minecrafttransportsimulator.entities.components.EntitySpatialIndex;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
@@ -344,7 +346,10 @@ public class TileEntitySignalController extends TileEntityDecor implements ITile
 									//Just wait until the other signals don't have any cooldown, then set them red.
 									stateChangeRequested = true;
 								}else{
-									for(AEntityC_Definable<?> entity : AEntityC_Definable.getRenderableEntities(world)){
+									//Only check vehicles in the area around our signal line.  Height isn't checked, so make the area full-height.
+									Point3d signalLineAreaCenter = new Point3d(signalLineCenter.x, 0, signalLineCenter.z + 8).rotateY(axis.yRotation).add(intersectionCenterPoint);
+									double signalLineAreaRadius = Math.hypot(signalLineWidth/2D, 8);
+									for(AEntityE_Multipart<?> entity : EntitySpatialIndex.getIndex(world).getEntities(new BoundingBox(signalLineAreaCenter, signalLineAreaRadius, 512, signalLineAreaRadius))){
 										if(entity instanceof EntityVehicleF_Physics){
 											Point3d adjustedPos = entity.position.copy().subtract(intersectionCenterPoint).rotateY(-axis.yRotation);
 											if(adjustedPos.x > signalLineCenter.x - signalLineWidth/2D && adjustedPos.x < signalLineCenter.x + signalLineWidth/2D && adjustedPos.z > signalLineCenter.z && adjustedPos.z < signalLineCenter.z + 16){
@@ -28,6 +28,8 @@ import minecrafttransportsimulator.mcinterface.WrapperWorld;
 public abstract class AEntityA_Base{
 	/**Mapping of created entities.  Keyed to world instances and then their {@link #lookupID}**/
 	private static final Map<WrapperWorld, HashMap<Integer, AEntityA_Base>> entityMaps = new HashMap<WrapperWorld, HashMap<Integer, AEntityA_Base>>();
+	/**Mapping of created entities.  Keyed to world instances and then their {@link #uniqueUUID}**/
+	private static final Map<WrapperWorld, HashMap<String, AEntityA_Base>> entityUUIDMaps = new HashMap<WrapperWorld, HashMap<String, AEntityA_Base>>();
 	/**Internal ID counter.**/
 	private static int lookupIDCounter = 0;
 	
@@ -57,6 +59,14 @@ public abstract class AEntityA_Base{
 			//Get our lookupID, or make a new one.
 			this.lookupID = world.isClient() ? data.getInteger("lookupID") : lookupIDCounter++;
 			worldEntities.put(lookupID, this);
+			
+			//Also add us to the UUID map for UUID-based lookups.
+			HashMap<String, AEntityA_Base> worldUUIDEntities = entityUUIDMaps.get(world);
+			if(worldUUIDEntities == null){
+				worldUUIDEntities = new HashMap<String, AEntityA_Base>();
+				entityUUIDMaps.put(world, worldUUIDEntities);
+			}
+			worldUUIDEntities.put(uniqueUUID, this);
 		}else{
 			this.uniqueUUID = UUID.randomUUID().toString();
 			this.lookupID = -1;
@@ -79,21 +89,17 @@ public abstract class AEntityA_Base{
 	
 	/**
 	 * Call to get the entity with the passed-in UUID from the passed-in world.
-	 * This should be used sparingly, as in general the {@link #getEntity(WrapperWorld, int)}
-	 * is faster due to using the {@link #lookupID} rather than a string-based ID, and is lighter
-	 * on networking systems, which are the bulk of what does lookups.
+	 * In general the {@link #getEntity(WrapperWorld, int)} should be preferred, as the
+	 * {@link #lookupID} is lighter on networking systems, which are the bulk of what does lookups.
 	 */
 	@SuppressWarnings("unchecked")
 	public static <EntityType extends AEntityA_Base> EntityType getEntity(WrapperWorld world, String uniqueUUID){
-		HashMap<Integer, AEntityA_Base> entities = entityMaps.get(world);
+		HashMap<String, AEntityA_Base> entities = entityUUIDMaps.get(world);
 		if(entities != null){
-			for(AEntityA_Base entity : entities.values()){
-				if(entity.uniqueUUID.equals(uniqueUUID)){
-					return (EntityType) entity;
-				}
-			}
+			return (EntityType) entities.get(uniqueUUID);
+		}else{
+			return null;
 		}
-		return null;
 	}
 	
 	/**
@@ -124,6 +130,7 @@ public abstract class AEntityA_Base{
 				entity.remove();
 			}
 			entityMaps.remove(world);
+			entityUUIDMaps.remove(world);
 		}
 	}
 	
@@ -160,6 +167,7 @@ public abstract class AEntityA_Base{
 		isValid = false;
 		if(shouldSync()){
 			entityMaps.get(world).remove(lookupID);
+			entityUUIDMaps.get(world).remove(uniqueUUID, this);
 		}
 	}
 
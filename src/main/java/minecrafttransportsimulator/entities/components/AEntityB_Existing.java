@@ -5,6 +5,7 @@ import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.sound.Radio;
@@ -31,6 +32,7 @@ public abstract class AEntityB_Existing extends AEntityA_Base{
 	public BoundingBox boundingBox;
 	public double airDensity;
 	public double velocity;
+	private final RotationMatrix orientation = new RotationMatrix();
 	
 	//Internal sound variables.
 	public final Radio radio;
@@ -97,6 +99,15 @@ public abstract class AEntityB_Existing extends AEntityA_Base{
 		}
 	}
 	
+	/**
+	 *  Returns the rotation matrix for this entity's current angles.  Use this rather than
+	 *  rotating by the angles directly when rotating points that move with this entity, as
+	 *  the matrix is only re-calculated when the angles change.
+	 */
+	public RotationMatrix getOrientation(){
+		return orientation.setToAngles(angles);
+	}
+	
 	/**
 	 *  This method returns true if this entity needs to be chunkloaded.  This will prevent it from
 	 *  being unloaded server-side.  Client-side entities will still unload as clients unload their
@@ -1,7 +1,6 @@
 package minecrafttransportsimulator.entities.components;
 
 import java.awt.Color;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -13,7 +12,6 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.instances.APart;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
@@ -21,20 +19,22 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONCameraObject;
-import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONParticle;
 import minecrafttransportsimulator.jsondefs.JSONSound;
 import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.InterfaceClient;
-import minecrafttransportsimulator.mcinterface.InterfaceRender;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.rendering.components.ARenderEntity;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
+import minecrafttransportsimulator.rendering.components.ParsedModelCache;
+import minecrafttransportsimulator.sound.DecodedSoundCache;
 import minecrafttransportsimulator.sound.InterfaceSound;
 import minecrafttransportsimulator.sound.SoundInstance;
 import minecrafttransportsimulator.systems.CameraSystem;
+import minecrafttransportsimulator.systems.ParticleSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
 
 /**Base class for entities that are defined via JSON definitions and can be modeled in 3D.
@@ -63,28 +63,29 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 	/**Set of variables that are "on" for this entity.  Used for animations.**/
 	public final Set<String> variablesOn = new HashSet<String>();
 	
-	private final List<JSONSound> allSoundDefs = new ArrayList<JSONSound>();
-	private final Map<JSONSound, List<DurationDelayClock>> soundActiveClocks = new HashMap<JSONSound, List<DurationDelayClock>>();
-	private final Map<JSONSound, List<DurationDelayClock>> soundVolumeClocks = new HashMap<JSONSound, List<DurationDelayClock>>();
-	private final Map<JSONSound, List<DurationDelayClock>> soundPitchClocks = new HashMap<JSONSound, List<DurationDelayClock>>();
-	private final Map<JSONLight, List<DurationDelayClock>> lightBrightnessClocks = new HashMap<JSONLight, List<DurationDelayClock>>();
-	private final Map<JSONParticle, List<DurationDelayClock>> particleActiveClocks = new HashMap<JSONParticle, List<DurationDelayClock>>();
-	private final Map<JSONParticle, Long> lastTickParticleSpawned = new HashMap<JSONParticle, Long>();
+	/**Layout of the lights, sounds, and particles for this entity.  The arrays below are indexed by the slots in this layout.**/
+	public AnimationLayout animationLayout = AnimationLayout.getEmptyLayout();
+	private DurationDelayClock[][] soundActiveClocks = new DurationDelayClock[0][];
+	private DurationDelayClock[][] soundVolumeClocks = new DurationDelayClock[0][];
+	private DurationDelayClock[][] soundPitchClocks = new DurationDelayClock[0][];
+	private DurationDelayClock[][] lightBrightnessClocks = new DurationDelayClock[0][];
+	private DurationDelayClock[][] particleActiveClocks = new DurationDelayClock[0][];
+	private long[] lastTickParticleSpawned = new long[0];
 	
 	/**Maps animations to their respective clocks.  Used for anything that has an animation block.**/
 	public final Map<JSONAnimationDefinition, DurationDelayClock> animationClocks = new HashMap<JSONAnimationDefinition, DurationDelayClock>();
 	
+	/**Maps variables to their compiled bindings.  Bindings are compiled the first time their variable is requested, and cleared when the animations are reset.**/
+	private final Map<String, AVariableBinding> variableBindings = new HashMap<String, AVariableBinding>();
+	
 	/**Maps animated (model) object names to their definitions.  This is created from the JSON definition to prevent the need to do loops.**/
 	public final Map<String, JSONAnimatedObject> animatedObjectDefinitions = new HashMap<String, JSONAnimatedObject>();
 	
-	/**Maps light definitions to their current brightness.  This is updated every frame prior to rendering.**/
-	public final Map<JSONLight, Float> lightBrightnessValues = new HashMap<JSONLight, Float>();
-	
-	/**Maps light definitions to their current color.  This is updated every frame prior to rendering.**/
-	public final Map<JSONLight, Color> lightColorValues = new HashMap<JSONLight, Color>();
+	/**Current brightness of lights, indexed by their {@link #animationLayout} slot.  This is updated every frame prior to rendering.**/
+	public float[] lightBrightnessValues = new float[0];
 	
-	/**Maps light (model) object names to their definitions.  This is created from the JSON definition to prevent the need to do loops.**/
-	public final Map<String, JSONLight> lightObjectDefinitions = new HashMap<String, JSONLight>();
+	/**Current color of lights, indexed by their {@link #animationLayout} slot and packed as 0xRRGGBB.  This is updated every frame prior to rendering.**/
+	public int[] lightColorValues = new int[0];
 	
 	/**Constructor for synced entities**/
 	public AEntityC_Definable(WrapperWorld world, WrapperNBT data){
@@ -187,75 +188,43 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 		}
 		worldEntities.add(this);
 		
-		allSoundDefs.clear();
-		soundActiveClocks.clear();
-		soundVolumeClocks.clear();
-		soundPitchClocks.clear();
-		if(definition.rendering != null && definition.rendering.sounds != null){
-			for(JSONSound soundDef : definition.rendering.sounds){
-				allSoundDefs.add(soundDef);
-				
-				List<DurationDelayClock> activeClocks = new ArrayList<DurationDelayClock>();
-				if(soundDef.activeAnimations !=  null){
-					for(JSONAnimationDefinition animation : soundDef.activeAnimations){
-						activeClocks.add(new DurationDelayClock(animation));
-					}
-				}
-				soundActiveClocks.put(soundDef, activeClocks);
-				
-				List<DurationDelayClock> volumeClocks = new ArrayList<DurationDelayClock>();
-				if(soundDef.volumeAnimations !=  null){
-					for(JSONAnimationDefinition animation : soundDef.volumeAnimations){
-						volumeClocks.add(new DurationDelayClock(animation));
-					}
-				}
-				soundVolumeClocks.put(soundDef, volumeClocks);
-				
-				List<DurationDelayClock> pitchClocks = new ArrayList<DurationDelayClock>();
-				if(soundDef.pitchAnimations != null){
-					for(JSONAnimationDefinition animation : soundDef.pitchAnimations){
-						pitchClocks.add(new DurationDelayClock(animation));
-					}
-				}
-				soundPitchClocks.put(soundDef, pitchClocks);
-			}
+		//Start parsing our model now so it's ready when we first render.
+		if(world.isClient()){
+			ParsedModelCache.requestModel(definition.getModelLocation(subName));
 		}
 		
-		lightBrightnessClocks.clear();
-		lightBrightnessValues.clear();
-		lightColorValues.clear();
-		lightObjectDefinitions.clear();
-		if(definition.rendering != null && definition.rendering.lightObjects != null){
-			for(JSONLight lightDef : definition.rendering.lightObjects){
-				lightObjectDefinitions.put(lightDef.objectName, lightDef);
-				List<DurationDelayClock> lightClocks = new ArrayList<DurationDelayClock>();
-				if(lightDef.brightnessAnimations !=  null){
-					for(JSONAnimationDefinition animation : lightDef.brightnessAnimations){
-						lightClocks.add(new DurationDelayClock(animation));
-					}
-				}
-				lightBrightnessClocks.put(lightDef, lightClocks);
-				lightBrightnessValues.put(lightDef, 0F);
-				if(lightDef.color != null){
-					lightColorValues.put(lightDef, Color.decode(lightDef.color));
-				}
+		//Get the layout for our definition and create the state arrays for it.
+		animationLayout = AnimationLayout.getLayout(definition);
+		soundActiveClocks = new DurationDelayClock[animationLayout.sounds.length][];
+		soundVolumeClocks = new DurationDelayClock[animationLayout.sounds.length][];
+		soundPitchClocks = new DurationDelayClock[animationLayout.sounds.length][];
+		for(int i=0; i<animationLayout.sounds.length; ++i){
+			JSONSound soundDef = animationLayout.sounds[i];
+			soundActiveClocks[i] = createClocks(soundDef.activeAnimations);
+			soundVolumeClocks[i] = createClocks(soundDef.volumeAnimations);
+			soundPitchClocks[i] = createClocks(soundDef.pitchAnimations);
+			if(world.isClient()){
+				//Start decoding the sound now so it's ready when it first plays.
+				DecodedSoundCache.requestSound(soundDef.name);
 			}
 		}
 		
-		particleActiveClocks.clear();
-		if(definition.rendering != null && definition.rendering.particles != null){
-			for(JSONParticle particleDef : definition.rendering.particles){
-				List<DurationDelayClock> activeClocks = new ArrayList<DurationDelayClock>();
-				if(particleDef.activeAnimations !=  null){
-					for(JSONAnimationDefinition animation : particleDef.activeAnimations){
-						activeClocks.add(new DurationDelayClock(animation));
-					}
-				}
-				particleActiveClocks.put(particleDef, activeClocks);
-				lastTickParticleSpawned.put(particleDef, ticksExisted);
-			}
+		lightBrightnessClocks = new DurationDelayClock[animationLayout.lights.length][];
+		lightBrightnessValues = new float[animationLayout.lights.length];
+		lightColorValues = new int[animationLayout.lights.length];
+		for(int i=0; i<animationLayout.lights.length; ++i){
+			lightBrightnessClocks[i] = createClocks(animationLayout.lights[i].brightnessAnimations);
+			lightColorValues[i] = animationLayout.lightColors[i];
+		}
+		
+		particleActiveClocks = new DurationDelayClock[animationLayout.particles.length][];
+		lastTickParticleSpawned = new long[animationLayout.particles.length];
+		for(int i=0; i<animationLayout.particles.length; ++i){
+			particleActiveClocks[i] = createClocks(animationLayout.particles[i].activeAnimations);
+			lastTickParticleSpawned[i] = ticksExisted;
 		}
 		
+		variableBindings.clear();
 		animationClocks.clear();
 		animatedObjectDefinitions.clear();
 		if(definition.rendering != null){
@@ -281,6 +250,22 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 		}
 	}
 	
+	/**
+	 *  Helper method to create an array of clocks for the passed-in list of animations.
+	 *  The list may be null, in which case an empty array is returned.
+	 */
+	private static DurationDelayClock[] createClocks(List<JSONAnimationDefinition> animations){
+		if(animations != null){
+			DurationDelayClock[] clocks = new DurationDelayClock[animations.size()];
+			for(int i=0; i<clocks.length; ++i){
+				clocks[i] = new DurationDelayClock(animations.get(i));
+			}
+			return clocks;
+		}else{
+			return new DurationDelayClock[0];
+		}
+	}
+	
 	@Override
 	public void remove(){
 		super.remove();
@@ -350,14 +335,14 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
    	 */
     public void spawnParticles(float partialTicks){
     	//Check all particle defs and update the existing particles accordingly.
-    	for(Entry<JSONParticle, List<DurationDelayClock>> particleEntry : particleActiveClocks.entrySet()){
-    		JSONParticle particleDef = particleEntry.getKey();
+    	for(int particleSlot=0; particleSlot<animationLayout.particles.length; ++particleSlot){
+    		JSONParticle particleDef = animationLayout.particles[particleSlot];
     		//Check if the particle should be spawned this tick.
     		boolean shouldParticleSpawn = true;
 			boolean anyClockMovedThisUpdate = false;
 			if(particleDef.activeAnimations != null){
 				boolean inhibitAnimations = false;
-				for(DurationDelayClock clock : particleEntry.getValue()){
+				for(DurationDelayClock clock : particleActiveClocks[particleSlot]){
 					switch(clock.animation.animationType){
 						case VISIBILITY :{
 							//We use the clock here to check if the state of the variable changed, not
@@ -413,14 +398,14 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 			}
 			
 			//Make the particle spawn if able.
-			if(shouldParticleSpawn && (anyClockMovedThisUpdate || (particleDef.spawnEveryTick && ticksExisted > lastTickParticleSpawned.get(particleDef)))){
-				lastTickParticleSpawned.put(particleDef, ticksExisted);
+			if(shouldParticleSpawn && (anyClockMovedThisUpdate || (particleDef.spawnEveryTick && ticksExisted > lastTickParticleSpawned[particleSlot]))){
+				lastTickParticleSpawned[particleSlot] = ticksExisted;
 				if(particleDef.quantity > 0){
 					for(int i=0; i<particleDef.quantity; ++i){
-						InterfaceRender.spawnParticle(new EntityParticle(this, particleDef));
+						ParticleSystem.spawnParticle(this, particleDef);
 					}
 				}else{
-					InterfaceRender.spawnParticle(new EntityParticle(this, particleDef));
+					ParticleSystem.spawnParticle(this, particleDef);
 				}
 			}
     	}
@@ -433,13 +418,13 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
    	 *  An example of this is a light with a bean and flare component. 
    	 */
     public void updateLightBrightness(float partialTicks){
-		for(JSONLight lightObject : lightBrightnessClocks.keySet()){
+		for(int lightSlot=0; lightSlot<animationLayout.lights.length; ++lightSlot){
 			boolean definedBrightness = false;
 			float lightLevel = 0.0F;
 			boolean inhibitAnimations = false;
 			boolean inhibitLight = false;
-			Color customColor = null;
-			for(DurationDelayClock clock : lightBrightnessClocks.get(lightObject)){
+			int customColor = -1;
+			for(DurationDelayClock clock : lightBrightnessClocks[lightSlot]){
 				switch(clock.animation.animationType){
 					case VISIBILITY :{
 						if(!inhibitAnimations){
@@ -484,11 +469,15 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 					case ROTATION :{
 						if(!inhibitAnimations){
 							double colorFactor = getAnimatedVariableValue(clock, -clock.animation.offset, partialTicks);
-							if(customColor == null){
-								customColor = new Color((float) Math.min(clock.animation.axis.x*colorFactor + clock.animation.offset, 1.0), (float) Math.min(clock.animation.axis.y*colorFactor + clock.animation.offset, 1.0), (float) Math.min(clock.animation.axis.z*colorFactor + clock.animation.offset, 1.0));
-							}else{
-								customColor = new Color((float) Math.min(clock.animation.axis.x*colorFactor + clock.animation.offset + customColor.getRed()/255F, 1.0), (float) Math.min(clock.animation.axis.y*colorFactor + clock.animation.offset + customColor.getGreen()/255F, 1.0), (float) Math.min(clock.animation.axis.z*colorFactor + clock.animation.offset + customColor.getBlue()/255F, 1.0));
+							double red = clock.animation.axis.x*colorFactor + clock.animation.offset;
+							double green = clock.animation.axis.y*colorFactor + clock.animation.offset;
+							double blue = clock.animation.axis.z*colorFactor + clock.animation.offset;
+							if(customColor != -1){
+								red += ((customColor >> 16) & 0xFF)/255F;
+								green += ((customColor >> 8) & 0xFF)/255F;
+								blue += (customColor & 0xFF)/255F;
 							}
+							customColor = (getColorComponent(red) << 16) | (getColorComponent(green) << 8) | getColorComponent(blue);
 						}
 						break;
 					}
@@ -507,59 +496,140 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 			}else if(!definedBrightness || lightLevel > 1){
 				lightLevel = 1;
 			}
-			lightBrightnessValues.put(lightObject, lightLevel);
-			if(customColor != null){
-				lightColorValues.put(lightObject, customColor);
-			}else{
-				lightColorValues.put(lightObject, Color.decode(lightObject.color));
-			}
+			lightBrightnessValues[lightSlot] = lightLevel;
+			lightColorValues[lightSlot] = customColor != -1 ? customColor : animationLayout.lightColors[lightSlot];
 		}
     }
+    
+    /**
+   	 *  Helper method to convert a 0-1 color value into a 0-255 color component.
+   	 *  Values are rounded the same way as {@link Color#Color(float, float, float)}.
+   	 */
+    private static int getColorComponent(double value){
+    	return value > 0 ? (int) (Math.min(value, 1.0)*255 + 0.5) : 0;
+    }
 	
 	/**
 	 *  Returns the raw value for the passed-in variable.  If the variable is not present, NaM
 	 *  should be returned (calling functions need to account for this!).
+	 *  Variables are not defined here, they are defined by {@link #compileVariable(String)}.
+	 *  This method just evaluates the binding for the variable, compiling it the first time it is requested.
+	 */
+	public final double getRawVariableValue(String variable, float partialTicks){
+		return getVariableBinding(variable).getValue(partialTicks);
+	}
+	
+	/**
+	 *  Returns the binding for the passed-in variable.  The binding is compiled via {@link #compileVariable(String)}
+	 *  the first time the variable is requested, and then re-used until the animations are reset, as the compiled
+	 *  bindings may depend on the definition.
+	 */
+	public final AVariableBinding getVariableBinding(String variable){
+		AVariableBinding binding = variableBindings.get(variable);
+		if(binding == null){
+			binding = compileVariable(variable);
+			variableBindings.put(variable, binding);
+		}
+		return binding;
+	}
+	
+	/**
+	 *  Compiles the passed-in variable into a binding that can be evaluated without any string parsing.
+	 *  This is the only place variables are defined: {@link #getRawVariableValue(String, float)} and the animation
+	 *  clocks both use the binding compiled here.  The binding should return NaN if the variable is not present.
 	 *  This should be extended on all sub-classes for them to provide their own variables.
 	 *  For all cases of this, the sub-classed variables should be checked first.  If none are
 	 *  found, then the super() method should be called to return those as a default.
 	 */
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("tick"): return world.getTick() + partialTicks;
-			case("tick_sin"): return Math.sin(Math.toRadians(world.getTick() + partialTicks));
-			case("tick_cos"): return Math.cos(Math.toRadians(world.getTick() + partialTicks));
-			case("time"): return world.getTime();
-			case("rain_strength"): return (int) world.getRainStrength(position);
-			case("rain_sin"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(world.getTick() + partialTicks)/20))/2D + 0.5: 0;
-			}
-			case("rain_cos"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(world.getTick() + partialTicks)/20))/2D + 0.5 : 0;
-			}	
-			case("light_sunlight"): return world.getLightBrightness(position, false);
-			case("light_total"): return world.getLightBrightness(position, true);
-			case("ground_distance"): return world.getHeight(position);
+			case("tick"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getTick() + partialTicks;
+				}
+			};
+			case("tick_sin"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.sin(Math.toRadians(world.getTick() + partialTicks));
+				}
+			};
+			case("tick_cos"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.cos(Math.toRadians(world.getTick() + partialTicks));
+				}
+			};
+			case("time"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getTime();
+				}
+			};
+			case("rain_strength"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return (int) world.getRainStrength(position);
+				}
+			};
+			case("rain_sin"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					int rainStrength = (int) world.getRainStrength(position);
+					return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(world.getTick() + partialTicks)/20))/2D + 0.5: 0;
+				}
+			};
+			case("rain_cos"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					int rainStrength = (int) world.getRainStrength(position);
+					return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(world.getTick() + partialTicks)/20))/2D + 0.5 : 0;
+				}
+			};
+			case("light_sunlight"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getLightBrightness(position, false);
+				}
+			};
+			case("light_total"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getLightBrightness(position, true);
+				}
+			};
+			case("ground_distance"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return world.getHeight(position);
+				}
+			};
 		}
 		
-		//Check if this is a cycle variable.
+		//Check if this is a cycle variable.  If so, parse the timings now rather than every call.
 		if(variable.endsWith("_cycle")){
 			String[] parsedVariable = variable.split("_");
-			int offTime = Integer.valueOf(parsedVariable[0]);
-			int onTime = Integer.valueOf(parsedVariable[1]);
-			int totalTime = offTime + onTime + Integer.valueOf(parsedVariable[2]);
-			long timeInCycle = world.getTick()%totalTime;
-			return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+			final int offTime = Integer.valueOf(parsedVariable[0]);
+			final int onTime = Integer.valueOf(parsedVariable[1]);
+			final int totalTime = offTime + onTime + Integer.valueOf(parsedVariable[2]);
+			return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					long timeInCycle = world.getTick()%totalTime;
+					return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+				}
+			};
 		}
 		
 		//Check if this is a generic variable.  This contains lights in most cases.
-		if(variablesOn.contains(variable)){
-			return 1;
-		}
-		
-		//Didn't find a variable.  Return NaN.
-		return Double.NaN;
+		//If the variable isn't on, we didn't find a variable, so return NaN.
+		return new AVariableBinding(variable){
+			@Override
+			public double getValue(float partialTicks){
+				return variablesOn.contains(variable) ? 1 : Double.NaN;
+			}
+		};
 	}
 	
 	/**
@@ -570,7 +640,13 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  axis components, just that the variable is multiplied by one of them.
 	 */
 	public final double getAnimatedVariableValue(DurationDelayClock clock, double offset, float partialTicks){
-		double value = getRawVariableValue(clock.animation.variable, partialTicks);
+		//Compile the variable if we haven't already, or if it was changed on us.
+		//We check by reference here as that's all we need to detect a new string.
+		if(clock.compiledVariable != clock.animation.variable){
+			clock.binding = getVariableBinding(clock.animation.variable);
+			clock.compiledVariable = clock.animation.variable;
+		}
+		double value = clock.binding.getValue(partialTicks);
 		if(Double.isNaN(value)){
 			value = 0;
 		}
@@ -606,8 +682,19 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  define a number, then -1 is returned.
 	 */
 	public static int getVariableNumber(String variable){
-		if(variable.matches("^.*_[0-9]+$")){
-			return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
+		//Walk back from the end of the variable over the digits.  This needs to be fast, as it's
+		//called for every variable lookup on entities with parts, so we don't use regex here.
+		int index = variable.length();
+		while(index > 0){
+			char character = variable.charAt(index - 1);
+			if(character >= '0' && character <= '9'){
+				--index;
+			}else{
+				break;
+			}
+		}
+		if(index != variable.length() && index > 0 && variable.charAt(index - 1) == '_'){
+			return Integer.parseInt(variable.substring(index)) - 1;
 		}else{
 			return -1;
 		}
@@ -626,7 +713,8 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
     public void updateSounds(){
     	super.updateSounds();
     	//Check all sound defs and update the existing sounds accordingly.
-    	for(JSONSound soundDef : allSoundDefs){
+    	for(int soundSlot=0; soundSlot<animationLayout.sounds.length; ++soundSlot){
+    		JSONSound soundDef = animationLayout.sounds[soundSlot];
     		//Check if the sound should be playing before we try to update state.
     		AEntityD_Interactable<?> entityRiding = InterfaceClient.getClientPlayer().getEntityRiding();
     		boolean playerRidingEntity = this.equals(entityRiding) || (this instanceof APart && ((APart) this).entityOn.equals(entityRiding));
@@ -634,7 +722,7 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 			boolean anyClockMovedThisUpdate = false;
 			boolean inhibitAnimations = false;
 			if(shouldSoundPlay){
-				for(DurationDelayClock clock : soundActiveClocks.get(soundDef)){
+				for(DurationDelayClock clock : soundActiveClocks[soundSlot]){
 					switch(clock.animation.animationType){
 						case VISIBILITY :{
 							//We use the clock here to check if the state of the variable changed, not
@@ -739,7 +827,7 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 				boolean definedVolume = false;
 				inhibitAnimations = false;
 				sound.volume = 0;
-				for(DurationDelayClock clock : soundVolumeClocks.get(soundDef)){
+				for(DurationDelayClock clock : soundVolumeClocks[soundSlot]){
 					switch(clock.animation.animationType){
 						case TRANSLATION :{
 							if(!inhibitAnimations){
@@ -801,7 +889,7 @@ public abstract class AEntityC_Definable<JSONDefinition extends AJSONMultiModelP
 				boolean definedPitch = false;
 				inhibitAnimations = false;
 				sound.pitch = 0;
-				for(DurationDelayClock clock : soundPitchClocks.get(soundDef)){
+				for(DurationDelayClock clock : soundPitchClocks[soundSlot]){
 					switch(clock.animation.animationType){
 						case TRANSLATION :{
 							if(!inhibitAnimations){
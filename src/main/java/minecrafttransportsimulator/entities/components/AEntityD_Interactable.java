@@ -33,6 +33,7 @@ import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketEntityRiderChange;
 import minecrafttransportsimulator.packets.instances.PacketEntityTrailerChange;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
@@ -268,9 +269,9 @@ public abstract class AEntityD_Interactable<JSONDefinition extends AJSONInteract
 			//Update door boxes.
 			for(Entry<BoundingBox, JSONDoor> doorEntry : doorBoxes.entrySet()){
 				if(variablesOn.contains(doorEntry.getValue().name)){
-					doorEntry.getKey().globalCenter.setTo(doorEntry.getValue().openPos).rotateFine(angles).add(position);
+					doorEntry.getKey().globalCenter.setTo(doorEntry.getValue().openPos).rotate(getOrientation()).add(position);
 				}else{
-					doorEntry.getKey().globalCenter.setTo(doorEntry.getValue().closedPos).rotateFine(angles).add(position);
+					doorEntry.getKey().globalCenter.setTo(doorEntry.getValue().closedPos).rotate(getOrientation()).add(position);
 				}
 			}
 			return true;
@@ -285,43 +286,59 @@ public abstract class AEntityD_Interactable<JSONDefinition extends AJSONInteract
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
-		//Check if this is a hookup or hitch variable.
+	public AVariableBinding compileVariable(final String variable){
+		//Check if this is a hookup or hitch variable.  If so, parse the indexes now.
 		if(variable.startsWith("connection")){
-			//Format is (hitch/hookup)_groupIndex_connectionIndex_animationType.
-			TrailerConnection foundConnection = null;
 			String[] variableData = variable.split("_");
 			if(variableData.length == 4){
-				boolean isHookup = false;
-				int groupIndex = Integer.valueOf(variableData[1]) - 1;
-				int connectionIndex = Integer.valueOf(variableData[2]) - 1;
-				if(towedByConnection != null){
-					if(towedByConnection.hookupGroupIndex == groupIndex && towedByConnection.hookupConnectionIndex == connectionIndex){
-						isHookup = true;
-						foundConnection = towedByConnection;
+				final int groupIndex = Integer.valueOf(variableData[1]) - 1;
+				final int connectionIndex = Integer.valueOf(variableData[2]) - 1;
+				final String connectionVariable = variableData[3];
+				final AVariableBinding superBinding = super.compileVariable(variable);
+				return new AVariableBinding(variable){
+					@Override
+					public double getValue(float partialTicks){
+						double value = getConnectionValue(groupIndex, connectionIndex, connectionVariable);
+						return !Double.isNaN(value) ? value : superBinding.getValue(partialTicks);
 					}
-				}
-				if(foundConnection != null && !towingConnections.isEmpty()){
-					for(TrailerConnection towingConnection : towingConnections){
-						if(towingConnection.hookupGroupIndex == groupIndex && towingConnection.hookupConnectionIndex == connectionIndex){
-							foundConnection = towingConnection;
-							break;
-						}
-					}
-				}
-				if(foundConnection != null){
-					switch(variableData[3]){
-						case("connected"): return 1;
-						case("pitch"): return isHookup ? foundConnection.hookupEntity.angles.x - angles.x : foundConnection.hitchEntity.angles.x - angles.x;
-						case("yaw"): return isHookup ? foundConnection.hookupEntity.angles.y - angles.y : foundConnection.hitchEntity.angles.y - angles.y;
-						case("roll"): return isHookup ? foundConnection.hookupEntity.angles.z - angles.z : foundConnection.hitchEntity.angles.z - angles.z;
-					}
-				}
+				};
 			}
 		}
 		
 		//Not a towing variable, check others.
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
+	}
+	
+	/**
+	 * Helper method to get the value of a connection variable.  Returns NaN if the connection
+	 * isn't present, or if the connection variable isn't valid.
+	 */
+	private double getConnectionValue(int groupIndex, int connectionIndex, String connectionVariable){
+		TrailerConnection foundConnection = null;
+		boolean isHookup = false;
+		if(towedByConnection != null){
+			if(towedByConnection.hookupGroupIndex == groupIndex && towedByConnection.hookupConnectionIndex == connectionIndex){
+				isHookup = true;
+				foundConnection = towedByConnection;
+			}
+		}
+		if(foundConnection != null && !towingConnections.isEmpty()){
+			for(TrailerConnection towingConnection : towingConnections){
+				if(towingConnection.hookupGroupIndex == groupIndex && towingConnection.hookupConnectionIndex == connectionIndex){
+					foundConnection = towingConnection;
+					break;
+				}
+			}
+		}
+		if(foundConnection != null){
+			switch(connectionVariable){
+				case("connected"): return 1;
+				case("pitch"): return isHookup ? foundConnection.hookupEntity.angles.x - angles.x : foundConnection.hitchEntity.angles.x - angles.x;
+				case("yaw"): return isHookup ? foundConnection.hookupEntity.angles.y - angles.y : foundConnection.hitchEntity.angles.y - angles.y;
+				case("roll"): return isHookup ? foundConnection.hookupEntity.angles.z - angles.z : foundConnection.hitchEntity.angles.z - angles.z;
+			}
+		}
+		return Double.NaN;
 	}
 	
 	/**
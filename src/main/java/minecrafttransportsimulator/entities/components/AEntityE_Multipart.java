@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -30,7 +31,10 @@ import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartChange;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.PackParserSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem.Section;
 
 /**Base class for multipart entities.  These entities hold other, part-based entities.  These part
  * entities may be added or removed from this entity based on the implementation, but assurances
@@ -73,12 +77,18 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 	/**List of interaction boxes, plus all part boxes included.**/
 	public final List<BoundingBox> allInteractionBoxes = new ArrayList<BoundingBox>();
 	
+	/**Tree of {@link #allInteractionBoxes}, for checking lines against them.  Updated whenever the boxes are.**/
+	public final BoundingBoxTree allInteractionBoxTree = new BoundingBoxTree();
+	
 	/**Map of part slot boxes.  Key is the box, value is the definition for that slot.**/
 	public final Map<BoundingBox, JSONPartDefinition> allPartSlotBoxes = new HashMap<BoundingBox, JSONPartDefinition>();
 	
 	/**Map of active part slot boxes.  Contains {@link #allPartSlotBoxes}, though may not contain all of them due to them not being active.**/
 	public final Map<BoundingBox, JSONPartDefinition> activePartSlotBoxes = new HashMap<BoundingBox, JSONPartDefinition>();
 	
+	/**Delta between sub-part slot positions on un-rotated and rotated parts.  Kept to avoid creating points every tick.**/
+	private final Point3d subPartSlotDelta = new Point3d();
+	
 	//Constants
 	private final float PART_SLOT_HITBOX_WIDTH = 0.75F;
 	private final float PART_SLOT_HITBOX_HEIGHT = 2.25F;
@@ -145,8 +155,8 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 						for(JSONPartDefinition subPartDef : part.definition.parts){
 							if(packVehicleDef.equals(part.getPackForSubPart(subPartDef))){
 								//Need to find the delta between our 0-degree position and our current position.
-								Point3d delta = subPartDef.pos.copy().rotateFine(part.localAngles).subtract(subPartDef.pos);
-								box.updateToEntity(this, delta);
+								subPartSlotDelta.setTo(subPartDef.pos).rotate(part.getLocalOrientation()).subtract(subPartDef.pos);
+								box.updateToEntity(this, subPartSlotDelta);
 								updatedToSubPart = true;
 								break;
 							}
@@ -269,6 +279,7 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 		for(APart part : parts){
 			part.remove();
 		}
+		EntitySpatialIndex.getIndex(world).remove(this);
 	}
 	
 	@Override
@@ -309,7 +320,9 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 		Iterator<APart> iterator = parts.iterator();
 		while(iterator.hasNext()){
 			APart part = iterator.next();
+			long profileStart = ProfilerSystem.start(world);
 			part.update();
+			ProfilerSystem.end(Section.PART_UPDATE, part.definition, profileStart);
 			if(!part.isValid){
 				removePart(part, iterator);
 			}
@@ -319,6 +332,9 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 		//Update all-box lists now that all parts are updated.
 		//If we don't do this, then the box size might get de-synced.
 		recalculateBoxes();
+		
+		//Now that our boxes are in their final positions, update our spot in the world's index.
+		EntitySpatialIndex.getIndex(world).update(this);
 	}
 	
 	/**
@@ -732,7 +748,7 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 		allPartSlotBoxes.clear();
 		for(Entry<Point3d, JSONPartDefinition> packPartEntry : getAllPossiblePackParts().entrySet()){
 			if(getPartAtLocation(packPartEntry.getKey()) == null){
-				BoundingBox newSlotBox = new BoundingBox(packPartEntry.getKey(), packPartEntry.getKey().copy().rotateFine(angles).add(position), PART_SLOT_HITBOX_WIDTH/2D, PART_SLOT_HITBOX_HEIGHT/2D, PART_SLOT_HITBOX_WIDTH/2D, false, false, false, 0);
+				BoundingBox newSlotBox = new BoundingBox(packPartEntry.getKey(), packPartEntry.getKey().copy().rotate(getOrientation()).add(position), PART_SLOT_HITBOX_WIDTH/2D, PART_SLOT_HITBOX_HEIGHT/2D, PART_SLOT_HITBOX_WIDTH/2D, false, false, false, 0);
 				allPartSlotBoxes.put(newSlotBox, packPartEntry.getValue());
 			}
 		}
@@ -819,15 +835,51 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 			boundingBox.widthRadius = (float) Math.max(boundingBox.widthRadius, Math.abs(box.globalCenter.z - position.z + box.depthRadius));
 		}
 		boundingBox.depthRadius = boundingBox.widthRadius;
+		
+		//Update interaction box tree to match the boxes.
+		allInteractionBoxTree.update(allInteractionBoxes);
+	}
+	
+	/**
+	 * Compiles the animation for the passed-in variable on the part of the passed-in type and index.
+	 * The part definition is found once here, and the binding for the variable is requested from the part
+	 * the first time it's found, and again only if the part at that location changes.
+	 * If the part isn't placed, or there is no part definition at that index, 0 is returned.
+	 */
+	public static AVariableBinding compileSpecificPartAnimation(final AEntityC_Definable<? extends AJSONPartProvider> entityAnimating, String variable, int partNumber){
+		final JSONPartDefinition foundDef = getSpecificPartDefinition(entityAnimating, variable.substring(0, variable.indexOf("_")), partNumber);
+		if(foundDef == null){
+			//No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return 0.
+			return new AVariableBinding.ConstantBinding(variable, 0);
+		}
+		final String partVariable = variable.substring(0, variable.lastIndexOf("_"));
+		return new AVariableBinding(variable){
+			private APart lastPart;
+			private AVariableBinding lastPartBinding;
+			
+			@Override
+			public double getValue(float partialTicks){
+				APart foundPart = getPartAtDefinition(entityAnimating, foundDef);
+				if(foundPart != null){
+					if(foundPart != lastPart){
+						lastPart = foundPart;
+						lastPartBinding = foundPart.getVariableBinding(partVariable);
+					}
+					return lastPartBinding.getValue(partialTicks);
+				}else{
+					//Part hasn't been placed yet, return 0.
+					return 0;
+				}
+			}
+		};
 	}
 	
 	/**
-	 * Helper method to return the value of an animation for a specific part, as
-	 * determined by the index of that part.
+	 * Helper method to get the part definition for the part of the passed-in type and index.
+	 * Returns null if no part definition matches.
 	 */
-	public static double getSpecificPartAnimation(AEntityC_Definable<? extends AJSONPartProvider> entityAnimating, String variable, int partNumber, float partialTicks){
+	private static JSONPartDefinition getSpecificPartDefinition(AEntityC_Definable<? extends AJSONPartProvider> entityAnimating, String partType, int partNumber){
 		//Iterate through our parts to find the index of the pack def for the part we want.
-		String partType = variable.substring(0, variable.indexOf("_"));
 		JSONPartDefinition foundDef = null;
 		for(JSONPartDefinition partDef : entityAnimating.definition.parts){
 			//If this part is the one we want, get it or add to our index.
@@ -861,28 +913,26 @@ public abstract class AEntityE_Multipart<JSONDefinition extends AJSONPartProvide
 				}
 			}
 			
-			//If we found our part, try to get it.
+			//If we found our part, stop searching.
 			if(foundDef != null){
-				//Get the part at this location.  If it's of the same type as what we need, use it for animation.
-				//If it's not, or it doesn't exist, return 0 as it hasn't been placed yet.
-				APart foundPart;
-				if(entityAnimating instanceof APart){
-					APart part = (APart) entityAnimating;
-					foundPart = part.entityOn.getPartAtLocation(part.getPackForSubPart(foundDef).pos);
-				}else{
-					AEntityE_Multipart<?> provider = (AEntityE_Multipart<?>) entityAnimating;
-					foundPart = provider.getPartAtLocation(foundDef.pos);
-				}
-				if(foundPart != null){
-					return foundPart.getRawVariableValue(variable.substring(0, variable.lastIndexOf("_")), partialTicks);
-				}else{
-					return 0;
-				}
+				return foundDef;
 			}
 		}
-		
-		//No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return 0.
-		return 0;
+		return null;
+	}
+	
+	/**
+	 * Helper method to get the part placed at the passed-in definition on the passed-in entity, or
+	 * null if there is no part there.  If the entity is a part, the definition is taken as a sub-part definition.
+	 */
+	private static APart getPartAtDefinition(AEntityC_Definable<? extends AJSONPartProvider> entityAnimating, JSONPartDefinition partDef){
+		if(entityAnimating instanceof APart){
+			APart part = (APart) entityAnimating;
+			return part.entityOn.getPartAtLocation(part.getPackForSubPart(partDef).pos);
+		}else{
+			AEntityE_Multipart<?> provider = (AEntityE_Multipart<?>) entityAnimating;
+			return provider.getPartAtLocation(partDef.pos);
+		}
 	}
 		
 	
@@ -0,0 +1,100 @@
+package minecrafttransportsimulator.entities.components;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.jsondefs.JSONLight;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
+import minecrafttransportsimulator.jsondefs.JSONSound;
+
+/**Layout of the animated components in a definition's rendering section.  Each light, sound, and
+ * particle definition is assigned a dense slot index here, which entities use to index their
+ * per-entity state arrays rather than using maps keyed by the JSON objects.  Layouts are created
+ * once per rendering section and shared between all entities that use it.  As hotloading replaces
+ * the rendering section of a definition, a new layout will be created for hotloaded definitions,
+ * and the created layouts are cleared so the layouts for the replaced sections aren't kept.
+ *
+ * @author don_bruce
+ */
+public class AnimationLayout{
+	private static final Map<JSONRendering, AnimationLayout> createdLayouts = new HashMap<JSONRendering, AnimationLayout>();
+	private static final AnimationLayout EMPTY_LAYOUT = new AnimationLayout(null);
+
+	/**Lights, indexed by slot.**/
+	public final JSONLight[] lights;
+	/**Colors for lights, indexed by slot and packed as 0xRRGGBB.  Lights without colors are white.**/
+	public final int[] lightColors;
+	/**Sounds, indexed by slot.**/
+	public final JSONSound[] sounds;
+	/**Particles, indexed by slot.**/
+	public final JSONParticle[] particles;
+	/**Light slots, keyed by the name of the light's model object.**/
+	private final Map<String, Integer> lightSlots = new HashMap<String, Integer>();
+
+	private AnimationLayout(JSONRendering rendering){
+		if(rendering != null && rendering.lightObjects != null){
+			lights = rendering.lightObjects.toArray(new JSONLight[rendering.lightObjects.size()]);
+		}else{
+			lights = new JSONLight[0];
+		}
+		lightColors = new int[lights.length];
+		for(int i=0; i<lights.length; ++i){
+			lightSlots.put(lights[i].objectName, i);
+			lightColors[i] = lights[i].color != null ? Color.decode(lights[i].color).getRGB() & 0xFFFFFF : 0xFFFFFF;
+		}
+
+		if(rendering != null && rendering.sounds != null){
+			sounds = rendering.sounds.toArray(new JSONSound[rendering.sounds.size()]);
+		}else{
+			sounds = new JSONSound[0];
+		}
+
+		if(rendering != null && rendering.particles != null){
+			particles = rendering.particles.toArray(new JSONParticle[rendering.particles.size()]);
+		}else{
+			particles = new JSONParticle[0];
+		}
+	}
+
+	/**
+	 *  Returns the layout for the passed-in definition, creating it if required.
+	 */
+	public static synchronized AnimationLayout getLayout(AJSONMultiModelProvider definition){
+		if(definition.rendering == null){
+			return EMPTY_LAYOUT;
+		}
+		AnimationLayout layout = createdLayouts.get(definition.rendering);
+		if(layout == null){
+			layout = new AnimationLayout(definition.rendering);
+			createdLayouts.put(definition.rendering, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 *  Clears all created layouts.  Called when definitions are hotloaded, as at that point the replaced
+	 *  rendering sections are no longer known.  Entities keep the layouts they have until their animations
+	 *  are re-initialized, and layouts for other definitions will simply be created again when next requested.
+	 */
+	public static synchronized void clearLayouts(){
+		createdLayouts.clear();
+	}
+
+	/**
+	 *  Returns the empty layout.  This is used by entities prior to their animations being initialized.
+	 */
+	public static AnimationLayout getEmptyLayout(){
+		return EMPTY_LAYOUT;
+	}
+
+	/**
+	 *  Returns the slot for the light with the passed-in object name, or -1 if there is no light for that object.
+	 */
+	public int getLightSlot(String objectName){
+		Integer slot = lightSlots.get(objectName);
+		return slot != null ? slot : -1;
+	}
+}
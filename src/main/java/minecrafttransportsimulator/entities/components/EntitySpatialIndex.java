@@ -0,0 +1,229 @@
+package minecrafttransportsimulator.entities.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.LongKeyedMap;
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.mcinterface.WrapperWorld;
+
+/**Spatial index of all multipart entities in a world.  Finding the entities near a point
+ * normally requires checking every entity in the world, which gets expensive when lots of
+ * vehicles are loaded.  Instead, entities are sorted into a grid of columns, and only the columns
+ * around the queried area are checked.  Entities are in every column their bounds touch, and update
+ * their columns each tick after they move.  As most entities don't move between columns every tick,
+ * this update is normally just a check of the entity's bounds.
+ *
+ * @author don_bruce
+ */
+public class EntitySpatialIndex{
+	/**Mapping of indexes.  Keyed to world instances.**/
+	private static final Map<WrapperWorld, EntitySpatialIndex> worldIndexes = new HashMap<WrapperWorld, EntitySpatialIndex>();
+	/**Size of grid columns, as a power of 2.  4 gives columns the size of chunks.**/
+	private static final int COLUMN_SIZE_SHIFT = 4;
+
+	private final LongKeyedMap<List<IndexedEntity>> columns = new LongKeyedMap<List<IndexedEntity>>();
+	private final Map<AEntityE_Multipart<?>, IndexedEntity> indexedEntities = new HashMap<AEntityE_Multipart<?>, IndexedEntity>();
+
+	/**
+	 * Returns the index for the passed-in world.  Creates one if it doesn't exist.
+	 */
+	public static EntitySpatialIndex getIndex(WrapperWorld world){
+		EntitySpatialIndex index = worldIndexes.get(world);
+		if(index == null){
+			index = new EntitySpatialIndex();
+			worldIndexes.put(world, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Removes the index for the passed-in world.  Used when a world is un-loaded.
+	 */
+	public static void removeIndex(WrapperWorld world){
+		worldIndexes.remove(world);
+	}
+
+	/**
+	 * Updates the passed-in entity in the index.  This should be called after
+	 * the entity has moved and its boxes have been updated.  Entities not in
+	 * the index are added to it.
+	 */
+	public void update(AEntityE_Multipart<?> entity){
+		IndexedEntity indexedEntity = indexedEntities.get(entity);
+		if(indexedEntity == null){
+			indexedEntity = new IndexedEntity(entity);
+			indexedEntities.put(entity, indexedEntity);
+		}
+		indexedEntity.updateBounds();
+
+		int minColumnX = ((int) Math.floor(indexedEntity.minX)) >> COLUMN_SIZE_SHIFT;
+		int minColumnZ = ((int) Math.floor(indexedEntity.minZ)) >> COLUMN_SIZE_SHIFT;
+		int maxColumnX = ((int) Math.floor(indexedEntity.maxX)) >> COLUMN_SIZE_SHIFT;
+		int maxColumnZ = ((int) Math.floor(indexedEntity.maxZ)) >> COLUMN_SIZE_SHIFT;
+		if(!indexedEntity.inColumns || minColumnX != indexedEntity.minColumnX || minColumnZ != indexedEntity.minColumnZ || maxColumnX != indexedEntity.maxColumnX || maxColumnZ != indexedEntity.maxColumnZ){
+			removeFromColumns(indexedEntity);
+			indexedEntity.minColumnX = minColumnX;
+			indexedEntity.minColumnZ = minColumnZ;
+			indexedEntity.maxColumnX = maxColumnX;
+			indexedEntity.maxColumnZ = maxColumnZ;
+			for(int x=minColumnX; x<=maxColumnX; ++x){
+				for(int z=minColumnZ; z<=maxColumnZ; ++z){
+					long columnKey = getColumnKey(x, z);
+					List<IndexedEntity> column = columns.get(columnKey);
+					if(column == null){
+						column = new ArrayList<IndexedEntity>();
+						columns.put(columnKey, column);
+					}
+					column.add(indexedEntity);
+				}
+			}
+			indexedEntity.inColumns = true;
+		}
+	}
+
+	/**
+	 * Removes the passed-in entity from the index.
+	 */
+	public void remove(AEntityE_Multipart<?> entity){
+		IndexedEntity indexedEntity = indexedEntities.remove(entity);
+		if(indexedEntity != null){
+			removeFromColumns(indexedEntity);
+		}
+	}
+
+	/**
+	 * Returns all entities whose bounds intersect the passed-in box.  Entity bounds
+	 * contain all their boxes, so any entity with a box intersecting the passed-in
+	 * box will be returned.  Each entity is only returned once.
+	 */
+	public List<AEntityE_Multipart<?>> getEntities(BoundingBox box){
+		return getEntities(box.globalCenter.x - box.widthRadius, box.globalCenter.y - box.heightRadius, box.globalCenter.z - box.depthRadius, box.globalCenter.x + box.widthRadius, box.globalCenter.y + box.heightRadius, box.globalCenter.z + box.depthRadius);
+	}
+
+	/**
+	 * Returns all entities whose position is within the passed-in radius of the passed-in point.
+	 */
+	public List<AEntityE_Multipart<?>> getEntities(Point3d point, double radius){
+		List<AEntityE_Multipart<?>> entities = getEntities(point.x - radius, point.y - radius, point.z - radius, point.x + radius, point.y + radius, point.z + radius);
+		for(int i=entities.size()-1; i>=0; --i){
+			if(entities.get(i).position.distanceTo(point) > radius){
+				entities.remove(i);
+			}
+		}
+		return entities;
+	}
+
+	/**
+	 * Returns the entity whose position is closest to the passed-in point, or null if there
+	 * are no entities within the passed-in radius.  Only entities of the passed-in class are checked.
+	 */
+	@SuppressWarnings("unchecked")
+	public <EntityType extends AEntityE_Multipart<?>> EntityType getNearestEntity(Point3d point, double radius, Class<EntityType> entityClass){
+		EntityType nearestEntity = null;
+		double nearestDistance = radius;
+		for(AEntityE_Multipart<?> entity : getEntities(point, radius)){
+			if(entityClass.isInstance(entity)){
+				double distance = entity.position.distanceTo(point);
+				if(distance <= nearestDistance){
+					nearestEntity = (EntityType) entity;
+					nearestDistance = distance;
+				}
+			}
+		}
+		return nearestEntity;
+	}
+
+	private List<AEntityE_Multipart<?>> getEntities(double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		List<AEntityE_Multipart<?>> entities = new ArrayList<AEntityE_Multipart<?>>();
+		int minColumnX = ((int) Math.floor(minX)) >> COLUMN_SIZE_SHIFT;
+		int minColumnZ = ((int) Math.floor(minZ)) >> COLUMN_SIZE_SHIFT;
+		int maxColumnX = ((int) Math.floor(maxX)) >> COLUMN_SIZE_SHIFT;
+		int maxColumnZ = ((int) Math.floor(maxZ)) >> COLUMN_SIZE_SHIFT;
+		for(int x=minColumnX; x<=maxColumnX; ++x){
+			for(int z=minColumnZ; z<=maxColumnZ; ++z){
+				List<IndexedEntity> column = columns.get(getColumnKey(x, z));
+				if(column != null){
+					for(IndexedEntity indexedEntity : column){
+						//Entities in multiple columns are only added from the first column both they and the area are in.
+						//This prevents adding them multiple times without having to check the list for them.
+						if(x == Math.max(minColumnX, indexedEntity.minColumnX) && z == Math.max(minColumnZ, indexedEntity.minColumnZ)){
+							if(indexedEntity.minX <= maxX && indexedEntity.maxX >= minX && indexedEntity.minY <= maxY && indexedEntity.maxY >= minY && indexedEntity.minZ <= maxZ && indexedEntity.maxZ >= minZ){
+								entities.add(indexedEntity.entity);
+							}
+						}
+					}
+				}
+			}
+		}
+		return entities;
+	}
+
+	private void removeFromColumns(IndexedEntity indexedEntity){
+		if(indexedEntity.inColumns){
+			for(int x=indexedEntity.minColumnX; x<=indexedEntity.maxColumnX; ++x){
+				for(int z=indexedEntity.minColumnZ; z<=indexedEntity.maxColumnZ; ++z){
+					long columnKey = getColumnKey(x, z);
+					List<IndexedEntity> column = columns.get(columnKey);
+					column.remove(indexedEntity);
+					if(column.isEmpty()){
+						columns.remove(columnKey);
+					}
+				}
+			}
+			indexedEntity.inColumns = false;
+		}
+	}
+
+	private static long getColumnKey(int x, int z){
+		return (((long) x) << 32) | (((long) z) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * An entity in the index.  Bounds contain the entity's position, bounding box, and all its
+	 * collision and interaction boxes.  Columns are the range of columns the entity is in.
+	 */
+	private static class IndexedEntity{
+		private final AEntityE_Multipart<?> entity;
+		private double minX;
+		private double minY;
+		private double minZ;
+		private double maxX;
+		private double maxY;
+		private double maxZ;
+		private boolean inColumns;
+		private int minColumnX;
+		private int minColumnZ;
+		private int maxColumnX;
+		private int maxColumnZ;
+
+		private IndexedEntity(AEntityE_Multipart<?> entity){
+			this.entity = entity;
+		}
+
+		private void updateBounds(){
+			minX = maxX = entity.position.x;
+			minY = maxY = entity.position.y;
+			minZ = maxZ = entity.position.z;
+			addToBounds(entity.boundingBox);
+			for(BoundingBox box : entity.getInteractionBoxes()){
+				addToBounds(box);
+			}
+			for(BoundingBox box : entity.getCollisionBoxes()){
+				addToBounds(box);
+			}
+		}
+
+		private void addToBounds(BoundingBox box){
+			minX = Math.min(minX, box.globalCenter.x - box.widthRadius);
+			minY = Math.min(minY, box.globalCenter.y - box.heightRadius);
+			minZ = Math.min(minZ, box.globalCenter.z - box.depthRadius);
+			maxX = Math.max(maxX, box.globalCenter.x + box.widthRadius);
+			maxY = Math.max(maxY, box.globalCenter.y + box.heightRadius);
+			maxZ = Math.max(maxZ, box.globalCenter.z + box.depthRadius);
+		}
+	}
+}
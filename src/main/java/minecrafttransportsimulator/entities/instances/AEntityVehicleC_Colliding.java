@@ -41,8 +41,8 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 	public boolean update(){
 		if(super.update()){
 			//Set vectors to current velocity and orientation.
-			headingVector.set(0D, 0D, 1D).rotateFine(angles);
-			verticalVector.set(0D, 1D, 0D).rotateFine(angles);
+			headingVector.set(0D, 0D, 1D).rotate(getOrientation());
+			verticalVector.set(0D, 1D, 0D).rotate(getOrientation());
 			sideVector.setTo(verticalVector.crossProduct(headingVector));
 			normalizedVelocityVector.setTo(motion).normalize();
 			axialVelocity = Math.abs(motion.dotProduct(headingVector));
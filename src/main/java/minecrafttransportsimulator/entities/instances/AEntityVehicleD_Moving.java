@@ -2,24 +2,24 @@ package minecrafttransportsimulator.entities.instances;
 
 import java.util.Iterator;
 
-import minecrafttransportsimulator.baseclasses.BezierCurve;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.baseclasses.TrailerConnection;
 import minecrafttransportsimulator.baseclasses.VehicleGroundDeviceCollection;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadFollowingState;
-import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane.LaneSelectionRequest;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
-import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
 import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem.Section;
 
 /**At the final basic vehicle level we add in the functionality for state-based movement.
  * Here is where the functions for moving permissions, such as collision detection
@@ -29,7 +29,7 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  * 
  * @author don_bruce
  */
-abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
+abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding implements PacketVehicleServerMovement.MovementReceiver{
 
 	//External state control.
 	public static final byte MAX_BRAKE = 100;
@@ -47,9 +47,19 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	protected RoadFollowingState rearFollower;
 	protected LaneSelectionRequest selectedSegment = LaneSelectionRequest.NONE;
 	
+	//Sleeping data.
+	/**Max distance, in blocks or degrees, a vehicle can move in a tick and still be considered stable enough to sleep.**/
+	private static final double SLEEP_MOVEMENT_THRESHOLD = 0.001D;
+	private int stableTicks;
+	private boolean sleeping;
+	
 	//Internal movement variables.
 	private final Point3d serverDeltaM;
 	private final Point3d serverDeltaR;
+	private final Point3d serverDeltaMError = new Point3d();
+	private final Point3d serverDeltaRError = new Point3d();
+	private final Point3d serverDeltaMSent = new Point3d();
+	private final Point3d serverDeltaRSent = new Point3d();
 	private final Point3d clientDeltaM;
 	private final Point3d clientDeltaR;
 	private final Point3d clientDeltaMApplied = new Point3d();
@@ -62,6 +72,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	private final Point3d rotationApplied = new Point3d();
 	private final Point3d tempBoxPosition = new Point3d();
 	private final Point3d tempBoxRotation = new Point3d();
+	/**Smallest rotation step, in degrees, that collision correction will resolve rotations to.**/
+	private static final double ROTATION_RESOLUTION = 0.1D;
 	private final Point3d normalizedGroundVelocityVector = new Point3d();
 	private final Point3d normalizedGroundHeadingVector = new Point3d();
 	private AEntityD_Interactable<?> lastCollidedEntity;
@@ -98,18 +110,39 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 				}
 			}
 			
+			//Wake up if something changed that requires us to do physics.
+			if(sleeping && !canSleep()){
+				wakeUp();
+			}
+			
 			//Now do update calculations and logic.
-			if(!ConfigSystem.configObject.general.noclipVehicles.value || groundDeviceCollective.isReady()){
+			//If we are sleeping, we don't move, so we don't need to do any of this.
+			if(!sleeping && (!ConfigSystem.configObject.general.noclipVehicles.value || groundDeviceCollective.isReady())){
+				long profileStart = ProfilerSystem.start(world);
 				getForcesAndMotions();
+				ProfilerSystem.end(Section.VEHICLE_FORCES, definition, profileStart);
+				
+				profileStart = ProfilerSystem.start(world);
 				performGroundOperations();
+				ProfilerSystem.end(Section.VEHICLE_GROUND_OPERATIONS, definition, profileStart);
+				
+				profileStart = ProfilerSystem.start(world);
 				moveVehicle();
+				ProfilerSystem.end(Section.VEHICLE_MOVEMENT, definition, profileStart);
 				if(!world.isClient()){
 					dampenControlSurfaces();
 				}
 			}
 			
 			//Update parts after all movement is done.
+			long profileStart = ProfilerSystem.start(world);
 			updatePostMovement();
+			ProfilerSystem.end(Section.VEHICLE_POST_MOVEMENT, definition, profileStart);
+			
+			//Check if we have been stable long enough to go to sleep.
+			if(!sleeping){
+				updateSleepState();
+			}
 			return true;
 		}else{
 			return false;
@@ -149,11 +182,30 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		return super.canCollideWith(entityToCollide); 
 	}
 	
+	@Override
+	public void attack(Damage damage){
+		super.attack(damage);
+		wakeUp();
+	}
+	
+	@Override
+	public void connectTrailer(TrailerConnection connection){
+		super.connectTrailer(connection);
+		wakeUp();
+	}
+	
+	@Override
+	public void disconnectTrailer(TrailerConnection connection){
+		super.disconnectTrailer(connection);
+		wakeUp();
+	}
+	
 	@Override
 	public void connectAsTrailer(TrailerConnection connection){
 		super.connectAsTrailer(connection);
 		parkingBrakeOn = false;
 		brake = 0;
+		wakeUp();
 	}
 	
 	@Override
@@ -162,6 +214,75 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		if(definition.motorized.isTrailer){
 			parkingBrakeOn = true;
 		}
+		wakeUp();
+	}
+	
+	/**
+	 * Returns true if this vehicle is sleeping.  Sleeping vehicles don't do physics or
+	 * collision checks, as they aren't moving and nothing is trying to move them.
+	 */
+	public boolean isSleeping(){
+		return sleeping;
+	}
+	
+	/**
+	 * Wakes this vehicle up if it is sleeping, and re-starts the count of stable ticks
+	 * it needs to go back to sleep.  This should be called any time something happens
+	 * that could make this vehicle move.  Any trailers we are towing are also woken up.
+	 */
+	@Override
+	public void wakeUp(){
+		stableTicks = 0;
+		if(sleeping){
+			sleeping = false;
+			for(TrailerConnection connection : towingConnections){
+				if(connection.hookupBaseEntity instanceof AEntityVehicleD_Moving){
+					((AEntityVehicleD_Moving) connection.hookupBaseEntity).wakeUp();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if this vehicle is in a state where it can sleep.  This requires the parking brake
+	 * to be on, all engines to be off, and no riders.  Trailers can only sleep if the vehicle towing
+	 * them is sleeping.  Vehicles resting on other vehicles can't sleep, as they move with them.
+	 */
+	private boolean canSleep(){
+		if(towedByConnection != null){
+			if(!(towedByConnection.hitchBaseEntity instanceof AEntityVehicleD_Moving) || !((AEntityVehicleD_Moving) towedByConnection.hitchBaseEntity).sleeping){
+				return false;
+			}
+		}else if(!parkingBrakeOn){
+			return false;
+		}
+		if(!locationRiderMap.isEmpty() || !collidedEntities.isEmpty()){
+			return false;
+		}
+		for(APart part : parts){
+			if(part instanceof PartEngine && ((PartEngine) part).state.running){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if we moved this tick, and puts us to sleep if we haven't moved for long enough.
+	 * Motions are removed when we go to sleep, as we shouldn't have any if we aren't moving.
+	 */
+	private void updateSleepState(){
+		int sleepTicks = ConfigSystem.configObject.general.vehicleSleepTicks.value;
+		if(sleepTicks > 0 && canSleep() && position.distanceTo(prevPosition) < SLEEP_MOVEMENT_THRESHOLD && angles.distanceTo(prevAngles) < SLEEP_MOVEMENT_THRESHOLD){
+			if(++stableTicks >= sleepTicks){
+				sleeping = true;
+				motion.set(0, 0, 0);
+				rotation.set(0, 0, 0);
+				velocity = 0;
+			}
+		}else{
+			stableTicks = 0;
+		}
 	}
 	
 	/**
@@ -173,29 +294,13 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		Point3d contactPoint = groundDeviceCollective.getContactPoint(false);
 		if(contactPoint != null){
 			contactPoint.rotateCoarse(angles).add(position);
-			Point3d testPoint = new Point3d();
 			ABlockBase block =  world.getBlock(contactPoint);
 			if(block instanceof BlockCollision){
 				TileEntityRoad road = ((BlockCollision) block).getMasterRoad(world, contactPoint);
 				if(road != null){
-					//Check to see which lane we are on, if any.
-					for(RoadLane lane : road.lanes){
-						//Check path-points on the curve.  If our angles and position are close, set this as the curve.
-						for(BezierCurve curve : lane.curves){
-							for(float f=0; f<curve.pathLength; ++f){
-								curve.setPointToPositionAt(testPoint, f);
-								testPoint.add(road.position.x, road.position.y, road.position.z);
-								if(testPoint.distanceTo(contactPoint) < 1){
-									curve.setPointToRotationAt(testPoint, f);
-									boolean sameDirection = Math.abs(testPoint.getClampedYDelta(angles.y)) < 10;
-									boolean oppositeDirection = Math.abs(testPoint.getClampedYDelta(angles.y)) > 170;
-									if(sameDirection || oppositeDirection){
-										return new RoadFollowingState(lane, curve, sameDirection, f);
-									}
-								}
-							}
-						}
-					}
+					//Check to see which lane we are on, if any.  If our angles and position are close to a
+					//path-point on a lane curve, that's our curve.  Lane points are relative to the road.
+					return road.getLaneIndex().getFollowingState(contactPoint.subtract(road.position), angles.y);
 				}
 			}
 		}
@@ -563,14 +668,15 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 			//If we are being towed, apply this movement to the towing vehicle, not ourselves, as this can lead to the vehicle getting stuck.
 			//If the collision box is a liquid box, don't use it, as that gets used in ground device calculations instead.
 			if(isCollisionBoxCollided()){
+				Point3d initalMotion = towedByConnection != null ? motion.copy() : null;
+				long profileStart = ProfilerSystem.start(world);
+				boolean destroyed = correctCollidingMovement();
+				ProfilerSystem.end(Section.VEHICLE_COLLISION_CORRECTION, definition, profileStart);
+				if(destroyed){
+					return;
+				}
 				if(towedByConnection != null){
-					Point3d initalMotion = motion.copy();
-					if(correctCollidingMovement()){
-						return;
-					}
 					towedByConnection.hitchBaseEntity.motion.add(motion).subtract(initalMotion);
-				}else if(correctCollidingMovement()){
-					return;
 				}
 				
 			}else if(towedByConnection == null || !towedByConnection.hitchConnection.mounted){
@@ -634,9 +740,29 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		collisionMotion.set(0, 0, 0);
 		collisionRotation.set(0, 0, 0);
 		if(!world.isClient()){
-			if(!motionApplied.isZero() || !rotationApplied.isZero()){
-				addToServerDeltas(motionApplied, rotationApplied);
-				InterfacePacket.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied));
+			//Quantize our movement to send to clients.  Anything lost in quantization is
+			//carried over to the next tick, so the server deltas sent to clients don't drift.
+			serverDeltaMError.add(motionApplied);
+			serverDeltaRError.add(rotationApplied);
+			if(!serverDeltaMError.isZero() || !serverDeltaRError.isZero()){
+				short[] deltas = new short[6];
+				deltas[0] = PacketVehicleServerMovement.quantize(serverDeltaMError.x, PacketVehicleServerMovement.MOTION_STEP);
+				deltas[1] = PacketVehicleServerMovement.quantize(serverDeltaMError.y, PacketVehicleServerMovement.MOTION_STEP);
+				deltas[2] = PacketVehicleServerMovement.quantize(serverDeltaMError.z, PacketVehicleServerMovement.MOTION_STEP);
+				deltas[3] = PacketVehicleServerMovement.quantize(serverDeltaRError.x, PacketVehicleServerMovement.ROTATION_STEP);
+				deltas[4] = PacketVehicleServerMovement.quantize(serverDeltaRError.y, PacketVehicleServerMovement.ROTATION_STEP);
+				deltas[5] = PacketVehicleServerMovement.quantize(serverDeltaRError.z, PacketVehicleServerMovement.ROTATION_STEP);
+				if(deltas[0] != 0 || deltas[1] != 0 || deltas[2] != 0 || deltas[3] != 0 || deltas[4] != 0 || deltas[5] != 0){
+					//Queue the deltas first, as they may be clamped if we already queued some this tick.
+					//Then add the deltas exactly as clients will get them, so our deltas match theirs.
+					//Only what was sent is taken out of the error, so anything clamped is sent in the next batch.
+					world.queueMovementUpdate(this, deltas);
+					serverDeltaMSent.set(deltas[0]*PacketVehicleServerMovement.MOTION_STEP, deltas[1]*PacketVehicleServerMovement.MOTION_STEP, deltas[2]*PacketVehicleServerMovement.MOTION_STEP);
+					serverDeltaRSent.set(deltas[3]*PacketVehicleServerMovement.ROTATION_STEP, deltas[4]*PacketVehicleServerMovement.ROTATION_STEP, deltas[5]*PacketVehicleServerMovement.ROTATION_STEP);
+					addToServerDeltas(serverDeltaMSent, serverDeltaRSent);
+					serverDeltaMError.subtract(serverDeltaMSent);
+					serverDeltaRError.subtract(serverDeltaRSent);
+				}
 			}
 		}else{
 			//Make sure the server is sending delta packets before we try to do delta correction.
@@ -768,65 +894,87 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		
 		//Check the yaw.
 		if(rotation.y != 0){
-			tempBoxRotation.set(0D, rotation.y, 0D);
 			for(BoundingBox box : allBlockCollisionBoxes){
-				while(rotation.y != 0){
-					tempBoxPosition.setTo(box.globalCenter).subtract(position).rotateCoarse(tempBoxRotation).add(position).add(motion.x*SPEED_FACTOR, motion.y*SPEED_FACTOR, motion.z*SPEED_FACTOR);
-					//Raise this box ever so slightly because Floating Point errors are a PITA.
-					tempBoxPosition.add(0D, 0.1D, 0D);
-					if(!box.updateCollidingBlocks(world, tempBoxPosition.subtract(box.globalCenter))){
-						break;
-					}
-					if(rotation.y > 0){
-						rotation.y = Math.max(rotation.y - 0.1F, 0);
-					}else{
-						rotation.y = Math.min(rotation.y + 0.1F, 0);
-					}
+				if(rotation.y == 0){
+					break;
 				}
+				rotation.y = getNonCollidingRotation(box, rotation.y, false, true, false);
 			}
 		}
 
 		//Now do pitch.
 		//Make sure to take into account yaw as it's already been checked.
 		if(rotation.x != 0){
-			tempBoxRotation.set(rotation.x, rotation.y, 0D);
 			for(BoundingBox box : allBlockCollisionBoxes){
-				while(rotation.x != 0){
-					tempBoxPosition.setTo(box.globalCenter).subtract(position).rotateCoarse(tempBoxRotation).add(position).add(motion.x*SPEED_FACTOR, motion.y*SPEED_FACTOR, motion.z*SPEED_FACTOR);
-					if(!box.updateCollidingBlocks(world, tempBoxPosition.subtract(box.globalCenter))){
-						break;
-					}
-					if(rotation.x > 0){
-						rotation.x = Math.max(rotation.x - 0.1F, 0);
-					}else{
-						rotation.x = Math.min(rotation.x + 0.1F, 0);
-					}
+				if(rotation.x == 0){
+					break;
 				}
+				rotation.x = getNonCollidingRotation(box, rotation.x, true, false, false);
 			}
 		}
 		
 		//And lastly the roll.
 		if(rotation.z != 0){
-			tempBoxRotation.setTo(rotation);
 			for(BoundingBox box : allBlockCollisionBoxes){
-				while(rotation.z != 0){
-					tempBoxPosition.setTo(box.globalCenter).subtract(position).rotateCoarse(tempBoxRotation).add(position).add(motion.x*SPEED_FACTOR, motion.y*SPEED_FACTOR, motion.z*SPEED_FACTOR);
-					if(!box.updateCollidingBlocks(world, tempBoxPosition.subtract(box.globalCenter))){
-						break;
-					}
-					if(rotation.z > 0){
-						rotation.z = Math.max(rotation.z - 0.1F, 0);
-					}else{
-						rotation.z = Math.min(rotation.z + 0.1F, 0);
-					}
+				if(rotation.z == 0){
+					break;
 				}
+				rotation.z = getNonCollidingRotation(box, rotation.z, false, false, true);
 			}
 		}
 		return false;
 	}
 	
+	/**
+	 *  Returns the largest rotation, from 0 to the passed-in rotation, that the passed-in box can be rotated
+	 *  by on the specified axis without colliding.  Rather than stepping the rotation down and checking for
+	 *  collisions each step, we bisect between 0 and the passed-in rotation until we are within {@link #ROTATION_RESOLUTION}.
+	 *  This takes log2(rotation/resolution) collision checks rather than rotation/resolution.  Axes are checked
+	 *  in the order yaw, pitch, roll, so pitch uses the corrected yaw, and roll uses the corrected yaw and pitch.
+	 *  If the box collides even with no rotation on the axis, 0 is returned as rotating won't un-collide it.
+	 */
+	private double getNonCollidingRotation(BoundingBox box, double rotationDelta, boolean xAxis, boolean yAxis, boolean zAxis){
+		if(!isBoxCollidedWithRotation(box, rotationDelta, xAxis, yAxis, zAxis)){
+			return rotationDelta;
+		}
+		
+		//Bisect on the rotation magnitude.  Lower bound is assumed to not collide, upper bound is known to collide.
+		//Once we are done, snap to the resolution grid so we don't rotate by odd fractions of a step.
+		double lowerBound = 0;
+		double upperBound = Math.abs(rotationDelta);
+		double sign = Math.signum(rotationDelta);
+		while(upperBound - lowerBound > ROTATION_RESOLUTION){
+			double testRotation = (lowerBound + upperBound)/2D;
+			if(isBoxCollidedWithRotation(box, sign*testRotation, xAxis, yAxis, zAxis)){
+				upperBound = testRotation;
+			}else{
+				lowerBound = testRotation;
+			}
+		}
+		return sign*Math.floor(lowerBound/ROTATION_RESOLUTION)*ROTATION_RESOLUTION;
+	}
 	
+	/**
+	 *  Checks if the passed-in box collides with blocks when the vehicle is rotated by the passed-in
+	 *  rotation on the specified axis, plus the already-checked rotations of the prior axes.
+	 */
+	private boolean isBoxCollidedWithRotation(BoundingBox box, double rotationDelta, boolean xAxis, boolean yAxis, boolean zAxis){
+		if(yAxis){
+			tempBoxRotation.set(0D, rotationDelta, 0D);
+		}else if(xAxis){
+			tempBoxRotation.set(rotationDelta, rotation.y, 0D);
+		}else{
+			tempBoxRotation.set(rotation.x, rotation.y, rotationDelta);
+		}
+		tempBoxPosition.setTo(box.globalCenter).subtract(position).rotateCoarse(tempBoxRotation).add(position).add(motion.x*SPEED_FACTOR, motion.y*SPEED_FACTOR, motion.z*SPEED_FACTOR);
+		if(yAxis){
+			//Raise this box ever so slightly because Floating Point errors are a PITA.
+			tempBoxPosition.add(0D, 0.1D, 0D);
+		}
+		return box.updateCollidingBlocks(world, tempBoxPosition.subtract(box.globalCenter));
+	}
 	
+	@Override
 	public void addToServerDeltas(Point3d motionAdded, Point3d rotationAdded){
 		serverDeltaM.add(motionAdded);
 		serverDeltaR.add(rotationAdded);
@@ -10,7 +10,9 @@ import java.util.Set;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TrailerConnection;
+import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
@@ -20,6 +22,7 @@ import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packloading.JSONParser;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
 import minecrafttransportsimulator.rendering.instances.RenderPart;
 
@@ -69,6 +72,11 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 	public final Point3d localOffset;
 	public final Point3d prevLocalOffset;
 	public final Point3d localAngles;
+	private final RotationMatrix localOrientation = new RotationMatrix();
+	
+	//Temporary points for animations, to avoid creating new points every tick.
+	private final Point3d appliedTranslation = new Point3d();
+	private final Point3d appliedRotation = new Point3d();
 		
 	public APart(AEntityE_Multipart<?> entityOn, JSONPartDefinition placementDefinition, WrapperNBT data, APart parentPart){
 		super(entityOn.world, data);
@@ -108,7 +116,7 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 		}
 		
 		//Set initial position and rotation.
-		position.setTo(localOffset).rotateFine(entityOn.angles).add(entityOn.position);
+		position.setTo(localOffset).rotate(entityOn.getOrientation()).add(entityOn.position);
 		angles.setTo(localAngles).add(entityOn.angles);
 		angles.setTo(placementAngles);
 		prevAngles.setTo(angles);
@@ -210,7 +218,7 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 				
 				//Rotate our current relative offset by the rotation of the parent to get the correct
 				//offset between us and our parent's position in our parent's coordinate system.
-				localOffset.rotateFine(parentPart.localAngles);
+				localOffset.rotate(parentPart.getLocalOrientation());
 				
 				//Add our parent's angles to our own so we have a cumulative rotation.
 				//This has the potential for funny rotations if we're both rotated, as we should
@@ -224,7 +232,7 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 			}
 			
 			//Set position and rotation to our net offset pos on the entity.
-			position.setTo(localOffset).rotateFine(entityOn.angles).add(entityOn.position);
+			position.setTo(localOffset).rotate(entityOn.getOrientation()).add(entityOn.position);
 			angles.setTo(localAngles).add(entityOn.angles);
 			
 			//Update post-movement things.
@@ -323,8 +331,8 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 							//Found translation.  This gets applied in the translation axis direction directly.
 							//This axis needs to be rotated by the rollingRotation to ensure it's in the correct spot.
 							double variableValue = getAnimatedVariableValue(clock, 0, 0);
-							Point3d appliedTranslation = clock.animation.axis.copy().multiply(variableValue);
-							localOffset.add(appliedTranslation.rotateFine(localAngles));
+							appliedTranslation.setTo(clock.animation.axis).multiply(variableValue);
+							localOffset.add(appliedTranslation.rotate(getLocalOrientation()));
 						}
 						break;
 					}
@@ -332,13 +340,13 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 						if(!inhibitAnimations){
 							//Found rotation.  Get angles that needs to be applied.
 							double variableValue = getAnimatedVariableValue(clock, 0, 0);
-							Point3d appliedRotation = clock.animation.axis.copy().multiply(variableValue);
+							appliedRotation.setTo(clock.animation.axis).multiply(variableValue);
 							
 							//Check if we need to apply a translation based on this rotation.
 							if(!clock.animation.centerPoint.isZero()){
 								//Use the center point as a vector we rotate to get the applied offset.
 								//We need to take into account the rolling rotation here, as we might have rotated on a prior call.
-								localOffset.add(clock.animation.centerPoint.copy().multiply(-1D).rotateFine(appliedRotation).add(clock.animation.centerPoint).rotateFine(localAngles));
+								localOffset.add(appliedTranslation.setTo(clock.animation.centerPoint).multiply(-1D).rotateFine(appliedRotation).add(clock.animation.centerPoint).rotate(getLocalOrientation()));
 							}
 							
 							//Apply rotation.  We need to do this after translation operations to ensure proper offsets.
@@ -395,7 +403,7 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 		
 		//Add on the placement offset and angles now that we have our dynamic values.
 		if(placementDefinition.isSubPart && parentPart != null && parentPart.scale != 1){
-			localOffset.add(placementOffset.copy().multiply(parentPart.scale));
+			localOffset.add(appliedTranslation.setTo(placementOffset).multiply(parentPart.scale));
 		}else{
 			localOffset.add(placementOffset);
 		}
@@ -403,6 +411,15 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 		return disablePart;
 	}
 	
+	/**
+	 * Returns the rotation matrix for this part's local angles.  Like {@link #getOrientation()},
+	 * this is only re-calculated when the angles change.  Used by sub-parts to get their offset
+	 * on this part, and by the entity this part is on for the slots of sub-parts.
+	 */
+	public RotationMatrix getLocalOrientation(){
+		return localOrientation.setToAngles(localAngles);
+	}
+	
 	/**
 	 * Returns a definition with the correct properties for a SubPart.  This is because
 	 * subParts inherit some properties from their parent parts.  All created sub-part
@@ -500,42 +517,40 @@ public abstract class APart extends AEntityD_Interactable<JSONPart>{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(final String variable){
 		//If the variable is prefixed with "parent_", then we need to get our parent's value.
 		if(variable.startsWith("parent_")){
-			return parentPart.getRawVariableValue(variable.substring("parent_".length()), partialTicks);
+			return parentPart.getVariableBinding(variable.substring("parent_".length()));
 		}else if(definition.parts != null){
 			//Check sub-parts for the part with the specified index.
 			int partNumber = getVariableNumber(variable);
 			if(partNumber != -1){
-				return AEntityE_Multipart.getSpecificPartAnimation(this, variable, partNumber, partialTicks);
+				return AEntityE_Multipart.compileSpecificPartAnimation(this, variable, partNumber);
 			}
 		}
 		
 		//Check for generic part variables.
 		switch(variable){
-			case("part_present"): return 1;
+			case("part_present"): return new AVariableBinding.ConstantBinding(variable, 1);
 		}
 		
 		//No variables, check super variables before doing generic forwarding.
 		//We need this here for position-specific values, as some of the
 		//super variables care about position, so we can't forward those.
-		double value = super.getRawVariableValue(variable, partialTicks);
-		if(!Double.isNaN(value)){
-			return value;
-		}
+		final AVariableBinding superBinding = super.compileVariable(variable);
 		
-		//We didn't find any part-specific or generic animations.
-		//We could, however, be wanting the animations of our parent part, but didn't specify a _parent prefix.
-		//If we have a parent part, get it, and try this loop again.
-		if(parentPart != null){
-			return parentPart.getRawVariableValue(variable, partialTicks);
-		}
-
-		//If we are down here, we must have not found a part variable, and don't have a parent part to do default forwarding.
-		//This means we might be requesting a variable on the entity this part is placed on.
-		//Try to get the parent variable, and return whatever we get, NaN or otherwise.
-		return entityOn.getRawVariableValue(variable, partialTicks);
+		//If super doesn't have a value, we could be wanting the animations of our parent part, but didn't specify a _parent prefix.
+		//If we don't have a parent part, we might be requesting a variable on the entity this part is placed on.
+		//Neither of those can change for this part, so get their binding now, and return whatever it gives, NaN or otherwise.
+		AEntityC_Definable<?> forwardedEntity = parentPart != null ? parentPart : entityOn;
+		final AVariableBinding forwardedBinding = forwardedEntity.getVariableBinding(variable);
+		return new AVariableBinding(variable){
+			@Override
+			public double getValue(float partialTicks){
+				double value = superBinding.getValue(partialTicks);
+				return !Double.isNaN(value) ? value : forwardedBinding.getValue(partialTicks);
+			}
+		};
 	}
 	
 	@Override
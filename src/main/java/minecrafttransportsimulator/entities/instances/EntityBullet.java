@@ -36,6 +36,8 @@ public class EntityBullet extends AEntityC_Definable<JSONBullet>{
 	private final double initialVelocity;
 	private final double anglePerTickSpeed;
 	private final Point3d velocityToAddEachTick;
+	private final Point3d blockHitPoint = new Point3d();
+	private final Point3d entityHitMotion = new Point3d();
 	private Point3d targetPosition;
 	public double targetDistance;
 	private WrapperEntity externalEntityTargeted;
@@ -95,9 +97,17 @@ public class EntityBullet extends AEntityC_Definable<JSONBullet>{
 			//Get possible damage.
 			Damage damage = new Damage("bullet", velocity*definition.bullet.diameter/5*ConfigSystem.configObject.damage.bulletDamageFactor.value, boundingBox, gun, null);
 			
+			//Check for blocks first.  Entities past the first block we hit are behind it, so we only check for entities up to that block.
+			Point3d blockHitPos = world.getBlockHit(position, motion, blockHitPoint);
+			if(blockHitPos != null){
+				entityHitMotion.setTo(blockHitPoint).subtract(position);
+			}else{
+				entityHitMotion.setTo(motion);
+			}
+			
 			//Check for collided entities and attack them.
 			//If we collide with an armored vehicle, try to penetrate it.
-			Map<WrapperEntity, Collection<BoundingBox>> attackedEntities = world.attackEntities(damage, motion);
+			Map<WrapperEntity, Collection<BoundingBox>> attackedEntities = world.attackEntities(damage, entityHitMotion);
 			if(!attackedEntities.isEmpty()){
 				double armorPenetrated = 0;
 				for(WrapperEntity entity : attackedEntities.keySet()){
@@ -149,10 +159,9 @@ public class EntityBullet extends AEntityC_Definable<JSONBullet>{
 				}
 			}
 			
-			//Didn't hit an entity.  Check for blocks.
-			Point3d hitPos = world.getBlockHit(position, motion);
-			if(hitPos != null){
-				boundingBox.globalCenter.setTo(hitPos);
+			//Didn't hit an entity.  Check if we hit a block.
+			if(blockHitPos != null){
+				boundingBox.globalCenter.setTo(blockHitPos);
 				InterfacePacket.sendToServer(new PacketPartGunBulletHit(gun, this, boundingBox, null));
 				remove();
 				return false;
@@ -5,12 +5,14 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.baseclasses.TrailerConnection;
+import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
 import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlAnalog;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlDigital;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.rendering.instances.RenderVehicle;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -576,99 +578,362 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
     }
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
-		//If we are a forwarded variable and are a connected trailer, do that now.
-		if(definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(variable)){
-			return towedByConnection.hitchBaseEntity.getRawVariableValue(variable, partialTicks);
-		}
+	public AVariableBinding compileVariable(final String variable){
+		final AVariableBinding vehicleBinding = compileVehicleVariable(variable);
+		
+		//If we are a forwarded variable and are a trailer, we need to forward to the entity towing us when connected.
+		//That entity can change, so compile the variable on it the first time we see it rather than here.
+		if(definition.motorized.isTrailer && definition.motorized.hookupVariables.contains(variable)){
+			return new AVariableBinding(variable){
+				private AEntityD_Interactable<?> lastTowingEntity;
+				private AVariableBinding lastTowingBinding;
 				
-		//If we have a variable with a suffix, we need to get that part first and pass
-		//it into this method rather than trying to run through the code now.
+				@Override
+				public double getValue(float partialTicks){
+					if(towedByConnection != null){
+						if(towedByConnection.hitchBaseEntity != lastTowingEntity){
+							lastTowingEntity = towedByConnection.hitchBaseEntity;
+							lastTowingBinding = lastTowingEntity.getVariableBinding(variable);
+						}
+						return lastTowingBinding.getValue(partialTicks);
+					}else{
+						return vehicleBinding.getValue(partialTicks);
+					}
+				}
+			};
+		}else{
+			return vehicleBinding;
+		}
+	}
+	
+	/**
+	 *  Compiles the passed-in variable for this vehicle, without any trailer forwarding.
+	 */
+	private AVariableBinding compileVehicleVariable(String variable){
+		//If we have a variable with a suffix, compile it for the part it references.
 		int partNumber = getVariableNumber(variable);
 		if(partNumber != -1){
-			return getSpecificPartAnimation(this, variable, partNumber, partialTicks);
+			return compileSpecificPartAnimation(this, variable, partNumber);
 		}
 		
-		//Not a part of a forwarded variable.  Just return normally.
 		switch(variable){
 			//Vehicle world state cases.
-			case("yaw"): return angles.y;
-			case("heading"): int heading = (int)-angles.y; if(ConfigSystem.configObject.clientControls.north360.value) heading += 180; while (heading < 1) heading += 360; while (heading > 360) heading -= 360; return heading;
-			case("pitch"): return angles.x;
-			case("roll"): return angles.z;
-			case("altitude"): return position.y;
-			case("speed"): return axialVelocity*EntityVehicleF_Physics.SPEED_FACTOR*20;
-			case("acceleration"): return motion.length() - prevMotion.length();
-
+			case("yaw"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return angles.y;
+				}
+			};
+			case("heading"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					int heading = (int)-angles.y;
+					if(ConfigSystem.configObject.clientControls.north360.value) heading += 180;
+					while (heading < 1) heading += 360;
+					while (heading > 360) heading -= 360;
+					return heading;
+				}
+			};
+			case("pitch"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return angles.x;
+				}
+			};
+			case("roll"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return angles.z;
+				}
+			};
+			case("altitude"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return position.y;
+				}
+			};
+			case("speed"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return axialVelocity*EntityVehicleF_Physics.SPEED_FACTOR*20;
+				}
+			};
+			case("acceleration"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return motion.length() - prevMotion.length();
+				}
+			};
+			
 			//Vehicle state cases.
-			case("throttle"): return throttle/(double)EntityVehicleF_Physics.MAX_THROTTLE;
-			case("brake"): return brake/(double)EntityVehicleF_Physics.MAX_BRAKE;
-			case("fuel"): return fuelTank.getFluidLevel()/fuelTank.getMaxLevel();
-			case("electric_power"): return electricPower;
-			case("electric_usage"): return electricFlow*20D;
-			case("engines_on"): return enginesOn ? 1 : 0;
-			case("engines_running"): return enginesRunning ? 1 : 0;
-			case("p_brake"): return parkingBrakeOn ? 1 : 0;
-			case("reverser"): return reverseThrust ? 1 : 0;
-			case("horn"): return hornOn ? 1 : 0;
-			case("autopilot"): return autopilot ? 1 : 0;
-			case("locked"): return locked ? 1 : 0;
-			case("door"): return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
-			case("fueling"): return beingFueled ? 1 : 0;
+			case("throttle"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return throttle/(double)EntityVehicleF_Physics.MAX_THROTTLE;
+				}
+			};
+			case("brake"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return brake/(double)EntityVehicleF_Physics.MAX_BRAKE;
+				}
+			};
+			case("fuel"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return fuelTank.getFluidLevel()/fuelTank.getMaxLevel();
+				}
+			};
+			case("electric_power"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return electricPower;
+				}
+			};
+			case("electric_usage"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return electricFlow*20D;
+				}
+			};
+			case("engines_on"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return enginesOn ? 1 : 0;
+				}
+			};
+			case("engines_running"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return enginesRunning ? 1 : 0;
+				}
+			};
+			case("p_brake"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return parkingBrakeOn ? 1 : 0;
+				}
+			};
+			case("reverser"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return reverseThrust ? 1 : 0;
+				}
+			};
+			case("horn"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return hornOn ? 1 : 0;
+				}
+			};
+			case("autopilot"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return autopilot ? 1 : 0;
+				}
+			};
+			case("locked"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return locked ? 1 : 0;
+				}
+			};
+			case("door"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
+				}
+			};
+			case("fueling"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return beingFueled ? 1 : 0;
+				}
+			};
 			
 			//State cases generally used on aircraft.
-			case("aileron"): return aileronAngle/10D;
-			case("elevator"): return elevatorAngle/10D;
-			case("rudder"): return rudderAngle/10D;
-			case("flaps_setpoint"): return flapDesiredAngle;
-			case("flaps_actual"): return flapCurrentAngle;
-			case("flaps_moving"): return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
-			case("trim_aileron"): return aileronTrim/10D;
-			case("trim_elevator"): return elevatorTrim/10D;
-			case("trim_rudder"): return rudderTrim/10D;
-			case("vertical_speed"): return motion.y*EntityVehicleF_Physics.SPEED_FACTOR*20;
-			case("lift_reserve"): return -trackAngle;
-			case("turn_coordinator"): return ((angles.z - prevAngles.z)/10 + angles.y - prevAngles.y)/0.15D*25;
-			case("turn_indicator"): return (angles.y - prevAngles.y)/0.15F*25F;
-			case("slip"): return 75*sideVector.dotProduct(normalizedVelocityVector);
-			case("gear_setpoint"): return gearUpCommand ? 1 : 0;
-			case("gear_moving"): return (gearUpCommand ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
-			case("beacon_direction"): return selectedBeacon != null ? angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
-			case("beacon_bearing_setpoint"): return selectedBeacon != null ? selectedBeacon.bearing : 0;
-			case("beacon_bearing_delta"): return selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
-			case("beacon_glideslope_setpoint"): return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
-			case("beacon_glideslope_actual"): return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
-			case("beacon_glideslope_delta"): return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
-			
-			default: {
-				//Missile incoming variables.
-				//Variable is in the form of missile_X_variablename.
-				if(variable.startsWith("missile_")){
-					String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
-					int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
-					if(missileNumber != -1){
-						if(missilesIncoming.size() <= missileNumber){
-							return 0;
-						}else{
-							switch(missileVariable){
-								case("distance"): return missilesIncoming.get(missileNumber).targetDistance;
-								case("direction"): {
-									Point3d missilePos = missilesIncoming.get(missileNumber).position;
-									return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + angles.y;
-								}
+			case("aileron"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return aileronAngle/10D;
+				}
+			};
+			case("elevator"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return elevatorAngle/10D;
+				}
+			};
+			case("rudder"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return rudderAngle/10D;
+				}
+			};
+			case("flaps_setpoint"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return flapDesiredAngle;
+				}
+			};
+			case("flaps_actual"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return flapCurrentAngle;
+				}
+			};
+			case("flaps_moving"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
+				}
+			};
+			case("trim_aileron"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return aileronTrim/10D;
+				}
+			};
+			case("trim_elevator"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return elevatorTrim/10D;
+				}
+			};
+			case("trim_rudder"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return rudderTrim/10D;
+				}
+			};
+			case("vertical_speed"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return motion.y*EntityVehicleF_Physics.SPEED_FACTOR*20;
+				}
+			};
+			case("lift_reserve"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return -trackAngle;
+				}
+			};
+			case("turn_coordinator"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return ((angles.z - prevAngles.z)/10 + angles.y - prevAngles.y)/0.15D*25;
+				}
+			};
+			case("turn_indicator"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return (angles.y - prevAngles.y)/0.15F*25F;
+				}
+			};
+			case("slip"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return 75*sideVector.dotProduct(normalizedVelocityVector);
+				}
+			};
+			case("gear_setpoint"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return gearUpCommand ? 1 : 0;
+				}
+			};
+			case("gear_moving"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return (gearUpCommand ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
+				}
+			};
+			case("beacon_direction"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
+				}
+			};
+			case("beacon_bearing_setpoint"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? selectedBeacon.bearing : 0;
+				}
+			};
+			case("beacon_bearing_delta"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? selectedBeacon.getBearingDelta(EntityVehicleF_Physics.this) : 0;
+				}
+			};
+			case("beacon_glideslope_setpoint"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
+				}
+			};
+			case("beacon_glideslope_actual"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
+				}
+			};
+			case("beacon_glideslope_delta"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
+				}
+			};
+		}
+		
+		//Missile incoming variables.
+		//Variable is in the form of missile_X_variablename.  Parse the missile and variable now.
+		if(variable.startsWith("missile_")){
+			String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
+			final int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
+			if(missileNumber != -1){
+				switch(missileVariable){
+					case("distance"): return new AVariableBinding(variable){
+						@Override
+						public double getValue(float partialTicks){
+							return missilesIncoming.size() <= missileNumber ? 0 : missilesIncoming.get(missileNumber).targetDistance;
+						}
+					};
+					case("direction"): return new AVariableBinding(variable){
+						@Override
+						public double getValue(float partialTicks){
+							if(missilesIncoming.size() <= missileNumber){
+								return 0;
+							}else{
+								Point3d missilePos = missilesIncoming.get(missileNumber).position;
+								return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + angles.y;
 							}
 						}
-					}else if(missileVariable.equals("incoming")){
-						return missilesIncoming.isEmpty() ? 0 : 1;
+					};
+					default: {
+						final AVariableBinding superBinding = super.compileVariable(variable);
+						return new AVariableBinding(variable){
+							@Override
+							public double getValue(float partialTicks){
+								return missilesIncoming.size() <= missileNumber ? 0 : superBinding.getValue(partialTicks);
+							}
+						};
 					}
 				}
+			}else if(missileVariable.equals("incoming")){
+				return new AVariableBinding(variable){
+					@Override
+					public double getValue(float partialTicks){
+						return missilesIncoming.isEmpty() ? 0 : 1;
+					}
+				};
 			}
 		}
 		
 		//Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
 		//a closed door, a missing part, a custom variable that's not on, or something else entirely.
-		//Just return super here.
-		return super.getRawVariableValue(variable, partialTicks);
+		//Just compile super here.
+		return super.compileVariable(variable);
 	}
 	
 	@Override
@@ -14,6 +14,7 @@ import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartEffector;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import net.minecraft.item.ItemStack;
 
 public class PartEffector extends APart{
@@ -157,15 +158,35 @@ public class PartEffector extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("effector_active"): return isActive ? 1 : 0;
-			case("effector_drill_broken"): return blocksBroken;
-			case("effector_drill_max"): return definition.effector.drillDurability;
-			case("effector_drill_percentage"): return blocksBroken/(double)definition.effector.drillDurability;
+			case("effector_active"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return isActive ? 1 : 0;
+				}
+			};
+			case("effector_drill_broken"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return blocksBroken;
+				}
+			};
+			case("effector_drill_max"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return definition.effector.drillDurability;
+				}
+			};
+			case("effector_drill_percentage"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return blocksBroken/(double)definition.effector.drillDurability;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	@Override
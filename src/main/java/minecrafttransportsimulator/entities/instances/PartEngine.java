@@ -11,6 +11,7 @@ import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine.Signal;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 public class PartEngine extends APart{
@@ -549,67 +550,239 @@ public class PartEngine extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("engine_isautomatic"): return definition.engine.isAutomatic ? 1 : 0;	
-			case("engine_rotation"): return getEngineRotation(partialTicks);
-			case("engine_sin"): return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
-			case("engine_cos"): return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
-			case("engine_driveshaft_rotation"): return getDriveshaftRotation(partialTicks);
-			case("engine_driveshaft_sin"): return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
-			case("engine_driveshaft_cos"): return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
-			case("engine_rpm"): return rpm;
-			case("engine_rpm_safe"): return definition.engine.maxSafeRPM;
-			case("engine_rpm_max"): return definition.engine.maxRPM;
-			case("engine_rpm_percent"): return rpm/definition.engine.maxRPM;
-			case("engine_rpm_percent_safe"): return rpm/definition.engine.maxSafeRPM;
-			case("engine_fuel_flow"): return fuelFlow*20D*60D/1000D;
-			case("engine_temp"): return temp;
-			case("engine_pressure"): return pressure;
-			case("engine_gear"): return currentGear;
-			case("engine_gearshift"): return getGearshiftRotation();
-			case("engine_gearshift_hvertical"): return getGearshiftPosition_Vertical();
-			case("engine_gearshift_hhorizontal"): return getGearshiftPosition_Horizontal();
-			case("engine_clutch_upshift"): return upshiftCountdown > 0 ? 1 : 0;
-			case("engine_clutch_downshift"): return downshiftCountdown > 0 ? 1 : 0;
-			case("engine_badshift"): return badShift ? 1 : 0;
-			case("engine_reversed"): return currentGear < 0 ? 1 : 0;
-			case("engine_magneto"): return state.magnetoOn ? 1 : 0;
-			case("engine_starter"): return state.esOn || state.hsOn ? 1 : 0;
-			case("engine_running"): return state.running ? 1 : 0;
-			case("engine_powered"): return state.running || internalFuel > 0 ? 1 : 0;
-			case("engine_backfired"): return backfired ? 1 : 0;
-			case("engine_jumper_cable"): return linkedEngine != null ? 1 : 0;
-			case("engine_hours"): return hours;
-			case("engine_oilleak"): return oilLeak ? 1 : 0;
-			case("engine_fuelleak"): return fuelLeak ? 1 : 0;
+			case("engine_isautomatic"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return definition.engine.isAutomatic ? 1 : 0;
+				}
+			};
+			case("engine_rotation"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getEngineRotation(partialTicks);
+				}
+			};
+			case("engine_sin"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
+				}
+			};
+			case("engine_cos"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
+				}
+			};
+			case("engine_driveshaft_rotation"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getDriveshaftRotation(partialTicks);
+				}
+			};
+			case("engine_driveshaft_sin"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
+				}
+			};
+			case("engine_driveshaft_cos"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
+				}
+			};
+			case("engine_rpm"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return rpm;
+				}
+			};
+			case("engine_rpm_safe"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return definition.engine.maxSafeRPM;
+				}
+			};
+			case("engine_rpm_max"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return definition.engine.maxRPM;
+				}
+			};
+			case("engine_rpm_percent"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return rpm/definition.engine.maxRPM;
+				}
+			};
+			case("engine_rpm_percent_safe"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return rpm/definition.engine.maxSafeRPM;
+				}
+			};
+			case("engine_fuel_flow"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return fuelFlow*20D*60D/1000D;
+				}
+			};
+			case("engine_temp"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return temp;
+				}
+			};
+			case("engine_pressure"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return pressure;
+				}
+			};
+			case("engine_gear"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return currentGear;
+				}
+			};
+			case("engine_gearshift"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getGearshiftRotation();
+				}
+			};
+			case("engine_gearshift_hvertical"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getGearshiftPosition_Vertical();
+				}
+			};
+			case("engine_gearshift_hhorizontal"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getGearshiftPosition_Horizontal();
+				}
+			};
+			case("engine_clutch_upshift"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return upshiftCountdown > 0 ? 1 : 0;
+				}
+			};
+			case("engine_clutch_downshift"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return downshiftCountdown > 0 ? 1 : 0;
+				}
+			};
+			case("engine_badshift"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return badShift ? 1 : 0;
+				}
+			};
+			case("engine_reversed"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return currentGear < 0 ? 1 : 0;
+				}
+			};
+			case("engine_magneto"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return state.magnetoOn ? 1 : 0;
+				}
+			};
+			case("engine_starter"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return state.esOn || state.hsOn ? 1 : 0;
+				}
+			};
+			case("engine_running"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return state.running ? 1 : 0;
+				}
+			};
+			case("engine_powered"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return state.running || internalFuel > 0 ? 1 : 0;
+				}
+			};
+			case("engine_backfired"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return backfired ? 1 : 0;
+				}
+			};
+			case("engine_jumper_cable"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return linkedEngine != null ? 1 : 0;
+				}
+			};
+			case("engine_hours"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return hours;
+				}
+			};
+			case("engine_oilleak"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return oilLeak ? 1 : 0;
+				}
+			};
+			case("engine_fuelleak"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return fuelLeak ? 1 : 0;
+				}
+			};
 		}
+		
+		//Check for piston variables, and parse out the piston numbers now.
 		if(variable.startsWith("engine_piston_")){
-			if(state.running){
-				String pistonVariable = variable.substring("engine_piston_".length());
-				int pistonNumber = Integer.parseInt(pistonVariable.substring(0, pistonVariable.indexOf("_")));
-				pistonVariable.substring(pistonVariable.indexOf("_"));
-				int totalPistons = Integer.parseInt(pistonVariable.substring(0, pistonVariable.indexOf("_")));
-				long engineCycleTime = (long) (2D*(1D/(rpm/60D/1000D)));
+			String pistonVariable = variable.substring("engine_piston_".length());
+			final int pistonNumber = Integer.parseInt(pistonVariable.substring(0, pistonVariable.indexOf("_")));
+			final int totalPistons = Integer.parseInt(pistonVariable.substring(0, pistonVariable.indexOf("_")));
+			return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return getPistonValue(pistonNumber, totalPistons, partialTicks);
+				}
+			};
+		}
+		return super.compileVariable(variable);
+	}
+	
+	/**
+	 * Helper method to get the state of the passed-in piston.  Returns 1 if the piston is
+	 * in its cam window, and 0 if it isn't or the engine isn't running.
+	 */
+	private double getPistonValue(int pistonNumber, int totalPistons, float partialTicks){
+		if(state.running){
+			long engineCycleTime = (long) (2D*(1D/(rpm/60D/1000D)));
+			if(engineCycleTime != 0){
+				long currentEngineTime = (long) ((ticksExisted + partialTicks)*50D);
+				long engineTimeInCycle = currentEngineTime%engineCycleTime;
 				
-				if(engineCycleTime != 0){
-					long currentEngineTime = (long) ((ticksExisted + partialTicks)*50D);
-					long engineTimeInCycle = currentEngineTime%engineCycleTime;
-					
-					long pistonCycleTime = totalPistons > 1 ? engineCycleTime/totalPistons : engineCycleTime/2;
-					long camMin = (pistonNumber - 1)*pistonCycleTime;
-					long camMax = camMin + pistonCycleTime;
-					if(camMax > engineCycleTime){
-						return engineTimeInCycle < camMin && engineTimeInCycle > camMax ? 1 : 0;
-					}else{
-						return engineTimeInCycle > camMin && engineTimeInCycle < camMax ? 1 : 0;	
-					}
+				long pistonCycleTime = totalPistons > 1 ? engineCycleTime/totalPistons : engineCycleTime/2;
+				long camMin = (pistonNumber - 1)*pistonCycleTime;
+				long camMax = camMin + pistonCycleTime;
+				if(camMax > engineCycleTime){
+					return engineTimeInCycle < camMin && engineTimeInCycle > camMax ? 1 : 0;
+				}else{
+					return engineTimeInCycle > camMin && engineTimeInCycle < camMax ? 1 : 0;	
 				}
 			}
-			return 0;
 		}
-		
-		return super.getRawVariableValue(variable, partialTicks);
+		return 0;
 	}
 	
 	
@@ -8,6 +8,7 @@ import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
 import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartGroundDevice;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**A ground device is simply a part of a vehicle that touches the ground.
@@ -150,18 +151,53 @@ public class PartGroundDevice extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("ground_rotation"): return EntityVehicleF_Physics.SPEED_FACTOR*(angularPosition + angularVelocity*partialTicks)*360D;
-			case("ground_onground"): return vehicleOn != null && vehicleOn.groundDeviceCollective.isActuallyOnGround(this) ? 1 : 0;
-			case("ground_inliquid"): return isInLiquid() ? 1 : 0;
-			case("ground_isflat"): return isFlat ? 1 : 0;
-			case("ground_contacted"): return contactThisTick ? 1 : 0;
-			case("ground_skidding"): return skipAngularCalcs ? 1 : 0;
-			case("ground_slipping"): return vehicleOn != null && vehicleOn.slipping && vehicleOn.groundDeviceCollective.isActuallyOnGround(this) ? 1 : 0;
+			case("ground_rotation"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return EntityVehicleF_Physics.SPEED_FACTOR*(angularPosition + angularVelocity*partialTicks)*360D;
+				}
+			};
+			case("ground_onground"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return vehicleOn != null && vehicleOn.groundDeviceCollective.isActuallyOnGround(PartGroundDevice.this) ? 1 : 0;
+				}
+			};
+			case("ground_inliquid"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return isInLiquid() ? 1 : 0;
+				}
+			};
+			case("ground_isflat"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return isFlat ? 1 : 0;
+				}
+			};
+			case("ground_contacted"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return contactThisTick ? 1 : 0;
+				}
+			};
+			case("ground_skidding"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return skipAngularCalcs ? 1 : 0;
+				}
+			};
+			case("ground_slipping"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return vehicleOn != null && vehicleOn.slipping && vehicleOn.groundDeviceCollective.isActuallyOnGround(PartGroundDevice.this) ? 1 : 0;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	@Override
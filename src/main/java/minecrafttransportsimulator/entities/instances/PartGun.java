@@ -20,6 +20,7 @@ import minecrafttransportsimulator.mcinterface.WrapperNBT;
 import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartGun;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.PackParserSystem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -454,37 +455,120 @@ public class PartGun extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
-		//Check for an instance of a gun_muzzle_# variable, since these requires additional parsing
+	public AVariableBinding compileVariable(String variable){
+		//Check for an instance of a gun_muzzle_# variable, and parse out the muzzle now.
 		if(variable.startsWith("gun_muzzle_")){
-			//Get the rest of the variable after gun_muzzle_
 			String muzzleVariable = variable.substring("gun_muzzle_".length());
-			//Parse one or more digits, then take off one because we are zero-indexed
-			int muzzleNumber = Integer.parseInt(muzzleVariable.substring(0, muzzleVariable.indexOf('_'))) - 1;
+			final int muzzleNumber = Integer.parseInt(muzzleVariable.substring(0, muzzleVariable.indexOf('_'))) - 1;
 			switch(muzzleVariable.substring(muzzleVariable.indexOf('_') + 1)) {
-				case("firing"): return (muzzleNumber == currentMuzzle ? 1 : 0) * cooldownTimeRemaining/(double)definition.gun.fireDelay;
+				case("firing"): return new AVariableBinding(variable){
+					@Override
+					public double getValue(float partialTicks){
+						return (muzzleNumber == currentMuzzle ? 1 : 0) * cooldownTimeRemaining/(double)definition.gun.fireDelay;
+					}
+				};
 			}
 		}
 		switch(variable){
-			case("gun_inhand"): return entityOn instanceof EntityPlayerGun ? 1 : 0;	
-			case("gun_active"): return gunEnabled ? 1 : 0;
-			case("gun_firing"): return firingEnabled ? 1 : 0;
-			case("gun_fired"): return firedThisTick ? 1 : 0;
-			case("gun_lockedon"): return entityTarget != null ? 1 : 0;
-			case("gun_pitch"): return prevOrientation.x + (currentOrientation.x - prevOrientation.x)*partialTicks;
-			case("gun_yaw"): return prevOrientation.y + (currentOrientation.y - prevOrientation.y)*partialTicks;
-			case("gun_pitching"): return prevOrientation.x != currentOrientation.x ? 1 : 0;
-			case("gun_yawing"): return prevOrientation.y != currentOrientation.y ? 1 : 0;
-			case("gun_cooldown"): return cooldownTimeRemaining > 0 ? 1 : 0;
-			case("gun_windup_time"): return windupTimeCurrent;
-			case("gun_windup_rotation"): return windupRotation;
-			case("gun_windup_complete"): return windupTimeCurrent == definition.gun.windupTime ? 1 : 0;
-			case("gun_reload"): return reloadTimeRemaining > 0 ? 1 : 0;
-			case("gun_ammo_count"): return bulletsLeft;
-			case("gun_ammo_percent"): return bulletsLeft/definition.gun.capacity;
+			case("gun_inhand"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return entityOn instanceof EntityPlayerGun ? 1 : 0;
+				}
+			};
+			case("gun_active"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return gunEnabled ? 1 : 0;
+				}
+			};
+			case("gun_firing"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return firingEnabled ? 1 : 0;
+				}
+			};
+			case("gun_fired"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return firedThisTick ? 1 : 0;
+				}
+			};
+			case("gun_lockedon"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return entityTarget != null ? 1 : 0;
+				}
+			};
+			case("gun_pitch"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return prevOrientation.x + (currentOrientation.x - prevOrientation.x)*partialTicks;
+				}
+			};
+			case("gun_yaw"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return prevOrientation.y + (currentOrientation.y - prevOrientation.y)*partialTicks;
+				}
+			};
+			case("gun_pitching"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return prevOrientation.x != currentOrientation.x ? 1 : 0;
+				}
+			};
+			case("gun_yawing"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return prevOrientation.y != currentOrientation.y ? 1 : 0;
+				}
+			};
+			case("gun_cooldown"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return cooldownTimeRemaining > 0 ? 1 : 0;
+				}
+			};
+			case("gun_windup_time"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return windupTimeCurrent;
+				}
+			};
+			case("gun_windup_rotation"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return windupRotation;
+				}
+			};
+			case("gun_windup_complete"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return windupTimeCurrent == definition.gun.windupTime ? 1 : 0;
+				}
+			};
+			case("gun_reload"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return reloadTimeRemaining > 0 ? 1 : 0;
+				}
+			};
+			case("gun_ammo_count"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return bulletsLeft;
+				}
+			};
+			case("gun_ammo_percent"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return bulletsLeft/definition.gun.capacity;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 
 	/**
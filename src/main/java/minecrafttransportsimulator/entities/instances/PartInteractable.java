@@ -12,6 +12,7 @@ import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.mcinterface.WrapperTileEntity;
 import minecrafttransportsimulator.packets.instances.PacketPartInteractable;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 
 public final class PartInteractable extends APart{
 	private final WrapperTileEntity interactable;
@@ -155,36 +156,45 @@ public final class PartInteractable extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("interactable_count"): {
-				if(inventory != null){
-					return inventory.getCount();
-				}else{
-					return 0;
+			case("interactable_count"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getCount();
+					}else{
+						return 0;
+					}
 				}
-			}
-			case("interactable_percent"): {
-				if(inventory != null){
-					return inventory.getCount()/(double)inventory.getSize();
-				}else if(tank != null){
-					return tank.getFluidLevel()/tank.getMaxLevel();
-				}else{
-					return 0;
+			};
+			case("interactable_percent"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getCount()/(double)inventory.getSize();
+					}else if(tank != null){
+						return tank.getFluidLevel()/tank.getMaxLevel();
+					}else{
+						return 0;
+					}
 				}
-			}
-			case("interactable_capacity"): {
-				if(inventory != null){
-					return inventory.getSize();
-				}else if(tank != null){
-					return tank.getMaxLevel()/1000;
-				}else{
-					return 0;
+			};
+			case("interactable_capacity"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					if(inventory != null){
+						return inventory.getSize();
+					}else if(tank != null){
+						return tank.getMaxLevel()/1000;
+					}else{
+						return 0;
+					}
 				}
-			}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	/**
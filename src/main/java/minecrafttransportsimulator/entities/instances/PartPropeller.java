@@ -9,6 +9,7 @@ import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine.Signal;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 public class PartPropeller extends APart{	
@@ -136,15 +137,35 @@ public class PartPropeller extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public AVariableBinding compileVariable(String variable){
 		switch(variable){
-			case("propeller_pitch_deg"): return Math.toDegrees(Math.atan(currentPitch / (definition.propeller.diameter*0.75D*Math.PI)));
-			case("propeller_pitch_in"): return currentPitch;
-			case("propeller_pitch_percent"): return 1D*(currentPitch - PartPropeller.MIN_DYNAMIC_PITCH)/(definition.propeller.pitch - PartPropeller.MIN_DYNAMIC_PITCH);
-			case("propeller_rotation"): return (angularPosition + angularVelocity*partialTicks)*360D;
+			case("propeller_pitch_deg"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return Math.toDegrees(Math.atan(currentPitch / (definition.propeller.diameter*0.75D*Math.PI)));
+				}
+			};
+			case("propeller_pitch_in"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return currentPitch;
+				}
+			};
+			case("propeller_pitch_percent"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return 1D*(currentPitch - PartPropeller.MIN_DYNAMIC_PITCH)/(definition.propeller.pitch - PartPropeller.MIN_DYNAMIC_PITCH);
+				}
+			};
+			case("propeller_rotation"): return new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return (angularPosition + angularVelocity*partialTicks)*360D;
+				}
+			};
 		}
 		
-		return super.getRawVariableValue(variable, partialTicks);
+		return super.compileVariable(variable);
 	}
 	
 	@Override
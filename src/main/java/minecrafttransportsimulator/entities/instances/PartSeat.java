@@ -11,6 +11,7 @@ import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketPartSeat;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
+import minecrafttransportsimulator.rendering.components.AVariableBinding;
 import minecrafttransportsimulator.systems.PackParserSystem;
 
 public final class PartSeat extends APart{
@@ -189,47 +190,72 @@ public final class PartSeat extends APart{
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
-		double value = super.getRawVariableValue(variable, partialTicks);
-		if(!Double.isNaN(value)){
-			return value;
-		}
-		
-		WrapperEntity riderForSeat = entityOn.locationRiderMap.get(placementOffset);
+	public AVariableBinding compileVariable(String variable){
+		//Super variables are checked first, so only use our variables if super doesn't have a value for them.
+		final AVariableBinding superBinding = super.compileVariable(variable);
+		final AVariableBinding seatBinding;
 		switch(variable){
-			case("seat_occupied"): return riderForSeat != null ? 1 : 0;
-			case("seat_occupied_client"): return InterfaceClient.getClientPlayer().equals(riderForSeat) ? 1 : 0;
-			case("seat_rider_yaw"): {
-				if(riderForSeat != null){
-					double riderYaw = riderForSeat.getHeadYaw() - entityOn.angles.y;
-					while(riderYaw < -180) riderYaw += 360;
-					while(riderYaw > 180) riderYaw -= 360;
-					return riderYaw;
-				}else{
-					return 0;
+			case("seat_occupied"): seatBinding = new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return entityOn.locationRiderMap.get(placementOffset) != null ? 1 : 0;
 				}
-			}
-			case("seat_rider_pitch"): {
-				if(riderForSeat != null) {
-					double pitch = entityOn.angles.x;
-	            	double roll = entityOn.angles.z;
-	            	double riderYaw = riderForSeat.getHeadYaw() - entityOn.angles.y;
-	            	while(pitch > 180){pitch -= 360;}
-	    			while(pitch < -180){pitch += 360;}
-	    			while(roll > 180){roll -= 360;}
-	    			while(roll < -180){roll += 360;}
-
-	            	double rollRollComponent = -Math.sin(Math.toRadians(riderYaw))*roll;
-	            	double pitchRollComponent = Math.cos(Math.toRadians(riderYaw))*pitch;
-	            	return riderForSeat.getPitch() - (rollRollComponent + pitchRollComponent);
-            	}
-				else {
-					return 0;
+			};
+			break;
+			case("seat_occupied_client"): seatBinding = new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					return InterfaceClient.getClientPlayer().equals(entityOn.locationRiderMap.get(placementOffset)) ? 1 : 0;
 				}
-			}
+			};
+			break;
+			case("seat_rider_yaw"): seatBinding = new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					WrapperEntity riderForSeat = entityOn.locationRiderMap.get(placementOffset);
+					if(riderForSeat != null){
+						double riderYaw = riderForSeat.getHeadYaw() - entityOn.angles.y;
+						while(riderYaw < -180) riderYaw += 360;
+						while(riderYaw > 180) riderYaw -= 360;
+						return riderYaw;
+					}else{
+						return 0;
+					}
+				}
+			};
+			break;
+			case("seat_rider_pitch"): seatBinding = new AVariableBinding(variable){
+				@Override
+				public double getValue(float partialTicks){
+					WrapperEntity riderForSeat = entityOn.locationRiderMap.get(placementOffset);
+					if(riderForSeat != null){
+						double pitch = entityOn.angles.x;
+						double roll = entityOn.angles.z;
+						double riderYaw = riderForSeat.getHeadYaw() - entityOn.angles.y;
+						while(pitch > 180){pitch -= 360;}
+						while(pitch < -180){pitch += 360;}
+						while(roll > 180){roll -= 360;}
+						while(roll < -180){roll += 360;}
+						
+						double rollRollComponent = -Math.sin(Math.toRadians(riderYaw))*roll;
+						double pitchRollComponent = Math.cos(Math.toRadians(riderYaw))*pitch;
+						return riderForSeat.getPitch() - (rollRollComponent + pitchRollComponent);
+					}else{
+						return 0;
+					}
+				}
+			};
+			break;
+			default: return superBinding;
 		}
 		
-		return Double.NaN;
+		return new AVariableBinding(variable){
+			@Override
+			public double getValue(float partialTicks){
+				double value = superBinding.getValue(partialTicks);
+				return !Double.isNaN(value) ? value : seatBinding.getValue(partialTicks);
+			}
+		};
 	}
 	
 	@Override
@@ -2,12 +2,12 @@ package minecrafttransportsimulator.guis.components;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
 import minecrafttransportsimulator.rendering.components.AModelParser;
+import minecrafttransportsimulator.rendering.components.VertexArray;
 
 /**Custom #D model render class.  This allows for rendering a parsed model into a GUI.
  * Mainly used to render vehicles, though can be used for other models if desired.
@@ -55,7 +55,7 @@ public class GUIComponent3DModel{
     	if(visible){
 			if(modelLocation != null){
 				if(!modelParsedVertexLists.containsKey(modelLocation)){
-					Map<String, Float[][]> parsedModel = AModelParser.parseModel(modelLocation);
+					Map<String, VertexArray> parsedModel = AModelParser.parseModel(modelLocation);
 					//Remove any windows and "commented" objects from the model.  We don't want to render those.
 					parsedModel.keySet().removeIf(objectName -> objectName.toLowerCase().contains("window") || objectName.startsWith("#"));
 					
@@ -66,14 +66,14 @@ public class GUIComponent3DModel{
 					float maxY = -999;
 					float minZ = 999;
 					float maxZ = -999;
-					for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
-						for(Float[] vertex : entry.getValue()){
-							minX = Math.min(minX, vertex[0]);
-							maxX = Math.max(maxX, vertex[0]);
-							minY = Math.min(minY, vertex[1]);
-							maxY = Math.max(maxY, vertex[1]);
-							minZ = Math.min(minZ, vertex[2]);
-							maxZ = Math.max(maxZ, vertex[2]);
+					for(VertexArray vertices : parsedModel.values()){
+						for(int i=0; i<vertices.vertexCount; ++i){
+							minX = Math.min(minX, vertices.get(i, 0));
+							maxX = Math.max(maxX, vertices.get(i, 0));
+							minY = Math.min(minY, vertices.get(i, 1));
+							maxY = Math.max(maxY, vertices.get(i, 1));
+							minZ = Math.min(minZ, vertices.get(i, 2));
+							maxZ = Math.max(maxZ, vertices.get(i, 2));
 						}
 					}
 					float globalMax = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ);
@@ -37,6 +37,8 @@ public class JSONConfig{
 		public JSONConfigEntry<Boolean> noclipVehicles = new JSONConfigEntry<Boolean>(false, "If true, vehicles will not be able to collide with blocks.  This also prevents them from moving if they do not have wheels on them, as otherwise they would phase through the ground into the void.");
 		public JSONConfigEntry<Boolean> creativeDamage = new JSONConfigEntry<Boolean>(false, "If true, damage from vehicles and guns will be applied to creative players.");
 		public JSONConfigEntry<Boolean> chunkloadVehicles = new JSONConfigEntry<Boolean>(true, "If true, vehicles will be chunkloaded when on roads/tracks.  This allows them to travel into unloaded chunks.");
+		public JSONConfigEntry<Double> chunkloadLookAheadTime = new JSONConfigEntry<Double>(5.0D, "How many seconds ahead of chunkloaded vehicles to load chunks.  Chunks along the path the vehicle will travel in this time are loaded, which prevents fast vehicles from stalling at the edge of loaded chunks.  Set to 0 to only load the chunk the vehicle is in.");
+		public JSONConfigEntry<Integer> vehicleSleepTicks = new JSONConfigEntry<Integer>(100, "How many ticks vehicles have to be parked before they go to sleep.  Vehicles are parked if they have their parking brake on, no riders, no running engines, and aren't moving.  Sleeping vehicles skip physics and collision checks until something happens to them, which saves a lot of work on servers with lots of parked vehicles.  Set to 0 to disable sleeping.");
 		public JSONConfigEntry<Boolean> doLegacyLightCompats = new JSONConfigEntry<Boolean>(true, "If true, legacy compatibility code will be performed on all models to make their lights work with newer versions.  This code will significantly slow down boot times due to needing to parse all models on boot, however, packs may not have functional lights without it.  Choose wisely if you want speed or features.");
 		public JSONConfigEntry<Double> speedFactor = new JSONConfigEntry<Double>(0.35D, "Factor to apply to vehicle movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
 		public JSONConfigEntry<Double> fuelUsageFactor = new JSONConfigEntry<Double>(1.0D, "Factor times which engines use fuel.  Change this if you think engines use fuel too fast or slow.");
@@ -179,6 +181,9 @@ public class JSONConfig{
 		public JSONConfigEntry<Boolean> instLights = new JSONConfigEntry<Boolean>(true, "If false, instruments will not get a lighted overlay on them that blends to make them light up in the dark.  Rather, they will use normal alpha blending.  Useful if you have shaders and this is turning lit instruments black on vehicles.");
 		public JSONConfigEntry<Boolean> vehicleBlklt = new JSONConfigEntry<Boolean>(false, "If true, vehicles will spawn invisible light blocks to force shaders to render them brighter.  Use this only if the other light options fail to work.");
 		
+		public JSONConfigEntry<Integer> entityRenderDistance = new JSONConfigEntry<Integer>(256, "Max distance, in blocks, vehicles and their parts will render at.  Vehicles further away than this, or out of view of the camera, are not rendered.  Set to 0 to only skip rendering vehicles out of view of the camera.");
+		public JSONConfigEntry<Integer> entityDetailDistance = new JSONConfigEntry<Integer>(48, "Max distance, in blocks, that details like instruments, text, and interior windows will render at.  These are hard to see from far away, so not rendering them saves a lot of work.");
+		
 		public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<Boolean>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false if mods cause issues, like two-hand rendering or player model issues.");
 		
 		
@@ -203,6 +208,7 @@ public class JSONConfig{
 		public JSONConfigEntry<Integer> controlSurfaceCooldown = new JSONConfigEntry<Integer>(4, "How long (in ticks) it takes before control surfaces try to return to their natural angle.  This is not used when using a joystick.");
 		public JSONConfigEntry<Integer> steeringIncrement = new JSONConfigEntry<Integer>(20, "How many units (1/10 of a degree) to turn the wheels on vehicles for every tick the button is held down.  This is not used when using a joystick.");
 		public JSONConfigEntry<Integer> flightIncrement = new JSONConfigEntry<Integer>(6, "How many units (1/10 of a degree) to move the elevators and ailerons on aircraft for every tick the button is held down.  This is not used when using a joystick.");
+		public JSONConfigEntry<Integer> controlDeadBand = new JSONConfigEntry<Integer>(2, "How many units analog controls such as joystick axis and the mouse yoke have to change by before the new value is sent to the server.  Higher values reduce network traffic, but make controls less precise.  Values at the center or ends of a control are always sent.");
 		public JSONConfigEntry<Double> joystickDeadZone = new JSONConfigEntry<Double>(0.03D, "Dead zone for joystick axis.  This is NOT joystick specific.");
 	}
 	
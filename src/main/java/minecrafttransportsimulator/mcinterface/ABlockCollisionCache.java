@@ -0,0 +1,245 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.LongKeyedMap;
+import minecrafttransportsimulator.baseclasses.Point3d;
+
+/**Base cache of the collision boxes of blocks.  Vehicle collision checks query the same
+ * blocks many times in a single tick as they try different movements and rotations, so rather than
+ * getting the block boxes every query, we cache them here.  Boxes are stored per block in primitive
+ * arrays, with blocks grouped into 16x16x16 sections like MC's chunk sections.  The cache is cleared
+ * every tick, and sections are invalidated when blocks in or next to them change.  Sections are re-used
+ * after clearing to prevent re-allocating the block arrays every tick.  This class doesn't know where
+ * the blocks come from: that is left to the sub-class, which allows the cache and the collision sweeps
+ * that use it to be run without a world.
+ *
+ * @author don_bruce
+ */
+abstract class ABlockCollisionCache{
+	/**Returned for blocks that have no boxes.  Not null as null is used for unloaded blocks.**/
+	protected static final double[] NO_BOXES = new double[0];
+
+	private final LongKeyedMap<CollisionSection> sections = new LongKeyedMap<CollisionSection>();
+	private final List<CollisionSection> freeSections = new ArrayList<CollisionSection>();
+	private long cachedTick = -1;
+	private long lastSectionKey;
+	private CollisionSection lastSection;
+
+	/**
+	 *  Returns the collision boxes for the block at the passed-in position.  Boxes are packed into the
+	 *  array as minX, minY, minZ, maxX, maxY, maxZ, in world coordinates, one after another.  If the block
+	 *  doesn't have any collision boxes, an empty array is returned.  If the block isn't loaded, null is returned.
+	 */
+	double[] getCollisionBoxes(int x, int y, int z){
+		CollisionSection section = getSection(x, y, z);
+		int index = getIndex(x, y, z);
+		if(section.collisionBoxes[index] == null && !cacheBlock(section, index, x, y, z)){
+			return null;
+		}
+		return section.collisionBoxes[index];
+	}
+
+	/**
+	 *  Returns the liquid box for the block at the passed-in position, packed in the same format as
+	 *  {@link #getCollisionBoxes(int, int, int)}.  If the block isn't a liquid, an empty array is returned.
+	 *  If the block isn't loaded, null is returned.
+	 */
+	double[] getLiquidBox(int x, int y, int z){
+		CollisionSection section = getSection(x, y, z);
+		int index = getIndex(x, y, z);
+		if(section.liquidBoxes[index] == null && !cacheBlock(section, index, x, y, z)){
+			return null;
+		}
+		return section.liquidBoxes[index];
+	}
+
+	/**
+	 *  Invalidates the cached boxes for the block at the passed-in position.
+	 *  As blocks may change the collision of their neighbors (fences, walls, etc.)
+	 *  this also invalidates any sections holding the neighbors of the block.
+	 */
+	void invalidate(int x, int y, int z){
+		for(int i=-1; i<=1; ++i){
+			for(int j=-1; j<=1; ++j){
+				for(int k=-1; k<=1; ++k){
+					CollisionSection section = sections.remove(getSectionKey(x + i, y + j, z + k));
+					if(section != null){
+						freeSection(section);
+					}
+				}
+			}
+		}
+		lastSection = null;
+	}
+
+	/**
+	 *  Clears all cached boxes.
+	 */
+	void clear(){
+		sections.forEachValue(this::freeSection);
+		sections.clear();
+		lastSection = null;
+	}
+
+	/**
+	 * Updates the blocks and depths of collisions for the passed-in BoundingBox to the box's internal variables.
+	 * See {@link WrapperWorld#updateBoundingBoxCollisions(BoundingBox, Point3d, boolean)} for how the
+	 * collision motion and ignoreIfGreater are used.
+	 */
+	void updateBoundingBoxCollisions(BoundingBox box, Point3d collisionMotion, boolean ignoreIfGreater){
+		double minX = box.globalCenter.x - box.widthRadius;
+		double minY = box.globalCenter.y - box.heightRadius;
+		double minZ = box.globalCenter.z - box.depthRadius;
+		double maxX = box.globalCenter.x + box.widthRadius;
+		double maxY = box.globalCenter.y + box.heightRadius;
+		double maxZ = box.globalCenter.z + box.depthRadius;
+		box.collidingBlockPositions.clear();
+		box.currentCollisionDepth.set(0D, 0D, 0D);
+		for(int i = (int) Math.floor(minX); i < Math.ceil(maxX); ++i){
+			for(int j = (int) Math.floor(minY); j < Math.ceil(maxY); ++j){
+				for(int k = (int) Math.floor(minZ); k < Math.ceil(maxZ); ++k){
+					//Boxes come from the cache, so we don't need to re-query blocks we checked earlier this tick.
+					//Null is returned for unloaded blocks.
+					double[] collisionBoxes = getCollisionBoxes(i, j, k);
+					if(collisionBoxes != null){
+						boolean collidedWithBlock = false;
+						for(int l=0; l<collisionBoxes.length; l+=6){
+							if(minX < collisionBoxes[l + 3] && maxX > collisionBoxes[l] && minY < collisionBoxes[l + 4] && maxY > collisionBoxes[l + 1] && minZ < collisionBoxes[l + 5] && maxZ > collisionBoxes[l + 2]){
+								collidedWithBlock = true;
+								updateCollisionDepth(box, collisionMotion, ignoreIfGreater, collisionBoxes, l);
+							}
+						}
+						if(collidedWithBlock){
+							box.collidingBlockPositions.add(new Point3d(i, j, k));
+						}
+						if(box.collidesWithLiquids){
+							double[] liquidBox = getLiquidBox(i, j, k);
+							if(liquidBox.length != 0){
+								updateCollisionDepth(box, collisionMotion, ignoreIfGreater, liquidBox, 0);
+								box.collidingBlockPositions.add(new Point3d(i, j, k));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Returns the current tick of the world the blocks are in.  The cache is cleared when this changes.
+	 */
+	protected abstract long getCurrentTick();
+
+	/**
+	 *  Gets the boxes for the block at the passed-in position, and caches them in the section with
+	 *  {@link CollisionSection#setBoxes(int, double[], double[])}.  Returns false if the block isn't loaded.
+	 *  Unloaded blocks should not be cached, as they may load later in the tick.
+	 */
+	protected abstract boolean cacheBlock(CollisionSection section, int index, int x, int y, int z);
+
+	/**
+	 *  Gets the section for the passed-in position, creating it if required.
+	 *  Also clears the cache if the world has ticked since the last call.
+	 */
+	private CollisionSection getSection(int x, int y, int z){
+		long currentTick = getCurrentTick();
+		if(currentTick != cachedTick){
+			clear();
+			cachedTick = currentTick;
+		}
+
+		long sectionKey = getSectionKey(x, y, z);
+		if(lastSection == null || sectionKey != lastSectionKey){
+			lastSection = sections.get(sectionKey);
+			if(lastSection == null){
+				lastSection = freeSections.isEmpty() ? new CollisionSection() : freeSections.remove(freeSections.size() - 1);
+				sections.put(sectionKey, lastSection);
+			}
+			lastSectionKey = sectionKey;
+		}
+		return lastSection;
+	}
+
+	/**
+	 *  Clears the passed-in section and adds it to the free sections for re-use.
+	 */
+	private void freeSection(CollisionSection section){
+		section.clear();
+		freeSections.add(section);
+	}
+
+	/**
+	 *  Helper method to update the collision depth of the passed-in box for a collision with a block box.
+	 *  The block box is packed in the passed-in array at the passed-in offset as minX, minY, minZ, maxX, maxY, maxZ.
+	 *  If we are in the depth bounds for this collision, it is set as the collision depth.
+	 */
+	private static void updateCollisionDepth(BoundingBox box, Point3d collisionMotion, boolean ignoreIfGreater, double[] blockBoxes, int offset){
+		double boxCollisionDepth;
+		if(collisionMotion.x > 0){
+			boxCollisionDepth = box.globalCenter.x + box.widthRadius - blockBoxes[offset];
+			if(!ignoreIfGreater || collisionMotion.x - boxCollisionDepth > 0){
+				box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
+			}
+		}else if(collisionMotion.x < 0){
+			boxCollisionDepth = blockBoxes[offset + 3] - (box.globalCenter.x - box.widthRadius);
+			if(!ignoreIfGreater || collisionMotion.x + boxCollisionDepth < 0){
+				box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
+			}
+		}
+		if(collisionMotion.y > 0){
+			boxCollisionDepth = box.globalCenter.y + box.heightRadius - blockBoxes[offset + 1];
+			if(!ignoreIfGreater || collisionMotion.y - boxCollisionDepth > 0){
+				box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
+			}
+		}else if(collisionMotion.y < 0){
+			boxCollisionDepth = blockBoxes[offset + 4] - (box.globalCenter.y - box.heightRadius);
+			if(!ignoreIfGreater || collisionMotion.y + boxCollisionDepth < 0){
+				box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
+			}
+		}
+		if(collisionMotion.z > 0){
+			boxCollisionDepth = box.globalCenter.z + box.depthRadius - blockBoxes[offset + 2];
+			if(!ignoreIfGreater || collisionMotion.z - boxCollisionDepth > 0){
+				box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
+			}
+		}else if(collisionMotion.z < 0){
+			boxCollisionDepth = blockBoxes[offset + 5] - (box.globalCenter.z - box.depthRadius);
+			if(!ignoreIfGreater || collisionMotion.z + boxCollisionDepth < 0){
+				box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
+			}
+		}
+	}
+
+	private static long getSectionKey(int x, int y, int z){
+		return (((long) (x >> 4)) & 0x3FFFFFL) << 42 | (((long) (z >> 4)) & 0x3FFFFFL) << 20 | (((long) (y >> 4)) & 0xFFFFFL);
+	}
+
+	private static int getIndex(int x, int y, int z){
+		return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+	}
+
+	/**
+	 *  A 16x16x16 section of cached blocks.  Null entries have not been cached yet.
+	 */
+	protected static class CollisionSection{
+		private final double[][] collisionBoxes = new double[4096][];
+		private final double[][] liquidBoxes = new double[4096][];
+
+		/**
+		 *  Sets the boxes for the block at the passed-in index.  Neither array may be null.
+		 */
+		void setBoxes(int index, double[] collisionBoxes, double[] liquidBoxes){
+			this.collisionBoxes[index] = collisionBoxes;
+			this.liquidBoxes[index] = liquidBoxes;
+		}
+
+		private void clear(){
+			Arrays.fill(collisionBoxes, null);
+			Arrays.fill(liquidBoxes, null);
+		}
+	}
+}
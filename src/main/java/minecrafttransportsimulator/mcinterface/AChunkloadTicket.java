@@ -0,0 +1,127 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**Base chunkloading ticket for an entity.  This tracks the chunks the entity has forced, and the state
+ * of the entity when they were last updated, so the forced chunks are only changed when the entity moves
+ * into a new chunk, or the chunk at the end of its path changes.  This class doesn't know how chunks are
+ * forced: that is left to the sub-class, which allows tickets to be simulated without a world.
+ * Chunks are stored as longs, with the x-coordinate in the lower 32 bits, like MC's chunk positions.
+ *
+ * @author don_bruce
+ */
+abstract class AChunkloadTicket{
+	/**Distance between points checked along an entity's path.  Half a chunk, so no chunks are skipped.**/
+	private static final double PATH_STEP = 8;
+
+	private final Set<Long> forcedChunks = new HashSet<Long>();
+	private boolean pathValid;
+	private int chunkX;
+	private int chunkZ;
+	private int targetChunkX;
+	private int targetChunkZ;
+
+	/**
+	 *  Updates the forced chunks for an entity at the passed-in position, that was at the passed-in prior
+	 *  position last tick.  The entity's last movement is used as its velocity, and the chunks along the path
+	 *  it will travel in the passed-in number of ticks are forced, up to the passed-in max number of chunks.
+	 *  Returns true if the path changed, false if the entity is still in the same chunk with the same path.
+	 */
+	boolean update(double x, double z, double prevX, double prevZ, double lookAheadTicks, int maxChunks){
+		double targetX = x + (x - prevX)*lookAheadTicks;
+		double targetZ = z + (z - prevZ)*lookAheadTicks;
+		int newChunkX = ((int) Math.floor(x)) >> 4;
+		int newChunkZ = ((int) Math.floor(z)) >> 4;
+		int newTargetChunkX = ((int) Math.floor(targetX)) >> 4;
+		int newTargetChunkZ = ((int) Math.floor(targetZ)) >> 4;
+		if(!pathValid || newChunkX != chunkX || newChunkZ != chunkZ || newTargetChunkX != targetChunkX || newTargetChunkZ != targetChunkZ){
+			pathValid = true;
+			chunkX = newChunkX;
+			chunkZ = newChunkZ;
+			targetChunkX = newTargetChunkX;
+			targetChunkZ = newTargetChunkZ;
+			setForcedChunks(getPathChunks(x, z, targetX, targetZ, maxChunks));
+			return true;
+		}else{
+			return false;
+		}
+	}
+
+	/**
+	 *  Forces the passed-in chunk, if it isn't already forced by this ticket.  Used for chunks that
+	 *  were forced before the ticket was created, such as ones loaded with the world.
+	 */
+	void addForcedChunk(int chunkX, int chunkZ){
+		if(forcedChunks.add(getChunkKey(chunkX, chunkZ))){
+			forceChunk(chunkX, chunkZ);
+		}
+	}
+
+	/**
+	 *  Returns true if the passed-in chunk is forced by this ticket.
+	 */
+	boolean isChunkForced(int chunkX, int chunkZ){
+		return forcedChunks.contains(getChunkKey(chunkX, chunkZ));
+	}
+
+	/**
+	 *  Forces the passed-in chunk to stay loaded.
+	 */
+	protected abstract void forceChunk(int chunkX, int chunkZ);
+
+	/**
+	 *  Stops forcing the passed-in chunk to stay loaded.
+	 */
+	protected abstract void unforceChunk(int chunkX, int chunkZ);
+
+	/**
+	 *  Sets the chunks this ticket forces.  Only chunks that weren't forced before are forced, and
+	 *  only chunks that are no longer needed are un-forced, so chunks stay loaded while the entity is near them.
+	 */
+	private void setForcedChunks(Set<Long> chunks){
+		Iterator<Long> iterator = forcedChunks.iterator();
+		while(iterator.hasNext()){
+			long chunk = iterator.next();
+			if(!chunks.contains(chunk)){
+				unforceChunk(getChunkX(chunk), getChunkZ(chunk));
+				iterator.remove();
+			}
+		}
+		for(long chunk : chunks){
+			if(forcedChunks.add(chunk)){
+				forceChunk(getChunkX(chunk), getChunkZ(chunk));
+			}
+		}
+	}
+
+	/**
+	 *  Returns the chunks along the path between the passed-in start and end points, in order from the start.
+	 *  No more than the passed-in max number of chunks will be returned.
+	 */
+	private static Set<Long> getPathChunks(double startX, double startZ, double endX, double endZ, int maxChunks){
+		Set<Long> chunks = new LinkedHashSet<Long>();
+		double deltaX = endX - startX;
+		double deltaZ = endZ - startZ;
+		int steps = (int) Math.ceil(Math.hypot(deltaX, deltaZ)/PATH_STEP);
+		for(int i=0; i<=steps && chunks.size() < maxChunks; ++i){
+			double fraction = steps != 0 ? i/(double) steps : 0;
+			chunks.add(getChunkKey(((int) Math.floor(startX + deltaX*fraction)) >> 4, ((int) Math.floor(startZ + deltaZ*fraction)) >> 4));
+		}
+		return chunks;
+	}
+
+	private static long getChunkKey(int chunkX, int chunkZ){
+		return (chunkX & 0xFFFFFFFFL) | (chunkZ & 0xFFFFFFFFL) << 32;
+	}
+
+	private static int getChunkX(long chunkKey){
+		return (int) chunkKey;
+	}
+
+	private static int getChunkZ(long chunkKey){
+		return (int) (chunkKey >>> 32);
+	}
+}
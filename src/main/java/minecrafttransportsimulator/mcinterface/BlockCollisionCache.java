@@ -0,0 +1,84 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**Cache of the collision boxes of blocks in a MC world.  Boxes are gotten from the block states
+ * the first time a block is queried in a tick, and kept for the rest of the tick.  Cache misses look
+ * up blocks through a mutable position, and only allocate a position for blocks that can actually collide.
+ *
+ * @author don_bruce
+ */
+class BlockCollisionCache extends ABlockCollisionCache{
+	private final World world;
+	private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+	private final List<AxisAlignedBB> queriedBoxes = new ArrayList<AxisAlignedBB>();
+
+	BlockCollisionCache(World world){
+		this.world = world;
+	}
+
+	/**
+	 *  Invalidates the cached boxes for the block at the passed-in position, and its neighbors.
+	 */
+	void invalidate(BlockPos pos){
+		invalidate(pos.getX(), pos.getY(), pos.getZ());
+	}
+
+	@Override
+	protected long getCurrentTick(){
+		return world.getTotalWorldTime();
+	}
+
+	@Override
+	protected boolean cacheBlock(CollisionSection section, int index, int x, int y, int z){
+		mutablePos.setPos(x, y, z);
+		if(!world.isBlockLoaded(mutablePos)){
+			return false;
+		}
+		IBlockState state = world.getBlockState(mutablePos);
+
+		//Get all collision boxes.  We query with a box larger than the block so we get
+		//boxes that extend outside the block, like fences.  Actual intersection tests
+		//against the boxes are done by the caller.
+		double[] collisionBoxes = NO_BOXES;
+		if(state.getBlock().canCollideCheck(state, false)){
+			BlockPos pos = mutablePos.toImmutable();
+			if(state.getCollisionBoundingBox(world, pos) != null){
+				queriedBoxes.clear();
+				state.addCollisionBoxToList(world, pos, new AxisAlignedBB(x - 1, y - 1, z - 1, x + 2, y + 2, z + 2), queriedBoxes, null, false);
+				if(!queriedBoxes.isEmpty()){
+					collisionBoxes = new double[queriedBoxes.size()*6];
+					for(int i=0; i<queriedBoxes.size(); ++i){
+						packBox(queriedBoxes.get(i), collisionBoxes, i*6);
+					}
+				}
+			}
+		}
+
+		//Get the liquid box, if we are a liquid.
+		double[] liquidBox = NO_BOXES;
+		if(state.getMaterial().isLiquid()){
+			BlockPos pos = mutablePos.toImmutable();
+			liquidBox = new double[6];
+			packBox(state.getBoundingBox(world, pos).offset(pos), liquidBox, 0);
+		}
+
+		section.setBoxes(index, collisionBoxes, liquidBox);
+		return true;
+	}
+
+	private static void packBox(AxisAlignedBB box, double[] array, int offset){
+		array[offset] = box.minX;
+		array[offset + 1] = box.minY;
+		array[offset + 2] = box.minZ;
+		array[offset + 3] = box.maxX;
+		array[offset + 4] = box.maxY;
+		array[offset + 5] = box.maxZ;
+	}
+}
@@ -0,0 +1,92 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import minecrafttransportsimulator.MasterLoader;
+import minecrafttransportsimulator.systems.ProfilerSystem;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+
+/**Builder for the MC command used to control the {@link ProfilerSystem}.  This lets server
+ * operators turn profiling on and off, see which sections and pack items are taking the most time,
+ * and export all profiling data to a file for further analysis.
+ *
+ * @author don_bruce
+ */
+public class BuilderCommandProfiler extends CommandBase{
+	private static final int DEFAULT_DUMP_COUNT = 10;
+	private static final List<String> ARGUMENTS = Arrays.asList("start", "stop", "reset", "dump", "export");
+
+	@Override
+	public String getName(){
+		return MasterLoader.MODID + "profile";
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender){
+		return "/" + getName() + " <start|stop|reset|dump [count]|export>";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel(){
+		return 2;
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException{
+		if(args.length == 0){
+			throw new WrongUsageException(getUsage(sender));
+		}
+		switch(args[0]){
+			case "start" :{
+				ProfilerSystem.setEnabled(true);
+				sendMessage(sender, "Profiling started.");
+				break;
+			}
+			case "stop" :{
+				ProfilerSystem.setEnabled(false);
+				sendMessage(sender, "Profiling stopped.");
+				break;
+			}
+			case "reset" :{
+				ProfilerSystem.reset();
+				sendMessage(sender, "Profiling data reset.");
+				break;
+			}
+			case "dump" :{
+				int count = args.length > 1 ? parseInt(args[1], 1) : DEFAULT_DUMP_COUNT;
+				for(String line : ProfilerSystem.getTopResults(count)){
+					sendMessage(sender, line);
+				}
+				break;
+			}
+			case "export" :{
+				File exportFile = new File(MasterLoader.gameDirectory, MasterLoader.MODID + "_profile_" + System.currentTimeMillis() + ".csv");
+				if(ProfilerSystem.exportResults(exportFile)){
+					sendMessage(sender, "Profiling data exported to: " + exportFile.getAbsolutePath());
+				}else{
+					sendMessage(sender, "Could not export profiling data.  Check the log for details.");
+				}
+				break;
+			}
+			default : throw new WrongUsageException(getUsage(sender));
+		}
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, BlockPos targetPos){
+		return args.length == 1 ? getListOfStringsMatchingLastWord(args, ARGUMENTS) : Collections.emptyList();
+	}
+
+	private static void sendMessage(ICommandSender sender, String message){
+		sender.sendMessage(new TextComponentString(message));
+	}
+}
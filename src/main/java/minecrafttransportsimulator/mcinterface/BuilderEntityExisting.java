@@ -11,6 +11,7 @@ import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -20,6 +21,8 @@ import minecrafttransportsimulator.items.components.IItemEntityProvider;
 import minecrafttransportsimulator.packets.components.InterfacePacket;
 import minecrafttransportsimulator.packets.instances.PacketVehicleInteract;
 import minecrafttransportsimulator.systems.PackParserSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem;
+import minecrafttransportsimulator.systems.ProfilerSystem.Section;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -86,7 +89,14 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
     			setDead();
     		}else{
 	    		//Forward the update call.
+	    		long profileStart = ProfilerSystem.start(entity.world);
 	    		entity.update();
+	    		ProfilerSystem.end(Section.ENTITY_UPDATE, entity instanceof AEntityC_Definable ? ((AEntityC_Definable<?>) entity).definition : null, profileStart);
+	    		
+	    		//Send any movement the entity queued to the players tracking us.
+	    		if(!world.isRemote){
+	    			WrapperWorld.getWrapperFor(world).assignQueuedMovement(this);
+	    		}
 	    		
 	    		//Set the new position and rotation.
 	    		setPosition(entity.position.x, entity.position.y, entity.position.z);
@@ -99,6 +109,11 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 	    			return;
 	    		}
 	    		
+	    		//Update our chunkloading.  This only changes our ticket if we moved into a new chunk.
+	    		if(!world.isRemote){
+	    			InterfaceChunkloader.updateEntityTicket(this);
+	    		}
+	    		
 	    		if(entity instanceof AEntityD_Interactable){
 	    			AEntityD_Interactable<?> interactable = ((AEntityD_Interactable<?>) entity);
 	    			
@@ -134,7 +149,13 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 	        		
 	        		//Move all entities that are touching this entity.
 	        		if(!collisionBoxes.boxes.isEmpty()){
-		        		for(Entity mcEntity : world.loadedEntityList){
+	        			//Only check entities in the area of our boxes.  World lookups are chunk-based, so this is much faster than checking all entities.
+	        			AxisAlignedBB searchBox = null;
+	        			for(BoundingBox box : collisionBoxes.boxes){
+	        				AxisAlignedBB expandedBox = box.convert().expand(0, 0.25, 0);
+	        				searchBox = searchBox == null ? expandedBox : searchBox.union(expandedBox);
+	        			}
+		        		for(Entity mcEntity : world.getEntitiesWithinAABBExcludingEntity(this, searchBox)){
 		        			//Don't try and move builders, entities riding others, or spectator players.  That's excess collision checks.
 		        			if(!(mcEntity instanceof ABuilderEntityBase) && mcEntity.getRidingEntity() == null && (mcEntity instanceof EntityPlayer ? !((EntityPlayer) mcEntity).isSpectator() : true)){
 		        				//Check each box individually.  Need to do this to know which delta to apply.
@@ -1,99 +1,118 @@
 package minecrafttransportsimulator.mcinterface;
 
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.client.Minecraft;
+import minecrafttransportsimulator.rendering.components.ParticlePool;
+import minecrafttransportsimulator.systems.ParticleSystem;
 import net.minecraft.client.particle.Particle;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 
-/**Builder for a MC particles.  This builder doesn't do much that the default implementation
- * already does, so it's mainly a way to avoid any MC changes down the line.
+/**Builder for a MC particle.  Rather than having one of these per particle, there is one
+ * for all the particles in the {@link ParticleSystem} that share a texture sheet.  MC updates and
+ * renders this builder like any other particle, and this builder then updates and renders
+ * all the particles in the system, which avoids having MC manage thousands of particle objects.
+ * The builder expires when it has no particles left, and is re-created when more particles spawn.
  *
  * @author don_bruce
  */
 public class BuilderParticle extends Particle{
-	private final EntityParticle particle;
-	
-    public BuilderParticle(EntityParticle particle){
-		super(particle.world.world, particle.position.x, particle.position.y, particle.position.z);
-		this.particle = particle;
-		this.particleMaxAge = particle.maxAge;
-		this.motionX = particle.motion.x;
-		this.motionY = particle.motion.y;
-		this.motionZ = particle.motion.z;
-		this.setSize(particle.getSize(), particle.getSize());
-		this.setBoundingBox(new AxisAlignedBB(posX - width/2F, posY - height/2F, posZ - width/2F, posX + width/2F, posY + height/2F, posZ + width/2F));
-		if(particle.definition.type.equals(ParticleType.BREAK)){
-			BlockPos belowPos = new BlockPos(particle.position.x, particle.position.y - 1, particle.position.z);
-			IBlockState belowState = world.getBlockState(belowPos);
-			this.setParticleTexture(Minecraft.getMinecraft().getBlockRendererDispatcher().getBlockModelShapes().getTexture(belowState));
-		}
+	private final boolean blockTextured;
+	private final BlockPos.MutableBlockPos lightPos = new BlockPos.MutableBlockPos();
+
+    public BuilderParticle(WrapperWorld world, boolean blockTextured){
+		super(world.world, 0, 0, 0);
+		this.blockTextured = blockTextured;
 	}
-    
+
     @Override
 	public void onUpdate(){
-    	if(particle.age == particle.maxAge || !particle.isValid){
+    	ParticleSystem.updateParticles(blockTextured);
+    	boolean anyParticles = false;
+    	for(ParticleType type : ParticleType.values()){
+    		if(type.equals(ParticleType.BREAK) == blockTextured && ParticleSystem.getPool(type).getActiveCount() > 0){
+    			anyParticles = true;
+    			break;
+    		}
+    	}
+    	if(!anyParticles){
     		setExpired();
-    	}else{			
-			//First, update the prev position variables.
-			prevPosX = particle.position.x;
-			prevPosY = particle.position.y;
-			prevPosZ = particle.position.z;
-			
-			//Do particle update logic, and set new position/motion.
-			particle.update();
-			posX = particle.position.x;
-			posY = particle.position.y;
-			posZ = particle.position.z;
-			motionX = particle.motion.x;
-			motionY = particle.motion.y;
-	        motionZ = particle.motion.z;
-	        
-	        /* Sets the packed UV index for this texture.
-			 * The packed UV index is a single integer divided by 16, with the
-			 * quotient of the value being the U value, and the remainder
-			 * being the V value.  So for example, a texture index of 22
-			 * would have a quotient of 1, and a remainder of 6, so would have
-			 * a UV of 1,6.
-			 */
-			switch(particle.definition.type){
-				case SMOKE: setParticleTextureIndex(7 - particle.age*8/particle.maxAge); break;//Smoke gets smaller as it ages.
-				case FLAME: setParticleTextureIndex(48); break;
-				case DRIP: setParticleTextureIndex(particle.touchingBlocks ? 113 : 112); break;//Drips become flat when they hit the ground.
-				case BUBBLE: setParticleTextureIndex(32); break;
-				case BREAK: break;//Do nothing, as breaking particles don't use the normal texture.
-			}
-		}
+    	}
     }
-    
-    @Override
-	public int getBrightnessForRender(float partialTicks){
-        if(particle.definition.type.equals(ParticleType.FLAME)){
-			int i = super.getBrightnessForRender(partialTicks);
-		    int k = i >> 16 & 255;
-		    return 240 | k << 16;
-        }else{
-        	return super.getBrightnessForRender(partialTicks);
-        }
-    }
-    
+
     @Override
     public int getFXLayer(){
-        return particle.definition.type.equals(ParticleType.BREAK) ? 1 : 0;
+        return blockTextured ? 1 : 0;
     }
-    
+
     @Override
     public void renderParticle(BufferBuilder buffer, Entity entityIn, float partialTicks, float rotationX, float rotationZ, float rotationYZ, float rotationXY, float rotationXZ){
-    	//Need to set rendering parameters before rendering.
-    	particleRed = particle.getRed();
-		particleGreen = particle.getGreen();
-		particleBlue = particle.getBlue();
-		particleAlpha = particle.getAlpha();
-    	particleScale = particle.getScale(partialTicks);
-    	super.renderParticle(buffer, entityIn, partialTicks, rotationX, rotationZ, rotationYZ, rotationXY, rotationXZ);
+    	for(ParticleType type : ParticleType.values()){
+    		if(type.equals(ParticleType.BREAK) == blockTextured){
+    			ParticlePool pool = ParticleSystem.getPool(type);
+    			for(int i=0; i<pool.getHighestIndex(); ++i){
+    				if(pool.isActive(i)){
+    					renderParticle(buffer, pool, i, partialTicks, rotationX, rotationZ, rotationYZ, rotationXY, rotationXZ);
+    				}
+    			}
+    		}
+    	}
+    }
+
+    /**
+	 *  Renders a single particle from the passed-in pool.  This is the same quad that MC renders for its particles.
+	 */
+    private void renderParticle(BufferBuilder buffer, ParticlePool pool, int index, float partialTicks, float rotationX, float rotationZ, float rotationYZ, float rotationXY, float rotationXZ){
+    	//Get texture bounds.  Particles either use an index in the particle texture sheet, or their own bounds.
+    	float minU;
+    	float maxU;
+    	float minV;
+    	float maxV;
+    	int textureIndex = pool.getTextureIndex(index);
+    	if(textureIndex != -1){
+    		/* The packed UV index is a single integer divided by 16, with the
+			 * quotient of the value being the V value, and the remainder
+			 * being the U value.  So for example, a texture index of 22
+			 * would have a quotient of 1, and a remainder of 6, so would have
+			 * a UV of 6,1.
+			 */
+    		minU = (textureIndex%16)/16F;
+    		maxU = minU + 0.0624375F;
+    		minV = (textureIndex/16)/16F;
+    		maxV = minV + 0.0624375F;
+    	}else{
+    		minU = pool.getTextureBound(index, 0);
+    		maxU = pool.getTextureBound(index, 1);
+    		minV = pool.getTextureBound(index, 2);
+    		maxV = pool.getTextureBound(index, 3);
+    	}
+
+    	//Get color, size, and position.
+    	float red = pool.getRed(index);
+    	float green = pool.getGreen(index);
+    	float blue = pool.getBlue(index);
+    	float alpha = pool.getAlpha(index);
+    	float size = 0.1F*pool.getScale(index, partialTicks);
+    	double x = pool.getX(index, partialTicks);
+    	double y = pool.getY(index, partialTicks);
+    	double z = pool.getZ(index, partialTicks);
+
+    	//Get brightness.  Flames are always fully-bright.
+    	lightPos.setPos(x, y, z);
+    	int brightness = world.isBlockLoaded(lightPos) ? world.getCombinedLight(lightPos, 0) : 0;
+    	if(pool.type.equals(ParticleType.FLAME)){
+    		brightness = 240 | (brightness >> 16 & 255) << 16;
+    	}
+    	int skyLight = brightness >> 16 & 65535;
+    	int blockLight = brightness & 65535;
+
+    	//Render the quad, facing the camera.
+    	float renderX = (float) (x - interpPosX);
+    	float renderY = (float) (y - interpPosY);
+    	float renderZ = (float) (z - interpPosZ);
+    	buffer.pos(renderX - rotationX*size - rotationXY*size, renderY - rotationZ*size, renderZ - rotationYZ*size - rotationXZ*size).tex(maxU, maxV).color(red, green, blue, alpha).lightmap(skyLight, blockLight).endVertex();
+    	buffer.pos(renderX - rotationX*size + rotationXY*size, renderY + rotationZ*size, renderZ - rotationYZ*size + rotationXZ*size).tex(maxU, minV).color(red, green, blue, alpha).lightmap(skyLight, blockLight).endVertex();
+    	buffer.pos(renderX + rotationX*size + rotationXY*size, renderY + rotationZ*size, renderZ + rotationYZ*size + rotationXZ*size).tex(minU, minV).color(red, green, blue, alpha).lightmap(skyLight, blockLight).endVertex();
+    	buffer.pos(renderX + rotationX*size - rotationXY*size, renderY - rotationZ*size, renderZ + rotationYZ*size - rotationXZ*size).tex(minU, maxV).color(red, green, blue, alpha).lightmap(skyLight, blockLight).endVertex();
     }
 }
@@ -1,45 +1,95 @@
 package minecrafttransportsimulator.mcinterface;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import minecrafttransportsimulator.MasterLoader;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.systems.ConfigSystem;
-import net.minecraft.entity.Entity;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.ForgeChunkManager;
 import net.minecraftforge.common.ForgeChunkManager.LoadingCallback;
 import net.minecraftforge.common.ForgeChunkManager.Ticket;
 import net.minecraftforge.common.ForgeChunkManager.Type;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
+/**Interface for chunkloading entities.  Entities that need chunkloading get a ticket, which forces
+ * the chunk they are in, plus the chunks along the path they will travel in the next few seconds.
+ * This lets fast entities move into chunks that are already loaded, rather than stalling at the edge
+ * of loaded terrain.  Tickets are only changed when the entity moves into a new chunk, or when the chunk
+ * at the end of its path changes, so most ticks don't need to touch the chunk manager at all.
+ * <br><br>
+ * Entities update their own tickets when they update.  However, entities in chunks that aren't loaded
+ * enough to tick won't update, so entities that join the world are checked every tick until they have
+ * loaded, which lets them get a ticket and force their chunk so they start ticking.
+ *
+ * @author don_bruce
+ */
 @EventBusSubscriber
 public class InterfaceChunkloader implements LoadingCallback{
-	private static Map<BuilderEntityExisting, Ticket> entityTickets = new HashMap<BuilderEntityExisting, Ticket>();
+	private static Map<BuilderEntityExisting, EntityTicket> entityTickets = new HashMap<BuilderEntityExisting, EntityTicket>();
+	private static Set<BuilderEntityExisting> pendingEntities = new HashSet<BuilderEntityExisting>();
 	public static final InterfaceChunkloader INSTANCE = new InterfaceChunkloader();
 	
 	@Override
 	public void ticketsLoaded(List<Ticket> tickets, World world){
 		for(Ticket modTicket : tickets){
 			if(modTicket.getModId().equals(MasterLoader.MODID) && ConfigSystem.configObject.general.chunkloadVehicles.value){
-				modTicket.setChunkListDepth(1);
 				if(modTicket.getType().equals(Type.ENTITY)){
-					entityTickets.put((BuilderEntityExisting) modTicket.getEntity(), modTicket);
+					EntityTicket entityTicket = new EntityTicket(modTicket);
+					for(ChunkPos chunk : modTicket.getChunkList()){
+						entityTicket.addForcedChunk(chunk.x, chunk.z);
+					}
+					entityTickets.put((BuilderEntityExisting) modTicket.getEntity(), entityTicket);
+				}
+			}
+		}
+	}
+	
+	/**
+	 *  Updates the ticket for the passed-in entity.  This creates the ticket if the entity needs
+	 *  chunkloading and doesn't have one, removes it if the entity no longer needs it, and updates
+	 *  the forced chunks if the entity has moved into a new chunk or its path has changed.
+	 */
+	public static void updateEntityTicket(BuilderEntityExisting builder){
+		if(!builder.world.isRemote && ConfigSystem.configObject.general.chunkloadVehicles.value && builder.entity != null){
+			AEntityB_Existing entity = builder.entity;
+			if(!builder.isDead && entity.needsChunkloading()){
+				EntityTicket entityTicket = entityTickets.get(builder);
+				if(entityTicket == null){
+					Ticket ticket = ForgeChunkManager.requestTicket(MasterLoader.INSTANCE, builder.world, Type.ENTITY);
+					if(ticket == null){
+						return;
+					}
+					ticket.bindEntity(builder);
+					entityTicket = new EntityTicket(ticket);
+					entityTickets.put(builder, entityTicket);
 				}
+				
+				//Update the chunks along the path we will travel in the look-ahead time.
+				//We use our last movement as our velocity, as this includes all movement, not just our motion.
+				double lookAheadTicks = ConfigSystem.configObject.general.chunkloadLookAheadTime.value*20;
+				entityTicket.update(entity.position.x, entity.position.z, entity.prevPosition.x, entity.prevPosition.z, lookAheadTicks, entityTicket.ticket.getMaxChunkListDepth());
+			}else{
+				removeEntityTicket(builder);
 			}
 		}
 	}
 	
 	public static void removeEntityTicket(BuilderEntityExisting entity){
 		if(!entity.world.isRemote){
+			pendingEntities.remove(entity);
 			if(entityTickets.containsKey(entity)){
-				ForgeChunkManager.releaseTicket(entityTickets.get(entity));
+				ForgeChunkManager.releaseTicket(entityTickets.get(entity).ticket);
 				entityTickets.remove(entity);
 			}
 		}
@@ -59,6 +109,14 @@ public class InterfaceChunkloader implements LoadingCallback{
 					}
 				}
 			}
+			pendingEntities.removeIf(builder -> builder.world == event.getWorld());
+		}
+	}
+	
+	@SubscribeEvent
+	public static void onEntityJoinWorld(EntityJoinWorldEvent event){
+		if(!event.getWorld().isRemote && event.getEntity() instanceof BuilderEntityExisting){
+			pendingEntities.add((BuilderEntityExisting) event.getEntity());
 		}
 	}
 	
@@ -66,30 +124,43 @@ public class InterfaceChunkloader implements LoadingCallback{
 	public static void onWorldTick(TickEvent.WorldTickEvent event){
 		//Need to tick event this, as entities in unloaded chunks don't get update calls, so we need
 		//to ensure when they do move into one, they force the update.
-		//To prevent CMEs here, we use an indexed checker.
-		if(!event.world.isRemote && ConfigSystem.configObject.general.chunkloadVehicles.value){
-			for(int i=0; i<event.world.loadedEntityList.size(); ++i){
-				Entity entity = event.world.loadedEntityList.get(i);
-				if(entity instanceof BuilderEntityExisting){
-					BuilderEntityExisting builder = (BuilderEntityExisting) entity;
-					if(builder.entity != null){
-						if(!builder.isDead && builder.entity.needsChunkloading()){
-							if(entityTickets.containsKey(builder)){
-								ForgeChunkManager.forceChunk(entityTickets.get(builder), new ChunkPos(builder.chunkCoordX, builder.chunkCoordZ));
-							}else{
-								Ticket ticket = ForgeChunkManager.requestTicket(MasterLoader.INSTANCE, builder.world, Type.ENTITY);
-								if(ticket != null){
-									ticket.setChunkListDepth(1);
-									ticket.bindEntity(builder);
-									entityTickets.put(builder, ticket);
-								}
-							}
-						}else{
-							removeEntityTicket(builder);
-						}
+		//Only entities that haven't loaded yet are checked here, as loaded entities update their own tickets.
+		if(!event.world.isRemote && !pendingEntities.isEmpty()){
+			Iterator<BuilderEntityExisting> iterator = pendingEntities.iterator();
+			while(iterator.hasNext()){
+				BuilderEntityExisting builder = iterator.next();
+				if(builder.world == event.world){
+					if(builder.isDead){
+						iterator.remove();
+					}else if(builder.entity != null){
+						iterator.remove();
+						updateEntityTicket(builder);
 					}
 				}
 			}
 		}
 	}
+	
+	/**
+	 *  A ticket for an entity.  Chunks are forced with the MC ticket this wraps.
+	 */
+	private static class EntityTicket extends AChunkloadTicket{
+		private final Ticket ticket;
+		
+		private EntityTicket(Ticket ticket){
+			this.ticket = ticket;
+			//Use the max depth, as we manage the forced chunks ourselves.
+			ticket.setChunkListDepth(ticket.getMaxChunkListDepth());
+		}
+		
+		@Override
+		protected void forceChunk(int chunkX, int chunkZ){
+			ForgeChunkManager.forceChunk(ticket, new ChunkPos(chunkX, chunkZ));
+		}
+		
+		@Override
+		protected void unforceChunk(int chunkX, int chunkZ){
+			ForgeChunkManager.unforceChunk(ticket, new ChunkPos(chunkX, chunkZ));
+		}
+	}
 }
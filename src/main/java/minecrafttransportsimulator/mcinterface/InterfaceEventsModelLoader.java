@@ -19,6 +19,7 @@ import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.packloading.PackResourceLoader;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ResourceType;
+import minecrafttransportsimulator.rendering.components.ARenderEntity;
 import minecrafttransportsimulator.systems.PackParserSystem;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.ModelResourceLocation;
@@ -83,6 +84,9 @@ public class InterfaceEventsModelLoader{
 							//Need to put all entities into a collection in case we spawn them as particles during this rendering operation.
 							entities.clear();
 							entities.addAll(allEntities);
+							
+							//Update culling to our current camera, as it may have moved since the last render.
+							ARenderEntity.updateViewFrustum();
 							for(AEntityC_Definable<?> entity : entities){
 								entity.getRenderer().render(entity, MinecraftForgeClient.getRenderPass() == 1, partialTicks);
 							}
@@ -2,35 +2,32 @@ package minecrafttransportsimulator.mcinterface;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.ArrayList;
+import java.nio.FloatBuffer;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
-
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.guis.components.AGUIBase.TextPosition;
 import minecrafttransportsimulator.guis.components.InterfaceGUI;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.rendering.components.AModelParser;
-import minecrafttransportsimulator.rendering.components.GIFParser;
 import minecrafttransportsimulator.rendering.components.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.components.URLTextureLoader;
+import minecrafttransportsimulator.rendering.components.URLTextureLoader.LoadedTexture;
+import minecrafttransportsimulator.rendering.components.VertexArray;
+import minecrafttransportsimulator.systems.ParticleSystem;
 import net.minecraft.block.SoundType;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureUtil;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.EnumFacing;
@@ -45,8 +42,11 @@ import net.minecraft.util.math.BlockPos;
 public class InterfaceRender{
 	private static final Map<String, Integer> textures = new HashMap<String, Integer>();
 	private static final Map<String, ParsedGIF> animatedGIFs = new HashMap<String, ParsedGIF>();
+	private static final Map<String, String> textureErrors = new HashMap<String, String>();
 	private static String pushedTextureLocation;
 	private static boolean boundSinceLastPush;
+	private static BuilderParticle particleRenderer;
+	private static BuilderParticle blockParticleRenderer;
 	
 	/**
 	 *  Caches the vertices in some form for quick rendering.  This form is version-dependent,
@@ -55,43 +55,46 @@ public class InterfaceRender{
 	 *  which will render the cached vertices from this function.  Note that the vertex format
 	 *  is expected to be the same returned b {@link AModelParser#parseModel(String)}
 	 */
-	public static int cacheVertices(Float[][] vertices){
+	public static int cacheVertices(VertexArray vertices){
+		FloatBuffer buffer = BufferUtils.createFloatBuffer(vertices.data.length);
+		buffer.put(vertices.data).flip();
+		int stride = VertexArray.VERTEX_SIZE*Float.BYTES;
+		
+		//Array pointers and states are client states, so they aren't compiled into the list.
+		//The draw call is, however, and this will copy the vertex data into the list.
+		GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+		GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+		GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
+		buffer.position(0);
+		GL11.glVertexPointer(3, stride, buffer);
+		buffer.position(3);
+		GL11.glTexCoordPointer(2, stride, buffer);
+		buffer.position(5);
+		GL11.glNormalPointer(stride, buffer);
+		buffer.position(0);
+		
 		int displayListIndex = GL11.glGenLists(1);
 		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Float[] vertex : vertices){
-			GL11.glTexCoord2f(vertex[3], vertex[4]);
-			GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-			GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
-		}
-		GL11.glEnd();
+		GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertices.vertexCount);
 		GL11.glEndList();
+		
+		GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+		GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+		GL11.glDisableClientState(GL11.GL_NORMAL_ARRAY);
 		return displayListIndex;
 	}
 	
 	/**
-	 *  Like {@link #cacheVertices(Float[][])}, but in this takes
-	 *  a list of vertex float arrays rather than a single one.
+	 *  Like {@link #cacheVertices(VertexArray)}, but in this takes
+	 *  a list of vertex arrays rather than a single one.
 	 *  Used for caching whole models rather than individual objects.
 	 */
-	public static int cacheVertices(Collection<Float[][]> vertices){
-		int displayListIndex = GL11.glGenLists(1);
-		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Float[][] vertexGroup : vertices){
-			for(Float[] vertex : vertexGroup){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
-			}
-		}
-		GL11.glEnd();
-		GL11.glEndList();
-		return displayListIndex;
+	public static int cacheVertices(Collection<VertexArray> vertices){
+		return cacheVertices(VertexArray.merge(vertices));
 	}
 	
 	/**
-	 *  Renders a set of vertices previously cached with {@link #cacheVertices(Float[][])}
+	 *  Renders a set of vertices previously cached with {@link #cacheVertices(VertexArray)}
 	 */
 	public static void renderVertices(int index){
 		GL11.glCallList(index);
@@ -100,12 +103,13 @@ public class InterfaceRender{
 	/**
 	 *  Renders a set of raw vertices without any caching.
 	 */
-	public static void renderVertices(Float[][] vertices){
+	public static void renderVertices(VertexArray vertices){
 		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Float[] vertex : vertices){
-			GL11.glTexCoord2f(vertex[3], vertex[4]);
-			GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-			GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+		for(int i=0; i<vertices.vertexCount; ++i){
+			int index = i*VertexArray.VERTEX_SIZE;
+			GL11.glTexCoord2f(vertices.data[index + 3], vertices.data[index + 4]);
+			GL11.glNormal3f(vertices.data[index + 5], vertices.data[index + 6], vertices.data[index + 7]);
+			GL11.glVertex3f(vertices.data[index], vertices.data[index + 1], vertices.data[index + 2]);
 		}
 		GL11.glEnd();
 	}
@@ -155,70 +159,41 @@ public class InterfaceRender{
 	
 	/**
 	 *  Binds the passed-in texture to be rendered.  The texture is downloaded from the
-	 *  URL and then added to the texture rendering system.  The integer of the The instance 
-	 *  of the texture is  cached in this class once created for later use, so feel free to not 
-	 *  cache the string URL that is passed-in.  If the texture binding was successful, null is
-	 *  returned.  Otherwise, an error message is returned.
+	 *  URL by the {@link URLTextureLoader} and then added to the texture rendering system.  
+	 *  The integer of the instance of the texture is cached in this class once created for later use,
+	 *  so feel free to not cache the string URL that is passed-in.  While the texture is loading, nothing
+	 *  is bound, so the existing texture is used.  If the texture binding was successful, or the texture is
+	 *  still loading, null is returned.  Otherwise, an error message is returned.
 	 */
 	public static String bindURLTexture(String textureURL){
-		//Bind texture if we have it.
-		if(!textures.containsKey(textureURL) && !animatedGIFs.containsKey(textureURL)){
-			//Don't have this texture created yet.  Do so now.
-			//Parse the texture, get the OpenGL integer that represents this texture, and save it.
-			//FAR less jank than using MC's resource system.
-			try{
-				URL url = new URL(textureURL);
-				URLConnection connection = url.openConnection();
-				try{
-					List<String> validContentTypes = new ArrayList<String>();
-					for(String imageSuffix : ImageIO.getReaderFileSuffixes()){
-						validContentTypes.add("image/" + imageSuffix);
-					}
-					String contentType = connection.getHeaderField("Content-Type");
-					if(validContentTypes.contains(contentType)){
-						if(contentType.endsWith("gif")){
-							ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
-						    ImageInputStream stream = ImageIO.createImageInputStream(url.openStream());
-						    reader.setInput(stream);
-						    ParsedGIF gif = GIFParser.parseGIF(reader);
-						    if(gif != null){
-						    	animatedGIFs.put(textureURL, gif);
-						    }else{
-						    	return "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
-						    }
-						}else{
-							BufferedImage bufferedimage = TextureUtil.readBufferedImage(url.openStream());
-							int glTexturePointer = TextureUtil.glGenTextures();
-					        TextureUtil.uploadTextureImageAllocate(glTexturePointer, bufferedimage, false, false);
-					        textures.put(textureURL, glTexturePointer);
-						}
-					}else{
-						String errorString = "Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
-						for(String validType : validContentTypes){
-							errorString += validType + ", ";
-						}
-						textures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-						return errorString;
-					}
-				}catch(Exception e){
-					textures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-					e.printStackTrace();
-					return "Could not parse images.  Error was: " + e.getMessage();
-				}
-			}catch(Exception e){
-				textures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-				e.printStackTrace();
-				return "Could not open URL for processing.  Error was: " + e.getMessage();
+		//Upload any textures that finished loading.  This has to be done on the render thread.
+		LoadedTexture loadedTexture;
+		while((loadedTexture = URLTextureLoader.pollLoadedTexture()) != null){
+			if(loadedTexture.gif != null){
+				loadedTexture.gif.uploadTextures();
+				animatedGIFs.put(loadedTexture.url, loadedTexture.gif);
+			}else if(loadedTexture.image != null){
+				int glTexturePointer = TextureUtil.glGenTextures();
+				TextureUtil.uploadTextureImageAllocate(glTexturePointer, loadedTexture.image, false, false);
+				textures.put(loadedTexture.url, glTexturePointer);
+			}else{
+				textures.put(loadedTexture.url, TextureUtil.MISSING_TEXTURE.getGlTextureId());
+				textureErrors.put(loadedTexture.url, loadedTexture.errorMessage);
 			}
 		}
+		
+		//Bind texture if we have it.  If not, request it to be loaded.
 		if(textures.containsKey(textureURL)){
 			GlStateManager.bindTexture(textures.get(textureURL));
-		}else{
+		}else if(animatedGIFs.containsKey(textureURL)){
 			ParsedGIF parsedGIF = animatedGIFs.get(textureURL);
 			GlStateManager.bindTexture(parsedGIF.getCurrentTextureIndex());
+		}else{
+			URLTextureLoader.requestTexture(textureURL);
+			return null;
 		}
 		boundSinceLastPush = true;
-		return null;
+		return textureErrors.get(textureURL);
 	}
 	
 	/**
@@ -365,16 +340,34 @@ public class InterfaceRender{
 	}
 	
 	/**
-	 *  Spawns a particle into the world.  Particles are simply entities that are client-side only.
-	 *  This is handy if you have a lot of them flying around but could care less where they are and
-	 *  don't want to hamper the server with tons of ticking entities.
+	 *  Adds a renderer for the particles in the {@link ParticleSystem} to the world, if one isn't already present.
+	 *  Block-textured particles use a different texture sheet than other particles, so they need their own renderer.
+	 *  Renderers also update the particles, as particles are client-side only and only update when they render.
 	 */
-	public static void spawnParticle(EntityParticle particle){
+	public static void addParticleRenderer(WrapperWorld world, boolean blockTextured){
 		if(Minecraft.getMinecraft().effectRenderer != null){
-			Minecraft.getMinecraft().effectRenderer.addEffect(new BuilderParticle(particle));
+			BuilderParticle renderer = blockTextured ? blockParticleRenderer : particleRenderer;
+			if(renderer == null || !renderer.isAlive()){
+				renderer = new BuilderParticle(world, blockTextured);
+				Minecraft.getMinecraft().effectRenderer.addEffect(renderer);
+				if(blockTextured){
+					blockParticleRenderer = renderer;
+				}else{
+					particleRenderer = renderer;
+				}
+			}
 		}
 	}
 	
+	/**
+	 *  Returns the texture bounds of the block at the passed-in position, in order of min U, max U, min V, max V.
+	 *  These bounds are on the block texture sheet, and are used for block-textured particles.
+	 */
+	public static float[] getBlockTextureBounds(Point3d position){
+		TextureAtlasSprite sprite = Minecraft.getMinecraft().getBlockRendererDispatcher().getBlockModelShapes().getTexture(Minecraft.getMinecraft().world.getBlockState(new BlockPos(position.x, position.y, position.z)));
+		return new float[]{sprite.getMinU(), sprite.getMaxU(), sprite.getMinV(), sprite.getMaxV()};
+	}
+	
 	/**
 	 *  Spawns the particles for the block at the passed-in position.
 	 *  This also allows for playing the block breaking sound.
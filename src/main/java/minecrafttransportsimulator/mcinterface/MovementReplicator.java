@@ -0,0 +1,91 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.packets.components.InterfacePacket;
+import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.WorldServer;
+
+/**Replicates entity movement from the server to clients.  Rather than sending a packet to every
+ * player for every entity that moves, entities queue their movement here during their update.
+ * Once the entity's builder has finished updating, the movement is assigned to the players MC is
+ * tracking the builder for, which are the only players that have the entity loaded.  Entities may also
+ * be moved after their builder has updated, such as trailers being moved by the vehicle towing them.
+ * Movement for these is assigned through their builder at the end of the world tick, after which each
+ * player is sent a single packet with the movement of all entities they track.
+ *
+ * @author don_bruce
+ */
+class MovementReplicator{
+	private final WorldServer world;
+	private final Map<AEntityB_Existing, short[]> queuedMovements = new HashMap<AEntityB_Existing, short[]>();
+	private final Map<AEntityB_Existing, BuilderEntityExisting> updatedBuilders = new HashMap<AEntityB_Existing, BuilderEntityExisting>();
+	private final Map<EntityPlayerMP, PacketVehicleServerMovement> playerPackets = new HashMap<EntityPlayerMP, PacketVehicleServerMovement>();
+
+	MovementReplicator(WorldServer world){
+		this.world = world;
+	}
+
+	/**
+	 *  Queues the passed-in movement deltas for the passed-in entity.  If the entity already has
+	 *  deltas queued, as it was moved more than once before they were assigned, the deltas are added.
+	 *  Sums that don't fit in a short are clamped, so the passed-in deltas are set to the amount that was
+	 *  actually added.  The caller must only count that amount as sent, and keep the rest for its next batch.
+	 */
+	void queueMovement(AEntityB_Existing entity, short[] deltas){
+		short[] queuedDeltas = queuedMovements.get(entity);
+		if(queuedDeltas == null){
+			queuedMovements.put(entity, deltas);
+		}else{
+			PacketVehicleServerMovement.addQueuedMovement(queuedDeltas, deltas);
+		}
+	}
+
+	/**
+	 *  Assigns any queued movement for the entity of the passed-in builder
+	 *  to the packets of all players tracking that builder.
+	 */
+	void assignQueuedMovement(BuilderEntityExisting builder){
+		updatedBuilders.put(builder.entity, builder);
+		short[] deltas = queuedMovements.remove(builder.entity);
+		if(deltas != null){
+			assignMovement(builder, deltas);
+		}
+	}
+
+	/**
+	 *  Sends all assigned movement to players, and clears the queue for the next tick.
+	 *  Movement that was queued after the entity's builder updated is assigned through that builder first.
+	 *  Movement from entities without builders isn't tracked by anyone, so it is dropped.
+	 */
+	void sendQueuedMovement(){
+		for(Entry<AEntityB_Existing, short[]> queuedEntry : queuedMovements.entrySet()){
+			BuilderEntityExisting builder = updatedBuilders.get(queuedEntry.getKey());
+			if(builder != null){
+				assignMovement(builder, queuedEntry.getValue());
+			}
+		}
+		for(Entry<EntityPlayerMP, PacketVehicleServerMovement> playerEntry : playerPackets.entrySet()){
+			InterfacePacket.sendToPlayer(playerEntry.getValue(), WrapperPlayer.getWrapperFor(playerEntry.getKey()));
+		}
+		playerPackets.clear();
+		queuedMovements.clear();
+		updatedBuilders.clear();
+	}
+
+	private void assignMovement(BuilderEntityExisting builder, short[] deltas){
+		for(EntityPlayer player : world.getEntityTracker().getTrackingPlayers(builder)){
+			PacketVehicleServerMovement packet = playerPackets.get(player);
+			if(packet == null){
+				packet = new PacketVehicleServerMovement();
+				playerPackets.put((EntityPlayerMP) player, packet);
+			}
+			packet.addMovement(builder.entity.lookupID, deltas);
+		}
+	}
+}
@@ -7,10 +7,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 
 import minecrafttransportsimulator.MasterLoader;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
@@ -22,6 +22,7 @@ import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
+import minecrafttransportsimulator.entities.components.EntitySpatialIndex;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityPlayerGun;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
@@ -66,13 +67,16 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 
 /**Wrapper to a world instance.  This contains many common methods that 
  * MC has seen fit to change over multiple versions (such as lighting) and as such
@@ -90,9 +94,15 @@ public class WrapperWorld{
 	public final World world;
 	public InterfaceWorldSavedData savedDataAccessor;
 	public static final String STORED_WORLD_DATA_ID = MasterLoader.MODID + "_WORLD_DATA";
+	private final BlockCollisionCache collisionCache;
+	private final MovementReplicator movementReplicator;
+	private final BoundingBoxTree.Hits rayTraceBoxHits = new BoundingBoxTree.Hits();
+	private final BlockPos.MutableBlockPos collisionTopPos = new BlockPos.MutableBlockPos();
 
 	private WrapperWorld(World world){
 		this.world = world;
+		this.collisionCache = new BlockCollisionCache(world);
+		this.movementReplicator = world.isRemote ? null : new MovementReplicator((WorldServer) world);
 		if(world.isRemote){
 			InterfacePacket.sendToServer(new PacketWorldSavedDataCSHandshake(InterfaceClient.getClientPlayer(), (WrapperNBT)null));
 		}
@@ -276,6 +286,26 @@ public class WrapperWorld{
 		return WrapperEntity.getWrapperFor(foundEntity);
 	}
 	
+	/**
+	 *  Queues the passed-in movement deltas of the passed-in entity to be sent to clients.
+	 *  Deltas are only sent to players tracking the entity, and are batched into one packet
+	 *  per player at the end of the tick.  Only valid on servers.
+	 *  <br><br>
+	 *  If the entity already has deltas queued this tick, the two are combined, and may be clamped.
+	 *  The passed-in deltas are set to what was actually queued, so callers can keep the rest for later.
+	 */
+	public void queueMovementUpdate(AEntityB_Existing entity, short[] deltas){
+		movementReplicator.queueMovement(entity, deltas);
+	}
+	
+	/**
+	 *  Assigns any movement queued for the entity in the passed-in builder to the players tracking it.
+	 *  Called by builders after they update their entity.
+	 */
+	void assignQueuedMovement(BuilderEntityExisting builder){
+		movementReplicator.assignQueuedMovement(builder);
+	}
+	
 	/**
 	 *  Spawns the entity into the world.
 	 */
@@ -352,29 +382,24 @@ public class WrapperWorld{
 				
 				//Get hitboxes hit if we are a moving source of damage.
 				if(motion != null){
-					TreeMap<Double, BoundingBox> hitBoxes = new TreeMap<Double, BoundingBox>();
+					rayTraceBoxHits.clear();
 					if(entityAttacked instanceof AEntityE_Multipart){
-						for(BoundingBox box : ((AEntityE_Multipart<?>) entityAttacked).allInteractionBoxes){
-							Point3d delta = box.getIntersectionPoint(startPoint, endPoint); 
-							if(delta != null){
-								hitBoxes.put(delta.distanceTo(startPoint), box);
-							}
-						}
+						((AEntityE_Multipart<?>) entityAttacked).allInteractionBoxTree.getHits(startPoint, endPoint, rayTraceBoxHits);
 					}else if(entityAttacked instanceof AEntityD_Interactable){
 						for(BoundingBox box : ((AEntityD_Interactable<?>) entityAttacked).interactionBoxes){
-							Point3d delta = box.getIntersectionPoint(startPoint, endPoint); 
-							if(delta != null){
-								hitBoxes.put(delta.distanceTo(startPoint), box);
+							double fraction = box.getIntersectionFraction(startPoint, endPoint);
+							if(!Double.isNaN(fraction)){
+								rayTraceBoxHits.add(box, fraction);
 							}
 						}
 					}
 					
 					//If we hit any box on this entity, add it to the map.
 					//If not, remove it as we didn't hit it.
-					if(hitBoxes.isEmpty()){
+					if(rayTraceBoxHits.size() == 0){
 						iterator.remove();
 					}else{
-						rayTraceHits.put(WrapperEntity.getWrapperFor(mcEntityCollided), hitBoxes.values());
+						rayTraceHits.put(WrapperEntity.getWrapperFor(mcEntityCollided), rayTraceBoxHits.toList());
 					}
 				}
 			}else{
@@ -487,12 +512,24 @@ public class WrapperWorld{
 	 *  no blocks along the path.
 	 */
 	public Point3d getBlockHit(Point3d position, Point3d delta){
+		return getBlockHit(position, delta, null);
+	}
+	
+	/**
+	 *  Like {@link #getBlockHit(Point3d, Point3d)}, but also sets the passed-in hit point to the exact
+	 *  point on the path where the block was hit, if there was one.  This lets callers ray-cast against
+	 *  other things only up to the block, as anything past it is blocked.  The hit point may be null if not required.
+	 */
+	public Point3d getBlockHit(Point3d position, Point3d delta, Point3d hitPoint){
 		Vec3d start = new Vec3d(position.x, position.y, position.z);
 		RayTraceResult trace = world.rayTraceBlocks(start, start.add(delta.x, delta.y, delta.z), false, true, false);
 		if(trace != null){
 			BlockPos pos = trace.getBlockPos();
 			if(pos != null){
-				 return new Point3d(pos.getX(), pos.getY(), pos.getZ());
+				if(hitPoint != null){
+					hitPoint.set(trace.hitVec.x, trace.hitVec.y, trace.hitVec.z);
+				}
+				return new Point3d(pos.getX(), pos.getY(), pos.getZ());
 			}
 		}
 		return null;
@@ -552,6 +589,18 @@ public class WrapperWorld{
 		return block instanceof BlockSlab && !((BlockSlab) block).isDouble() && state.getValue(BlockSlab.HALF) == BlockSlab.EnumBlockHalf.TOP;
 	}
 	
+	/**
+	 *  Returns the top of the collision box of the block at the passed-in position, or NaN if the block
+	 *  has no collision box.  This is a coarse check for things that are too small or numerous to do
+	 *  full box collisions with, such as particles.  As such, the position is re-used rather than
+	 *  making a new one for every call.
+	 */
+	public double getBlockCollisionTop(Point3d position){
+		collisionTopPos.setPos(position.x, position.y, position.z);
+		AxisAlignedBB box = world.getBlockState(collisionTopPos).getCollisionBoundingBox(world, collisionTopPos);
+		return box != null ? collisionTopPos.getY() + box.maxY : Double.NaN;
+	}
+	
 	/**
 	 *  Returns the distance from the passed-in position to the top block in the world, at the position's X/Z coords.
 	 */
@@ -569,69 +618,8 @@ public class WrapperWorld{
 	 * collisionDepth be set for that axis.
 	 */
 	public void updateBoundingBoxCollisions(BoundingBox box, Point3d collisionMotion, boolean ignoreIfGreater){
-		AxisAlignedBB mcBox = box.convert();
-		box.collidingBlockPositions.clear();
-		List<AxisAlignedBB> collidingAABBs = new ArrayList<AxisAlignedBB>(); 
-		for(int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i){
-    		for(int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j){
-    			for(int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k){
-    				BlockPos pos = new BlockPos(i, j, k);
-    				if(world.isBlockLoaded(pos)){
-	    				IBlockState state = world.getBlockState(pos);
-	    				if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
-	    					int oldCollidingBlockCount = collidingAABBs.size();
-	    					state.addCollisionBoxToList(world, pos, mcBox, collidingAABBs, null, false);
-	    					if(collidingAABBs.size() > oldCollidingBlockCount){
-	    						box.collidingBlockPositions.add(new Point3d(i, j, k));
-	    					}
-	    				}
-						if(box.collidesWithLiquids && state.getMaterial().isLiquid()){
-							collidingAABBs.add(state.getBoundingBox(world, pos).offset(pos));
-							box.collidingBlockPositions.add(new Point3d(i, j, k));
-						}
-    				}
-    			}
-    		}
-    	}
-		
-		//If we are in the depth bounds for this collision, set it as the collision depth.
-		box.currentCollisionDepth.set(0D, 0D, 0D);
-		double boxCollisionDepth;
-		for(AxisAlignedBB colBox : collidingAABBs){
-			if(collisionMotion.x > 0){
-				boxCollisionDepth = mcBox.maxX - colBox.minX;
-				if(!ignoreIfGreater || collisionMotion.x - boxCollisionDepth > 0){
-					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
-				}
-			}else if(collisionMotion.x < 0){
-				boxCollisionDepth = colBox.maxX - mcBox.minX;
-				if(!ignoreIfGreater || collisionMotion.x + boxCollisionDepth < 0){
-					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
-				}
-			}
-			if(collisionMotion.y > 0){
-				boxCollisionDepth = mcBox.maxY - colBox.minY;
-				if(!ignoreIfGreater || collisionMotion.y - boxCollisionDepth > 0){
-					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
-				}
-			}else if(collisionMotion.y < 0){
-				boxCollisionDepth = colBox.maxY - mcBox.minY;
-				if(!ignoreIfGreater || collisionMotion.y + boxCollisionDepth < 0){
-					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
-				}
-			}
-			if(collisionMotion.z > 0){
-				boxCollisionDepth = mcBox.maxZ - colBox.minZ;
-				if(!ignoreIfGreater || collisionMotion.z - boxCollisionDepth > 0){
-					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
-				}
-			}else if(collisionMotion.z < 0){
-				boxCollisionDepth = colBox.maxZ - mcBox.minZ;
-				if(!ignoreIfGreater || collisionMotion.z + boxCollisionDepth < 0){
-					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
-				}
-			}
-		}
+		//Boxes come from the cache, so we don't need to re-query MC for blocks we checked earlier this tick.
+		collisionCache.updateBoundingBoxCollisions(box, collisionMotion, ignoreIfGreater);
 	}
 	
 	/**
@@ -991,9 +979,18 @@ public class WrapperWorld{
     * Spawn "follower" entities for the player if they don't exist already.
     * This only happens if the player joined and has been present for 2 seconds.
     * This delay is done to ensure all chunks are loaded before spawning any followers.
+    * Also sends queued entity movement to clients at the end of the tick.
     */
    @SubscribeEvent
    public static void on(TickEvent.WorldTickEvent event){
+	   //Send all movement queued by entities this tick to the players tracking them.
+	   if(event.phase.equals(Phase.END) && !event.world.isRemote){
+		   WrapperWorld worldWrapper = worldWrappers.get(event.world);
+		   if(worldWrapper != null){
+			   worldWrapper.movementReplicator.sendQueuedMovement();
+		   }
+	   }
+	   
 	   if(!ticksSincePlayerJoin.isEmpty()){
 		   Iterator<Entry<EntityPlayer, Integer>> iterator = ticksSincePlayerJoin.entrySet().iterator();
 		   while(iterator.hasNext()){
@@ -1023,6 +1020,24 @@ public class WrapperWorld{
 	   }
    }
 	
+	/**
+     * Invalidate cached block collisions when blocks change.
+     * Also wake up any sleeping vehicles near the block, as they may need to fall or move.
+     */
+    @SubscribeEvent
+    public static void on(BlockEvent.NeighborNotifyEvent event){
+    	WrapperWorld worldWrapper = worldWrappers.get(event.getWorld());
+    	if(worldWrapper != null){
+    		worldWrapper.collisionCache.invalidate(event.getPos());
+    		Point3d blockCenter = new Point3d(event.getPos().getX() + 0.5D, event.getPos().getY() + 0.5D, event.getPos().getZ() + 0.5D);
+    		for(AEntityE_Multipart<?> entity : EntitySpatialIndex.getIndex(worldWrapper).getEntities(new BoundingBox(blockCenter, 1, 1, 1))){
+    			if(entity instanceof EntityVehicleF_Physics){
+    				((EntityVehicleF_Physics) entity).wakeUp();
+    			}
+    		}
+    	}
+    }
+	
 	/**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -1033,11 +1048,19 @@ public class WrapperWorld{
     		//Need to remove C before A as A removes the world mapping that C will call.
     		AEntityC_Definable.removaAllEntities(worldWrappers.get(event.getWorld()));
     		AEntityA_Base.removaAllEntities(worldWrappers.get(event.getWorld()));
+    		EntitySpatialIndex.removeIndex(worldWrappers.get(event.getWorld()));
 	    	worldWrappers.remove(event.getWorld());
 	    	for(EntityPlayer player : event.getWorld().playerEntities){
 	    		BuilderEntityRenderForwarder.activeFollowers.remove(player.getUniqueID());
 	    	}
     	}
+    	
+    	//Reset client packets, as they are for the world we just left.  Server packets aren't reset here, as servers
+    	//unload dimensions while running and players may still have packets queued for other dimensions.
+    	//Those are reset when the server stops instead.
+    	if(event.getWorld().isRemote){
+    		InterfacePacket.resetQueue(false);
+    	}
     }
 	
 	/**
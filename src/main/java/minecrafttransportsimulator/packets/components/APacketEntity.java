@@ -3,6 +3,8 @@ package minecrafttransportsimulator.packets.components;
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 
 /**Packet class that includes a default implementation for transmitting an entity
@@ -32,6 +34,12 @@ public abstract class APacketEntity<EntityType extends AEntityA_Base> extends AP
 	@Override
 	public void handle(WrapperWorld world){
 		EntityType entity = AEntityA_Base.getEntity(world, lookupID);
+		//Wake up sleeping vehicles, as any packet could change their state in a way that makes them move.
+		if(entity instanceof EntityVehicleF_Physics){
+			((EntityVehicleF_Physics) entity).wakeUp();
+		}else if(entity instanceof APart && ((APart) entity).entityOn instanceof EntityVehicleF_Physics){
+			((EntityVehicleF_Physics) ((APart) entity).entityOn).wakeUp();
+		}
 		if(entity != null && handle(world, entity) && !world.isClient()){
 			InterfacePacket.sendToAllClients(this);
 			if(entity instanceof ATileEntityBase){
@@ -1,11 +1,15 @@
 package minecrafttransportsimulator.packets.components;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.MasterLoader;
 import minecrafttransportsimulator.mcinterface.InterfaceClient;
+import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.mcinterface.WrapperPlayer;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
 import minecrafttransportsimulator.packets.instances.PacketBeaconListingChange;
@@ -46,6 +50,7 @@ import minecrafttransportsimulator.packets.instances.PacketTileEntitySignalContr
 import minecrafttransportsimulator.packets.instances.PacketVehicleBeaconChange;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlAnalog;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlDigital;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControlState;
 import minecrafttransportsimulator.packets.instances.PacketVehicleInteract;
 import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
 import minecrafttransportsimulator.packets.instances.PacketWorldSavedDataCSHandshake;
@@ -67,8 +72,22 @@ import net.minecraftforge.fml.relauncher.Side;
  * @author don_bruce
  */
 public class InterfacePacket{
-	private static final SimpleNetworkWrapper network = NetworkRegistry.INSTANCE.newSimpleChannel(MasterLoader.MODID);
-	private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+	/**Network channel.  Created in {@link #init()} rather than when this class loads, so packets can be registered without one.**/
+	private static SimpleNetworkWrapper network;
+	/**Decoders for packets, indexed by the packet's index.**/
+	private static final PacketDecoder[] packetDecoders = new PacketDecoder[256];
+	/**Registered indexes for packets, keyed by class.  Only used to populate {@link #packetIndexes}.**/
+	private static final Map<Class<?>, Byte> registeredIndexes = new HashMap<Class<?>, Byte>();
+	/**Indexes for packets.  These are stored on the class objects themselves, so getting them doesn't need a map lookup.**/
+	private static final ClassValue<Byte> packetIndexes = new ClassValue<Byte>(){
+		@Override
+		protected Byte computeValue(Class<?> packetClass){
+			return registeredIndexes.get(packetClass);
+		}
+	};
+	/**Packets waiting to be handled on the server and client threads.**/
+	private static final PacketQueue serverQueue = new PacketQueue();
+	private static final PacketQueue clientQueue = new PacketQueue();
 	
 	/**
 	 *  Called to init this network.  Needs to be done after networking is ready.
@@ -76,87 +95,117 @@ public class InterfacePacket{
 	 */
 	public static void init(){
 		//Register the main wrapper packet.
+		network = NetworkRegistry.INSTANCE.newSimpleChannel(MasterLoader.MODID);
 		network.registerMessage(WrapperHandler.class, WrapperPacket.class, 0, Side.CLIENT);
 		network.registerMessage(WrapperHandler.class, WrapperPacket.class, 1, Side.SERVER);
-		
+		registerPackets();
+	}
+	
+	/**
+	 *  Registers all packets with their indexes and decoders.  Separate from {@link #init()}
+	 *  as this doesn't need the network, so packets can be decoded without one.
+	 */
+	static void registerPackets(){
 		//Register all classes in the minecrafttransportsimulator.packets.instances package.
 		//Ideally this could be done via reflection, but it doesn't work too well so we don't do that.
 		byte packetIndex = 0;
-		registerPacket(packetIndex++, PacketBeaconListingChange.class);
+		registerPacket(packetIndex++, PacketBeaconListingChange.class, PacketBeaconListingChange::new);
 		
 		//Entity packets.
-		registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class);
-		registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class);
-		registerPacket(packetIndex++, PacketEntityColorChange.class);
-		registerPacket(packetIndex++, PacketEntityInstrumentChange.class);
-		registerPacket(packetIndex++, PacketEntityRiderChange.class);
-		registerPacket(packetIndex++, PacketEntityTextChange.class);
-		registerPacket(packetIndex++, PacketEntityTrailerChange.class);
-		registerPacket(packetIndex++, PacketEntityTrailerConnection.class);
-		registerPacket(packetIndex++, PacketEntityVariableToggle.class);
+		registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class, PacketEntityCSHandshakeClient::new);
+		registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class, PacketEntityCSHandshakeServer::new);
+		registerPacket(packetIndex++, PacketEntityColorChange.class, PacketEntityColorChange::new);
+		registerPacket(packetIndex++, PacketEntityInstrumentChange.class, PacketEntityInstrumentChange::new);
+		registerPacket(packetIndex++, PacketEntityRiderChange.class, PacketEntityRiderChange::new);
+		registerPacket(packetIndex++, PacketEntityTextChange.class, PacketEntityTextChange::new);
+		registerPacket(packetIndex++, PacketEntityTrailerChange.class, PacketEntityTrailerChange::new);
+		registerPacket(packetIndex++, PacketEntityTrailerConnection.class, PacketEntityTrailerConnection::new);
+		registerPacket(packetIndex++, PacketEntityVariableToggle.class, PacketEntityVariableToggle::new);
 		
 		//Fluid tank packets.
-		registerPacket(packetIndex++, PacketFluidTankChange.class);
+		registerPacket(packetIndex++, PacketFluidTankChange.class, PacketFluidTankChange::new);
 		
 		//Inventory container packets.
-		registerPacket(packetIndex++, PacketInventoryContainerChange.class);
-		registerPacket(packetIndex++, PacketItemInteractable.class);
+		registerPacket(packetIndex++, PacketInventoryContainerChange.class, PacketInventoryContainerChange::new);
+		registerPacket(packetIndex++, PacketItemInteractable.class, PacketItemInteractable::new);
 		
 		//GUI packets.
-		registerPacket(packetIndex++, PacketGUIRequest.class);
-		registerPacket(packetIndex++, PacketEntityGUIRequest.class);
+		registerPacket(packetIndex++, PacketGUIRequest.class, PacketGUIRequest::new);
+		registerPacket(packetIndex++, PacketEntityGUIRequest.class, PacketEntityGUIRequest::new);
 		
 		//Part packets.
-		registerPacket(packetIndex++, PacketPartChange.class);
-		registerPacket(packetIndex++, PacketPartGunBulletHit.class);
-		registerPacket(packetIndex++, PacketPartGun.class);
-		registerPacket(packetIndex++, PacketPartEffector.class);
-		registerPacket(packetIndex++, PacketPartEngine.class);
-		registerPacket(packetIndex++, PacketPartGroundDevice.class);
-		registerPacket(packetIndex++, PacketPartInteractable.class);
-		registerPacket(packetIndex++, PacketPartSeat.class);
+		registerPacket(packetIndex++, PacketPartChange.class, PacketPartChange::new);
+		registerPacket(packetIndex++, PacketPartGunBulletHit.class, PacketPartGunBulletHit::new);
+		registerPacket(packetIndex++, PacketPartGun.class, PacketPartGun::new);
+		registerPacket(packetIndex++, PacketPartEffector.class, PacketPartEffector::new);
+		registerPacket(packetIndex++, PacketPartEngine.class, PacketPartEngine::new);
+		registerPacket(packetIndex++, PacketPartGroundDevice.class, PacketPartGroundDevice::new);
+		registerPacket(packetIndex++, PacketPartInteractable.class, PacketPartInteractable::new);
+		registerPacket(packetIndex++, PacketPartSeat.class, PacketPartSeat::new);
 		
 		//Player packets.
-		registerPacket(packetIndex++, PacketPlayerChatMessage.class);
-		registerPacket(packetIndex++, PacketPlayerCraftItem.class);
-		registerPacket(packetIndex++, PacketPlayerItemTransfer.class);
+		registerPacket(packetIndex++, PacketPlayerChatMessage.class, PacketPlayerChatMessage::new);
+		registerPacket(packetIndex++, PacketPlayerCraftItem.class, PacketPlayerCraftItem::new);
+		registerPacket(packetIndex++, PacketPlayerItemTransfer.class, PacketPlayerItemTransfer::new);
 		
 		//Radio packets.
-		registerPacket(packetIndex++, PacketRadioStateChange.class);
+		registerPacket(packetIndex++, PacketRadioStateChange.class, PacketRadioStateChange::new);
 		
 		//Tile entity packets.
-		registerPacket(packetIndex++, PacketTileEntityFluidLoaderConnection.class);
-		registerPacket(packetIndex++, PacketTileEntityFuelPumpConnection.class);
-		registerPacket(packetIndex++, PacketTileEntityFuelPumpDispense.class);
-		registerPacket(packetIndex++, PacketTileEntityRoadCollisionUpdate.class);
-		registerPacket(packetIndex++, PacketTileEntityPoleChange.class);
-		registerPacket(packetIndex++, PacketTileEntityRoadChange.class);
-		registerPacket(packetIndex++, PacketTileEntityRoadConnectionUpdate.class);
-		registerPacket(packetIndex++, PacketTileEntitySignalControllerChange.class);
+		registerPacket(packetIndex++, PacketTileEntityFluidLoaderConnection.class, PacketTileEntityFluidLoaderConnection::new);
+		registerPacket(packetIndex++, PacketTileEntityFuelPumpConnection.class, PacketTileEntityFuelPumpConnection::new);
+		registerPacket(packetIndex++, PacketTileEntityFuelPumpDispense.class, PacketTileEntityFuelPumpDispense::new);
+		registerPacket(packetIndex++, PacketTileEntityRoadCollisionUpdate.class, PacketTileEntityRoadCollisionUpdate::new);
+		registerPacket(packetIndex++, PacketTileEntityPoleChange.class, PacketTileEntityPoleChange::new);
+		registerPacket(packetIndex++, PacketTileEntityRoadChange.class, PacketTileEntityRoadChange::new);
+		registerPacket(packetIndex++, PacketTileEntityRoadConnectionUpdate.class, PacketTileEntityRoadConnectionUpdate::new);
+		registerPacket(packetIndex++, PacketTileEntitySignalControllerChange.class, PacketTileEntitySignalControllerChange::new);
 		
 		//Vehicle packets.
-		registerPacket(packetIndex++, PacketVehicleBeaconChange.class);
-		registerPacket(packetIndex++, PacketVehicleControlAnalog.class);
-		registerPacket(packetIndex++, PacketVehicleControlDigital.class);
-		registerPacket(packetIndex++, PacketVehicleInteract.class);
-		registerPacket(packetIndex++, PacketVehicleServerMovement.class);
+		registerPacket(packetIndex++, PacketVehicleBeaconChange.class, PacketVehicleBeaconChange::new);
+		registerPacket(packetIndex++, PacketVehicleControlAnalog.class, PacketVehicleControlAnalog::new);
+		registerPacket(packetIndex++, PacketVehicleControlDigital.class, PacketVehicleControlDigital::new);
+		registerPacket(packetIndex++, PacketVehicleControlState.class, PacketVehicleControlState::new);
+		registerPacket(packetIndex++, PacketVehicleInteract.class, PacketVehicleInteract::new);
+		registerPacket(packetIndex++, PacketVehicleServerMovement.class, PacketVehicleServerMovement::new);
 		
 		//World packets.
-		registerPacket(packetIndex++, PacketWorldSavedDataCSHandshake.class);
+		registerPacket(packetIndex++, PacketWorldSavedDataCSHandshake.class, PacketWorldSavedDataCSHandshake::new);
 	}
 	
 	/**
-	 *  Registers the passed-in packet with the interface.
+	 *  Registers the passed-in packet with the interface.  The decoder is used to
+	 *  construct the packet from the buffer when it arrives on the other side of the network.
 	 */
-	public static void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass){
-		packetMappings.put(packetIndex, packetClass);
+	public static void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass, PacketDecoder decoder){
+		packetDecoders[packetIndex & 0xFF] = decoder;
+		registeredIndexes.put(packetClass, packetIndex);
+	}
+	
+	/**
+	 *  Gets the decoder for the passed-in packet index, or null if no packet is registered with that index.
+	 */
+	static PacketDecoder getPacketDecoder(byte packetIndex){
+		return packetDecoders[packetIndex & 0xFF];
 	}
 	
 	/**
 	 *  Gets the index for the passed-in packet from the mapping.
 	 */
 	public static byte getPacketIndex(APacketBase packet){
-		return packetMappings.inverse().get(packet.getClass());
+		return packetIndexes.get(packet.getClass());
+	}
+	
+	/**
+	 *  Resets the queue of packets waiting to be handled on the server or client thread.  Queued packets are
+	 *  dropped, and the queue is marked as not having a task scheduled.  This needs to be done when the thread
+	 *  the queue's task was scheduled on stops, such as when an integrated server is stopped, as that task will
+	 *  never run, and the queue would otherwise never schedule a task again.
+	 */
+	public static void resetQueue(boolean server){
+		PacketQueue queue = server ? serverQueue : clientQueue;
+		queue.packets.clear();
+		queue.taskScheduled.set(false);
 	}
 	
 	/**
@@ -200,6 +249,7 @@ public class InterfacePacket{
 	 */
 	public static class WrapperPacket implements IMessage{
 		private APacketBase packet;
+		private MessageContext ctx;
 		
 		/**Do NOT call!  Required to keep Forge from crashing.**/
 		public WrapperPacket(){}
@@ -212,8 +262,7 @@ public class InterfacePacket{
 		public void fromBytes(ByteBuf buf){
 			byte packetIndex = buf.readByte();
 			try{
-				Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-				packet = packetClass.getConstructor(ByteBuf.class).newInstance(buf);
+				packet = packetDecoders[packetIndex & 0xFF].decode(buf);
 			}catch(Exception e){
 				e.printStackTrace();
 			}
@@ -232,21 +281,56 @@ public class InterfacePacket{
 	public static class WrapperHandler implements IMessageHandler<WrapperPacket, IMessage>{
 		@Override
 		public IMessage onMessage(WrapperPacket message, MessageContext ctx){
-			//Need to put this in a runnable to not run it on the network thread and get a CME.
-			FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(new Runnable(){
-				@Override
-				public void run(){
+			//Need to handle this on the world thread to not run it on the network thread and get a CME.
+			//Rather than scheduling a task for every packet, we queue them and schedule one task to handle all queued packets.
+			message.ctx = ctx;
+			PacketQueue queue = ctx.side.isServer() ? serverQueue : clientQueue;
+			queue.packets.add(message);
+			if(queue.taskScheduled.compareAndSet(false, true)){
+				FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(queue);
+			}
+			return null;
+		}
+	};
+	
+	/**
+	 *  Queue of packets waiting to be handled on the world thread.  When run, all queued packets are handled in the
+	 *  order they arrived.  The scheduled flag is cleared before handling, so any packets that arrive while we
+	 *  are handling will either be handled in this run, or will schedule a new run.
+	 */
+	private static class PacketQueue implements Runnable{
+		private final Queue<WrapperPacket> packets = new ConcurrentLinkedQueue<WrapperPacket>();
+		private final AtomicBoolean taskScheduled = new AtomicBoolean();
+		
+		@Override
+		public void run(){
+			taskScheduled.set(false);
+			WrapperPacket message;
+			while((message = packets.poll()) != null){
+				try{
 					//We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
 					//by the JVM when this method is created.  Failure to do this will result in network faults.
 					//For this, we use abstract methods that are extended in our sub-classes.
-					if(ctx.side.isServer()){
-						message.packet.handle(getServerWorld(ctx));
+					if(message.ctx.side.isServer()){
+						message.packet.handle(getServerWorld(message.ctx));
 					}else{
 						message.packet.handle(InterfaceClient.getClientWorld());
 					}
+				}catch(Exception e){
+					//Don't let one bad packet prevent the handling of the rest of the queue.
+					InterfaceCore.logError("Exception handling packet: " + message.packet);
+					e.printStackTrace();
 				}
-			});
-			return null;
+			}
 		}
 	};
+	
+	/**
+	 *  Functional interface for constructing packets from buffers.  Normally the ByteBuf
+	 *  constructor of the packet class, as that's what is called when packets are received.
+	 */
+	@FunctionalInterface
+	public static interface PacketDecoder{
+		public APacketBase decode(ByteBuf buf);
+	}
 }
@@ -95,9 +95,9 @@ public class PacketTileEntityRoadConnectionUpdate extends APacketEntity<TileEnti
 		if(otherPosition != null){
 			//Connecting to another curve.  Create connection from this curve to the other one.
 			if(connectedToStart){
-				lane.priorConnections.get(curveNumber).add(new RoadLaneConnection(otherPosition, otherLaneNumber, otherCurveNumber, otherCurveNetAngle, otherConnectedToStart));
+				lane.addConnection(curveNumber, new RoadLaneConnection(otherPosition, otherLaneNumber, otherCurveNumber, otherCurveNetAngle, otherConnectedToStart), true);
 			}else{
-				lane.nextConnections.get(curveNumber).add(new RoadLaneConnection(otherPosition, otherLaneNumber, otherCurveNumber, otherCurveNetAngle, otherConnectedToStart));
+				lane.addConnection(curveNumber, new RoadLaneConnection(otherPosition, otherLaneNumber, otherCurveNumber, otherCurveNetAngle, otherConnectedToStart), false);
 			}
 		}else{
 			//No other curve.  This is a connection deletion request.
@@ -43,39 +43,64 @@ public class PacketVehicleControlAnalog extends APacketEntity<EntityVehicleF_Phy
 	
 	@Override
 	protected boolean handle(WrapperWorld world, EntityVehicleF_Physics vehicle){
+		setControl(vehicle, controlType, value, cooldown);
+		return true;
+	}
+	
+	/**
+	 *  Sets the passed-in control on the passed-in vehicle.  Value and cooldown are handled the same way
+	 *  as for this packet.  Shared with {@link PacketVehicleControlState}, which sends multiple controls at once.
+	 */
+	public static void setControl(EntityVehicleF_Physics vehicle, Controls controlType, short value, byte cooldown){
+		short newValue = (short) clampAngle(controlType.min, controlType.max, cooldown == Byte.MAX_VALUE ? value : getControl(vehicle, controlType) + value);
 		switch(controlType){
-			case THROTTLE : {
-				vehicle.throttle = (byte) clampAngle(0, EntityVehicleF_Physics.MAX_THROTTLE, cooldown == Byte.MAX_VALUE ? value : vehicle.throttle + value);
-				break;
-			}
-			case BRAKE : {
-				vehicle.brake = (byte) clampAngle(0, EntityVehicleF_Physics.MAX_BRAKE, cooldown == Byte.MAX_VALUE ? value : vehicle.brake + value);
-				break;
-			}
+			case THROTTLE : vehicle.throttle = (byte) newValue; break;
+			case BRAKE : vehicle.brake = (byte) newValue; break;
 			case AILERON : {
-				vehicle.aileronAngle = (short) clampAngle(-EntityVehicleF_Physics.MAX_AILERON_ANGLE, EntityVehicleF_Physics.MAX_AILERON_ANGLE, cooldown == Byte.MAX_VALUE ? value : vehicle.aileronAngle + value);
+				vehicle.aileronAngle = newValue;
 				vehicle.aileronCooldown = cooldown; 
 				break;
 			}
 			case ELEVATOR : {
-				vehicle.elevatorAngle = (short) clampAngle(-EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, cooldown == Byte.MAX_VALUE ? value : vehicle.elevatorAngle + value);
+				vehicle.elevatorAngle = newValue;
 				vehicle.elevatorCooldown = cooldown;
 				break;
 			}
 			case RUDDER : {
-				vehicle.rudderAngle = (short) clampAngle(-EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.MAX_RUDDER_ANGLE, cooldown == Byte.MAX_VALUE ? value : vehicle.rudderAngle + value);
+				vehicle.rudderAngle = newValue;
 				vehicle.rudderCooldown = cooldown;
 				break;
 			}
 		}
-		return true;
+	}
+	
+	/**
+	 *  Returns the current value of the passed-in control on the passed-in vehicle.
+	 */
+	public static short getControl(EntityVehicleF_Physics vehicle, Controls controlType){
+		switch(controlType){
+			case THROTTLE : return vehicle.throttle;
+			case BRAKE : return vehicle.brake;
+			case AILERON : return vehicle.aileronAngle;
+			case ELEVATOR : return vehicle.elevatorAngle;
+			case RUDDER : return vehicle.rudderAngle;
+			default : return 0;
+		}
 	}
 	
 	public enum Controls{
-		THROTTLE,
-		BRAKE,
-		AILERON,
-		ELEVATOR,
-		RUDDER;
+		THROTTLE(0, EntityVehicleF_Physics.MAX_THROTTLE),
+		BRAKE(0, EntityVehicleF_Physics.MAX_BRAKE),
+		AILERON(-EntityVehicleF_Physics.MAX_AILERON_ANGLE, EntityVehicleF_Physics.MAX_AILERON_ANGLE),
+		ELEVATOR(-EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE),
+		RUDDER(-EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.MAX_RUDDER_ANGLE);
+		
+		public final short min;
+		public final short max;
+		
+		private Controls(int min, int max){
+			this.min = (short) min;
+			this.max = (short) max;
+		}
 	}
 }
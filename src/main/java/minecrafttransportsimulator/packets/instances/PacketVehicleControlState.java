@@ -0,0 +1,67 @@
+package minecrafttransportsimulator.packets.instances;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.mcinterface.WrapperWorld;
+import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControlAnalog.Controls;
+
+/**Packet used for sending the state of all analog controls of a vehicle at once.  Clients send this
+ * once a tick with only the controls that changed that tick, rather than sending a
+ * {@link PacketVehicleControlAnalog} for every control.  Each control in this packet is handled
+ * exactly like it would be in that packet, including the cooldown.  Changed controls are sent as
+ * a bitmask of control ordinals, followed by the value and cooldown of each control in the mask.
+ *
+ * @author don_bruce
+ */
+public class PacketVehicleControlState extends APacketEntity<EntityVehicleF_Physics>{
+	private final byte changedControls;
+	private final short[] values = new short[Controls.values().length];
+	private final byte[] cooldowns = new byte[Controls.values().length];
+
+	public PacketVehicleControlState(EntityVehicleF_Physics vehicle, byte changedControls, short[] values, byte[] cooldowns){
+		super(vehicle);
+		this.changedControls = changedControls;
+		for(Controls control : Controls.values()){
+			this.values[control.ordinal()] = values[control.ordinal()];
+			this.cooldowns[control.ordinal()] = cooldowns[control.ordinal()];
+		}
+	}
+
+	public PacketVehicleControlState(ByteBuf buf){
+		super(buf);
+		this.changedControls = buf.readByte();
+		for(Controls control : Controls.values()){
+			if(isChanged(control)){
+				values[control.ordinal()] = buf.readShort();
+				cooldowns[control.ordinal()] = buf.readByte();
+			}
+		}
+	}
+
+	@Override
+	public void writeToBuffer(ByteBuf buf){
+		super.writeToBuffer(buf);
+		buf.writeByte(changedControls);
+		for(Controls control : Controls.values()){
+			if(isChanged(control)){
+				buf.writeShort(values[control.ordinal()]);
+				buf.writeByte(cooldowns[control.ordinal()]);
+			}
+		}
+	}
+
+	@Override
+	protected boolean handle(WrapperWorld world, EntityVehicleF_Physics vehicle){
+		for(Controls control : Controls.values()){
+			if(isChanged(control)){
+				PacketVehicleControlAnalog.setControl(vehicle, control, values[control.ordinal()], cooldowns[control.ordinal()]);
+			}
+		}
+		return true;
+	}
+
+	private boolean isChanged(Controls control){
+		return (changedControls & (1 << control.ordinal())) != 0;
+	}
+}
@@ -1,10 +1,13 @@
 package minecrafttransportsimulator.packets.instances;
 
+import java.util.function.IntFunction;
+
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.mcinterface.WrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketBase;
 
 /**Packet used to send server vehicle movement to clients.  This packet doesn't directly
  * move the vehicle (such an action results in horrid movement lag due to network
@@ -14,35 +17,138 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * the position and rotation.  This system of syncing has the side-effect of significant
  * rubberbanding when server TPS suffers or networking goes bad, but it's far better than
  * the alternatives when the connection is good, hence why we use it.
- * 
+ * <br><br>
+ * To save bandwidth, one packet is sent to each player per tick containing the movement
+ * of all vehicles that player is tracking.  Movement is sent as fixed-point shorts in
+ * units of {@link #MOTION_STEP} and {@link #ROTATION_STEP}.  The server carries any
+ * quantization error over to the next tick, so clients don't drift over time.
+ * <br><br>
+ * Servers only send movement for vehicles that are awake.  Clients don't know why a vehicle woke
+ * up on the server, such as the block under it being broken, so vehicles are woken up when they
+ * get movement.  Otherwise they would keep sleeping on clients and never apply it.
+ *
  * @author don_bruce
  */
-public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Physics>{
-	private final Point3d motion;
-	private final Point3d rotation;
-	
-	public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3d motion, Point3d rotation){
-		super(vehicle);
-		this.motion = motion;
-		this.rotation = rotation;
-	}
-	
+public class PacketVehicleServerMovement extends APacketBase{
+	/**Size of one unit of quantized motion, in blocks.**/
+	public static final double MOTION_STEP = 1D/1024D;
+	/**Size of one unit of quantized rotation, in degrees.**/
+	public static final double ROTATION_STEP = 1D/512D;
+
+	private int movementCount;
+	private int[] lookupIDs;
+	private short[] deltas;
+
+	public PacketVehicleServerMovement(){
+		super(null);
+		this.lookupIDs = new int[8];
+		this.deltas = new short[lookupIDs.length*6];
+	}
+
 	public PacketVehicleServerMovement(ByteBuf buf){
 		super(buf);
-		this.motion = readPoint3dFromBuffer(buf);
-		this.rotation = readPoint3dFromBuffer(buf);
+		this.movementCount = buf.readInt();
+		this.lookupIDs = new int[movementCount];
+		this.deltas = new short[movementCount*6];
+		for(int i=0; i<movementCount; ++i){
+			lookupIDs[i] = buf.readInt();
+			for(int j=i*6; j<i*6 + 6; ++j){
+				deltas[j] = buf.readShort();
+			}
+		}
 	}
-	
+
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writePoint3dToBuffer(motion, buf);
-		writePoint3dToBuffer(rotation, buf);
+		buf.writeInt(movementCount);
+		for(int i=0; i<movementCount; ++i){
+			buf.writeInt(lookupIDs[i]);
+			for(int j=i*6; j<i*6 + 6; ++j){
+				buf.writeShort(deltas[j]);
+			}
+		}
+	}
+
+	/**
+	 *  Adds the quantized movement of the entity with the passed-in lookupID to this packet.
+	 *  Deltas are motion x, y, z, and then rotation x, y, z.
+	 */
+	public void addMovement(int lookupID, short[] movementDeltas){
+		if(movementCount == lookupIDs.length){
+			int[] newLookupIDs = new int[lookupIDs.length*2];
+			System.arraycopy(lookupIDs, 0, newLookupIDs, 0, movementCount);
+			lookupIDs = newLookupIDs;
+			short[] newDeltas = new short[newLookupIDs.length*6];
+			System.arraycopy(deltas, 0, newDeltas, 0, movementCount*6);
+			deltas = newDeltas;
+		}
+		lookupIDs[movementCount] = lookupID;
+		System.arraycopy(movementDeltas, 0, deltas, movementCount*6, 6);
+		++movementCount;
 	}
-	
+
 	@Override
-	public boolean handle(WrapperWorld world, EntityVehicleF_Physics vehicle){
-		vehicle.addToServerDeltas(motion, rotation);
-		return false;
+	public void handle(WrapperWorld world){
+		applyMovement(lookupID -> {
+			AEntityA_Base entity = AEntityA_Base.getEntity(world, lookupID);
+			return entity instanceof EntityVehicleF_Physics ? (EntityVehicleF_Physics) entity : null;
+		});
+	}
+
+	/**
+	 *  Applies the movement in this packet to the receivers returned by the passed-in function for each lookupID.
+	 *  Receivers are woken up before their movement is added.  LookupIDs with no receiver are skipped.
+	 */
+	void applyMovement(IntFunction<MovementReceiver> receiverLookup){
+		Point3d motion = new Point3d();
+		Point3d rotation = new Point3d();
+		for(int i=0; i<movementCount; ++i){
+			MovementReceiver receiver = receiverLookup.apply(lookupIDs[i]);
+			if(receiver != null){
+				int index = i*6;
+				motion.set(deltas[index]*MOTION_STEP, deltas[index + 1]*MOTION_STEP, deltas[index + 2]*MOTION_STEP);
+				rotation.set(deltas[index + 3]*ROTATION_STEP, deltas[index + 4]*ROTATION_STEP, deltas[index + 5]*ROTATION_STEP);
+				receiver.wakeUp();
+				receiver.addToServerDeltas(motion, rotation);
+			}
+		}
+	}
+
+	/**
+	 *  Helper method to quantize the passed-in value into units of the passed-in step.
+	 *  Values outside the range of a short are clamped.
+	 */
+	public static short quantize(double value, double step){
+		long steps = Math.round(value/step);
+		return (short) (steps > Short.MAX_VALUE ? Short.MAX_VALUE : (steps < Short.MIN_VALUE ? Short.MIN_VALUE : steps));
+	}
+
+	/**
+	 *  Helper method to add the passed-in deltas to deltas that are already queued.  Sums outside the range
+	 *  of a short are clamped, so the passed-in deltas are set to the amount that was actually added.
+	 */
+	public static void addQueuedMovement(short[] queuedDeltas, short[] movementDeltas){
+		for(int i=0; i<queuedDeltas.length; ++i){
+			int combinedDelta = queuedDeltas[i] + movementDeltas[i];
+			combinedDelta = combinedDelta > Short.MAX_VALUE ? Short.MAX_VALUE : (combinedDelta < Short.MIN_VALUE ? Short.MIN_VALUE : combinedDelta);
+			movementDeltas[i] = (short) (combinedDelta - queuedDeltas[i]);
+			queuedDeltas[i] = (short) combinedDelta;
+		}
+	}
+
+	/**
+	 *  Something that can receive server movement.  Implemented by vehicles.
+	 */
+	public static interface MovementReceiver{
+		/**
+		 *  Wakes the receiver up if it is sleeping, so it applies the movement it gets.
+		 */
+		public void wakeUp();
+
+		/**
+		 *  Adds the passed-in motion and rotation to the movement the receiver has got from the server.
+		 */
+		public void addToServerDeltas(Point3d motionAdded, Point3d rotationAdded);
 	}
 }
@@ -46,6 +46,7 @@ import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.rendering.components.AModelParser;
+import minecrafttransportsimulator.rendering.components.VertexArray;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
@@ -1545,7 +1546,7 @@ public final class LegacyCompatSystem{
 		}
 		
 		try{
-			Map<String, Float[][]> parsedModel = AModelParser.parseModel(definition.getModelLocation(definition.definitions.get(0).subName));
+			Map<String, VertexArray> parsedModel = AModelParser.parseModel(definition.getModelLocation(definition.definitions.get(0).subName));
 			for(String objectName : parsedModel.keySet()){
 				if(objectName.contains("&")){
 					if(definition.rendering.lightObjects == null){
@@ -1689,8 +1690,8 @@ public final class LegacyCompatSystem{
 							lightDef.blendableComponents = new ArrayList<JSONLightBlendableComponent>();
 						}
 						
-						Float[][] masterVertices = parsedModel.get(objectName);
-						for(int i=0; i<masterVertices.length/6; ++i){
+						VertexArray masterVertices = parsedModel.get(objectName);
+						for(int i=0; i<masterVertices.vertexCount/6; ++i){
 							double minX = 999;
 							double maxX = -999;
 							double minY = 999;
@@ -1698,13 +1699,13 @@ public final class LegacyCompatSystem{
 							double minZ = 999;
 							double maxZ = -999;
 							for(byte j=0; j<6; ++j){
-								Float[] masterVertex = masterVertices[i*6 + j];
-								minX = Math.min(masterVertex[0], minX);
-								maxX = Math.max(masterVertex[0], maxX);
-								minY = Math.min(masterVertex[1], minY);
-								maxY = Math.max(masterVertex[1], maxY);
-								minZ = Math.min(masterVertex[2], minZ);
-								maxZ = Math.max(masterVertex[2], maxZ);
+								int masterVertex = i*6 + j;
+								minX = Math.min(masterVertices.get(masterVertex, 0), minX);
+								maxX = Math.max(masterVertices.get(masterVertex, 0), maxX);
+								minY = Math.min(masterVertices.get(masterVertex, 1), minY);
+								maxY = Math.max(masterVertices.get(masterVertex, 1), maxY);
+								minZ = Math.min(masterVertices.get(masterVertex, 2), minZ);
+								maxZ = Math.max(masterVertices.get(masterVertex, 2), maxZ);
 							}
 							JSONLightBlendableComponent blendable = lightDef.new JSONLightBlendableComponent();
 							if(renderFlare){
@@ -1716,7 +1717,7 @@ public final class LegacyCompatSystem{
 								blendable.beamLength = blendable.beamDiameter*3;
 							}
 							blendable.pos = new Point3d(minX + (maxX - minX)/2D, minY + (maxY - minY)/2D, minZ + (maxZ - minZ)/2D);;
-							blendable.axis = new Point3d(masterVertices[i*6][5], masterVertices[i*6][6], masterVertices[i*6][7]);
+							blendable.axis = new Point3d(masterVertices.get(i*6, 5), masterVertices.get(i*6, 6), masterVertices.get(i*6, 7));
 							
 							lightDef.blendableComponents.add(blendable);
 						}
@@ -1746,11 +1747,12 @@ public final class LegacyCompatSystem{
 					double maxY = -999;
 					double minZ = 999;
 					double maxZ = -999;
-					for(Float[] point : parsedModel.get(objectName)){
-						minY = Math.min(minY, point[1]);
-						maxY = Math.max(maxY, point[1]);
-						minZ = Math.min(minZ, point[2]);
-						maxZ = Math.max(maxZ, point[2]);
+					VertexArray points = parsedModel.get(objectName);
+					for(int i=0; i<points.vertexCount; ++i){
+						minY = Math.min(minY, points.get(i, 1));
+						maxY = Math.max(maxY, points.get(i, 1));
+						minZ = Math.min(minZ, points.get(i, 2));
+						maxZ = Math.max(maxZ, points.get(i, 2));
 					}
 					double radius = (maxZ - minZ)/2D;
 					
@@ -0,0 +1,186 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import minecrafttransportsimulator.MasterLoader;
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.mcinterface.InterfaceCore;
+import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**Cache for pack definitions.  Parsing a pack requires scanning the whole jar, and then parsing,
+ * performing legacy compats on, and validating every JSON in it.  As packs rarely change between launches,
+ * we save the definitions of a pack after all this is done, and load them from the cache on the next launch
+ * if the pack jar hasn't changed.  Caches are keyed to the jar's path, size, and modified time, as well as the
+ * mod version and the pack's active sub-directories, as any of these changing may change the definitions.
+ * Definitions in the cache have already had legacy compats performed, and have been validated, so they
+ * should be registered without doing either again.  Definitions are stored with a plain Gson rather than
+ * the {@link JSONParser}, as its adapters don't write false and zero values.  That is fine for pack JSONs,
+ * where these are the defaults, but prepared definitions may have had them set by legacy compats, and they
+ * would come back as null.
+ *
+ * @author don_bruce
+ */
+public final class PackDefinitionCache{
+	/**Version of the cache format.  Increment when the format changes to prevent loading old caches.**/
+	private static final int CACHE_VERSION = 2;
+	/**Parser for cached definitions.  Nulls are written so fields with non-null defaults stay null.**/
+	private static final Gson cacheParser = new GsonBuilder().serializeNulls().serializeSpecialFloatingPointValues().disableHtmlEscaping().create();
+
+	/**
+	 *  Loads the cached definitions for the passed-in pack.  If there is no cache, or the cache
+	 *  is for a different state of the pack, null is returned and the pack should be parsed normally.
+	 *  If the cache is corrupt or truncated, it is deleted, and null is returned as well.
+	 */
+	public static List<AJSONItem> loadDefinitions(File packJar, String packID, List<String> subDirectories){
+		return loadDefinitions(getCacheFile(packID), getCacheKey(packJar, subDirectories), packID);
+	}
+
+	/**
+	 *  Loads the cached definitions from the passed-in cache file, if it has the passed-in key.
+	 *  The pack ID is only used for logging.
+	 */
+	static List<AJSONItem> loadDefinitions(File cacheFile, String cacheKey, String packID){
+		if(!cacheFile.exists()){
+			return null;
+		}
+
+		List<ItemClassification> classifications = new ArrayList<ItemClassification>();
+		List<byte[]> definitionData = new ArrayList<byte[]>();
+		try(DataInputStream stream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))))){
+			//Check the header to make sure this cache is for the current state of the pack.
+			//A cache for a different state of the pack isn't corrupt, so we leave it to be replaced when the pack is cached again.
+			if(stream.readInt() != CACHE_VERSION || !stream.readUTF().equals(cacheKey)){
+				return null;
+			}
+
+			//Read all definitions.  We parse them after reading as parsing can be done in parallel.
+			//Truncated caches will end early, but corrupt ones may have invalid values, so check those.
+			int definitionCount = stream.readInt();
+			for(int i=0; i<definitionCount; ++i){
+				int classificationIndex = stream.readByte();
+				int dataLength = stream.readInt();
+				if(classificationIndex < 0 || classificationIndex >= ItemClassification.values().length || dataLength < 0){
+					throw new IOException("Invalid entry for definition " + i + " of " + definitionCount + ".");
+				}
+				classifications.add(ItemClassification.values()[classificationIndex]);
+				byte[] data = new byte[dataLength];
+				stream.readFully(data);
+				definitionData.add(data);
+			}
+		}catch(IOException e){
+			deleteCorruptCache(cacheFile, packID, e);
+			return null;
+		}
+
+		try{
+			return IntStream.range(0, definitionData.size()).parallel().mapToObj(i -> parseDefinition(definitionData.get(i), classifications.get(i))).collect(Collectors.toList());
+		}catch(JsonParseException | ClassCastException e){
+			deleteCorruptCache(cacheFile, packID, e);
+			return null;
+		}
+	}
+
+	/**
+	 *  Deletes the passed-in corrupt cache file, logging the exception that occurred when loading it.
+	 *  The pack will be parsed from the jar, and cached again once it is.
+	 */
+	private static void deleteCorruptCache(File cacheFile, String packID, Exception e){
+		InterfaceCore.logError("Could not load pack cache for " + packID + " as it is corrupt.  The cache has been deleted, and the pack will be parsed from the jar instead.");
+		InterfaceCore.logError(String.valueOf(e));
+		cacheFile.delete();
+	}
+
+	/**
+	 *  Returns the passed-in definition in the form it is stored in the cache.  This should be called
+	 *  after the definition is validated, but before it is registered, as registration may modify it.
+	 */
+	public static byte[] getCacheData(AJSONItem definition){
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		OutputStreamWriter writer = new OutputStreamWriter(data, StandardCharsets.UTF_8);
+		cacheParser.toJson(definition, definition.getClass(), writer);
+		try{
+			writer.flush();
+		}catch(Exception e){
+			throw new IllegalStateException(e);
+		}
+		return data.toByteArray();
+	}
+
+	/**
+	 *  Saves the passed-in definitions to the cache for the passed-in pack.  The definitions and data lists
+	 *  should be in the same order, with the data for each definition obtained via {@link #getCacheData(AJSONItem)}.
+	 */
+	public static void saveDefinitions(File packJar, String packID, List<String> subDirectories, List<AJSONItem> definitions, List<byte[]> definitionData){
+		saveDefinitions(getCacheFile(packID), getCacheKey(packJar, subDirectories), packID, definitions, definitionData);
+	}
+
+	/**
+	 *  Saves the passed-in definitions to the passed-in cache file, with the passed-in key.
+	 *  The pack ID is only used for logging.
+	 */
+	static void saveDefinitions(File cacheFile, String cacheKey, String packID, List<AJSONItem> definitions, List<byte[]> definitionData){
+		cacheFile.getParentFile().mkdirs();
+		try(DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(cacheFile))))){
+			stream.writeInt(CACHE_VERSION);
+			stream.writeUTF(cacheKey);
+			stream.writeInt(definitions.size());
+			for(int i=0; i<definitions.size(); ++i){
+				stream.writeByte(definitions.get(i).classification.ordinal());
+				stream.writeInt(definitionData.get(i).length);
+				stream.write(definitionData.get(i));
+			}
+		}catch(Exception e){
+			InterfaceCore.logError("Could not save pack cache for " + packID + ".  The pack will be parsed from the jar on the next launch.");
+			InterfaceCore.logError(e.getMessage());
+			cacheFile.delete();
+		}
+	}
+
+	/**
+	 *  Parses the passed-in cached definition.  Empty data parses to null, which is invalid, so an exception is thrown for it.
+	 */
+	private static AJSONItem parseDefinition(byte[] data, ItemClassification classification){
+		Reader reader = new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+		AJSONItem definition = cacheParser.fromJson(reader, classification.representingClass);
+		if(definition == null){
+			throw new JsonParseException("Empty definition for " + classification.name() + ".");
+		}
+		return definition;
+	}
+
+	private static File getCacheFile(String packID){
+		return new File(new File(new File(MasterLoader.gameDirectory, "config"), MasterLoader.MODID + "_packcache"), packID + ".bin");
+	}
+
+	/**
+	 *  Returns the key for the current state of the passed-in pack jar.  If this doesn't match the key in the
+	 *  cache, the cache is invalid.  Legacy light compats are included as they change the definitions.
+	 */
+	private static String getCacheKey(File packJar, List<String> subDirectories){
+		return packJar.getAbsolutePath() + "|" + packJar.length() + "|" + packJar.lastModified() + "|" + MasterLoader.MODVER + "|" + subDirectories + "|" + ConfigSystem.configObject.general.doLegacyLightCompats.value;
+	}
+}
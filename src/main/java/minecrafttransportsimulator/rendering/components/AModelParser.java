@@ -2,6 +2,7 @@ package minecrafttransportsimulator.rendering.components;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,27 +42,16 @@ public abstract class AModelParser{
 	
 	/**
 	 *  Parses the model at the passed-in location. The return value is a map, with the String
-	 *  key being the name of an object on the model, and the value being a two-dimensional array
-	 *  of floats.  Each element of the first dimension is a vertex.  Therefore, the second dimension
-	 *  are the floats that make up that vertex's properties.  They are in the order as follows:
-	 *  <ul>
-	 *  <li>The x-coordinate of a vertex on the model.
-	 *  <li>The y-coordinate of a vertex on the model.
-	 *  <li>The z-coordinate of a vertex on the model.
-	 *  <li>The u-coordinate of the UV-mapping for that vertex.
-	 *  <li>The v-coordinate of the UV-mapping for that vertex.
-	 *  <li>The nX-coordinate of the normal for that vertex, in the x-dimension.
-	 *  <li>The nY-coordinate of the normal for that vertex, in the y-dimension.
-	 *  <li>The nZ-coordinate of the normal for that vertex, in the z-dimension.
-	 *  </ul>
+	 *  key being the name of an object on the model, and the value being a {@link VertexArray}
+	 *  of the vertices that make up that object.  Every three vertices make up a triangle.
 	 */
-	protected abstract Map<String, Float[][]> parseModelInternal(String modelLocation);
+	protected abstract Map<String, VertexArray> parseModelInternal(String modelLocation);
 	
 	/**
 	 *  Attempts to obtain the parser for the passed-in modelLocation.  After this, the model
 	 *  is parsed and returned.  If no parser is found, an exception is thrown.
 	 */
-	public static Map<String, Float[][]> parseModel(String modelLocation){
+	public static Map<String, VertexArray> parseModel(String modelLocation){
 		AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
 		if(parser != null){
 			return parser.parseModelInternal(modelLocation);
@@ -71,35 +61,46 @@ public abstract class AModelParser{
 	}
 	
 	/**
-	 *  Parses the model at the passed-in location, and generates all {@link RenderableModelObject}s for it.
-	 *  These are returned as a list.  Objects in the parsed model are cross-checked with the passed-in 
-	 *  definition to ensure the proper constructors are created.  All objects in the model
-	 *  are assured to be turned into one of the objects in the returned list.
-	 *  The passed-in definition may be null to prevent checking against JSON, though non-JSON model objects
-	 *  will still be generated as applicable.
+	 *  Parses the model at the passed-in location, and prepares all objects in it for rendering.
+	 *  This adjusts window UVs and adds interior window objects, so the returned objects only need
+	 *  to be turned into {@link RenderableModelObject}s via {@link #generateRenderables(String, Map)}.
+	 *  No OpenGL calls are made here, so this may be called from any thread.
 	 */
-	public static <AnimationEntity extends AEntityC_Definable<?>> List<RenderableModelObject<AnimationEntity>> generateRenderables(String modelLocation){
-		Map<String, Float[][]> parsedModelObjects = parseModel(modelLocation);
-		List<RenderableModelObject<AnimationEntity>> modelObjects = new ArrayList<RenderableModelObject<AnimationEntity>>();
+	public static Map<String, VertexArray> prepareModel(String modelLocation){
+		Map<String, VertexArray> parsedModelObjects = parseModel(modelLocation);
+		Map<String, VertexArray> preparedModelObjects = new LinkedHashMap<String, VertexArray>();
 		for(String parsedObjectName : parsedModelObjects.keySet()){
 			//If we are a window, adjust our UV mapping points to map to a single texture.
 			//Add these adjusted points, and then invert them for the interior component.
+			VertexArray parsedObject = parsedModelObjects.get(parsedObjectName);
 			if(parsedObjectName.toLowerCase().contains(WINDOW_OBJECT_NAME)){
-				Float[][] parsedObject = parsedModelObjects.get(parsedObjectName);
 				normalizeUVs(parsedObject);
 				
-				Float[][] invertedObject = new Float[parsedObject.length][8];
-				for(int i=0, j=parsedObject.length-1; i<parsedObject.length; ++i, --j){
-					invertedObject[j] = parsedObject[i];
+				VertexArray invertedObject = new VertexArray(parsedObject.vertexCount);
+				for(int i=0, j=parsedObject.vertexCount-1; i<parsedObject.vertexCount; ++i, --j){
+					parsedObject.copyVertex(i, invertedObject, j);
 				}
-				modelObjects.add(new RenderableModelObject<AnimationEntity>(modelLocation, parsedObjectName + INTERIOR_WINDOW_SUFFIX, modelObjects, invertedObject));
+				preparedModelObjects.put(parsedObjectName + INTERIOR_WINDOW_SUFFIX, invertedObject);
 			}
-			
+			preparedModelObjects.put(parsedObjectName, parsedObject);
+		}
+		return preparedModelObjects;
+	}
+	
+	/**
+	 *  Generates all {@link RenderableModelObject}s for the passed-in prepared model objects, as returned by
+	 *  {@link #prepareModel(String)}.  These are returned as a list.  All objects in the model are assured
+	 *  to be turned into one of the objects in the returned list.  As this uploads the objects to the GPU,
+	 *  this must be called on the render thread.  The passed-in objects are not modified, so they may be shared.
+	 */
+	public static <AnimationEntity extends AEntityC_Definable<?>> List<RenderableModelObject<AnimationEntity>> generateRenderables(String modelLocation, Map<String, VertexArray> preparedModelObjects){
+		List<RenderableModelObject<AnimationEntity>> modelObjects = new ArrayList<RenderableModelObject<AnimationEntity>>();
+		for(String objectName : preparedModelObjects.keySet()){
 			//If we are a tread roller, make a roller rather than a standard object.
-			if(parsedObjectName.toLowerCase().contains(ROLLER_OBJECT_NAME)){
-				modelObjects.add(new RenderableTreadRoller<AnimationEntity>(modelLocation, parsedObjectName, modelObjects, parsedModelObjects.get(parsedObjectName)));
+			if(objectName.toLowerCase().contains(ROLLER_OBJECT_NAME) && !objectName.endsWith(INTERIOR_WINDOW_SUFFIX)){
+				modelObjects.add(new RenderableTreadRoller<AnimationEntity>(modelLocation, objectName, modelObjects, preparedModelObjects.get(objectName)));
 			}else{
-				modelObjects.add(new RenderableModelObject<AnimationEntity>(modelLocation, parsedObjectName, modelObjects, parsedModelObjects.get(parsedObjectName)));
+				modelObjects.add(new RenderableModelObject<AnimationEntity>(modelLocation, objectName, modelObjects, preparedModelObjects.get(objectName)));
 			}
 		}
 		return modelObjects;
@@ -108,25 +109,25 @@ public abstract class AModelParser{
 	/**
 	 *  Helper method to normalize a set of UVs for rendering.
 	 */
-	public static void normalizeUVs(Float[][] parsedObject){
-		for(int i=0; i<parsedObject.length; ++i){
-			if(parsedObject.length > 3 && i%6 >= 3){
+	public static void normalizeUVs(VertexArray parsedObject){
+		for(int i=0; i<parsedObject.vertexCount; ++i){
+			if(parsedObject.vertexCount > 3 && i%6 >= 3){
 				//Second-half of a quad.
 				switch(i%6){
-					case(3): parsedObject[i][3] = 0.0F; parsedObject[i][4] = 0.0F; break;
-					case(4): parsedObject[i][3] = 1.0F; parsedObject[i][4] = 1.0F; break;
-					case(5): parsedObject[i][3] = 1.0F; parsedObject[i][4] = 0.0F; break;
+					case(3): parsedObject.set(i, 3, 0.0F); parsedObject.set(i, 4, 0.0F); break;
+					case(4): parsedObject.set(i, 3, 1.0F); parsedObject.set(i, 4, 1.0F); break;
+					case(5): parsedObject.set(i, 3, 1.0F); parsedObject.set(i, 4, 0.0F); break;
 				}
 			}else{
 				//Normal tri or first half of quad using tri mapping.
 				switch(i%6){
-					case(0): parsedObject[i][3] = 0.0F; parsedObject[i][4] = 0.0F; break;
-					case(1): parsedObject[i][3] = 0.0F; parsedObject[i][4] = 1.0F; break;
-					case(2): parsedObject[i][3] = 1.0F; parsedObject[i][4] = 1.0F; break;
+					case(0): parsedObject.set(i, 3, 0.0F); parsedObject.set(i, 4, 0.0F); break;
+					case(1): parsedObject.set(i, 3, 0.0F); parsedObject.set(i, 4, 1.0F); break;
+					case(2): parsedObject.set(i, 3, 1.0F); parsedObject.set(i, 4, 1.0F); break;
 					
-					case(3): parsedObject[i][3] = 1.0F; parsedObject[i][4] = 1.0F; break;
-					case(4): parsedObject[i][3] = 1.0F; parsedObject[i][4] = 0.0F; break;
-					case(5): parsedObject[i][3] = 0.0F; parsedObject[i][4] = 0.0F; break;
+					case(3): parsedObject.set(i, 3, 1.0F); parsedObject.set(i, 4, 1.0F); break;
+					case(4): parsedObject.set(i, 3, 1.0F); parsedObject.set(i, 4, 0.0F); break;
+					case(5): parsedObject.set(i, 3, 0.0F); parsedObject.set(i, 4, 0.0F); break;
 				}
 			}
 		}
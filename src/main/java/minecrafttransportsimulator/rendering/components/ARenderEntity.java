@@ -1,24 +1,30 @@
 package minecrafttransportsimulator.rendering.components;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.baseclasses.ViewFrustum;
 import minecrafttransportsimulator.entities.components.AEntityC_Definable;
 import minecrafttransportsimulator.entities.components.AEntityD_Interactable;
+import minecrafttransportsimulator.entities.components.AnimationLayout;
 import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
 import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
 import minecrafttransportsimulator.mcinterface.InterfaceClient;
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
 import minecrafttransportsimulator.rendering.instances.RenderBoundingBox;
 import minecrafttransportsimulator.rendering.instances.RenderInstrument;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**Base Entity rendering class.  
  *
@@ -27,10 +33,20 @@ import minecrafttransportsimulator.rendering.instances.RenderInstrument;
 public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>>{
 	//Object lists for models parsed in this renderer.  Maps are keyed by the model name.
 	protected final Map<String, List<RenderableModelObject<RenderedEntity>>> objectLists = new HashMap<String, List<RenderableModelObject<RenderedEntity>>>();
+	//Static object batches for models parsed in this renderer.  Maps are keyed by the model name, then the rendering section.
+	private final Map<String, Map<JSONRendering, StaticModelBatch>> staticBatches = new HashMap<String, Map<JSONRendering, StaticModelBatch>>();
 	
 	//Static map for caching created render instances to know which ones to send events to.
 	private static final List<ARenderEntity<?>> createdRenderers = new ArrayList<ARenderEntity<?>>();
 	
+	//Culling data.  The frustum is shared by all renderers, as they all render from the same camera.
+	/**Distance, in blocks, to expand culling boxes by.  Models may stick out of their boxes a bit, and we don't want them to pop in.**/
+	private static final double CULLING_BOX_MARGIN = 1.0D;
+	private static final ViewFrustum viewFrustum = new ViewFrustum();
+	private static final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+	private static final float[] projectionMatrix = new float[16];
+	private static final float[] modelViewMatrix = new float[16];
+	
 	public ARenderEntity(){
 		createdRenderers.add(this);
 	}
@@ -40,14 +56,32 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 	 *  After this, the main model rendering method is called.
 	 */
 	public final void render(RenderedEntity entity, boolean blendingEnabled, float partialTicks){
+		//Spawn particles, if we aren't paused and this is the main render pass.
+		//This is done even if we are out of view or our model isn't ready, as culling only skips drawing.
+		//Particles, and things like the bullets of guns, still need to be spawned.
+		if(!blendingEnabled && !InterfaceClient.isGamePaused() && !disableParticles(entity, partialTicks)){
+			entity.spawnParticles(partialTicks);
+		}
+		
+		//If we are out of view, don't render anything.
+		Point3d cameraPosition = InterfaceClient.getRenderViewEntity().getRenderedPosition(partialTicks);
+		if(isCulled(entity, cameraPosition)){
+			return;
+		}
+		
 		//If we need to render, do so now.
-		if(!disableMainRendering(entity, partialTicks)){
+		//If our model isn't parsed yet, we can't render it, so skip it until it is.
+		String modelLocation = entity.definition.getModelLocation(entity.subName);
+		if(!disableMainRendering(entity, partialTicks) && isModelReady(modelLocation)){
 			//Get the render offset.
 			//This is the interpolated movement, plus the prior position.
 			Point3d entityPositionDelta = entity.prevPosition.getInterpolatedPoint(entity.position, partialTicks);
 			
 			//Subtract the entity's position by the render entity position to get the delta for translating.
-			entityPositionDelta.subtract(InterfaceClient.getRenderViewEntity().getRenderedPosition(partialTicks));
+			entityPositionDelta.subtract(cameraPosition);
+			
+			//Only render details if we are close enough to see them.
+			boolean renderDetails = entityPositionDelta.length() <= ConfigSystem.configObject.clientRendering.entityDetailDistance.value;
 			
 			//Get the entity rotation.
 			Point3d entityRotation = entity.prevAngles.getInterpolatedPoint(entity.angles, partialTicks);
@@ -74,10 +108,6 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 			
 	        //Render the main model.
 	        InterfaceRender.setTexture(getTexture(entity));
-	        String modelLocation = entity.definition.getModelLocation(entity.subName);
-	        if(!objectLists.containsKey(modelLocation)){
-	        	objectLists.put(modelLocation, AModelParser.generateRenderables(modelLocation));
-	        }
 	        
 	        boolean mirrored = isMirrored(entity);
 	        double scale = getScale(entity, partialTicks);
@@ -89,23 +119,19 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
     		}
 			
 			//Render all modelObjects.
-			for(RenderableModelObject<RenderedEntity> modelObject : objectLists.get(modelLocation)){
-				JSONAnimatedObject animation = entity.animatedObjectDefinitions.get(modelObject.objectName);
-				if(animation == null || animation.applyAfter == null){
-					modelObject.render(entity, blendingEnabled, partialTicks);
-				}
-			}
+			renderModelObjects(entity, modelLocation, blendingEnabled, renderDetails, partialTicks);
 			
 			//Render any additional model bits before we render text.
 			renderAdditionalModels(entity, blendingEnabled, partialTicks);
 			
-			//Render all instruments.  These use flat shading.
-			GL11.glShadeModel(GL11.GL_FLAT);
-			renderInstruments(entity, blendingEnabled, partialTicks);
-			
-			//Render any static text.
-			if(!blendingEnabled){
-				InterfaceRender.renderTextMarkings(entity, null);
+			//Render all instruments and static text, if we are close enough to see them.
+			//Instruments use flat shading.
+			if(renderDetails){
+				GL11.glShadeModel(GL11.GL_FLAT);
+				renderInstruments(entity, blendingEnabled, partialTicks);
+				if(!blendingEnabled){
+					InterfaceRender.renderTextMarkings(entity, null);
+				}
 			}
 			
 			//End rotation render matrix and reset states.
@@ -126,17 +152,54 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 				InterfaceRender.setTextureState(true);
 				InterfaceRender.setLightingState(true);
 			}
-			
-			//Spawn particles, if we aren't paused and this is the main render pass.
-			if(!blendingEnabled && !InterfaceClient.isGamePaused()){
-				entity.spawnParticles(partialTicks);
-			}
 		}
 		
 		//Render supplementals.
 		renderSupplementalModels(entity, blendingEnabled, partialTicks);
 	}
 	
+	/**
+	 *  Updates the view frustum used for culling to the current camera.  This should be called once a frame,
+	 *  before any entities are rendered, while the OpenGL matrices are set to the camera's.
+	 */
+	public static void updateViewFrustum(){
+		GL11.glGetFloat(GL11.GL_PROJECTION_MATRIX, matrixBuffer);
+		matrixBuffer.get(projectionMatrix).rewind();
+		GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, matrixBuffer);
+		matrixBuffer.get(modelViewMatrix).rewind();
+		viewFrustum.setToMatrices(projectionMatrix, modelViewMatrix);
+	}
+	
+	/**
+	 *  Returns true if the entity shouldn't be rendered because it is out of view.  This is the case if its
+	 *  culling box is further away than the render distance, or isn't in the view frustum.  The camera
+	 *  position is the origin of the view frustum, which is where the render view entity is.
+	 */
+	private boolean isCulled(RenderedEntity entity, Point3d cameraPosition){
+		BoundingBox box = getCullingBox(entity);
+		if(box != null){
+			double centerX = box.globalCenter.x - cameraPosition.x;
+			double centerY = box.globalCenter.y - cameraPosition.y;
+			double centerZ = box.globalCenter.z - cameraPosition.z;
+			double maxRadius = Math.max(box.widthRadius, Math.max(box.heightRadius, box.depthRadius)) + CULLING_BOX_MARGIN;
+			int renderDistance = ConfigSystem.configObject.clientRendering.entityRenderDistance.value;
+			if(renderDistance > 0 && Math.sqrt(centerX*centerX + centerY*centerY + centerZ*centerZ) - maxRadius > renderDistance){
+				return true;
+			}
+			return !viewFrustum.isBoxInView(centerX, centerY, centerZ, box.widthRadius + CULLING_BOX_MARGIN, box.heightRadius + CULLING_BOX_MARGIN, box.depthRadius + CULLING_BOX_MARGIN);
+		}
+		return false;
+	}
+	
+	/**
+	 *  Returns the box used to cull this entity when it's out of view, or null if this entity shouldn't be culled.
+	 *  This box needs to contain the entire model of the entity, otherwise parts of the model that are in view
+	 *  may not render.  By default this returns null, as not all entities have boxes that contain their models.
+	 */
+	protected BoundingBox getCullingBox(RenderedEntity entity){
+		return null;
+	}
+	
 	/**
 	 *  Returns the texture that should be bound to this entity.  This may change between render passes, but only ONE texture
 	 *  may be used for any given entity render operation!  By default this returns the JSON-defined texture.
@@ -156,6 +219,15 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 		return entity.ticksExisted == 0;
 	}
 	
+	/**
+	 *  If particles shouldn't be spawned for the entity, return true here.  By default, particles are spawned
+	 *  whenever the main model could be rendered, even if it is out of view.  Override this if the main
+	 *  model is disabled for reasons that shouldn't stop particles, such as it being rendered elsewhere.
+	 */
+	public boolean disableParticles(RenderedEntity entity, float partialTicks){
+		return disableMainRendering(entity, partialTicks);
+	}
+	
 	/**
 	 *  If the model should be mirrored, return true.  Mirroring will only affect
 	 *  the model itself, and will not affect any offset transformations applied in
@@ -263,6 +335,82 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 		}
 	}
 	
+	/**
+	 *  Renders the objects of the passed-in model for the entity.  All static objects are rendered in one batch,
+	 *  then all other objects are rendered on their own, with the entity's animations applied to them.
+	 *  Active treads render all their objects along the tread path, so they can't be batched.
+	 *  The model must be ready to render, and the entity's transform and texture must already be set.
+	 */
+	protected void renderModelObjects(RenderedEntity entity, String modelLocation, boolean blendingEnabled, boolean renderDetails, float partialTicks){
+		StaticModelBatch staticBatch = null;
+		if(!RenderableModelObject.isActiveTread(entity)){
+			staticBatch = getStaticBatch(modelLocation, entity.definition.rendering);
+			if(!blendingEnabled){
+				staticBatch.render();
+			}
+		}
+		for(RenderableModelObject<RenderedEntity> modelObject : objectLists.get(modelLocation)){
+			JSONAnimatedObject animation = entity.animatedObjectDefinitions.get(modelObject.objectName);
+			if((animation == null || animation.applyAfter == null) && (staticBatch == null || !staticBatch.contains(modelObject.objectName)) && (renderDetails || !modelObject.isDetail())){
+				modelObject.render(entity, blendingEnabled, partialTicks);
+			}
+		}
+	}
+	
+	/**
+	 *  Returns true if the model of the entity can be rendered as one of many instances of it.  This is the case if all objects on
+	 *  the model are solid and use the entity's texture, and the entity has nothing else to render, such as instruments, text, or lights.
+	 *  Objects may be animated, as animations only change the transform objects are rendered with, which is done per instance.
+	 *  Such entities render the same way, save for their transform and the state of their animations.
+	 *  If the model of the entity isn't ready to render, this returns false.
+	 */
+	protected boolean isModelInstanceable(RenderedEntity entity){
+		if(RenderableModelObject.isActiveTread(entity)){
+			return false;
+		}
+		JSONRendering rendering = entity.definition.rendering;
+		if(!PartInstanceBatch.canInstance(rendering)){
+			return false;
+		}
+		if(entity instanceof AEntityD_Interactable && ((AEntityD_Interactable<?>) entity).definition.instruments != null){
+			return false;
+		}
+		String modelLocation = entity.definition.getModelLocation(entity.subName);
+		return isModelReady(modelLocation) && getStaticBatch(modelLocation, rendering).isInstanceable();
+	}
+	
+	/**
+	 *  Returns true if the objects for the passed-in model are ready to render.  If the model has
+	 *  finished parsing but its objects haven't been created, they are created and uploaded here.
+	 */
+	private boolean isModelReady(String modelLocation){
+		if(!objectLists.containsKey(modelLocation)){
+			Map<String, VertexArray> parsedModel = ParsedModelCache.getModel(modelLocation);
+			if(parsedModel == null){
+				return false;
+			}
+			objectLists.put(modelLocation, AModelParser.generateRenderables(modelLocation, parsedModel));
+		}
+		return true;
+	}
+	
+	/**
+	 *  Returns the static object batch for the passed-in model and rendering section, creating it if required.
+	 */
+	private StaticModelBatch getStaticBatch(String modelLocation, JSONRendering rendering){
+		Map<JSONRendering, StaticModelBatch> modelBatches = staticBatches.get(modelLocation);
+		if(modelBatches == null){
+			modelBatches = new HashMap<JSONRendering, StaticModelBatch>();
+			staticBatches.put(modelLocation, modelBatches);
+		}
+		StaticModelBatch batch = modelBatches.get(rendering);
+		if(batch == null){
+			batch = new StaticModelBatch(objectLists.get(modelLocation), rendering);
+			modelBatches.put(rendering, batch);
+		}
+		return batch;
+	}
+	
 	/**
 	 *  Call to clear out the object caches for this model.  This resets all caches to cause the rendering
 	 *  JSON to be re-parsed.
@@ -274,6 +422,12 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 				modelObject.destroy();
 			}
 		}
+		Map<JSONRendering, StaticModelBatch> resetBatches = staticBatches.remove(modelLocation);
+		if(resetBatches != null){
+			for(StaticModelBatch batch : resetBatches.values()){
+				batch.destroy();
+			}
+		}
 	}
 	
 	/**
@@ -284,9 +438,12 @@ public abstract class ARenderEntity<RenderedEntity extends AEntityC_Definable<?>
 	public static void clearObjectCaches(AJSONMultiModelProvider definition){
 		for(JSONSubDefinition subDef : definition.definitions){
 			String modelLocation = definition.getModelLocation(subDef.subName);
+			ParsedModelCache.removeModel(modelLocation);
+			RoadMeshCache.removeModel(modelLocation);
 			for(ARenderEntity<?> render : createdRenderers){
 				render.resetModelCache(modelLocation);
 			}
 		}
+		AnimationLayout.clearLayouts();
 	}
 }
@@ -2,9 +2,11 @@ package minecrafttransportsimulator.rendering.components;
 
 import org.lwjgl.opengl.GL11;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
 import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.mcinterface.InterfaceClient;
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
 
 /**Entity rendering class for muliparts.  
@@ -12,6 +14,27 @@ import minecrafttransportsimulator.mcinterface.InterfaceRender;
  * @author don_bruce
  */
 public abstract class ARenderEntityMultipart<RenderedEntity extends AEntityE_Multipart<?>> extends ARenderEntity<RenderedEntity>{
+	//Batch for instanced parts.  Entities render one at a time, so this is re-used for all entities.
+	private final PartInstanceBatch partInstances = new PartInstanceBatch();
+	
+	@Override
+	protected BoundingBox getCullingBox(RenderedEntity entity){
+		//Our bounding box contains all our boxes and parts.
+		return entity.boundingBox;
+	}
+	
+	@Override
+	protected void renderSupplementalModels(RenderedEntity entity, boolean blendingEnabled, float partialTicks){
+		super.renderSupplementalModels(entity, blendingEnabled, partialTicks);
+		//Render all parts that can be instanced, grouped by model.  These parts don't render on their own.
+		//Instanced parts only have solid objects, so there's nothing to render on the blending pass.
+		if(!blendingEnabled){
+			partInstances.update(entity, InterfaceClient.getRenderViewEntity().getRenderedPosition(partialTicks), partialTicks);
+			for(PartInstanceBatch.Group group : partInstances.getGroups()){
+				group.parts.get(0).getRenderer().renderInstances(group, partialTicks);
+			}
+		}
+	}
 	
 	@Override
 	protected void renderBoundingBoxes(RenderedEntity entity, Point3d entityPositionDelta){
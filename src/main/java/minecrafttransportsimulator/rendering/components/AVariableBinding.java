@@ -0,0 +1,45 @@
+package minecrafttransportsimulator.rendering.components;
+
+import minecrafttransportsimulator.entities.components.AEntityC_Definable;
+
+/**Compiled form of an animation variable.  Bindings are created by
+ * {@link AEntityC_Definable#compileVariable(String)} once per variable, and resolve
+ * all string parsing (part indexes, cycle timings, connection indexes, etc.) at that time.
+ * This allows the per-frame lookup to be a single call rather than a walk through
+ * string switches.  Bindings are cached by {@link AEntityC_Definable#getVariableBinding(String)},
+ * which is also what {@link AEntityC_Definable#getRawVariableValue(String, float)} evaluates.
+ * Bindings are tied to the entity that compiled them, so they should not be shared between entities.
+ *
+ * @author don_bruce
+ */
+public abstract class AVariableBinding{
+	/**The variable this binding was compiled from.**/
+	public final String variable;
+
+	public AVariableBinding(String variable){
+		this.variable = variable;
+	}
+
+	/**
+	 *  Returns the raw value of this variable, or NaN if the variable isn't present.
+	 */
+	public abstract double getValue(float partialTicks);
+
+	/**
+	 *  Binding that always returns a constant value.  Used for variables that can be
+	 *  determined completely at compile time.
+	 */
+	public static class ConstantBinding extends AVariableBinding{
+		private final double value;
+
+		public ConstantBinding(String variable, double value){
+			super(variable);
+			this.value = value;
+		}
+
+		@Override
+		public double getValue(float partialTicks){
+			return value;
+		}
+	}
+}
@@ -25,8 +25,12 @@ public class DurationDelayClock{
 	public final JSONAnimationDefinition animation;
 	public final boolean isUseful;
 	public boolean movedThisUpdate;
-	private Long timeCommandedForwards = 0L;
-	private Long timeCommandedReverse = 0L;
+	/**Compiled binding for the animation's variable.  Null if the variable hasn't been compiled yet.**/
+	public AVariableBinding binding;
+	/**The variable string {@link #binding} was compiled from.  Used to detect when the animation's variable is changed.**/
+	public String compiledVariable;
+	private long timeCommandedForwards = 0;
+	private long timeCommandedReverse = 0;
 	
 	private final boolean shouldDoFactoring;
 	private boolean startedForwardsMovement = false;
@@ -81,7 +85,7 @@ public class DurationDelayClock{
 					startedReverseMovement = false;
 				}
 				endedReverseMovement = false;
-				timeCommandedForwards = 0L;
+				timeCommandedForwards = 0;
 			}
 		}else{
 			if(commandForwards){
@@ -96,7 +100,7 @@ public class DurationDelayClock{
 					startedForwardsMovement = false;
 				}
 				endedForwardsMovement = false;
-				timeCommandedReverse = 0L;
+				timeCommandedReverse = 0;
 			}
 		}
 		
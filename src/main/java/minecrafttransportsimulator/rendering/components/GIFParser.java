@@ -20,7 +20,8 @@ import org.w3c.dom.NodeList;
 import net.minecraft.client.renderer.texture.TextureUtil;
 
 /**Class responsible for parsing GIF images into their rendered form.  No clue how this works.  This should
- * really be a built-in function of the built-in libraries...
+ * really be a built-in function of the built-in libraries...  Parsing does not touch OpenGL, so it may be done
+ * off the render thread.  The frames are then uploaded on the render thread via {@link ParsedGIF#uploadTextures()}.
  * 
  * @author don_bruce
  */
@@ -126,6 +127,17 @@ public class GIFParser{
 			this.totalDuration = cumulativeDuration;
 		}
 		
+		/**
+		 *  Uploads the frames of this GIF to OpenGL.  Must be called on the render thread
+		 *  before calling {@link #getCurrentTextureIndex()}.
+		 */
+		public void uploadTextures(){
+			for(GIFImageFrame frame : frames.values()){
+				frame.glTexturePointer = TextureUtil.glGenTextures();
+				TextureUtil.uploadTextureImageAllocate(frame.glTexturePointer, frame.image, false, false);
+			}
+		}
+		
 		public int getCurrentTextureIndex(){
 			//Get current delta since last pass.
 			long currentTime = System.currentTimeMillis()/10;
@@ -159,14 +171,12 @@ public class GIFParser{
 	    private final int delay;
 	    private final BufferedImage image;
 	    private final String disposal;
-	    private final int glTexturePointer;
+	    private int glTexturePointer;
 
 	    private GIFImageFrame(BufferedImage image, int delay, String disposal){
 	        this.image = image;
 	        this.delay = delay;
 	        this.disposal = disposal;
-	        this.glTexturePointer = TextureUtil.glGenTextures();
-	        TextureUtil.uploadTextureImageAllocate(glTexturePointer, image, false, false);
 	    }
 
 	    private BufferedImage getImage(){
@@ -0,0 +1,28 @@
+package minecrafttransportsimulator.rendering.components;
+
+import minecrafttransportsimulator.mcinterface.InterfaceRender;
+
+/**Vertex backend that caches vertices in OpenGL via {@link InterfaceRender}.
+ *
+ * @author don_bruce
+ */
+public class GLVertexBackend implements IVertexBackend{
+	public static final GLVertexBackend INSTANCE = new GLVertexBackend();
+
+	private GLVertexBackend(){}
+
+	@Override
+	public int cacheVertices(VertexArray vertices){
+		return InterfaceRender.cacheVertices(vertices);
+	}
+
+	@Override
+	public void renderVertices(int index){
+		InterfaceRender.renderVertices(index);
+	}
+
+	@Override
+	public void deleteVertices(int index){
+		InterfaceRender.deleteVertices(index);
+	}
+}
@@ -0,0 +1,23 @@
+package minecrafttransportsimulator.rendering.components;
+
+/**Interface for the backend that caches and renders vertices.  This is used by {@link StaticModelBatch}es
+ * so their batching doesn't depend on OpenGL.  The backend used for rendering is {@link GLVertexBackend}.
+ *
+ * @author don_bruce
+ */
+public interface IVertexBackend{
+	/**
+	 *  Caches the passed-in vertices for rendering, and returns the index they were cached at.
+	 */
+	public int cacheVertices(VertexArray vertices);
+
+	/**
+	 *  Renders the vertices cached at the passed-in index.
+	 */
+	public void renderVertices(int index);
+
+	/**
+	 *  Deletes the vertices cached at the passed-in index.
+	 */
+	public void deleteVertices(int index);
+}
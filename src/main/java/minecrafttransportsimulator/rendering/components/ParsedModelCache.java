@@ -0,0 +1,73 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import minecrafttransportsimulator.mcinterface.InterfaceCore;
+
+/**Cache for parsed models.  Parsing a model takes a while, so rather than parsing models on the render
+ * thread the first time they are rendered, models are requested when the entities that use them are created,
+ * and are parsed on background threads.  Models are prepared with {@link AModelParser#prepareModel(String)},
+ * so they only need to be uploaded to be rendered.  Each model is only parsed once, no matter how many
+ * times it is requested, and all requests for it share the same parsed model.  Nothing here uses OpenGL,
+ * so uploading the parsed model is left to the render thread.
+ *
+ * @author don_bruce
+ */
+public class ParsedModelCache{
+	private static final int PARSER_THREADS = 2;
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(PARSER_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "MTS Model Parser");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Map<String, Future<Map<String, VertexArray>>> parsedModels = new ConcurrentHashMap<String, Future<Map<String, VertexArray>>>();
+
+	/**
+	 *  Requests the model at the passed-in location be parsed.  If the model is already parsed,
+	 *  or is being parsed, this does nothing.  Returns the future for the parsed model.
+	 */
+	public static Future<Map<String, VertexArray>> requestModel(String modelLocation){
+		return parsedModels.computeIfAbsent(modelLocation, location -> executor.submit(() -> parseModel(location)));
+	}
+
+	/**
+	 *  Returns the parsed model at the passed-in location, or null if it hasn't finished parsing yet.
+	 *  If the model hasn't been requested yet, it is requested.  Models that couldn't be parsed have no objects.
+	 *  The returned objects are shared, so they should not be modified.
+	 */
+	public static Map<String, VertexArray> getModel(String modelLocation){
+		Future<Map<String, VertexArray>> parsedModel = requestModel(modelLocation);
+		if(parsedModel.isDone()){
+			try{
+				return parsedModel.get();
+			}catch(Exception e){
+				return new LinkedHashMap<String, VertexArray>();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 *  Removes the parsed model at the passed-in location.  The next request for
+	 *  the model will parse it again.  Used when models are hotloaded.
+	 */
+	public static void removeModel(String modelLocation){
+		parsedModels.remove(modelLocation);
+	}
+
+	private static Map<String, VertexArray> parseModel(String modelLocation){
+		try{
+			return AModelParser.prepareModel(modelLocation);
+		}catch(Exception e){
+			InterfaceCore.logError("Could not parse model at: " + modelLocation + ".  It will not be rendered.");
+			InterfaceCore.logError(e.getMessage());
+			return new LinkedHashMap<String, VertexArray>();
+		}
+	}
+}
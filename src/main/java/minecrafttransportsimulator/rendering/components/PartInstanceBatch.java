@@ -0,0 +1,155 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.entities.components.AEntityE_Multipart;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
+import minecrafttransportsimulator.rendering.instances.RenderPart;
+
+/**Batch of the parts on a multipart that render as instances of their models.  Many parts, such as wheels
+ * and seats, are the same model many times over.  Rather than each of these parts setting up its own render,
+ * they are grouped by model, rendering section, and texture, and rendered together.  As parts in a group share their
+ * rendering section, they have the same animations, so only their transforms and the state of their animations,
+ * such as how far a wheel has rotated, differ.  Parts with things that can't be shared between instances,
+ * such as lights or text, can't be instanced and render on their own.  This class only groups parts and builds
+ * their transforms: it does no rendering itself, that is left to {@link RenderPart#renderInstances(Group, float)}.
+ *
+ * @author don_bruce
+ */
+public class PartInstanceBatch{
+	/**Number of values per instance transform.  These are the x, y, and z-position relative to the camera,
+	 * the x, y, and z-rotation, the scale, and 1 if the instance is mirrored, or 0 if it is not.**/
+	public static final int TRANSFORM_SIZE = 8;
+
+	private final List<Group> groups = new ArrayList<Group>();
+
+	/**
+	 *  Updates the groups to the instanced parts on the passed-in entity, with transforms for the passed-in
+	 *  camera position and partial ticks.  Groups from prior updates are re-used to avoid making new ones each frame.
+	 */
+	public void update(AEntityE_Multipart<?> entity, Point3d cameraPosition, float partialTicks){
+		clearGroups();
+		for(APart part : entity.parts){
+			RenderPart renderer = part.getRenderer();
+			if(renderer.isRenderedInstanced(part)){
+				getGroup(part.definition.getModelLocation(part.subName), part.definition.rendering, renderer.getTexture(part)).addInstance(part, renderer, cameraPosition, partialTicks);
+			}
+		}
+		removeEmptyGroups();
+	}
+
+	/**
+	 *  Returns true if parts with the passed-in rendering section can be rendered as instances.
+	 *  Animated objects can be instanced, as their animations are applied for each instance when it's rendered.
+	 *  Text and lights can't, as they need to be rendered differently for each instance.
+	 */
+	public static boolean canInstance(JSONRendering rendering){
+		return rendering == null || (rendering.textObjects == null && rendering.lightObjects == null);
+	}
+	
+	/**
+	 *  Returns the groups from the last update.  Each group has at least one part.
+	 */
+	public List<Group> getGroups(){
+		return groups;
+	}
+
+	/**
+	 *  Removes all parts from the groups, but keeps the groups so they can be re-used.
+	 */
+	void clearGroups(){
+		for(Group group : groups){
+			group.parts.clear();
+		}
+	}
+
+	/**
+	 *  Removes groups that didn't get any parts since they were last cleared, as their models may no longer be used.
+	 */
+	void removeEmptyGroups(){
+		Iterator<Group> iterator = groups.iterator();
+		while(iterator.hasNext()){
+			if(iterator.next().parts.isEmpty()){
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 *  Returns the group for the passed-in model, rendering section, and texture, creating it if required.
+	 *  There are only ever a few groups, so checking them all is faster than hashing them.
+	 */
+	Group getGroup(String modelLocation, JSONRendering rendering, String texture){
+		for(Group group : groups){
+			if(group.modelLocation.equals(modelLocation) && group.rendering == rendering && group.texture.equals(texture)){
+				return group;
+			}
+		}
+		Group group = new Group(modelLocation, rendering, texture);
+		groups.add(group);
+		return group;
+	}
+
+	/**
+	 *  Group of parts that render the same model, with the same rendering section and texture.
+	 *  The parts may have animations, but they are all the same as they come from the same rendering section.
+	 *  Transforms are stored in a single array in the same order as the parts, with
+	 *  {@link PartInstanceBatch#TRANSFORM_SIZE} values for each part.
+	 */
+	public static class Group{
+		public final String modelLocation;
+		public final JSONRendering rendering;
+		public final String texture;
+		public final List<APart> parts = new ArrayList<APart>();
+		private double[] transforms = new double[TRANSFORM_SIZE*4];
+
+		private Group(String modelLocation, JSONRendering rendering, String texture){
+			this.modelLocation = modelLocation;
+			this.rendering = rendering;
+			this.texture = texture;
+		}
+
+		/**
+		 *  Returns the transforms of the parts in this group.  This may be longer than required,
+		 *  so only the values for the parts in this group should be used.
+		 */
+		public double[] getTransforms(){
+			return transforms;
+		}
+
+		/**
+		 *  Adds the passed-in part to this group.  The transform of the part is the same one
+		 *  its renderer would use if it rendered the part on its own.
+		 */
+		private void addInstance(APart part, RenderPart renderer, Point3d cameraPosition, float partialTicks){
+			Point3d partPositionDelta = part.prevPosition.getInterpolatedPoint(part.position, partialTicks).subtract(cameraPosition);
+			Point3d partRotation = part.prevAngles.getInterpolatedPoint(part.angles, partialTicks);
+			renderer.adjustPositionRotation(part, partialTicks, partPositionDelta, partRotation);
+			addInstance(part, partPositionDelta.x, partPositionDelta.y, partPositionDelta.z, partRotation.x, partRotation.y, partRotation.z, renderer.getScale(part, partialTicks), renderer.isMirrored(part));
+		}
+
+		/**
+		 *  Adds the passed-in part to this group, with the passed-in transform.  The position is relative to the camera.
+		 */
+		void addInstance(APart part, double x, double y, double z, double rotationX, double rotationY, double rotationZ, double scale, boolean mirrored){
+			int index = parts.size()*TRANSFORM_SIZE;
+			if(index + TRANSFORM_SIZE > transforms.length){
+				transforms = Arrays.copyOf(transforms, transforms.length*2);
+			}
+			transforms[index] = x;
+			transforms[index + 1] = y;
+			transforms[index + 2] = z;
+			transforms[index + 3] = rotationX;
+			transforms[index + 4] = rotationY;
+			transforms[index + 5] = rotationZ;
+			transforms[index + 6] = scale;
+			transforms[index + 7] = mirrored ? 1 : 0;
+			parts.add(part);
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.Arrays;
+
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.WrapperWorld;
+
+/**Pool of all particles of a single type.  Particles are spawned in large numbers and only live
+ * for a few ticks, so rather than making an object for each one, all their properties are stored
+ * in primitive arrays, with one index per particle.  Indexes of dead particles are kept in a free-list
+ * and re-used for new particles, so the arrays only grow when more particles are alive than ever before.
+ * As all particles in a pool are the same type, they are all updated in one pass with the same logic.
+ * Particles are spawned and rendered through the {@link minecrafttransportsimulator.systems.ParticleSystem}.
+ *
+ * @author don_bruce
+ */
+public class ParticlePool{
+	/**Max number of particles in a single pool.  This is the same as MC's limit per particle layer.**/
+	private static final int MAX_PARTICLES = 16384;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final double COLLISION_EPSILON = 0.01;
+
+	public final ParticleType type;
+	private final float size;
+	private final Point3d testPoint = new Point3d();
+
+	private int capacity;
+	private int highestIndex;
+	private int activeCount;
+	private int freeCount;
+	private int[] freeIndexes;
+
+	private boolean[] active;
+	private boolean[] touchingBlocks;
+	private int[] age;
+	private int[] maxAge;
+	private JSONParticle[] definitions;
+	private double[] positionX;
+	private double[] positionY;
+	private double[] positionZ;
+	private double[] prevPositionX;
+	private double[] prevPositionY;
+	private double[] prevPositionZ;
+	private double[] motionX;
+	private double[] motionY;
+	private double[] motionZ;
+	private float[] red;
+	private float[] green;
+	private float[] blue;
+	private float[] toRed;
+	private float[] toGreen;
+	private float[] toBlue;
+	private float[] alpha;
+	private float[] toAlpha;
+	private float[] scale;
+	private float[] toScale;
+	private float[] textureBounds;
+
+	public ParticlePool(ParticleType type){
+		this.type = type;
+		this.size = type.equals(ParticleType.DRIP) || type.equals(ParticleType.BREAK) ? 0.1F : 0.2F;
+		setCapacity(INITIAL_CAPACITY);
+	}
+
+	/**
+	 *  Spawns a particle in this pool, and returns its index.  Motion is the initial motion of the particle,
+	 *  color is an array of the starting and ending RGB values, and textureBounds are the min/max UV values
+	 *  of the particle texture.  textureBounds may be null if the particle uses the default texture for its type.
+	 *  If the pool is full, no particle is spawned and -1 is returned.
+	 */
+	public int spawn(JSONParticle definition, Point3d position, Point3d motion, float[] color, float[] textureBounds){
+		int index;
+		if(freeCount > 0){
+			index = freeIndexes[--freeCount];
+		}else{
+			if(highestIndex == capacity){
+				if(capacity == MAX_PARTICLES){
+					return -1;
+				}
+				setCapacity(Math.min(capacity*2, MAX_PARTICLES));
+			}
+			index = highestIndex++;
+		}
+		++activeCount;
+
+		active[index] = true;
+		touchingBlocks[index] = false;
+		age[index] = 0;
+		maxAge[index] = generateMaxAge(definition);
+		definitions[index] = definition;
+		positionX[index] = prevPositionX[index] = position.x;
+		positionY[index] = prevPositionY[index] = position.y;
+		positionZ[index] = prevPositionZ[index] = position.z;
+		motionX[index] = motion.x;
+		motionY[index] = motion.y;
+		motionZ[index] = motion.z;
+		red[index] = color[0];
+		green[index] = color[1];
+		blue[index] = color[2];
+		toRed[index] = color[3];
+		toGreen[index] = color[4];
+		toBlue[index] = color[5];
+		if(definition.transparency != 0){
+			alpha[index] = definition.transparency;
+			toAlpha[index] = definition.toTransparency != 0 ? definition.toTransparency : definition.transparency;
+		}else{
+			alpha[index] = 1.0F;
+			toAlpha[index] = 1.0F;
+		}
+		if(definition.scale != 0){
+			scale[index] = definition.scale;
+			toScale[index] = definition.toScale != 0 ? definition.toScale : definition.scale;
+		}else{
+			//0 scale means we use the default scale for our type.
+			scale[index] = 0;
+			toScale[index] = 0;
+		}
+		if(textureBounds != null){
+			System.arraycopy(textureBounds, 0, this.textureBounds, index*4, 4);
+		}
+		return index;
+	}
+
+	/**
+	 *  Updates all particles in this pool.  This moves them, checks their collisions, and removes any
+	 *  that have reached their max age.  Collisions are coarse, and only check if the bottom of the particle
+	 *  is in a block's collision box.  Particles that move into a block stay where they are, except for
+	 *  falling particles, which land on top of the block.  This is far cheaper than checking the particle's
+	 *  full box against all the collision boxes around it, and particles are too small for it to matter.
+	 */
+	public void update(WrapperWorld world){
+		for(int i=0; i<highestIndex; ++i){
+			if(active[i]){
+				prevPositionX[i] = positionX[i];
+				prevPositionY[i] = positionY[i];
+				prevPositionZ[i] = positionZ[i];
+
+				//Set movement.
+				JSONParticle definition = definitions[i];
+				if(definition.movementVelocity != null){
+					motionX[i] = clamp(motionX[i] + definition.movementVelocity.x, definition.terminalVelocity.x);
+					motionY[i] = clamp(motionY[i] + definition.movementVelocity.y, definition.terminalVelocity.y);
+					motionZ[i] = clamp(motionZ[i] + definition.movementVelocity.z, definition.terminalVelocity.z);
+				}else{
+					switch(type){
+						case SMOKE: {
+							//Update the motions to make the smoke float up.
+							motionX[i] *= 0.9;
+							motionY[i] += 0.004;
+							motionZ[i] *= 0.9;
+							break;
+						}
+						case FLAME: {
+							//Flame just slowly drifts in the direction it was going.
+							motionX[i] *= 0.96;
+							motionY[i] *= 0.96;
+							motionZ[i] *= 0.96;
+							break;
+						}
+						case DRIP: {
+							//Keep moving until we touch a block, then stop.
+							if(!touchingBlocks[i]){
+								motionX[i] *= 0.96;
+								motionY[i] = motionY[i]*0.96 - 0.06D;
+								motionZ[i] *= 0.96;
+							}else{
+								motionX[i] = 0;
+								motionY[i] = 0;
+								motionZ[i] = 0;
+							}
+							break;
+						}
+						case BUBBLE: {
+							//Bubbles float up until they break the surface of the water, then they pop.
+							testPoint.set(positionX[i], positionY[i], positionZ[i]);
+							if(!world.isBlockLiquid(testPoint)){
+								remove(i);
+								continue;
+							}else{
+								motionX[i] *= 0.85;
+								motionY[i] = motionY[i]*0.85 + 0.002D;
+								motionZ[i] *= 0.85;
+							}
+							break;
+						}
+						case BREAK: {
+							//Breaking just fall down quickly.
+							if(!touchingBlocks[i]){
+								motionX[i] *= 0.98;
+								motionY[i] = motionY[i]*0.98 - 0.04D;
+								motionZ[i] *= 0.98;
+							}else{
+								motionX[i] = 0;
+								motionY[i] = 0;
+								motionZ[i] = 0;
+							}
+							break;
+						}
+					}
+				}
+
+				//Check collision movement.  If we hit a block, don't move.
+				//Particles that aren't going up check just below their bottom, so ones resting on blocks stay touching them.
+				testPoint.set(positionX[i] + motionX[i], positionY[i] + motionY[i] - size/2D, positionZ[i] + motionZ[i]);
+				if(motionY[i] <= 0){
+					testPoint.y -= COLLISION_EPSILON;
+				}
+				double blockTop = world.getBlockCollisionTop(testPoint);
+				touchingBlocks[i] = !Double.isNaN(blockTop) && testPoint.y < blockTop;
+				if(touchingBlocks[i]){
+					if(motionY[i] < 0){
+						positionY[i] = blockTop + size/2D;
+					}
+				}else{
+					positionX[i] += motionX[i];
+					positionY[i] += motionY[i];
+					positionZ[i] += motionZ[i];
+				}
+
+				//Check age to see if we are on our last tick.
+				if(++age[i] == maxAge[i]){
+					remove(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Removes all particles from this pool.
+	 */
+	public void clear(){
+		Arrays.fill(active, false);
+		Arrays.fill(definitions, null);
+		highestIndex = 0;
+		activeCount = 0;
+		freeCount = 0;
+	}
+
+	/**
+	 *  Returns the number of indexes that may contain particles.  All particles
+	 *  have an index lower than this, but not all indexes lower than this are active.
+	 */
+	public int getHighestIndex(){
+		return highestIndex;
+	}
+
+	/**
+	 *  Returns the number of active particles in this pool.
+	 */
+	public int getActiveCount(){
+		return activeCount;
+	}
+
+	/**
+	 *  Returns true if the particle at the passed-in index is active.
+	 */
+	public boolean isActive(int index){
+		return active[index];
+	}
+
+	public double getX(int index, float partialTicks){
+		return prevPositionX[index] + (positionX[index] - prevPositionX[index])*partialTicks;
+	}
+
+	public double getY(int index, float partialTicks){
+		return prevPositionY[index] + (positionY[index] - prevPositionY[index])*partialTicks;
+	}
+
+	public double getZ(int index, float partialTicks){
+		return prevPositionZ[index] + (positionZ[index] - prevPositionZ[index])*partialTicks;
+	}
+
+	/**
+	 *  Gets the current red color value of the particle.  This parameter
+	 *  is used to change the particle's color.  Normally only used on smoke.
+	 */
+	public float getRed(int index){
+		return red[index] + (toRed[index] - red[index])*age[index]/maxAge[index];
+	}
+
+	/**
+	 *  Gets the current green color value of the particle.  This parameter
+	 *  is used to change the particle's color.  Normally only used on smoke.
+	 */
+	public float getGreen(int index){
+		return green[index] + (toGreen[index] - green[index])*age[index]/maxAge[index];
+	}
+
+	/**
+	 *  Gets the current blue color value of the particle.  This parameter
+	 *  is used to change the particle's color.  Normally only used on smoke.
+	 */
+	public float getBlue(int index){
+		return blue[index] + (toBlue[index] - blue[index])*age[index]/maxAge[index];
+	}
+
+	/**
+	 *  Gets the current alpha value of the particle.  This parameter
+	 *  is used to make the particle translucent.
+	 */
+	public float getAlpha(int index){
+		return alpha[index] + (toAlpha[index] - alpha[index])*age[index]/maxAge[index];
+	}
+
+	/**
+	 *  Gets the current scale of the particle.
+	 *  This is for rendering, and does not reflect particle bounds.
+	 */
+	public float getScale(int index, float partialTicks){
+		if(scale[index] != 0){
+			return scale[index] + (toScale[index] - scale[index])*age[index]/maxAge[index];
+		}else{
+			switch(type){
+				case FLAME:  return (float) (1.0F - Math.pow((age[index] + partialTicks)/maxAge[index], 2)/2F);
+				case DRIP: return touchingBlocks[index] ? 3.0F : 1.0F;
+				default: return 1.0F;
+			}
+		}
+	}
+
+	/**
+	 *  Gets the index of the texture for this particle in the particle texture sheet.
+	 *  The sheet is a 16x16 grid, with the index going across each row, and then down.
+	 *  Returns -1 for particles that use their own texture bounds rather than the sheet.
+	 */
+	public int getTextureIndex(int index){
+		switch(type){
+			case SMOKE: return 7 - age[index]*8/maxAge[index];//Smoke gets smaller as it ages.
+			case FLAME: return 48;
+			case DRIP: return touchingBlocks[index] ? 113 : 112;//Drips become flat when they hit the ground.
+			case BUBBLE: return 32;
+			default: return -1;
+		}
+	}
+
+	/**
+	 *  Gets the texture bounds of the particle.  Only valid for particles that don't use the texture sheet.
+	 *  Bounds are in order of min U, max U, min V, max V.
+	 */
+	public float getTextureBound(int index, int bound){
+		return textureBounds[index*4 + bound];
+	}
+
+	private void remove(int index){
+		active[index] = false;
+		definitions[index] = null;
+		freeIndexes[freeCount++] = index;
+		if(--activeCount == 0){
+			//No particles left, so reset to the start of the arrays.
+			highestIndex = 0;
+			freeCount = 0;
+		}
+	}
+
+	private void setCapacity(int newCapacity){
+		capacity = newCapacity;
+		freeIndexes = freeIndexes == null ? new int[newCapacity] : Arrays.copyOf(freeIndexes, newCapacity);
+		active = active == null ? new boolean[newCapacity] : Arrays.copyOf(active, newCapacity);
+		touchingBlocks = touchingBlocks == null ? new boolean[newCapacity] : Arrays.copyOf(touchingBlocks, newCapacity);
+		age = age == null ? new int[newCapacity] : Arrays.copyOf(age, newCapacity);
+		maxAge = maxAge == null ? new int[newCapacity] : Arrays.copyOf(maxAge, newCapacity);
+		definitions = definitions == null ? new JSONParticle[newCapacity] : Arrays.copyOf(definitions, newCapacity);
+		positionX = copyOf(positionX, newCapacity);
+		positionY = copyOf(positionY, newCapacity);
+		positionZ = copyOf(positionZ, newCapacity);
+		prevPositionX = copyOf(prevPositionX, newCapacity);
+		prevPositionY = copyOf(prevPositionY, newCapacity);
+		prevPositionZ = copyOf(prevPositionZ, newCapacity);
+		motionX = copyOf(motionX, newCapacity);
+		motionY = copyOf(motionY, newCapacity);
+		motionZ = copyOf(motionZ, newCapacity);
+		red = copyOf(red, newCapacity);
+		green = copyOf(green, newCapacity);
+		blue = copyOf(blue, newCapacity);
+		toRed = copyOf(toRed, newCapacity);
+		toGreen = copyOf(toGreen, newCapacity);
+		toBlue = copyOf(toBlue, newCapacity);
+		alpha = copyOf(alpha, newCapacity);
+		toAlpha = copyOf(toAlpha, newCapacity);
+		scale = copyOf(scale, newCapacity);
+		toScale = copyOf(toScale, newCapacity);
+		textureBounds = copyOf(textureBounds, newCapacity*4);
+	}
+
+	private static double[] copyOf(double[] array, int length){
+		return array == null ? new double[length] : Arrays.copyOf(array, length);
+	}
+
+	private static float[] copyOf(float[] array, int length){
+		return array == null ? new float[length] : Arrays.copyOf(array, length);
+	}
+
+	private static double clamp(double value, double limit){
+		return value > limit ? limit : (value < -limit ? -limit : value);
+	}
+
+	/**
+	 *  Gets the max age of a particle.  This tries to use the definition's
+	 *  maxAge, but will use Vanilla values if not set.  The Vanilla values have
+	 *  a random element, so this will return different values for each particle.
+	 */
+	private int generateMaxAge(JSONParticle definition){
+		if(definition.duration != 0){
+			return definition.duration;
+		}else{
+			switch(type){
+				case SMOKE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case FLAME: return (int)(8.0D / (Math.random() * 0.8D + 0.2D)) + 4;
+				case DRIP: return  (int)(64.0D / (Math.random() * 0.8D + 0.2D));
+				case BUBBLE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case BREAK: return (int)(4.0D / (Math.random() * 0.9D + 0.1D));
+			}
+			//We'll never get here, but it makes the compiler happy.
+			return 0;
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package minecrafttransportsimulator.rendering.components;
 
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -11,6 +10,7 @@ import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.baseclasses.Point3d;
 import minecrafttransportsimulator.entities.components.AEntityC_Definable;
+import minecrafttransportsimulator.entities.components.AnimationLayout;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.entities.instances.PartGroundDevice;
@@ -18,6 +18,7 @@ import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONLight.JSONLightBlendableComponent;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -38,22 +39,29 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 	private final boolean isInteriorWindow;
 	private final boolean isOnlineTexture;
 	private final int cachedVertexIndex;
+	/**Vertices of this object, packed for {@link StaticModelBatch}es.  Null if this object can never be static.**/
+	final VertexArray batchVertices;
+	/**Layout {@link #lightSlot} was resolved for.  Objects are shared by all definitions that use the model, so the slot
+	 * is resolved the first time the object is rendered with a layout, and only resolved again if rendered with another.**/
+	private AnimationLayout lightSlotLayout;
+	/**Slot of the light for this object in {@link #lightSlotLayout}, or -1 if there is no light for this object.**/
+	private int lightSlot = -1;
 	
 	/**Map of tread points, keyed by the model the tread is pathing about, then the spacing of the tread.
 	 * This can be shared for two different treads of the same spacing as they render the same.**/
 	private static final Map<String, Map<Float, List<Double[]>>> treadPoints = new HashMap<String, Map<Float, List<Double[]>>>();
 	private static final Map<String, Map<String, Integer>> cachedVertexIndexLists = new HashMap<String, Map<String, Integer>>();
-	private static final Map<String, Float[][]> colorObjects = new HashMap<String, Float[][]>();
-	private static final Map<String, Float[][]> coverObjects = new HashMap<String, Float[][]>();
-	private static final Map<JSONLight, Float[][]> flareObjects = new HashMap<JSONLight, Float[][]>();
-	private static final Map<JSONLight, Float[][]> beamObjects = new HashMap<JSONLight, Float[][]>();
+	private static final Map<String, VertexArray> colorObjects = new HashMap<String, VertexArray>();
+	private static final Map<String, VertexArray> coverObjects = new HashMap<String, VertexArray>();
+	private static final Map<JSONLight, VertexArray> flareObjects = new HashMap<JSONLight, VertexArray>();
+	private static final Map<JSONLight, VertexArray> beamObjects = new HashMap<JSONLight, VertexArray>();
 	private static final float COLOR_OFFSET = 0.0001F;
 	private static final float FLARE_OFFSET = 0.0002F;
 	private static final float COVER_OFFSET = 0.0003F;
 	private static final float BEAM_OFFSET = -0.15F;
 	private static final int BEAM_SEGMENTS = 40;
 	
-	public RenderableModelObject(String modelLocation, String objectName, List<RenderableModelObject<AnimationEntity>> allObjects, Float[][] vertices){
+	public RenderableModelObject(String modelLocation, String objectName, List<RenderableModelObject<AnimationEntity>> allObjects, VertexArray vertices){
 		super();
 		this.modelLocation = modelLocation;
 		this.objectName = objectName;
@@ -71,6 +79,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 			cachedVertexIndexLists.get(modelLocation).put(objectName, InterfaceRender.cacheVertices(vertices));
 		}
 		this.cachedVertexIndex = cachedVertexIndexLists.get(modelLocation).get(objectName);
+		this.batchVertices = !isTranslucent && !isWindow && !isOnlineTexture ? vertices : null;
 		
 		//If we are a light object, create color and cover points.
 		//We may not use these, but it saves on processing later as we don't need to re-parse the model.
@@ -85,8 +94,12 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 	 *  renders any objects that depend on this object's transforms after rendering.
 	 */
 	public void render(AnimationEntity entity, boolean blendingEnabled, float partialTicks){
-		JSONLight lightDef = entity.lightObjectDefinitions.get(objectName);
-		float lightLevel = lightDef != null ? entity.lightBrightnessValues.get(lightDef) : 0;
+		if(entity.animationLayout != lightSlotLayout){
+			lightSlotLayout = entity.animationLayout;
+			lightSlot = lightSlotLayout.getLightSlot(objectName);
+		}
+		JSONLight lightDef = lightSlot != -1 ? entity.animationLayout.lights[lightSlot] : null;
+		float lightLevel = lightDef != null ? entity.lightBrightnessValues[lightSlot] : 0;
 		if(shouldRender(entity, lightDef, blendingEnabled)){
 			//Do pre-render checks based on the object we are rendering.
 			//This may block rendering if there are false visibility transforms.
@@ -117,7 +130,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 				//If we are a light, get the actual light level as calculated.
 				//We do this here as there's no reason to calculate this if we're not gonna render.
 				if(lightDef != null){
-					lightLevel = entity.lightBrightnessValues.get(lightDef);
+					lightLevel = entity.lightBrightnessValues[lightSlot];
 					if(lightDef.isElectric && entity instanceof EntityVehicleF_Physics){
 						//Light start dimming at 10V, then go dark at 3V.
 						double electricPower = ((EntityVehicleF_Physics) entity).electricPower;
@@ -145,7 +158,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 						InterfaceRender.setBlendBright(false);
 					}
 					InterfaceRender.setLightingState(true);
-				}else if(!blendingEnabled && entity instanceof PartGroundDevice && ((PartGroundDevice) entity).definition.ground.isTread && !((PartGroundDevice) entity).placementDefinition.isSpare){
+				}else if(!blendingEnabled && isActiveTread(entity)){
 					//Active tread.  Do tread-path rendering.					
 					doTreadRendering((PartGroundDevice) entity, partialTicks);
 				}else if(!(blendingEnabled ^ isTranslucent)){
@@ -155,7 +168,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 				
 				//Check if we are a light that's not a beam, do light-specific rendering.
 				if(lightDef != null && !lightDef.isBeam){
-					doLightRendering(entity, lightDef, lightLevel, entity.lightColorValues.get(lightDef), blendingEnabled);
+					doLightRendering(entity, lightDef, lightLevel, entity.lightColorValues[lightSlot], blendingEnabled);
 				}
 				
 				//Pop the texture back to the one we last bound in case we changed it.
@@ -182,6 +195,50 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 		}
 	}
 	
+	/**
+	 *  Returns true if this object is static for entities with the passed-in rendering section.
+	 *  Static objects have no animations, lights, or text, don't have objects rendered after them,
+	 *  and use the entity's texture on the solid pass.  They always render the same way, so they
+	 *  may be rendered as part of a {@link StaticModelBatch} rather than on their own.
+	 */
+	public boolean isStatic(JSONRendering rendering){
+		if(batchVertices == null){
+			return false;
+		}
+		if(rendering != null){
+			if(rendering.animatedObjects != null){
+				for(JSONAnimatedObject animatedDef : rendering.animatedObjects){
+					if(objectName.equals(animatedDef.objectName) || objectName.equals(animatedDef.applyAfter)){
+						return false;
+					}
+				}
+			}
+			if(rendering.lightObjects != null){
+				for(JSONLight lightDef : rendering.lightObjects){
+					if(objectName.equals(lightDef.objectName)){
+						return false;
+					}
+				}
+			}
+			if(rendering.textObjects != null){
+				for(JSONText textDef : rendering.textObjects){
+					if(objectName.equals(textDef.attachedTo)){
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 *  Returns true if the passed-in entity is an active tread.  All objects on active treads
+	 *  are rendered along the tread path rather than as they are in the model.
+	 */
+	public static boolean isActiveTread(AEntityC_Definable<?> entity){
+		return entity instanceof PartGroundDevice && ((PartGroundDevice) entity).definition.ground.isTread && !((PartGroundDevice) entity).placementDefinition.isSpare;
+	}
+	
 	/**
 	 *  Does all the transforms for this object.  If the object should render, return true. 
 	 *  If the object should not render due to a transform, return false.
@@ -287,6 +344,15 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 		beamObjects.remove(objectName);
 	}
 	
+	/**
+	 *  Returns true if this object is a detail that can be skipped when the entity is far away.
+	 *  These are interior windows, which can't be seen from outside, and online textures, which
+	 *  need to be downloaded and are too small to see from far away.
+	 */
+	public boolean isDetail(){
+		return isInteriorWindow || isOnlineTexture;
+	}
+	
 	private boolean shouldRender(AnimationEntity entity, JSONLight lightDef, boolean blendingEnabled){
 		if(isTranslucent && !blendingEnabled){
 			return false;
@@ -404,13 +470,16 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 		}
 	}
 		
-	private void doLightRendering(AnimationEntity entity, JSONLight lightDef, float lightLevel, Color color, boolean blendingEnabled){
+	private void doLightRendering(AnimationEntity entity, JSONLight lightDef, float lightLevel, int color, boolean blendingEnabled){
+		float red = ((color >> 16) & 0xFF)/255F;
+		float green = ((color >> 8) & 0xFF)/255F;
+		float blue = (color & 0xFF)/255F;
 		boolean lightingDisabled = false;
 		boolean brightBlendEnabled = false;
 		boolean colorChanged = false;
 		if(blendingEnabled && lightLevel > 0 && lightDef.emissive){
 			//Light color detected on blended render pass.
-			Float[][] colorObject = colorObjects.get(objectName);
+			VertexArray colorObject = colorObjects.get(objectName);
 			if(colorObject == null){
 				colorObjects.put(objectName, colorObject = generateColors(AModelParser.parseModel(modelLocation).get(objectName)));
 			}
@@ -418,7 +487,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 			InterfaceRender.bindTexture("mts:textures/rendering/light.png");
 			InterfaceRender.setLightingState(false);
 			lightingDisabled = true;
-			InterfaceRender.setColorState(color.getRed()/255F, color.getGreen()/255F, color.getBlue()/255F, lightLevel);
+			InterfaceRender.setColorState(red, green, blue, lightLevel);
 			colorChanged = true;
 			InterfaceRender.renderVertices(colorObject);
 			
@@ -428,8 +497,8 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 			//First render all flares, then render all beams.
 			float blendableBrightness = Math.min((1 - entity.world.getLightBrightness(entity.position, false))*lightLevel, 1);
 			if(blendableBrightness > 0){
-				Float[][] flareObject = flareObjects.get(lightDef);
-				Float[][] beamObject = beamObjects.get(lightDef);
+				VertexArray flareObject = flareObjects.get(lightDef);
+				VertexArray beamObject = beamObjects.get(lightDef);
 				if(flareObject == null && beamObject == null){
 					List<JSONLightBlendableComponent> flareDefs = new ArrayList<JSONLightBlendableComponent>();
 					List<JSONLightBlendableComponent> beamDefs = new ArrayList<JSONLightBlendableComponent>();
@@ -459,7 +528,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 						InterfaceRender.setBlendBright(true);
 						brightBlendEnabled = true;
 					}
-					InterfaceRender.setColorState(color.getRed()/255F, color.getGreen()/255F, color.getBlue()/255F, blendableBrightness);
+					InterfaceRender.setColorState(red, green, blue, blendableBrightness);
 					colorChanged = true;
 					InterfaceRender.renderVertices(flareObject);
 					
@@ -476,7 +545,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 							InterfaceRender.setBlendBright(true);
 							brightBlendEnabled = true;
 						}
-						InterfaceRender.setColorState(color.getRed()/255F, color.getGreen()/255F, color.getBlue()/255F, blendableBrightness);
+						InterfaceRender.setColorState(red, green, blue, blendableBrightness);
 						colorChanged = true;
 					}else if(brightBlendEnabled && !ConfigSystem.configObject.clientRendering.beamsBright.value){
 						//Bright blend was turned on for flares, turn off for beams.
@@ -489,7 +558,7 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 		}
 		if(!blendingEnabled && lightDef.covered){
 			//Light cover detected on solid render pass.
-			Float[][] coverObject = coverObjects.get(objectName);
+			VertexArray coverObject = coverObjects.get(objectName);
 			if(coverObject == null){
 				coverObjects.put(objectName, coverObject = generateCovers(AModelParser.parseModel(modelLocation).get(objectName)));
 			}
@@ -515,39 +584,39 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 		}
 	}
 	
-	private static Float[][] generateColors(Float[][] parsedObject){
+	private static VertexArray generateColors(VertexArray parsedObject){
 		//Make a duplicate set of vertices with an offset for the color rendering.
-		Float[][] offsetObject = new Float[parsedObject.length][8];
-		for(int i=0; i<parsedObject.length; ++i){
-			offsetObject[i][0] = parsedObject[i][0] + parsedObject[i][5]*COLOR_OFFSET;
-			offsetObject[i][1] = parsedObject[i][1] + parsedObject[i][6]*COLOR_OFFSET;
-			offsetObject[i][2] = parsedObject[i][2] + parsedObject[i][7]*COLOR_OFFSET;
-			offsetObject[i][5] = parsedObject[i][5];
-			offsetObject[i][6] = parsedObject[i][6];
-			offsetObject[i][7] = parsedObject[i][7];
+		VertexArray offsetObject = new VertexArray(parsedObject.vertexCount);
+		for(int i=0; i<parsedObject.vertexCount; ++i){
+			offsetObject.set(i, 0, parsedObject.get(i, 0) + parsedObject.get(i, 5)*COLOR_OFFSET);
+			offsetObject.set(i, 1, parsedObject.get(i, 1) + parsedObject.get(i, 6)*COLOR_OFFSET);
+			offsetObject.set(i, 2, parsedObject.get(i, 2) + parsedObject.get(i, 7)*COLOR_OFFSET);
+			offsetObject.set(i, 5, parsedObject.get(i, 5));
+			offsetObject.set(i, 6, parsedObject.get(i, 6));
+			offsetObject.set(i, 7, parsedObject.get(i, 7));
 		}
 		AModelParser.normalizeUVs(offsetObject);
 		return offsetObject;
 	}
 	
-	private static Float[][] generateCovers(Float[][] parsedObject){
+	private static VertexArray generateCovers(VertexArray parsedObject){
 		//Make a duplicate set of vertices with an offset for the cover rendering.
-		Float[][] offsetObject = new Float[parsedObject.length][8];
-		for(int i=0; i<parsedObject.length; ++i){
-			offsetObject[i][0] = parsedObject[i][0] + parsedObject[i][5]*COVER_OFFSET;
-			offsetObject[i][1] = parsedObject[i][1] + parsedObject[i][6]*COVER_OFFSET;
-			offsetObject[i][2] = parsedObject[i][2] + parsedObject[i][7]*COVER_OFFSET;
-			offsetObject[i][5] = parsedObject[i][5];
-			offsetObject[i][6] = parsedObject[i][6];
-			offsetObject[i][7] = parsedObject[i][7];
+		VertexArray offsetObject = new VertexArray(parsedObject.vertexCount);
+		for(int i=0; i<parsedObject.vertexCount; ++i){
+			offsetObject.set(i, 0, parsedObject.get(i, 0) + parsedObject.get(i, 5)*COVER_OFFSET);
+			offsetObject.set(i, 1, parsedObject.get(i, 1) + parsedObject.get(i, 6)*COVER_OFFSET);
+			offsetObject.set(i, 2, parsedObject.get(i, 2) + parsedObject.get(i, 7)*COVER_OFFSET);
+			offsetObject.set(i, 5, parsedObject.get(i, 5));
+			offsetObject.set(i, 6, parsedObject.get(i, 6));
+			offsetObject.set(i, 7, parsedObject.get(i, 7));
 		}
 		AModelParser.normalizeUVs(offsetObject);
 		return offsetObject;
 	}
 	
-	private static Float[][] generateFlares(List<JSONLightBlendableComponent> flareDefs){
+	private static VertexArray generateFlares(List<JSONLightBlendableComponent> flareDefs){
 		//6 vertices per flare due to triangle rendering.
-		Float[][] flareObject = new Float[flareDefs.size()*6][8];
+		VertexArray flareObject = new VertexArray(flareDefs.size()*6);
 		for(int i=0; i<flareDefs.size(); ++i){
 			JSONLightBlendableComponent flareDef = flareDefs.get(i);
 			//Get the angle that is needed to rotate points to the normalized vector.
@@ -555,43 +624,40 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 			Point3d vertexOffset = new Point3d();
 			Point3d centerOffset = flareDef.axis.copy().multiply(FLARE_OFFSET).add(flareDef.pos);
 			for(int j=0; j<6; ++j){
-				Float[] newVertex = new Float[8];
+				int vertex = i*6 + j;
 				//Get the current UV points.
 				switch(j){
-					case(0): newVertex[3] = 0.0F; newVertex[4] = 0.0F; break;
-					case(1): newVertex[3] = 0.0F; newVertex[4] = 1.0F; break;
-					case(2): newVertex[3] = 1.0F; newVertex[4] = 1.0F; break;
-					case(3): newVertex[3] = 0.0F; newVertex[4] = 0.0F; break;
-					case(4): newVertex[3] = 1.0F; newVertex[4] = 1.0F; break;
-					case(5): newVertex[3] = 1.0F; newVertex[4] = 0.0F; break;
+					case(0): flareObject.set(vertex, 3, 0.0F); flareObject.set(vertex, 4, 0.0F); break;
+					case(1): flareObject.set(vertex, 3, 0.0F); flareObject.set(vertex, 4, 1.0F); break;
+					case(2): flareObject.set(vertex, 3, 1.0F); flareObject.set(vertex, 4, 1.0F); break;
+					case(3): flareObject.set(vertex, 3, 0.0F); flareObject.set(vertex, 4, 0.0F); break;
+					case(4): flareObject.set(vertex, 3, 1.0F); flareObject.set(vertex, 4, 1.0F); break;
+					case(5): flareObject.set(vertex, 3, 1.0F); flareObject.set(vertex, 4, 0.0F); break;
 				}
 				
 				//Based on the UVs and the axis for the flare, calculate the vertices.
-				vertexOffset.x = newVertex[3] == 0.0 ? -flareDef.flareWidth/2D : flareDef.flareWidth/2D;
-				vertexOffset.y = newVertex[4] == 0.0 ? flareDef.flareHeight/2D : -flareDef.flareHeight/2D;
+				vertexOffset.x = flareObject.get(vertex, 3) == 0.0 ? -flareDef.flareWidth/2D : flareDef.flareWidth/2D;
+				vertexOffset.y = flareObject.get(vertex, 4) == 0.0 ? flareDef.flareHeight/2D : -flareDef.flareHeight/2D;
 				vertexOffset.z = 0;
 				vertexOffset.rotateFine(rotation).add(centerOffset);
-				newVertex[0] = (float) vertexOffset.x;
-				newVertex[1] = (float) vertexOffset.y;
-				newVertex[2] = (float) vertexOffset.z;
+				flareObject.set(vertex, 0, (float) vertexOffset.x);
+				flareObject.set(vertex, 1, (float) vertexOffset.y);
+				flareObject.set(vertex, 2, (float) vertexOffset.z);
 				
 				//Set normals to the normal axis in the JSON.
-				newVertex[5] = (float) flareDef.axis.x;
-				newVertex[6] = (float) flareDef.axis.y;
-				newVertex[7] = (float) flareDef.axis.z;
-				
-				//Set the actual vertex.
-				flareObject[i*6 + j] = newVertex;
+				flareObject.set(vertex, 5, (float) flareDef.axis.x);
+				flareObject.set(vertex, 6, (float) flareDef.axis.y);
+				flareObject.set(vertex, 7, (float) flareDef.axis.z);
 			}
 		}
 		return flareObject;
 	}
 	
-	private static Float[][] generateBeams(List<JSONLightBlendableComponent> beamDefs){
+	private static VertexArray generateBeams(List<JSONLightBlendableComponent> beamDefs){
 		//3 vertices per cone-face, each share the same center point.
 		//Number of cone faces is equal to the number of segments for beams.
 		//We render two beams.  One inner and one outer.
-		Float[][] beamObject = new Float[beamDefs.size()*2*BEAM_SEGMENTS*3][8];
+		VertexArray beamObject = new VertexArray(beamDefs.size()*2*BEAM_SEGMENTS*3);
 		for(int i=0; i<beamDefs.size(); ++i){
 			JSONLightBlendableComponent beamDef = beamDefs.get(i);
 			//Get the angle that is needed to rotate points to the normalized vector.
@@ -601,23 +667,23 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 			//Go from negative to positive to render both beam-faces in the same loop.
 			for(int j=-BEAM_SEGMENTS; j<BEAM_SEGMENTS; ++j){
 				for(int k=0; k<3; ++k){
-					Float[] newVertex = new Float[8];
+					int vertex = i*2*BEAM_SEGMENTS*3 + (j + BEAM_SEGMENTS)*3 + k;
 					//Get the current UV points.
 					//Point 0 is always the center of the beam, 1 and 2 are the outer points.
 					switch(k%3){
-						case(0): newVertex[3] = 0.0F; newVertex[4] = 0.0F; break;
-						case(1): newVertex[3] = 0.0F; newVertex[4] = 1.0F; break;
-						case(2): newVertex[3] = 1.0F; newVertex[4] = 1.0F; break;
+						case(0): beamObject.set(vertex, 3, 0.0F); beamObject.set(vertex, 4, 0.0F); break;
+						case(1): beamObject.set(vertex, 3, 0.0F); beamObject.set(vertex, 4, 1.0F); break;
+						case(2): beamObject.set(vertex, 3, 1.0F); beamObject.set(vertex, 4, 1.0F); break;
 					}
 					
 					//Based on the UVs and the axis for the beam, calculate the vertices.
 					double currentAngleRad;
 					if(j<0){
-						currentAngleRad = newVertex[3] == 0.0F ? 2D*Math.PI*((j+1)/(double)BEAM_SEGMENTS) : 2D*Math.PI*(j/(double)BEAM_SEGMENTS);
+						currentAngleRad = beamObject.get(vertex, 3) == 0.0F ? 2D*Math.PI*((j+1)/(double)BEAM_SEGMENTS) : 2D*Math.PI*(j/(double)BEAM_SEGMENTS);
 					}else{
-						currentAngleRad = newVertex[3] == 0.0F ? 2D*Math.PI*(j/(double)BEAM_SEGMENTS) : 2D*Math.PI*((j+1)/(double)BEAM_SEGMENTS);
+						currentAngleRad = beamObject.get(vertex, 3) == 0.0F ? 2D*Math.PI*(j/(double)BEAM_SEGMENTS) : 2D*Math.PI*((j+1)/(double)BEAM_SEGMENTS);
 					}
-					if(newVertex[4] == 0.0){
+					if(beamObject.get(vertex, 4) == 0.0){
 						vertexOffset.set(0, 0, 0);
 					}else{
 						vertexOffset.x = beamDef.beamDiameter/2F*Math.cos(currentAngleRad);
@@ -625,17 +691,11 @@ public class RenderableModelObject<AnimationEntity extends AEntityC_Definable<?>
 						vertexOffset.z = beamDef.beamLength;
 					}
 					vertexOffset.rotateFine(rotation).add(centerOffset);
-					newVertex[0] = (float) vertexOffset.x;
-					newVertex[1] = (float) vertexOffset.y;
-					newVertex[2] = (float) vertexOffset.z;
-					
-					//Don't care about normals for beam rendering as it's a blending face, so we just set them to 0.
-					newVertex[5] = 0F;
-					newVertex[6] = 0F;
-					newVertex[7] = 0F;
+					beamObject.set(vertex, 0, (float) vertexOffset.x);
+					beamObject.set(vertex, 1, (float) vertexOffset.y);
+					beamObject.set(vertex, 2, (float) vertexOffset.z);
 					
-					//Set the actual vertex.
-					beamObject[i*2*BEAM_SEGMENTS*3 + (j + BEAM_SEGMENTS)*3 + k] = newVertex;
+					//Don't care about normals for beam rendering as it's a blending face, so we just leave them at 0.
 				}
 			}
 		}
@@ -26,7 +26,7 @@ public class RenderableTreadRoller<AnimationEntity extends AEntityC_Definable<?>
 	public double endZ;
 	public double endAngle;
 	
-	public RenderableTreadRoller(String modelLocation, String objectName, List<RenderableModelObject<AnimationEntity>> allObjects, Float[][] vertices){
+	public RenderableTreadRoller(String modelLocation, String objectName, List<RenderableModelObject<AnimationEntity>> allObjects, VertexArray vertices){
 		super(modelLocation, objectName, allObjects, vertices);
 		this.isLeft = objectName.toLowerCase().startsWith("l");
 		this.rollerNumber = Integer.valueOf(objectName.substring(objectName.lastIndexOf('_') + 1));
@@ -36,11 +36,11 @@ public class RenderableTreadRoller<AnimationEntity extends AEntityC_Definable<?>
 		double maxY = -999;
 		double minZ = 999;
 		double maxZ = -999;
-		for(Float[] point : vertices){
-			minY = Math.min(minY, point[1]);
-			maxY = Math.max(maxY, point[1]);
-			minZ = Math.min(minZ, point[2]);
-			maxZ = Math.max(maxZ, point[2]);
+		for(int i=0; i<vertices.vertexCount; ++i){
+			minY = Math.min(minY, vertices.get(i, 1));
+			maxY = Math.max(maxY, vertices.get(i, 1));
+			minZ = Math.min(minZ, vertices.get(i, 2));
+			maxZ = Math.max(maxZ, vertices.get(i, 2));
 		}
 		this.centerPoint = new Point3d(0, minY + (maxY - minY)/2D, minZ + (maxZ - minZ)/2D);
 		this.radius = (maxZ - minZ)/2D;
@@ -0,0 +1,225 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
+import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad.RoadComponent;
+import minecrafttransportsimulator.items.instances.ItemRoadComponent;
+
+/**Cache for the meshes of road components.  Dynamic roads bend their models along their curves, which
+ * means transforming every vertex of the model for every segment of the curve.  This is slow for long
+ * roads, and was done every time a road was loaded, such as when the chunk it is in was re-loaded.
+ * Instead, meshes are cached by a key made from the model and everything that changes how it is transformed.
+ * Roads with the same model and shape use the same mesh, no matter where they are or how often they are loaded.
+ * The least-recently used meshes are removed when the total size of all meshes gets too large.  Mesh
+ * generation itself doesn't use any state, so it may be done without a road or OpenGL.
+ * Only used on the render thread, so this isn't thread-safe.
+ *
+ * @author don_bruce
+ */
+public class RoadMeshCache{
+	/**Max size of all cached meshes, in bytes.**/
+	private static final long MAX_CACHE_SIZE = 32L*1024L*1024L;
+	private static final VertexArray EMPTY_MESH = new VertexArray(0);
+
+	/**Parsed models, merged into single arrays, keyed by model location.**/
+	private static final Map<String, VertexArray> parsedModels = new HashMap<String, VertexArray>();
+	/**Cached meshes, in order of last use, keyed by mesh key.**/
+	private static final LinkedHashMap<String, VertexArray> cachedMeshes = new LinkedHashMap<String, VertexArray>(16, 0.75F, true);
+	private static long cacheSize;
+
+	/**
+	 *  Returns the mesh for the passed-in component of the passed-in road.  Meshes are relative to the road's
+	 *  position, and shouldn't be modified.  Components that don't have meshes return an empty mesh.
+	 */
+	public static VertexArray getMesh(TileEntityRoad road, RoadComponent component, ItemRoadComponent componentItem){
+		String meshKey = getMeshKey(road, component, componentItem);
+		if(meshKey == null){
+			return EMPTY_MESH;
+		}
+		VertexArray mesh = cachedMeshes.get(meshKey);
+		if(mesh == null){
+			String modelLocation = componentItem.definition.getModelLocation(componentItem.subName);
+			VertexArray model = parsedModels.get(modelLocation);
+			if(model == null){
+				model = VertexArray.merge(AModelParser.parseModel(modelLocation).values());
+				parsedModels.put(modelLocation, model);
+			}
+			if(road.definition.road.isDynamic){
+				mesh = generateDynamicMesh(model, road.dynamicCurve, road.definition.road.borderOffset);
+			}else{
+				mesh = generateStaticMesh(model, road.rotation);
+			}
+			addMesh(meshKey, mesh);
+		}
+		return mesh;
+	}
+
+	/**
+	 *  Returns the key for the mesh of the passed-in component of the passed-in road.  Keys are the same for
+	 *  any components that have the same mesh, no matter what road they are on.  Returns null if the component
+	 *  doesn't have a mesh.  Only core components have meshes, and dynamic cores need a curve to have one.
+	 */
+	public static String getMeshKey(TileEntityRoad road, RoadComponent component, ItemRoadComponent componentItem){
+		if(component != RoadComponent.CORE){
+			return null;
+		}
+		return getMeshKey(componentItem.definition.getModelLocation(componentItem.subName), road.definition.road.isDynamic, road.definition.road.borderOffset, road.dynamicCurve, road.rotation);
+	}
+
+	/**
+	 *  Returns the key for the mesh of the passed-in model, when used as the core of a road with the passed-in
+	 *  properties.  Dynamic roads use the curve and border offset, and static roads use the rotation.
+	 *  Returns null if the road is dynamic and has no curve, as it doesn't have a mesh.
+	 */
+	public static String getMeshKey(String modelLocation, boolean isDynamic, float borderOffset, BezierCurve curve, Point3d rotation){
+		if(isDynamic){
+			if(curve == null){
+				return null;
+			}
+			return getModelKeyPrefix(modelLocation) + "dynamic," + borderOffset + "," + curve.startPos.x + "," + curve.startPos.y + "," + curve.startPos.z + "," + curve.startAngle + "," + curve.endPos.x + "," + curve.endPos.y + "," + curve.endPos.z + "," + curve.endAngle;
+		}else{
+			return getModelKeyPrefix(modelLocation) + "static," + rotation.x + "," + rotation.y + "," + rotation.z;
+		}
+	}
+
+	/**
+	 *  Removes all meshes for the passed-in model.  The next request for them
+	 *  will parse the model and generate them again.  Used when models are hotloaded.
+	 */
+	public static void removeModel(String modelLocation){
+		parsedModels.remove(modelLocation);
+		String modelKeyPrefix = getModelKeyPrefix(modelLocation);
+		Iterator<Entry<String, VertexArray>> iterator = cachedMeshes.entrySet().iterator();
+		while(iterator.hasNext()){
+			Entry<String, VertexArray> entry = iterator.next();
+			if(entry.getKey().startsWith(modelKeyPrefix)){
+				cacheSize -= entry.getValue().data.length*Float.BYTES;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 *  Generates the mesh for a dynamic road with the passed-in model and curve.  The model is transformed
+	 *  into wedges between each segment of the curve.  Segments where a sharp curve would make the model
+	 *  invert at the inner corner, as determined by the border offset, are skipped.
+	 */
+	public static VertexArray generateDynamicMesh(VertexArray model, BezierCurve curve, float borderOffset){
+		float[] meshData = new float[model.data.length*((int) curve.pathLength + 2)];
+		int meshVertexCount = 0;
+
+		//Core components need to be transformed to wedges.
+		Point3d position = new Point3d();
+		Point3d rotation = new Point3d();
+		Point3d priorPosition = new Point3d();
+		Point3d priorRotation = new Point3d();
+		Point3d testPoint1 = new Point3d();
+		Point3d testPoint2 = new Point3d();
+		Point3d vertexOffsetPrior = new Point3d();
+		Point3d vertexOffsetCurrent = new Point3d();
+		float priorIndex = 0;
+
+		for(float currentIndex=1; currentIndex<=curve.pathLength; ++currentIndex){
+			//Get current and prior curve position and rotation.
+			//From this, we know how much to stretch the model to that point's rendering area.
+			curve.setPointToPositionAt(priorPosition, priorIndex);
+			curve.setPointToRotationAt(priorRotation, priorIndex);
+			curve.setPointToPositionAt(position, currentIndex);
+			curve.setPointToRotationAt(rotation, currentIndex);
+
+			//If we are a really sharp curve, we might have inverted our model at the inner corner.
+			//Check for this, and if we have done so, skip this segment.
+			//If we detect this in the last 3 segments, skip right to the end.
+			//This prevents a missing end segment due to collision.
+			testPoint1.set(borderOffset, 0, 0).rotateFine(priorRotation).add(priorPosition);
+			testPoint2.set(borderOffset, 0, 0).rotateFine(rotation).add(position);
+			if(currentIndex != curve.pathLength && (position.x - priorPosition.x)*(testPoint2.x - testPoint1.x) < 0 || (position.z - priorPosition.z)*(testPoint2.z - testPoint1.z) < 0){
+				if(currentIndex != curve.pathLength && currentIndex + 3 > curve.pathLength){
+					currentIndex = curve.pathLength - 1;
+				}
+				continue;
+			}
+
+			//Make sure we have room for this segment.
+			if((meshVertexCount + model.vertexCount)*VertexArray.VERTEX_SIZE > meshData.length){
+				meshData = Arrays.copyOf(meshData, meshData.length*2 + model.data.length);
+			}
+
+			//Depending on the vertex position in the model, transform it to match with the offset rotation.
+			//This depends on how far the vertex is from the origin of the model, and how big the delta is.
+			//For all points, their magnitude depends on how far away they are on the Z-axis.
+			for(int i=0; i<model.vertexCount; ++i){
+				vertexOffsetPrior.set(model.get(i, 0), model.get(i, 1), 0);
+				vertexOffsetPrior.rotateFine(priorRotation).add(priorPosition);
+				vertexOffsetCurrent.set(model.get(i, 0), model.get(i, 1), model.get(i, 2));
+				vertexOffsetCurrent.rotateFine(rotation).add(position);
+
+				//Prior offset becomes the segment vector, and then the rendered vertex.
+				vertexOffsetPrior.subtract(vertexOffsetCurrent).multiply(Math.abs(model.get(i, 2))).add(vertexOffsetCurrent);
+				setMeshVertex(meshData, meshVertexCount++, model, i, vertexOffsetPrior);
+			}
+
+			//Set the last index.
+			priorIndex = currentIndex;
+
+			//If we are at the last index, do special logic to get the very end point.
+			if(currentIndex != curve.pathLength && currentIndex + 1 > curve.pathLength){
+				currentIndex -= ((currentIndex + 1) - curve.pathLength);
+			}
+		}
+		return new VertexArray(Arrays.copyOf(meshData, meshVertexCount*VertexArray.VERTEX_SIZE));
+	}
+
+	/**
+	 *  Generates the mesh for a static road with the passed-in model and rotation.  The model is
+	 *  only rotated, and offset to match the block-aligned position of the road.
+	 */
+	public static VertexArray generateStaticMesh(VertexArray model, Point3d rotation){
+		float[] meshData = new float[model.data.length];
+		Point3d position = new Point3d();
+		for(int i=0; i<model.vertexCount; ++i){
+			//Need to offset by 0.5 to match the offset of the TE as we're block-aligned.
+			position.set(model.get(i, 0) - 0.5, model.get(i, 1), model.get(i, 2) - 0.5);
+			position.rotateFine(rotation);
+			setMeshVertex(meshData, i, model, i, position);
+		}
+		return new VertexArray(meshData);
+	}
+
+	/**
+	 *  Sets the passed-in vertex of the mesh data to the passed-in position, with the UV and normal of the passed-in model vertex.
+	 */
+	private static void setMeshVertex(float[] meshData, int meshVertex, VertexArray model, int modelVertex, Point3d position){
+		int index = meshVertex*VertexArray.VERTEX_SIZE;
+		meshData[index] = (float) position.x;
+		meshData[index + 1] = (float) position.y;
+		meshData[index + 2] = (float) position.z;
+		for(int i=3; i<VertexArray.VERTEX_SIZE; ++i){
+			meshData[index + i] = model.get(modelVertex, i);
+		}
+	}
+
+	private static String getModelKeyPrefix(String modelLocation){
+		return modelLocation + "|";
+	}
+
+	private static void addMesh(String meshKey, VertexArray mesh){
+		cachedMeshes.put(meshKey, mesh);
+		cacheSize += mesh.data.length*Float.BYTES;
+
+		//Remove the least-recently used meshes until we are under the max size.  Always keep the mesh we just added.
+		Iterator<VertexArray> iterator = cachedMeshes.values().iterator();
+		while(cacheSize > MAX_CACHE_SIZE && cachedMeshes.size() > 1){
+			cacheSize -= iterator.next().data.length*Float.BYTES;
+			iterator.remove();
+		}
+	}
+}
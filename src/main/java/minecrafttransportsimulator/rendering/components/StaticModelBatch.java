@@ -0,0 +1,109 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import minecrafttransportsimulator.entities.components.AEntityC_Definable;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
+
+/**Batch of the static objects on a model.  Most objects on a model are never animated, lit,
+ * or textured differently, so they always render the same way.  Rendering each of these on its
+ * own wastes a draw call per object, so they are merged into one set of vertices and rendered at once.
+ * As the rendering section of a definition determines which objects are static, batches are created per
+ * model and rendering section.  Vertices are merged without the backend: the backend is only used to cache
+ * the merged vertices the first time the batch is rendered, after which the merged vertices are discarded.
+ *
+ * @author don_bruce
+ */
+public class StaticModelBatch{
+	private final IVertexBackend backend;
+	private final Set<String> objectNames;
+	private final boolean instanceable;
+	private VertexArray vertices;
+	private int cachedVertexIndex = -1;
+
+	public <AnimationEntity extends AEntityC_Definable<?>> StaticModelBatch(List<RenderableModelObject<AnimationEntity>> modelObjects, JSONRendering rendering){
+		this(getStaticObjects(modelObjects, rendering), areAllSolid(modelObjects), GLVertexBackend.INSTANCE);
+	}
+
+	/**
+	 *  Creates a batch of the passed-in static objects, keyed by their names, that caches and renders its vertices with the passed-in backend.
+	 *  The instanceable parameter should be true if all objects on the model, static or not, are solid.
+	 */
+	StaticModelBatch(Map<String, VertexArray> staticObjects, boolean instanceable, IVertexBackend backend){
+		this.backend = backend;
+		this.objectNames = staticObjects.keySet();
+		this.instanceable = instanceable;
+		this.vertices = VertexArray.merge(staticObjects.values());
+	}
+
+	/**
+	 *  Returns the vertices of all static objects in the passed-in list for the passed-in rendering section, keyed by their names.
+	 *  Objects are kept in the order of the list so they are merged in the same order every time.
+	 */
+	private static <AnimationEntity extends AEntityC_Definable<?>> Map<String, VertexArray> getStaticObjects(List<RenderableModelObject<AnimationEntity>> modelObjects, JSONRendering rendering){
+		Map<String, VertexArray> staticObjects = new LinkedHashMap<String, VertexArray>();
+		for(RenderableModelObject<AnimationEntity> modelObject : modelObjects){
+			if(modelObject.isStatic(rendering)){
+				staticObjects.put(modelObject.objectName, modelObject.batchVertices);
+			}
+		}
+		return staticObjects;
+	}
+
+	/**
+	 *  Returns true if all objects in the passed-in list are solid and use the entity's texture.
+	 */
+	private static <AnimationEntity extends AEntityC_Definable<?>> boolean areAllSolid(List<RenderableModelObject<AnimationEntity>> modelObjects){
+		for(RenderableModelObject<AnimationEntity> modelObject : modelObjects){
+			if(modelObject.batchVertices == null){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *  Returns true if the object with the passed-in name is part of this batch.
+	 *  Such objects should not be rendered on their own, as this batch renders them.
+	 */
+	public boolean contains(String objectName){
+		return objectNames.contains(objectName);
+	}
+
+	/**
+	 *  Returns true if all objects on the model are solid and use the entity's texture.  Such models can be
+	 *  rendered as instances: this batch renders their static objects, and their other objects only differ by
+	 *  their animations.  Models with translucent objects, windows, or online textures can't be instanced.
+	 */
+	public boolean isInstanceable(){
+		return instanceable;
+	}
+
+	/**
+	 *  Renders all objects in this batch.  Static objects only render on the solid pass,
+	 *  so this should not be called on the blending pass.
+	 */
+	public void render(){
+		if(cachedVertexIndex == -1){
+			if(vertices.vertexCount == 0){
+				return;
+			}
+			cachedVertexIndex = backend.cacheVertices(vertices);
+			vertices = null;
+		}
+		backend.renderVertices(cachedVertexIndex);
+	}
+
+	/**
+	 *  Call to destroy this batch.  This frees the backend resources for it, if it was rendered.
+	 */
+	public void destroy(){
+		if(cachedVertexIndex != -1){
+			backend.deleteVertices(cachedVertexIndex);
+			cachedVertexIndex = -1;
+		}
+	}
+}
@@ -0,0 +1,398 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+
+import minecrafttransportsimulator.MasterLoader;
+import minecrafttransportsimulator.mcinterface.InterfaceCore;
+import minecrafttransportsimulator.rendering.components.GIFParser.ParsedGIF;
+
+/**Loader for textures from URLs.  Downloading and decoding images takes a while, so it is done on
+ * background threads rather than the render thread.  Each URL is only loaded once, no matter how many
+ * times it is requested while loading, and loaded textures are queued for the render thread to upload.
+ * Downloaded images are also saved to a disk cache so they don't need to be downloaded again on the next launch.
+ * Images in the cache are stored by the hash of their contents, with an index mapping URLs to hashes, so the
+ * same image at multiple URLs is only stored once.  When the cache gets too large, the least-recently used
+ * images are removed from it.
+ * <br><br>
+ * Images at a URL may change, so each URL in the index expires after the time the server says to cache it for,
+ * or {@link #DEFAULT_EXPIRY_TIME} if it doesn't say.  Expired URLs are requested again with the ETag and
+ * Last-Modified time the server sent with the image, so if the image hasn't changed, the server only needs to
+ * tell us that, and we keep using the cached image.  If the server can't be reached, the cached image is used.
+ *
+ * @author don_bruce
+ */
+public class URLTextureLoader{
+	/**Max size of all images in the disk cache, in bytes.**/
+	private static final long MAX_CACHE_SIZE = 64L*1024L*1024L;
+	private static final int LOADER_THREADS = 2;
+	private static final int MAX_QUEUED_LOADS = 64;
+	private static final String INDEX_FILE_NAME = "index.txt";
+	/**Time, in milliseconds, before cached URLs are checked for changes if the server doesn't say.**/
+	private static final long DEFAULT_EXPIRY_TIME = 24L*60L*60L*1000L;
+
+	private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(MAX_QUEUED_LOADS), runnable -> {
+		Thread thread = new Thread(runnable, "MTS URL Texture Loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Set<String> loadingURLs = ConcurrentHashMap.newKeySet();
+	private static final Queue<LoadedTexture> loadedTextures = new ConcurrentLinkedQueue<LoadedTexture>();
+	/**Index of the disk cache, keyed by URL.  Created on first use.  Only access when synchronized on this class.**/
+	private static Map<String, CacheEntry> cacheIndex;
+	private static File cacheDirectory;
+
+	static{
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 *  Requests the texture at the passed-in URL be loaded.  If it is already loading, this does nothing.
+	 *  Once loaded, the texture will be returned by {@link #pollLoadedTexture()}.
+	 */
+	public static void requestTexture(String textureURL){
+		if(loadingURLs.add(textureURL)){
+			try{
+				executor.execute(() -> loadedTextures.add(loadTexture(textureURL)));
+			}catch(RejectedExecutionException e){
+				//Too many textures are loading.  Let this one be requested again later.
+				loadingURLs.remove(textureURL);
+			}
+		}
+	}
+
+	/**
+	 *  Returns the next texture that finished loading, or null if there are none.
+	 *  Textures returned here need to be uploaded before they can be rendered.
+	 */
+	public static LoadedTexture pollLoadedTexture(){
+		LoadedTexture texture = loadedTextures.poll();
+		if(texture != null){
+			loadingURLs.remove(texture.url);
+		}
+		return texture;
+	}
+
+	private static LoadedTexture loadTexture(String textureURL){
+		//Get the image data and type.  If we have it cached, and it hasn't expired, use that.  Otherwise, download it.
+		//If we have expired data, the server is asked to only send the image if it changed from ours.
+		byte[] data;
+		String contentType;
+		URLConnection connection = null;
+		CacheEntry cacheEntry = getCacheEntry(textureURL);
+		byte[] cachedData = cacheEntry != null ? getCachedData(cacheEntry) : null;
+		if(cachedData != null && System.currentTimeMillis() < cacheEntry.expiryTime){
+			data = cachedData;
+			contentType = cacheEntry.contentType;
+		}else{
+			try{
+				connection = new URL(textureURL).openConnection();
+				if(cachedData != null){
+					if(!cacheEntry.eTag.isEmpty()){
+						connection.setRequestProperty("If-None-Match", cacheEntry.eTag);
+					}
+					if(!cacheEntry.lastModified.isEmpty()){
+						connection.setRequestProperty("If-Modified-Since", cacheEntry.lastModified);
+					}
+				}
+				if(cachedData != null && connection instanceof HttpURLConnection && ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED){
+					//Our image is still current, so keep using it until it expires again.
+					data = cachedData;
+					contentType = cacheEntry.contentType;
+					renewCacheEntry(cacheEntry, getExpiryTime(connection));
+				}else{
+					List<String> validContentTypes = new ArrayList<String>();
+					for(String imageSuffix : ImageIO.getReaderFileSuffixes()){
+						validContentTypes.add("image/" + imageSuffix);
+					}
+					contentType = connection.getHeaderField("Content-Type");
+					if(!validContentTypes.contains(contentType)){
+						String errorString = "Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
+						for(String validType : validContentTypes){
+							errorString += validType + ", ";
+						}
+						return new LoadedTexture(textureURL, null, null, errorString);
+					}
+					try(InputStream stream = connection.getInputStream()){
+						data = readFully(stream);
+					}
+				}
+			}catch(Exception e){
+				if(cachedData != null){
+					//Couldn't check if our image changed, likely as we are offline.  Use it rather than nothing.
+					data = cachedData;
+					contentType = cacheEntry.contentType;
+				}else{
+					e.printStackTrace();
+					return new LoadedTexture(textureURL, null, null, "Could not open URL for processing.  Error was: " + e.getMessage());
+				}
+			}
+		}
+
+		//Decode the image.  Only cache images we could decode, as there's no point in keeping bad data.
+		try{
+			LoadedTexture texture;
+			if(contentType.endsWith("gif")){
+				ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+				reader.setInput(ImageIO.createImageInputStream(new ByteArrayInputStream(data)));
+				ParsedGIF gif = GIFParser.parseGIF(reader);
+				if(gif == null){
+					return new LoadedTexture(textureURL, null, null, "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?");
+				}
+				texture = new LoadedTexture(textureURL, null, gif, null);
+			}else{
+				BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+				if(image == null){
+					throw new IOException("No reader could decode the image data.");
+				}
+				texture = new LoadedTexture(textureURL, image, null, null);
+			}
+			if(data != cachedData){
+				saveToCache(textureURL, contentType, data, connection);
+			}
+			return texture;
+		}catch(Exception e){
+			e.printStackTrace();
+			return new LoadedTexture(textureURL, null, null, "Could not parse images.  Error was: " + e.getMessage());
+		}
+	}
+
+	private static byte[] readFully(InputStream stream) throws IOException{
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int bytesRead;
+		while((bytesRead = stream.read(buffer)) != -1){
+			data.write(buffer, 0, bytesRead);
+		}
+		return data.toByteArray();
+	}
+
+	private static synchronized CacheEntry getCacheEntry(String textureURL){
+		return getCacheIndex().get(textureURL);
+	}
+
+	/**
+	 *  Returns the cached data for the passed-in entry, or null if it couldn't be read.
+	 *  Marks the data as used so it is not removed before data that hasn't been used recently.
+	 */
+	private static synchronized byte[] getCachedData(CacheEntry entry){
+		File dataFile = new File(cacheDirectory, entry.hash);
+		try{
+			byte[] data = Files.readAllBytes(dataFile.toPath());
+			dataFile.setLastModified(System.currentTimeMillis());
+			return data;
+		}catch(Exception e){
+			return null;
+		}
+	}
+
+	/**
+	 *  Saves the passed-in data to the cache for the passed-in URL.  The connection the data was
+	 *  downloaded with is used to get the ETag, Last-Modified time, and expiry time of the data.
+	 */
+	private static synchronized void saveToCache(String textureURL, String contentType, byte[] data, URLConnection connection){
+		Map<String, CacheEntry> index = getCacheIndex();
+		try{
+			String hash = getHash(data);
+			File dataFile = new File(cacheDirectory, hash);
+			cacheDirectory.mkdirs();
+			if(dataFile.exists()){
+				dataFile.setLastModified(System.currentTimeMillis());
+			}else{
+				Files.write(dataFile.toPath(), data);
+			}
+			index.put(textureURL, new CacheEntry(contentType, hash, getHeader(connection, "ETag"), getHeader(connection, "Last-Modified"), getExpiryTime(connection)));
+
+			//Remove the least-recently used images until we are under the max size.
+			File[] dataFiles = cacheDirectory.listFiles(file -> !file.getName().equals(INDEX_FILE_NAME));
+			long totalSize = 0;
+			for(File file : dataFiles){
+				totalSize += file.length();
+			}
+			if(totalSize > MAX_CACHE_SIZE){
+				Arrays.sort(dataFiles, Comparator.comparingLong(File::lastModified));
+				for(File file : dataFiles){
+					if(totalSize <= MAX_CACHE_SIZE){
+						break;
+					}
+					totalSize -= file.length();
+					file.delete();
+				}
+				index.values().removeIf(entry -> !new File(cacheDirectory, entry.hash).exists());
+			}
+
+			saveCacheIndex();
+		}catch(Exception e){
+			InterfaceCore.logError("Could not save texture from " + textureURL + " to the texture cache.  It will be downloaded again next launch.");
+			InterfaceCore.logError(e.getMessage());
+		}
+	}
+
+	/**
+	 *  Sets the passed-in entry to expire at the passed-in time.  Used when the server says the image hasn't changed.
+	 */
+	private static synchronized void renewCacheEntry(CacheEntry entry, long expiryTime){
+		entry.expiryTime = expiryTime;
+		try{
+			saveCacheIndex();
+		}catch(Exception e){
+			InterfaceCore.logError("Could not save texture cache index.  Cached textures may be checked for changes again next launch.");
+			InterfaceCore.logError(e.getMessage());
+		}
+	}
+
+	private static void saveCacheIndex() throws IOException{
+		try(BufferedWriter writer = Files.newBufferedWriter(new File(cacheDirectory, INDEX_FILE_NAME).toPath(), StandardCharsets.UTF_8)){
+			for(Entry<String, CacheEntry> indexEntry : getCacheIndex().entrySet()){
+				CacheEntry entry = indexEntry.getValue();
+				writer.write(entry.hash + "\t" + entry.contentType + "\t" + entry.expiryTime + "\t" + entry.eTag + "\t" + entry.lastModified + "\t" + indexEntry.getKey());
+				writer.newLine();
+			}
+		}
+	}
+
+	private static Map<String, CacheEntry> getCacheIndex(){
+		if(cacheIndex == null){
+			cacheIndex = new HashMap<String, CacheEntry>();
+			cacheDirectory = new File(new File(MasterLoader.gameDirectory, "config"), MasterLoader.MODID + "_texturecache");
+			File indexFile = new File(cacheDirectory, INDEX_FILE_NAME);
+			if(indexFile.exists()){
+				try(BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)){
+					String line;
+					while((line = reader.readLine()) != null){
+						//Lines are the hash, content type, expiry time, ETag, Last-Modified time, and URL.
+						//URL is last as it's the only one that could contain tabs.  Lines from before URLs expired
+						//only have the hash, content type, and URL, so they are loaded as already expired.
+						String[] lineSegments = line.split("\t", 6);
+						if(new File(cacheDirectory, lineSegments[0]).exists()){
+							if(lineSegments.length == 6){
+								cacheIndex.put(lineSegments[5], new CacheEntry(lineSegments[1], lineSegments[0], lineSegments[3], lineSegments[4], Long.parseLong(lineSegments[2])));
+							}else{
+								lineSegments = line.split("\t", 3);
+								if(lineSegments.length == 3){
+									cacheIndex.put(lineSegments[2], new CacheEntry(lineSegments[1], lineSegments[0], "", "", 0));
+								}
+							}
+						}
+					}
+				}catch(Exception e){
+					InterfaceCore.logError("Could not read texture cache index.  Cached textures will be downloaded again.");
+					InterfaceCore.logError(e.getMessage());
+				}
+			}
+		}
+		return cacheIndex;
+	}
+
+	/**
+	 *  Returns the time the data from the passed-in connection expires.  This is from the max-age of the Cache-Control
+	 *  header if it has one, or the Expires header if it doesn't.  If the server says not to cache the data, it expires
+	 *  now, so it is checked every time it's loaded.  If the server doesn't say, it expires after {@link #DEFAULT_EXPIRY_TIME}.
+	 */
+	private static long getExpiryTime(URLConnection connection){
+		long currentTime = System.currentTimeMillis();
+		String cacheControl = connection.getHeaderField("Cache-Control");
+		if(cacheControl != null){
+			for(String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")){
+				directive = directive.trim();
+				if(directive.equals("no-cache") || directive.equals("no-store")){
+					return currentTime;
+				}else if(directive.startsWith("max-age=")){
+					try{
+						return currentTime + 1000L*Long.parseLong(directive.substring("max-age=".length()).trim());
+					}catch(NumberFormatException e){
+						//Bad max-age.  Fall back to the other headers.
+					}
+				}
+			}
+		}
+		long expiration = connection.getExpiration();
+		return expiration != 0 ? expiration : currentTime + DEFAULT_EXPIRY_TIME;
+	}
+
+	/**
+	 *  Returns the value of the passed-in header of the connection, or an empty string if there is none.
+	 *  Index entries are separated by tabs, so values with them are ignored.
+	 */
+	private static String getHeader(URLConnection connection, String header){
+		String value = connection.getHeaderField(header);
+		return value != null && value.indexOf('\t') == -1 ? value : "";
+	}
+
+	private static String getHash(byte[] data) throws Exception{
+		StringBuilder hash = new StringBuilder();
+		for(byte hashByte : MessageDigest.getInstance("SHA-256").digest(data)){
+			hash.append(String.format("%02x", hashByte));
+		}
+		return hash.toString();
+	}
+
+	/**
+	 *  A texture that finished loading.  Either the image or GIF will be set if the
+	 *  texture loaded, otherwise the error message will be set with the reason it didn't.
+	 */
+	public static class LoadedTexture{
+		public final String url;
+		public final BufferedImage image;
+		public final ParsedGIF gif;
+		public final String errorMessage;
+
+		private LoadedTexture(String url, BufferedImage image, ParsedGIF gif, String errorMessage){
+			this.url = url;
+			this.image = image;
+			this.gif = gif;
+			this.errorMessage = errorMessage;
+		}
+	}
+
+	/**
+	 *  An entry in the cache index.  ETag and Last-Modified are empty if the server didn't send them.
+	 *  Expiry time is in milliseconds since the epoch.  It is read while loading, and only changed when synchronized on the loader.
+	 */
+	private static class CacheEntry{
+		private final String contentType;
+		private final String hash;
+		private final String eTag;
+		private final String lastModified;
+		private volatile long expiryTime;
+
+		private CacheEntry(String contentType, String hash, String eTag, String lastModified, long expiryTime){
+			this.contentType = contentType;
+			this.hash = hash;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.expiryTime = expiryTime;
+		}
+	}
+}
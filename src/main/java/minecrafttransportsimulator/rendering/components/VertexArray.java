@@ -0,0 +1,86 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.Collection;
+
+/**Array of vertices for a model object.  Vertices are stored one after another in a single primitive
+ * float array, with {@link #VERTEX_SIZE} floats per vertex.  The floats for each vertex are in the order as follows:
+ * <ul>
+ * <li>The x-coordinate of the vertex.
+ * <li>The y-coordinate of the vertex.
+ * <li>The z-coordinate of the vertex.
+ * <li>The u-coordinate of the UV-mapping for the vertex.
+ * <li>The v-coordinate of the UV-mapping for the vertex.
+ * <li>The nX-coordinate of the normal for the vertex, in the x-dimension.
+ * <li>The nY-coordinate of the normal for the vertex, in the y-dimension.
+ * <li>The nZ-coordinate of the normal for the vertex, in the z-dimension.
+ * </ul>
+ * This is the same layout OpenGL uses for interleaved arrays, so the data may be sent to it as-is.
+ *
+ * @author don_bruce
+ */
+public class VertexArray{
+	/**Number of floats per vertex.**/
+	public static final int VERTEX_SIZE = 8;
+
+	/**Vertex data.  Length is always {@link #vertexCount} times {@link #VERTEX_SIZE}.**/
+	public final float[] data;
+	public final int vertexCount;
+
+	/**
+	 *  Creates a new array with the passed-in number of vertices.  All vertex values are 0.
+	 */
+	public VertexArray(int vertexCount){
+		this.data = new float[vertexCount*VERTEX_SIZE];
+		this.vertexCount = vertexCount;
+	}
+
+	/**
+	 *  Creates a new array backed by the passed-in data.  Data is not copied.
+	 */
+	public VertexArray(float[] data){
+		if(data.length%VERTEX_SIZE != 0){
+			throw new IllegalArgumentException("Vertex data length of " + data.length + " is not a multiple of " + VERTEX_SIZE + ".");
+		}
+		this.data = data;
+		this.vertexCount = data.length/VERTEX_SIZE;
+	}
+
+	/**
+	 *  Returns the value of the passed-in element of the passed-in vertex.
+	 *  Elements are indexed in the order listed in the class description.
+	 */
+	public float get(int vertex, int element){
+		return data[vertex*VERTEX_SIZE + element];
+	}
+
+	/**
+	 *  Sets the value of the passed-in element of the passed-in vertex.
+	 */
+	public void set(int vertex, int element, float value){
+		data[vertex*VERTEX_SIZE + element] = value;
+	}
+
+	/**
+	 *  Copies the passed-in vertex of this array to the passed-in vertex of the other array.
+	 */
+	public void copyVertex(int vertex, VertexArray other, int otherVertex){
+		System.arraycopy(data, vertex*VERTEX_SIZE, other.data, otherVertex*VERTEX_SIZE, VERTEX_SIZE);
+	}
+
+	/**
+	 *  Returns a new array with all the vertices of the passed-in arrays, in order.
+	 */
+	public static VertexArray merge(Collection<VertexArray> arrays){
+		int totalLength = 0;
+		for(VertexArray array : arrays){
+			totalLength += array.data.length;
+		}
+		float[] mergedData = new float[totalLength];
+		int offset = 0;
+		for(VertexArray array : arrays){
+			System.arraycopy(array.data, 0, mergedData, offset, array.data.length);
+			offset += array.data.length;
+		}
+		return new VertexArray(mergedData);
+	}
+}
@@ -1,19 +1,23 @@
 package minecrafttransportsimulator.rendering.instances;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.rendering.components.AModelParser;
+import minecrafttransportsimulator.rendering.components.VertexArray;
 
 /**Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
  * Much more versatile than the Forge system.
- * 
+ * Models are read into memory in one go, and are then parsed straight from their bytes
+ * without making Strings for each line, so parsing large models doesn't make much garbage.
+ *
  * @author don_bruce
  */
 public final class ModelParserOBJ extends AModelParser{
@@ -24,157 +28,167 @@ public final class ModelParserOBJ extends AModelParser{
 	}
 	
 	@Override
-	protected Map<String, Float[][]> parseModelInternal(String modelLocation){
-		Map<String, Float[][]> objectMap = new HashMap<String, Float[][]>();
-		BufferedReader reader;
-		try{
-			reader = new BufferedReader(new InputStreamReader(ModelParserOBJ.class.getResourceAsStream(modelLocation)));
+	protected Map<String, VertexArray> parseModelInternal(String modelLocation){
+		OBJReader reader;
+		try(InputStream stream = ModelParserOBJ.class.getResourceAsStream(modelLocation)){
+			if(stream == null){
+				throw new NullPointerException();
+			}
+			reader = new OBJReader(stream);
+		}catch(IOException e){
+			throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
 		}catch(Exception e){
 			throw new NullPointerException("Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
 		}
-		
+		return parseOBJ(reader, modelLocation);
+	}
+	
+	/**
+	 *  Parses the OBJ model in the passed-in stream.  The location is only used for error messages.
+	 *  This allows parsing models that aren't resources, such as when testing the parser.
+	 */
+	static Map<String, VertexArray> parseStream(InputStream stream, String modelLocation) throws IOException{
+		return parseOBJ(new OBJReader(stream), modelLocation);
+	}
+	
+	private static Map<String, VertexArray> parseOBJ(OBJReader reader, String modelLocation){
+		Map<String, VertexArray> objectMap = new HashMap<String, VertexArray>();
 		String objectName = null;
-		final List<Float[]> vertexList = new ArrayList<Float[]>();
-		final List<Float[]> normalList = new ArrayList<Float[]>();
-		final List<Float[]> textureList = new ArrayList<Float[]>();
-		final List<String> faceList = new ArrayList<String>();
+		final FloatList vertexList = new FloatList();
+		final FloatList normalList = new FloatList();
+		final FloatList textureList = new FloatList();
+		final FaceList faceList = new FaceList();
 		
-		try{
-			int lineNumber = 0;
-			while(reader.ready()){
-				String line = reader.readLine();
-				++lineNumber;
-				
-				//Do normal parsing.
-				if(line.startsWith("o ")){
-					//Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
-					if(objectName != null){
-						if(faceList.isEmpty()){
-							InterfaceCore.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
-						}else{
-							compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-							objectName = null;
-						}
-					}
-					try{
-						objectName = line.trim().substring(2, line.length());
-					}catch(Exception e){
-						InterfaceCore.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
-					}
-				}else if(line.startsWith("v ")){
-					try{
-						Float[] coords = new Float[3];
-						line = line.trim().substring(2, line.trim().length()).trim();
-						coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-						coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-						coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-						vertexList.add(coords);
-					}catch(Exception e){
-						InterfaceCore.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
-					}
-				}else if(line.startsWith("vt ")){
-					try{
-						Float[] coords = new Float[2];
-						line = line.trim().substring(3, line.trim().length()).trim();
-						int space = line.indexOf(' ');
-						int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-						coords[0] = Float.valueOf(line.substring(0, space));
-						coords[1] = 1 - Float.valueOf(line.substring(space + 1, vertexEnd));
-						textureList.add(coords);
-					}catch(Exception e){
-						InterfaceCore.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
+		int lineNumber = 0;
+		while(reader.nextLine()){
+			++lineNumber;
+			
+			//Do normal parsing.
+			if(reader.lineStartsWith("o ")){
+				//Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
+				if(objectName != null){
+					if(faceList.isEmpty()){
+						InterfaceCore.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
+					}else{
+						compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+						objectName = null;
 					}
-				}else if(line.startsWith("vn ")){
-					try{
-						Float[] coords = new Float[3];
-						line = line.trim().substring(2, line.trim().length()).trim();
-						coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-						coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-						coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-						normalList.add(coords);
-					}catch(Exception e){
-						InterfaceCore.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+				}
+				String name = reader.getObjectName();
+				if(name != null){
+					objectName = name;
+				}else{
+					InterfaceCore.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
+				}
+			}else if(reader.lineStartsWith("v ")){
+				try{
+					float x = reader.nextFloat();
+					float y = reader.nextFloat();
+					float z = reader.nextFloat();
+					reader.checkLineEnd();
+					vertexList.add(x);
+					vertexList.add(y);
+					vertexList.add(z);
+				}catch(Exception e){
+					InterfaceCore.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
+				}
+			}else if(reader.lineStartsWith("vt ")){
+				try{
+					//Some exporters add a third W value.  We don't use it, but still allow it.
+					float u = reader.nextFloat();
+					float v = 1 - reader.nextFloat();
+					if(reader.hasToken()){
+						reader.nextFloat();
 					}
-				}else if(line.startsWith("f ")){
-					try{
-						faceList.add(line.trim().substring(2, line.trim().length()));
-					}catch(Exception e){
-						InterfaceCore.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
+					reader.checkLineEnd();
+					textureList.add(u);
+					textureList.add(v);
+				}catch(Exception e){
+					InterfaceCore.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
+				}
+			}else if(reader.lineStartsWith("vn ")){
+				try{
+					float x = reader.nextFloat();
+					float y = reader.nextFloat();
+					float z = reader.nextFloat();
+					reader.checkLineEnd();
+					normalList.add(x);
+					normalList.add(y);
+					normalList.add(z);
+				}catch(Exception e){
+					InterfaceCore.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+				}
+			}else if(reader.lineStartsWith("f ")){
+				if(reader.hasToken()){
+					int faceStart = faceList.size;
+					int facePoints = 0;
+					while(reader.hasToken()){
+						//Vertex number is the first entry before the slash.
+						//Texture number is the second entry between the two slashes.
+						//Normal number is the third entry after the second slash.
+						//If any of these are missing, we can't compile this object, so mark it as bad.
+						int vertexNumber;
+						int textureNumber;
+						int normalNumber;
+						try{
+							reader.nextToken();
+							int firstSlash = reader.indexOfToken('/', false);
+							int secondSlash = reader.indexOfToken('/', true);
+							vertexNumber = reader.parseInt(reader.tokenStart, firstSlash) - 1;
+							textureNumber = reader.parseInt(firstSlash + 1, secondSlash) - 1;
+							normalNumber = reader.parseInt(secondSlash + 1, reader.tokenEnd) - 1;
+						}catch(Exception e){
+							faceList.invalid = true;
+							break;
+						}
+						
+						//If we have three or more points in this face, it means we need to make a triangle out of this shape.
+						//Add the first point, the most recent point, and this point to make a triangle.
+						//Otherwise, just add the point as-is.
+						if(facePoints >= 3){
+							faceList.copy(faceStart);
+							faceList.copy(faceList.size - 6);
+						}
+						faceList.add(vertexNumber, textureNumber, normalNumber);
+						++facePoints;
 					}
+				}else{
+					InterfaceCore.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
 				}
 			}
-			
-			//End of file.  Save the last part in process and close the file.
-			compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-			reader.close();
-			return objectMap;
-			
-		}catch(IOException e){
-			throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
 		}
+		
+		//End of file.  Save the last part in process.
+		compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+		return objectMap;
 	}
 	
-	private static void compileVertexArray(Map<String, Float[][]> objectMap, List<Float[]> vertexList, List<Float[]> normalList, List<Float[]> textureList, List<String> faceList, String modelLocation, String objectName){
+	private static void compileVertexArray(Map<String, VertexArray> objectMap, FloatList vertexList, FloatList normalList, FloatList textureList, FaceList faceList, String modelLocation, String objectName){
 		if(objectName == null){
 			InterfaceCore.logError("No object name found in the entire OBJ model file.  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
 			objectName = "model";
 		}
 		
 		try{
-			List<Integer[]> vertexDataSets = new ArrayList<Integer[]>();
-			for(String faceString : faceList){
-				List<Integer[]> faceVertexData = new ArrayList<Integer[]>();	
-				while(!faceString.isEmpty()){
-					//Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-					int defEnd = faceString.indexOf(' ');
-					String faceDef;
-					if(defEnd != -1){
-						//Take the faceDef from the faceString and store it.
-						faceDef = faceString.substring(0, defEnd);
-						faceString = faceString.substring(defEnd + 1);
-					}else{
-						//We are at the last face vertex here, so just mark the face as the existing string.
-						faceDef = faceString;
-						faceString = "";
-					}
-					
-					//Vertex number is the first entry before the slash.
-					//Texture number is the second entry between the two slashes.
-					//Normal number is the third entry after the second slash.
-					//Parse all these out and store them in the array.
-					int firstSlash = faceDef.indexOf('/');
-					int secondSlash = faceDef.lastIndexOf('/');
-					int vertexNumber = Integer.valueOf(faceDef.substring(0, firstSlash)) - 1;
-					int textureNumber = Integer.valueOf(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-					int normalNumber = Integer.valueOf(faceDef.substring(secondSlash + 1)) - 1;
-					
-					//If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-					//Add the first point, the most recent point, and this point to make a triangle.
-					//Otherwise, just add the face as-is.
-					if(faceVertexData.size() >= 3){
-						faceVertexData.add(faceVertexData.get(0));
-						faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
-					}
-					faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
-				}
-				vertexDataSets.addAll(faceVertexData);
+			if(faceList.invalid){
+				throw new IllegalArgumentException();
 			}
-	
-			//Compile array.
-			Float[][] compiledArray = new Float[vertexDataSets.size()][8];
-			for(int i=0; i<compiledArray.length; ++i){
-				Integer[] vertexData = vertexDataSets.get(i);
-				Float[] vertex = vertexList.get(vertexData[0]);
-				Float[] texture = textureList.get(vertexData[1]);
-				Float[] normal = normalList.get(vertexData[2]);
-				compiledArray[i][0] = vertex[0];
-				compiledArray[i][1] = vertex[1];
-				compiledArray[i][2] = vertex[2];
-				compiledArray[i][3] = texture[0];
-				compiledArray[i][4] = texture[1];
-				compiledArray[i][5] = normal[0];
-				compiledArray[i][6] = normal[1];
-				compiledArray[i][7] = normal[2];
+			
+			//Compile array.  Faces are already triangulated, so each set of indexes is one vertex.
+			int[] vertexDataSets = faceList.values;
+			VertexArray compiledArray = new VertexArray(faceList.size/3);
+			for(int i=0; i<compiledArray.vertexCount; ++i){
+				int vertexIndex = vertexDataSets[i*3]*3;
+				int textureIndex = vertexDataSets[i*3 + 1]*2;
+				int normalIndex = vertexDataSets[i*3 + 2]*3;
+				compiledArray.set(i, 0, vertexList.get(vertexIndex));
+				compiledArray.set(i, 1, vertexList.get(vertexIndex + 1));
+				compiledArray.set(i, 2, vertexList.get(vertexIndex + 2));
+				compiledArray.set(i, 3, textureList.get(textureIndex));
+				compiledArray.set(i, 4, textureList.get(textureIndex + 1));
+				compiledArray.set(i, 5, normalList.get(normalIndex));
+				compiledArray.set(i, 6, normalList.get(normalIndex + 1));
+				compiledArray.set(i, 7, normalList.get(normalIndex + 2));
 			}
 			objectMap.put(objectName, compiledArray);
 		}catch(Exception e){
@@ -184,4 +198,281 @@ public final class ModelParserOBJ extends AModelParser{
 		//Clear face list as we don't want to compile them on the next pass.
 		faceList.clear();
 	}
+	
+	/**
+	 *  Growable list of primitive floats.  Used for storing the points of the model as it is
+	 *  parsed, as we don't know how many there will be until we've parsed the whole file.
+	 */
+	private static class FloatList{
+		private float[] values = new float[1024];
+		private int size;
+		
+		private void add(float value){
+			if(size == values.length){
+				values = Arrays.copyOf(values, values.length*2);
+			}
+			values[size++] = value;
+		}
+		
+		private float get(int index){
+			if(index < 0 || index >= size){
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return values[index];
+		}
+	}
+	
+	/**
+	 *  Growable list of the triangulated faces of the object being parsed.  Faces are stored as
+	 *  sets of vertex, texture, and normal indexes, with one set for each vertex of each triangle.
+	 *  If any face couldn't be parsed, the list is marked invalid, as the object can't be compiled.
+	 */
+	private static class FaceList{
+		private int[] values = new int[1024];
+		private int size;
+		private boolean invalid;
+		
+		private boolean isEmpty(){
+			return size == 0 && !invalid;
+		}
+		
+		private void add(int vertexNumber, int textureNumber, int normalNumber){
+			ensureCapacity();
+			values[size++] = vertexNumber;
+			values[size++] = textureNumber;
+			values[size++] = normalNumber;
+		}
+		
+		private void copy(int index){
+			ensureCapacity();
+			System.arraycopy(values, index, values, size, 3);
+			size += 3;
+		}
+		
+		private void ensureCapacity(){
+			if(size + 3 > values.length){
+				values = Arrays.copyOf(values, values.length*2);
+			}
+		}
+		
+		private void clear(){
+			size = 0;
+			invalid = false;
+		}
+	}
+	
+	/**
+	 *  Reader that tokenizes the bytes of an OBJ file.  Lines are read one at a time with {@link #nextLine()},
+	 *  and are split into tokens at whitespace.  Numbers are parsed straight from the bytes.  Simple decimals,
+	 *  which is what exporters write, are parsed without making any objects.  Anything else is handed to
+	 *  {@link Float#parseFloat(String)}, so results are always the same as parsing the text as a String.
+	 */
+	private static class OBJReader{
+		/**Powers of ten that can be exactly represented as doubles.**/
+		private static final double[] POWERS_OF_TEN = {1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22};
+		/**Max number of significant digits that will always fit exactly in a double.**/
+		private static final int MAX_EXACT_DIGITS = 15;
+		/**Bits of a double that are dropped when converting it to a float.**/
+		private static final long FLOAT_DROPPED_BITS_MASK = (1L << 29) - 1;
+		/**Value of the dropped bits of a double that is exactly half-way between two floats.**/
+		private static final long FLOAT_HALFWAY_BITS = 1L << 28;
+		
+		private final byte[] data;
+		private int nextLineStart;
+		private int lineStart;
+		private int lineEnd;
+		private int position;
+		private int tokenStart;
+		private int tokenEnd;
+		
+		private OBJReader(InputStream stream) throws IOException{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(stream.available(), 8192));
+			byte[] buffer = new byte[8192];
+			int bytesRead;
+			while((bytesRead = stream.read(buffer)) != -1){
+				bytes.write(buffer, 0, bytesRead);
+			}
+			this.data = bytes.toByteArray();
+		}
+		
+		/**
+		 *  Moves to the next line.  Lines end with a \n, a \r, or a \r\n.
+		 *  Returns false if there are no more lines.
+		 */
+		private boolean nextLine(){
+			if(nextLineStart >= data.length){
+				return false;
+			}
+			lineStart = nextLineStart;
+			lineEnd = lineStart;
+			while(lineEnd < data.length && data[lineEnd] != '\n' && data[lineEnd] != '\r'){
+				++lineEnd;
+			}
+			nextLineStart = lineEnd + 1;
+			if(lineEnd < data.length && data[lineEnd] == '\r' && nextLineStart < data.length && data[nextLineStart] == '\n'){
+				++nextLineStart;
+			}
+			position = lineStart;
+			return true;
+		}
+		
+		/**
+		 *  Returns true if the current line starts with the passed-in prefix.  If so, the
+		 *  next token will be the one after the prefix.  The prefix must be ASCII.
+		 */
+		private boolean lineStartsWith(String prefix){
+			if(lineEnd - lineStart < prefix.length()){
+				return false;
+			}
+			for(int i=0; i<prefix.length(); ++i){
+				if(data[lineStart + i] != prefix.charAt(i)){
+					return false;
+				}
+			}
+			position = lineStart + prefix.length();
+			return true;
+		}
+		
+		/**
+		 *  Returns the rest of the current line as an object name, or null if there is no name.
+		 *  Names with trailing whitespace are also invalid, as exporters never make them.
+		 */
+		private String getObjectName(){
+			if(position >= lineEnd || isWhitespace(data[lineEnd - 1])){
+				return null;
+			}
+			return new String(data, position, lineEnd - position, Charset.defaultCharset());
+		}
+		
+		/**
+		 *  Returns true if there is another token on the current line.
+		 */
+		private boolean hasToken(){
+			while(position < lineEnd && isWhitespace(data[position])){
+				++position;
+			}
+			return position < lineEnd;
+		}
+		
+		/**
+		 *  Moves to the next token on the current line, throwing an exception if there isn't one.
+		 */
+		private void nextToken(){
+			if(!hasToken()){
+				throw new IllegalStateException("Expected more data on line.");
+			}
+			tokenStart = position;
+			while(position < lineEnd && !isWhitespace(data[position])){
+				++position;
+			}
+			tokenEnd = position;
+		}
+		
+		/**
+		 *  Throws an exception if there are any more tokens on the current line.
+		 */
+		private void checkLineEnd(){
+			if(hasToken()){
+				throw new IllegalStateException("Unexpected data at end of line.");
+			}
+		}
+		
+		/**
+		 *  Returns the index of the first or last passed-in character in the current token.
+		 *  Throws an exception if the token doesn't have it.
+		 */
+		private int indexOfToken(char character, boolean last){
+			if(last){
+				for(int i=tokenEnd-1; i>=tokenStart; --i){
+					if(data[i] == character){
+						return i;
+					}
+				}
+			}else{
+				for(int i=tokenStart; i<tokenEnd; ++i){
+					if(data[i] == character){
+						return i;
+					}
+				}
+			}
+			throw new IllegalStateException("Expected " + character + " in token.");
+		}
+		
+		/**
+		 *  Parses the next token as a float.
+		 */
+		private float nextFloat(){
+			nextToken();
+			int index = tokenStart;
+			boolean negative = false;
+			if(data[index] == '-' || data[index] == '+'){
+				negative = data[index] == '-';
+				++index;
+			}
+			
+			//Read the digits into a long, noting where the decimal point is.
+			long mantissa = 0;
+			int significantDigits = 0;
+			int fractionDigits = 0;
+			boolean foundDigit = false;
+			boolean foundPoint = false;
+			boolean isSimple = true;
+			for(; index<tokenEnd; ++index){
+				byte character = data[index];
+				if(character >= '0' && character <= '9'){
+					foundDigit = true;
+					if(mantissa != 0 || character != '0'){
+						++significantDigits;
+					}
+					mantissa = mantissa*10 + (character - '0');
+					if(foundPoint){
+						++fractionDigits;
+					}
+				}else if(character == '.' && !foundPoint){
+					foundPoint = true;
+				}else{
+					isSimple = false;
+					break;
+				}
+			}
+			
+			//If the number fits exactly in a double, dividing it by an exact power of ten gives the closest double to it.
+			//Rounding that to a float gives the closest float to the number, unless it's exactly half-way between two floats.
+			if(isSimple && foundDigit && significantDigits <= MAX_EXACT_DIGITS && fractionDigits < POWERS_OF_TEN.length){
+				double value = mantissa/POWERS_OF_TEN[fractionDigits];
+				if((Double.doubleToRawLongBits(value) & FLOAT_DROPPED_BITS_MASK) != FLOAT_HALFWAY_BITS){
+					return negative ? -(float) value : (float) value;
+				}
+			}
+			return Float.parseFloat(new String(data, tokenStart, tokenEnd - tokenStart, StandardCharsets.ISO_8859_1));
+		}
+		
+		/**
+		 *  Parses the bytes from start to end as an integer, with the same rules as {@link Integer#parseInt(String)}.
+		 */
+		private int parseInt(int start, int end){
+			int index = start;
+			boolean negative = false;
+			if(index < end && (data[index] == '-' || data[index] == '+')){
+				negative = data[index] == '-';
+				++index;
+			}
+			if(index >= end){
+				throw new NumberFormatException("Expected digits.");
+			}
+			int value = 0;
+			for(; index<end; ++index){
+				byte character = data[index];
+				if(character < '0' || character > '9'){
+					throw new NumberFormatException("Expected digits.");
+				}
+				value = value*10 + (character - '0');
+			}
+			return negative ? -value : value;
+		}
+		
+		private static boolean isWhitespace(byte character){
+			return character >= 0 && character <= ' ';
+		}
+	}
 }
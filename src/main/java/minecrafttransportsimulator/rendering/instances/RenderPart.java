@@ -8,6 +8,7 @@ import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.PartGun;
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
 import minecrafttransportsimulator.rendering.components.ARenderEntity;
+import minecrafttransportsimulator.rendering.components.PartInstanceBatch;
 
 public final class RenderPart extends ARenderEntity<APart>{
 		
@@ -16,11 +17,73 @@ public final class RenderPart extends ARenderEntity<APart>{
 		return part.definition.generic.useVehicleTexture ? part.entityOn.definition.getTextureLocation(part.entityOn.subName) : super.getTexture(part);
 	}
 	
+	@Override
+	protected BoundingBox getCullingBox(APart part){
+		//Parts are culled with the entity they are on, as its bounding box contains them.
+		return part.entityOn.boundingBox;
+	}
+	
 	@Override
 	public boolean disableMainRendering(APart part, float partialTicks){
+		//Instanced parts are rendered by the entity they are on.
+		return part.isFake() || part.isDisabled || isRenderedInstanced(part);
+	}
+	
+	@Override
+	public boolean disableParticles(APart part, float partialTicks){
+		//Instanced parts still spawn their own particles, as the entity they are on only renders their models.
 		return part.isFake() || part.isDisabled;
 	}
 	
+	/**
+	 *  Returns true if the part is rendered as an instance of its model by the entity it is on, rather than on its own.
+	 *  Bounding boxes aren't rendered for instances, so when they are shown, all parts render on their own.
+	 */
+	public boolean isRenderedInstanced(APart part){
+		return !part.isFake() && !part.isDisabled && !InterfaceRender.shouldRenderBoundingBoxes() && isModelInstanceable(part);
+	}
+	
+	/**
+	 *  Renders all parts in the passed-in group.  The texture and states are set once for the whole group,
+	 *  and the model is then rendered with the transform of each part.  The static objects of the model are
+	 *  rendered in one batch, and the animated objects are rendered with the animations of each part.
+	 *  Instanced parts only have solid objects, so this should only be called on the solid pass.
+	 */
+	public void renderInstances(PartInstanceBatch.Group group, float partialTicks){
+		double[] transforms = group.getTransforms();
+		InterfaceRender.setTexture(group.texture);
+		GL11.glShadeModel(GL11.GL_SMOOTH);
+		for(int i=0; i<group.parts.size(); ++i){
+			APart part = group.parts.get(i);
+			int index = i*PartInstanceBatch.TRANSFORM_SIZE;
+			
+			//Set lighting the same way as non-instanced parts, as parts on large entities may be in different light.
+			++part.position.y;
+			InterfaceRender.setLightingToPosition(part.position);
+			--part.position.y;
+			
+			GL11.glPushMatrix();
+			GL11.glTranslated(transforms[index], transforms[index + 1], transforms[index + 2]);
+			GL11.glRotated(transforms[index + 4], 0, 1, 0);
+			GL11.glRotated(transforms[index + 3], 1, 0, 0);
+			GL11.glRotated(transforms[index + 5], 0, 0, 1);
+			double scale = transforms[index + 6];
+			boolean mirrored = transforms[index + 7] != 0;
+			if(mirrored){
+				GL11.glScaled(-scale, scale, scale);
+				GL11.glCullFace(GL11.GL_FRONT);
+			}else if(scale != 1.0){
+				GL11.glScaled(scale, scale, scale);
+			}
+			renderModelObjects(part, group.modelLocation, false, true, partialTicks);
+			if(mirrored){
+				GL11.glCullFace(GL11.GL_BACK);
+			}
+			GL11.glPopMatrix();
+		}
+		InterfaceRender.resetStates();
+	}
+	
 	@Override
 	public boolean isMirrored(APart part){
 		return ((part.placementOffset.x < 0 && !part.placementDefinition.inverseMirroring) || (part.placementOffset.x >= 0 && part.placementDefinition.inverseMirroring)) && !part.disableMirroring;
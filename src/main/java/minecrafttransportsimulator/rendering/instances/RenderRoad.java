@@ -1,9 +1,10 @@
 package minecrafttransportsimulator.rendering.instances;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.lwjgl.opengl.GL11;
 
@@ -16,8 +17,8 @@ import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad.RoadComponent;
 import minecrafttransportsimulator.items.instances.ItemRoadComponent;
 import minecrafttransportsimulator.mcinterface.InterfaceRender;
-import minecrafttransportsimulator.rendering.components.AModelParser;
 import minecrafttransportsimulator.rendering.components.ARenderTileEntityBase;
+import minecrafttransportsimulator.rendering.components.RoadMeshCache;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 public class RenderRoad extends ARenderTileEntityBase<TileEntityRoad>{
@@ -33,6 +34,17 @@ public class RenderRoad extends ARenderTileEntityBase<TileEntityRoad>{
 		//If we haven't rendered the road yet, do so now.
 		//We cache it in a DisplayList, as there are a LOT of transforms done each component.
 		if(!roadCachedVertexMap.containsKey(road)){
+			//Roads are re-created when their chunks are re-loaded, so delete the DisplayLists of any roads that were removed.
+			Iterator<Entry<TileEntityRoad, Map<RoadComponent, Integer>>> iterator = roadCachedVertexMap.entrySet().iterator();
+			while(iterator.hasNext()){
+				Entry<TileEntityRoad, Map<RoadComponent, Integer>> cachedEntry = iterator.next();
+				if(!cachedEntry.getKey().isValid){
+					for(int displayListIndex : cachedEntry.getValue().values()){
+						InterfaceRender.deleteVertices(displayListIndex);
+					}
+					iterator.remove();
+				}
+			}
 			roadCachedVertexMap.put(road, new HashMap<RoadComponent, Integer>());
 		}
 		
@@ -51,111 +63,8 @@ public class RenderRoad extends ARenderTileEntityBase<TileEntityRoad>{
 			ItemRoadComponent componentItem = road.components.get(component);
 			
 			if(!cachedVertexMap.containsKey(component)){
-				int displayListIndex = GL11.glGenLists(1);
-				GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-				switch(component){
-					case CORE: {
-						Map<String, Float[][]> parsedModel = AModelParser.parseModel(componentItem.definition.getModelLocation(componentItem.subName));
-						GL11.glBegin(GL11.GL_TRIANGLES);
-						
-						//If we are a dynamic curve, cache the dynamic vertex paths.
-						//If we are static, just render the model as-is.
-						if(road.definition.road.isDynamic && road.dynamicCurve != null){
-							//Core components need to be transformed to wedges.
-							List<Float[]> transformedVertices = new ArrayList<Float[]>();
-							Point3d priorPosition = new Point3d();
-							Point3d priorRotation = new Point3d();
-							Point3d rotationDelta = new Point3d();
-							float priorIndex = 0;
-							
-							for(float currentIndex=1; currentIndex<=road.dynamicCurve.pathLength; ++currentIndex){
-								//Copy the master vertices to our transformed ones.
-								transformedVertices.clear();
-								for(Float[][] vertexSet : parsedModel.values()){
-									for(Float[] vertex : vertexSet){
-										transformedVertices.add(new Float[]{vertex[0], vertex[1], vertex[2], vertex[3], vertex[4], vertex[5], vertex[6], vertex[7]});
-									}
-								}
-								
-								//Get current and prior curve position and rotation.
-								//From this, we know how much to stretch the model to that point's rendering area.
-								road.dynamicCurve.setPointToPositionAt(priorPosition, priorIndex);
-								road.dynamicCurve.setPointToRotationAt(priorRotation, priorIndex);
-								road.dynamicCurve.setPointToPositionAt(position, currentIndex);
-								road.dynamicCurve.setPointToRotationAt(rotation, currentIndex);
-								
-								//If we are a really sharp curve, we might have inverted our model at the inner corner.
-								//Check for this, and if we have done so, skip this segment.
-								//If we detect this in the last 3 segments, skip right to the end.
-								//This prevents a missing end segment due to collision.
-								rotationDelta.setTo(rotation).subtract(priorRotation);
-								Point3d testPoint1 = new Point3d(road.definition.road.borderOffset, 0, 0).rotateFine(priorRotation).add(priorPosition);
-								Point3d testPoint2 = new Point3d(road.definition.road.borderOffset, 0, 0).rotateFine(rotation).add(position);
-								if(currentIndex != road.dynamicCurve.pathLength && (position.x - priorPosition.x)*(testPoint2.x - testPoint1.x) < 0 || (position.z - priorPosition.z)*(testPoint2.z - testPoint1.z) < 0){
-									if(currentIndex != road.dynamicCurve.pathLength && currentIndex + 3 > road.dynamicCurve.pathLength){
-										currentIndex = road.dynamicCurve.pathLength - 1;
-									}
-									continue;
-								}
-								
-								//Depending on the vertex position in the model, transform it to match with the offset rotation.
-								//This depends on how far the vertex is from the origin of the model, and how big the delta is.
-								//For all points, their magnitude depends on how far away they are on the Z-axis.
-								for(Float[] vertex : transformedVertices){
-									Point3d vertexOffsetPrior = new Point3d(vertex[0], vertex[1], 0);
-									vertexOffsetPrior.rotateFine(priorRotation).add(priorPosition);
-									Point3d vertexOffsetCurrent = new Point3d(vertex[0], vertex[1], vertex[2]);
-									vertexOffsetCurrent.rotateFine(rotation).add(position);
-									
-									Point3d segmentVector = vertexOffsetPrior.copy().subtract(vertexOffsetCurrent).multiply(Math.abs(vertex[2]));
-									Point3d renderedVertex = vertexOffsetCurrent.copy().add(segmentVector);
-									
-									GL11.glTexCoord2f(vertex[3], vertex[4]);
-									GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-									GL11.glVertex3d(renderedVertex.x, renderedVertex.y, renderedVertex.z);
-								}
-								
-								//Set the last index.
-								priorIndex = currentIndex;
-								
-								//If we are at the last index, do special logic to get the very end point.
-								if(currentIndex != road.dynamicCurve.pathLength && currentIndex + 1 > road.dynamicCurve.pathLength){
-									currentIndex -= ((currentIndex + 1) - road.dynamicCurve.pathLength);
-								}
-							}
-						}else if(!road.definition.road.isDynamic){
-							for(Float[][] vertexSet : parsedModel.values()){
-								for(Float[] vertex : vertexSet){
-									GL11.glTexCoord2f(vertex[3], vertex[4]);
-									GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-									//Need to offset by 0.5 to match the offset of the TE as we're block-aligned.
-									position.set(vertex[0] - 0.5, vertex[1], vertex[2] - 0.5);
-									position.rotateFine(road.rotation);
-									GL11.glVertex3d(position.x, position.y, position.z);
-								}
-							}
-						}
-						GL11.glEnd();
-					}
-					case LEFT_BORDER:
-						break;
-					case RIGHT_BORDER:
-						break;
-					case LEFT_MARKING:
-						break;
-					case CENTER_MARKING:
-						break;
-					case RIGHT_MARKING:
-						break;
-					case SUPPORT:
-						break;
-					case UNDERLAYMENT:
-						break;
-					default:
-						break;
-				}
-				GL11.glEndList();
-				cachedVertexMap.put(component, displayListIndex);
+				//Meshes are cached, so roads that were loaded before don't need to generate them again.
+				cachedVertexMap.put(component, InterfaceRender.cacheVertices(RoadMeshCache.getMesh(road, component, componentItem)));
 			}
 			
 			if(road.isActive()){
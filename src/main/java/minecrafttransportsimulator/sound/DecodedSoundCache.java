@@ -0,0 +1,116 @@
+package minecrafttransportsimulator.sound;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**Cache for decoded sound files.  Decoding a whole OGG file takes a while, so rather than decoding
+ * sounds on the client thread the first time they are played, sounds are requested when the entities
+ * that play them are loaded, and are decoded on background threads.  Stereo sounds are converted to mono
+ * while decoding, so the decoded data can be given straight to OpenAL.  Decoded sounds are kept in memory
+ * so they can be re-used if the sound system is reset, with the least-recently used sounds being removed
+ * when the total size of all decoded sounds gets too large.
+ *
+ * @author don_bruce
+ */
+public class DecodedSoundCache{
+	/**Max size of all decoded sound data, in bytes.**/
+	private static final long MAX_CACHE_SIZE = 64L*1024L*1024L;
+	private static final int DECODER_THREADS = 2;
+	/**Number of samples to convert at once when converting stereo sounds to mono.**/
+	private static final int CONVERSION_SAMPLES = 4096;
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(DECODER_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "MTS Sound Decoder");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Map<String, Future<DecodedFile>> decodingSounds = new HashMap<String, Future<DecodedFile>>();
+	/**Decoded sounds, in order of last use.  Only access when synchronized on this class.**/
+	private static final LinkedHashMap<String, DecodedFile> decodedSounds = new LinkedHashMap<String, DecodedFile>(16, 0.75F, true);
+	private static long cacheSize;
+
+	/**
+	 *  Requests the sound with the passed-in name be decoded.  If the sound is already
+	 *  decoded, or is being decoded, this does nothing.
+	 */
+	public static synchronized void requestSound(String soundName){
+		if(!decodedSounds.containsKey(soundName) && !decodingSounds.containsKey(soundName)){
+			decodingSounds.put(soundName, executor.submit(() -> decodeSound(soundName)));
+		}
+	}
+
+	/**
+	 *  Returns the decoded sound with the passed-in name, or null if it could not be decoded.
+	 *  The sound will always be mono.  If the sound hasn't finished decoding yet, this waits for it to.
+	 */
+	public static DecodedFile getSound(String soundName){
+		Future<DecodedFile> decodingSound;
+		synchronized(DecodedSoundCache.class){
+			DecodedFile sound = decodedSounds.get(soundName);
+			if(sound != null){
+				return sound;
+			}
+			requestSound(soundName);
+			decodingSound = decodingSounds.get(soundName);
+		}
+		try{
+			return decodingSound.get();
+		}catch(Exception e){
+			return null;
+		}
+	}
+
+	/**
+	 *  Combines a stereo-sampled ByteBufer into a mono-sampled one.
+	 *  This allows us to use mono-only sounds that support attenuation.
+	 *  Samples are converted in blocks, which is much faster than converting them one at a time.
+	 */
+	public static ByteBuffer stereoToMono(ByteBuffer stereoBuffer){
+		ShortBuffer stereoSamples = stereoBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+		ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.remaining()/2).order(ByteOrder.LITTLE_ENDIAN);
+		ShortBuffer monoSamples = monoBuffer.asShortBuffer();
+		short[] samples = new short[CONVERSION_SAMPLES];
+		while(stereoSamples.remaining() > 1){
+			//Only read whole left-right sample pairs.
+			int samplesRead = Math.min(samples.length, stereoSamples.remaining()) & ~1;
+			stereoSamples.get(samples, 0, samplesRead);
+			for(int i=0; i<samplesRead; i+=2){
+				samples[i/2] = (short) ((samples[i] + samples[i + 1])/2);
+			}
+			monoSamples.put(samples, 0, samplesRead/2);
+		}
+		return monoBuffer;
+	}
+
+	private static DecodedFile decodeSound(String soundName){
+		DecodedFile sound = OGGDecoder.parseInternalFile(soundName);
+		if(sound != null && sound.isStereo){
+			sound = new DecodedFile(false, sound.sampleRate, stereoToMono(sound.decodedData));
+		}
+		addSound(soundName, sound);
+		return sound;
+	}
+
+	private static synchronized void addSound(String soundName, DecodedFile sound){
+		decodingSounds.remove(soundName);
+		if(sound != null){
+			decodedSounds.put(soundName, sound);
+			cacheSize += sound.decodedData.capacity();
+
+			//Remove the least-recently used sounds until we are under the max size.  Always keep the sound we just added.
+			Iterator<DecodedFile> iterator = decodedSounds.values().iterator();
+			while(cacheSize > MAX_CACHE_SIZE && decodedSounds.size() > 1){
+				cacheSize -= iterator.next().decodedData.capacity();
+				iterator.remove();
+			}
+		}
+	}
+}
@@ -254,7 +254,7 @@ public class InterfaceSound{
 	 */
 	public static int createBuffer(ByteBuffer buffer, IStreamDecoder decoder){
 		if(decoder.isStereo()){
-			buffer = stereoToMono(buffer);
+			buffer = DecodedSoundCache.stereoToMono(buffer);
 		}
 		IntBuffer newDataBuffer = BufferUtils.createIntBuffer(1);
 		AL10.alGenBuffers(newDataBuffer);
@@ -328,26 +328,8 @@ public class InterfaceSound{
 	}
 	
 	/**
-	 *  Combines a stereo-sampled ByteBufer into a mono-sampled one.
-	 *  This allows us to use mono-only sounds that support attenuation.
-	 */
-	private static ByteBuffer stereoToMono(ByteBuffer stereoBuffer){
-		ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.limit()/2);
-		while(stereoBuffer.hasRemaining()){
-			//Combine samples using little-endian ordering.
-			byte[] sampleSet = new byte[4];
-			stereoBuffer.get(sampleSet);
-			int leftSample = (sampleSet[1] << 8) | (sampleSet[0] & 0xFF);
-			int rightSample = (sampleSet[3] << 8) | (sampleSet[2] & 0xFF);
-			int combinedSample = (leftSample + rightSample)/2;
-			monoBuffer.put((byte) (combinedSample & 0xFF));
-			monoBuffer.put((byte) (combinedSample >> 8));
-		}
-		return (ByteBuffer) monoBuffer.flip();
-	}
-	
-	/**
-	 *  Loads an OGG file in its entirety using the {@link InterfaceOGGDecoder}. 
+	 *  Loads an OGG file in its entirety using the {@link DecodedSoundCache}.  The sound will normally have been
+	 *  decoded in the background already, but if not, this will wait for it to finish decoding.
 	 *  The sound is then stored in a dataBuffer keyed by soundName located in {@link #dataSourceBuffers}.
 	 *  The pointer to the dataBuffer is returned for convenience as it allows for transparent sound caching.
 	 *  If a sound with the same name is passed-in at a later time, it is assumed to be the same and rather
@@ -359,16 +341,15 @@ public class InterfaceSound{
 			return dataSourceBuffers.get(soundName);
 		}else{
 			//Need to parse the data.  Do so now.
-			DecodedFile decoderOutput = OGGDecoder.parseInternalFile(soundName);
+			DecodedFile decoderOutput = DecodedSoundCache.getSound(soundName);
 			if(decoderOutput != null){
 				//Generate an IntBuffer to store a pointer to the data buffer.
 				IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
 		    	AL10.alGenBuffers(dataBufferPointers);
 		    	
 		    	//Bind the decoder output buffer to the data buffer pointer.
-		    	//If we are stereo, convert the data before binding.
-		    	ByteBuffer decoderData = decoderOutput.isStereo ? stereoToMono(decoderOutput.decodedData) : decoderOutput.decodedData;
-		    	AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decoderData, decoderOutput.sampleRate);
+		    	//Cached sounds are always mono, so we don't need to convert the data before binding.
+		    	AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decoderOutput.decodedData, decoderOutput.sampleRate);
 				
 		    	//Done parsing.  Map the dataBuffer(s) to the soundName and return the index.
 		    	dataSourceBuffers.put(soundName, dataBufferPointers.get(0));
@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.systems;
 
+import java.util.Arrays;
+
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityPlayerGun;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
@@ -22,6 +24,7 @@ import minecrafttransportsimulator.packets.instances.PacketPartGun;
 import minecrafttransportsimulator.packets.instances.PacketPartSeat;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlAnalog;
 import minecrafttransportsimulator.packets.instances.PacketVehicleControlDigital;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControlState;
 
 /**Class that handles all control operations.
  * 
@@ -31,6 +34,7 @@ public final class ControlSystem{
 	private static final int NULL_COMPONENT = 999;	
 	private static boolean joysticksInhibited = false;
 	private static WrapperPlayer clientPlayer;
+	private static final ControlState controlState = new ControlState();
 	
 	/**
 	 * Static initializer for the wrapper inputs, as we need to iterate through the enums to initialize them
@@ -71,6 +75,7 @@ public final class ControlSystem{
 		}else{
 			controlGroundVehicle(vehicle, isPlayerController);
 		}
+		controlState.sendChanges(vehicle);
 	}
 	
 	private static void controlCamera(ControlsKeyboard camLock, ControlsKeyboard zoomIn, ControlsKeyboard zoomOut, ControlsJoystick changeView){
@@ -132,7 +137,7 @@ public final class ControlSystem{
 		}else if(brakeValue > 0 && vehicle.parkingBrakeOn){
 			InterfacePacket.sendToServer(new PacketVehicleControlDigital(vehicle, PacketVehicleControlDigital.Controls.P_BRAKE, false));
 		}
-		InterfacePacket.sendToServer(new PacketVehicleControlAnalog(vehicle, PacketVehicleControlAnalog.Controls.BRAKE, brakeValue, Byte.MAX_VALUE));
+		controlState.setControl(PacketVehicleControlAnalog.Controls.BRAKE, brakeValue, Byte.MAX_VALUE);
 	}
 	
 	private static void controlGun(EntityVehicleF_Physics vehicle, ControlsKeyboard gunTrigger, ControlsKeyboard gunSwitch){
@@ -199,13 +204,13 @@ public final class ControlSystem{
 		
 		//Increment or decrement throttle.
 		if(InterfaceInput.isJoystickPresent(ControlsJoystick.AIRCRAFT_THROTTLE.config.joystickName)){
-			InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.AIRCRAFT_THROTTLE.getAxisState((short) 0), Byte.MAX_VALUE));
+			controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.AIRCRAFT_THROTTLE.getAxisState((short) 0), Byte.MAX_VALUE);
 		}else{
 			if(ControlsKeyboard.AIRCRAFT_THROTTLE_U.isPressed()){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.THROTTLE, (short) 1, (byte) 0));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) 1, (byte) 0);
 			}
 			if(ControlsKeyboard.AIRCRAFT_THROTTLE_D.isPressed()){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.THROTTLE, (short) -1, (byte) 0));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) -1, (byte) 0);
 			}
 		}		
 		
@@ -221,13 +226,13 @@ public final class ControlSystem{
 		
 		//Check yaw.
 		if(InterfaceInput.isJoystickPresent(ControlsJoystick.AIRCRAFT_YAW.config.joystickName)){
-			InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.RUDDER, ControlsJoystick.AIRCRAFT_YAW.getAxisState(EntityVehicleF_Physics.MAX_RUDDER_ANGLE), Byte.MAX_VALUE));
+			controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, ControlsJoystick.AIRCRAFT_YAW.getAxisState(EntityVehicleF_Physics.MAX_RUDDER_ANGLE), Byte.MAX_VALUE);
 		}else{
 			if(ControlsKeyboard.AIRCRAFT_YAW_R.isPressed()){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.RUDDER, (short) (ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(aircraft.rudderAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, (short) (ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(aircraft.rudderAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 			}
 			if(ControlsKeyboard.AIRCRAFT_YAW_L.isPressed()){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.RUDDER, (short) (-ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(aircraft.rudderAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, (short) (-ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(aircraft.rudderAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 			}
 		}
 		if(ControlsJoystick.AIRCRAFT_TRIM_YAW_R.isPressed()){
@@ -241,20 +246,20 @@ public final class ControlSystem{
 		if(ConfigSystem.configObject.clientControls.mouseYoke.value){
 			if(EntityVehicleF_Physics.lockCameraToMovement && InterfaceGUI.getActiveGUI() == null){
 				long mousePosition = InterfaceInput.getTrackedMouseInfo();
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.AILERON, (short) (mousePosition >> Integer.SIZE), Byte.MAX_VALUE));
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.ELEVATOR, (short) ((int) -mousePosition), Byte.MAX_VALUE));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.AILERON, (short) (mousePosition >> Integer.SIZE), Byte.MAX_VALUE);
+				controlState.setControl(PacketVehicleControlAnalog.Controls.ELEVATOR, (short) ((int) -mousePosition), Byte.MAX_VALUE);
 				
 			}
 		}else{
 			//Check pitch.
 			if(InterfaceInput.isJoystickPresent(ControlsJoystick.AIRCRAFT_PITCH.config.joystickName)){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.ELEVATOR, ControlsJoystick.AIRCRAFT_PITCH.getAxisState(EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE), Byte.MAX_VALUE));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.ELEVATOR, ControlsJoystick.AIRCRAFT_PITCH.getAxisState(EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE), Byte.MAX_VALUE);
 			}else{
 				if(ControlsKeyboard.AIRCRAFT_PITCH_U.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.ELEVATOR, (short) (ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.elevatorAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.ELEVATOR, (short) (ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.elevatorAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}
 				if(ControlsKeyboard.AIRCRAFT_PITCH_D.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.ELEVATOR, (short) (-ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.elevatorAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.ELEVATOR, (short) (-ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.elevatorAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}
 			}
 			if(ControlsJoystick.AIRCRAFT_TRIM_PITCH_U.isPressed()){
@@ -266,13 +271,13 @@ public final class ControlSystem{
 			
 			//Check roll.
 			if(InterfaceInput.isJoystickPresent(ControlsJoystick.AIRCRAFT_ROLL.config.joystickName)){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.AILERON, ControlsJoystick.AIRCRAFT_ROLL.getAxisState(EntityVehicleF_Physics.MAX_AILERON_ANGLE), Byte.MAX_VALUE));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.AILERON, ControlsJoystick.AIRCRAFT_ROLL.getAxisState(EntityVehicleF_Physics.MAX_AILERON_ANGLE), Byte.MAX_VALUE);
 			}else{
 				if(ControlsKeyboard.AIRCRAFT_ROLL_R.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.AILERON, (short) (ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.aileronAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.AILERON, (short) (ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.aileronAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}
 				if(ControlsKeyboard.AIRCRAFT_ROLL_L.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(aircraft, PacketVehicleControlAnalog.Controls.AILERON, (short) (-ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.aileronAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.AILERON, (short) (-ConfigSystem.configObject.clientControls.flightIncrement.value.shortValue()*(aircraft.aileronAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}
 			}
 			if(ControlsJoystick.AIRCRAFT_TRIM_ROLL_R.isPressed()){
@@ -311,14 +316,14 @@ public final class ControlSystem{
 				//Send throttle over if throttle if cruise control is off, or if throttle is less than the axis level.
 				short throttleLevel = ControlsJoystick.CAR_GAS.getAxisState((short) 0);
 				if(!powered.autopilot || powered.throttle < throttleLevel){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.CAR_GAS.getAxisState((short) 0), Byte.MAX_VALUE));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.CAR_GAS.getAxisState((short) 0), Byte.MAX_VALUE);
 				}
 			}else{
 				if(ControlsKeyboard.CAR_GAS.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, (short) 1, (byte) 0));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) 1, (byte) 0);
 				}
 				if(ControlsKeyboard.CAR_BRAKE.isPressed() || ControlsJoystick.CAR_BRAKE_DIGITAL.isPressed()){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, (short) -1, (byte) 0));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) -1, (byte) 0);
 				}
 			}
 		}else{
@@ -359,13 +364,13 @@ public final class ControlSystem{
 					//Otherwise send normal values if we are in neutral or forwards,
 					//and invert controls if we are in a reverse gear.
 					if(throttleValue == 0 && brakeValue == 0 && powered.axialVelocity < PartEngine.MAX_SHIFT_SPEED){
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.BRAKE, EntityVehicleF_Physics.MAX_BRAKE, Byte.MAX_VALUE));
+						controlState.setControl(PacketVehicleControlAnalog.Controls.BRAKE, EntityVehicleF_Physics.MAX_BRAKE, Byte.MAX_VALUE);
 					}else if(currentGear >= 0){
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.BRAKE, brakeValue, Byte.MAX_VALUE));
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, throttleValue, Byte.MAX_VALUE));
+						controlState.setControl(PacketVehicleControlAnalog.Controls.BRAKE, brakeValue, Byte.MAX_VALUE);
+						controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, throttleValue, Byte.MAX_VALUE);
 					}else{
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.BRAKE, throttleValue, Byte.MAX_VALUE));
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, brakeValue, Byte.MAX_VALUE));
+						controlState.setControl(PacketVehicleControlAnalog.Controls.BRAKE, throttleValue, Byte.MAX_VALUE);
+						controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, brakeValue, Byte.MAX_VALUE);
 					}
 				}
 			}else{
@@ -375,25 +380,25 @@ public final class ControlSystem{
 					//Send throttle over if throttle if cruise control is off, or if throttle is less than the axis level.
 					short throttleLevel = ControlsJoystick.CAR_GAS.getAxisState((short) 0);
 					if(!powered.autopilot || powered.throttle < throttleLevel){
-						InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.CAR_GAS.getAxisState((short) 0), Byte.MAX_VALUE));
+						controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, ControlsJoystick.CAR_GAS.getAxisState((short) 0), Byte.MAX_VALUE);
 					}
 				}else{
 					if(ControlsKeyboardDynamic.CAR_SLOW.isPressed()){
 						if(!ConfigSystem.configObject.clientControls.halfThrottle.value){
-							InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, (short) (EntityVehicleF_Physics.MAX_THROTTLE/2), Byte.MAX_VALUE));
+							controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) (EntityVehicleF_Physics.MAX_THROTTLE/2), Byte.MAX_VALUE);
 						}else{
-							InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE, Byte.MAX_VALUE));
+							controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE, Byte.MAX_VALUE);
 						}
 					}else if(ControlsKeyboard.CAR_GAS.isPressed()){
 						if(!ConfigSystem.configObject.clientControls.halfThrottle.value){
-							InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE, Byte.MAX_VALUE));
+							controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE, Byte.MAX_VALUE);
 						}else{
-							InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, (short) (EntityVehicleF_Physics.MAX_THROTTLE/2), Byte.MAX_VALUE));
+							controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) (EntityVehicleF_Physics.MAX_THROTTLE/2), Byte.MAX_VALUE);
 						}
 					}else{
 						//Don't send gas off packet if we have cruise on.
 						if(!powered.autopilot){
-							InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.THROTTLE, (short) 0, Byte.MAX_VALUE));
+							controlState.setControl(PacketVehicleControlAnalog.Controls.THROTTLE, (short) 0, Byte.MAX_VALUE);
 						}
 					}
 				}
@@ -404,11 +409,11 @@ public final class ControlSystem{
 		if(ConfigSystem.configObject.clientControls.mouseYoke.value){
 			if(EntityVehicleF_Physics.lockCameraToMovement && InterfaceGUI.getActiveGUI() == null){
 				long mousePosition = InterfaceInput.getTrackedMouseInfo();
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.RUDDER, (short) (mousePosition >> Integer.SIZE), Byte.MAX_VALUE));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, (short) (mousePosition >> Integer.SIZE), Byte.MAX_VALUE);
 			}
 		}else{
 			if(InterfaceInput.isJoystickPresent(ControlsJoystick.CAR_TURN.config.joystickName)){
-				InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.RUDDER, ControlsJoystick.CAR_TURN.getAxisState(EntityVehicleF_Physics.MAX_RUDDER_ANGLE), Byte.MAX_VALUE));
+				controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, ControlsJoystick.CAR_TURN.getAxisState(EntityVehicleF_Physics.MAX_RUDDER_ANGLE), Byte.MAX_VALUE);
 				if(powered.locationRiderMap.containsValue(clientPlayer)){
 					if(powered.slipping){
 						InterfaceInput.setJoystickRumble(ControlsJoystick.CAR_TURN.config.joystickName, (float) Math.max(powered.velocity, 1));
@@ -422,9 +427,9 @@ public final class ControlSystem{
 				boolean turningRight = ControlsKeyboard.CAR_TURN_R.isPressed();
 				boolean turningLeft = ControlsKeyboard.CAR_TURN_L.isPressed();
 				if(turningRight && !turningLeft){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.RUDDER, (short) (ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(powered.rudderAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, (short) (ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(powered.rudderAngle < 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}else if(turningLeft && !turningRight){
-					InterfacePacket.sendToServer(new PacketVehicleControlAnalog(powered, PacketVehicleControlAnalog.Controls.RUDDER, (short) (-ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(powered.rudderAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue()));
+					controlState.setControl(PacketVehicleControlAnalog.Controls.RUDDER, (short) (-ConfigSystem.configObject.clientControls.steeringIncrement.value.shortValue()*(powered.rudderAngle > 0 ? 2 : 1)), ConfigSystem.configObject.clientControls.controlSurfaceCooldown.value.byteValue());
 				}
 			}
 		}
@@ -489,6 +494,98 @@ public final class ControlSystem{
 		}
 	}
 
+	/**Snapshot of the analog controls the client wants to set on the vehicle it is controlling.  Controls are
+	 * set in this snapshot by the control methods, and all changes are then sent to the server in one
+	 * {@link PacketVehicleControlState} at the end of the tick.  Controls that are set to a value, such as joystick axis,
+	 * are only sent if they differ from the last value sent by more than the dead-band, or if the vehicle's value no
+	 * longer matches what was sent, which happens if the server changed it.  They are also re-sent occasionally to keep
+	 * the control surface cooldowns from running out.  Controls that are incremented, such as by keyboard presses,
+	 * are always sent, as every increment is a change.
+	 *
+	 * @author don_bruce
+	 */
+	private static class ControlState{
+		/**Ticks to wait for the vehicle to match a sent value before assuming the server changed it.**/
+		private static final int RESEND_TICKS = 10;
+		/**Ticks between re-sending held values.  Must be less than the cooldown for set values.**/
+		private static final int KEEP_ALIVE_TICKS = Byte.MAX_VALUE/2;
+		
+		private final boolean[] isSet = new boolean[PacketVehicleControlAnalog.Controls.values().length];
+		private final boolean[] isIncrement = new boolean[isSet.length];
+		private final short[] values = new short[isSet.length];
+		private final byte[] cooldowns = new byte[isSet.length];
+		private final boolean[] isSent = new boolean[isSet.length];
+		private final short[] sentValues = new short[isSet.length];
+		private final long[] sentTicks = new long[isSet.length];
+		private EntityVehicleF_Physics vehicle;
+		private long tick;
+		
+		/**
+		 *  Sets the passed-in control.  Value and cooldown work the same as for {@link PacketVehicleControlAnalog}.
+		 *  Multiple increments to the same control in a tick are added together.
+		 */
+		private void setControl(PacketVehicleControlAnalog.Controls control, short value, byte cooldown){
+			int index = control.ordinal();
+			if(cooldown == Byte.MAX_VALUE){
+				values[index] = value;
+				isIncrement[index] = false;
+			}else{
+				values[index] = (short) ((isSet[index] && isIncrement[index] ? values[index] : 0) + value);
+				isIncrement[index] = true;
+			}
+			cooldowns[index] = cooldown;
+			isSet[index] = true;
+		}
+		
+		/**
+		 *  Sends all controls that changed this tick to the server, and clears them for the next tick.
+		 */
+		private void sendChanges(EntityVehicleF_Physics vehicle){
+			if(vehicle != this.vehicle){
+				Arrays.fill(isSent, false);
+				this.vehicle = vehicle;
+			}
+			++tick;
+			
+			byte changedControls = 0;
+			int deadBand = ConfigSystem.configObject.clientControls.controlDeadBand.value;
+			for(PacketVehicleControlAnalog.Controls control : PacketVehicleControlAnalog.Controls.values()){
+				int index = control.ordinal();
+				if(isSet[index]){
+					if(isIncrement[index]){
+						changedControls |= 1 << index;
+						isSent[index] = false;
+					}else{
+						short value = (short) Math.max(control.min, Math.min(control.max, values[index]));
+						long ticksSinceSent = tick - sentTicks[index];
+						boolean changed = !isSent[index] || ticksSinceSent >= KEEP_ALIVE_TICKS;
+						if(!changed && value != sentValues[index]){
+							//Always send the center and ends of controls, otherwise they would never be reached with a dead-band.
+							changed = Math.abs(value - sentValues[index]) > deadBand || value == 0 || value == control.min || value == control.max;
+						}
+						if(!changed && ticksSinceSent >= RESEND_TICKS){
+							changed = PacketVehicleControlAnalog.getControl(vehicle, control) != sentValues[index];
+						}
+						if(changed){
+							values[index] = value;
+							changedControls |= 1 << index;
+							isSent[index] = true;
+							sentValues[index] = value;
+							sentTicks[index] = tick;
+						}
+					}
+					isSet[index] = false;
+				}else{
+					//Not set this tick, so the next value set needs to be sent regardless of what it is.
+					isSent[index] = false;
+				}
+			}
+			if(changedControls != 0){
+				InterfacePacket.sendToServer(new PacketVehicleControlState(vehicle, changedControls, values, cooldowns));
+			}
+		}
+	}
+
 	/**List of enums representing all controls present.  Add new controls by adding their enum values here
 	 *
 	 * @author don_bruce
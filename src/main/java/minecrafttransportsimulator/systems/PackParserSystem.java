@@ -3,15 +3,18 @@ package minecrafttransportsimulator.systems;
 import java.io.File;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -44,6 +47,7 @@ import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceCore;
 import minecrafttransportsimulator.packloading.JSONParser;
 import minecrafttransportsimulator.packloading.LegacyCompatSystem;
+import minecrafttransportsimulator.packloading.PackDefinitionCache;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
 import minecrafttransportsimulator.packloading.PackResourceLoader.PackStructure;
 
@@ -251,7 +255,9 @@ public final class PackParserSystem{
      * create and register your pack items and use {@link #registerItem(AJSONItem)}.
      */
     private static void parseAllPacks(){
+    	//First get the sub-directories to load for all packs.
     	List<String> packIDs = new ArrayList<String>(packMap.keySet());
+    	Map<JSONPack, List<String>> packSubDirectories = new LinkedHashMap<JSONPack, List<String>>();
     	Iterator<String> iterator = packMap.keySet().iterator();
     	while(iterator.hasNext()){
     		JSONPack packDef = packMap.get(iterator.next());
@@ -304,21 +310,50 @@ public final class PackParserSystem{
     			}
     		}
     		
-    		//Load the pack components into the game.
-    		//We iterate over all the sub-folders we found from the packDef checks.
-    		PackStructure structure = PackStructure.values()[packDef.fileStructure];
-    		for(String subDirectory : validSubDirectories){
-	    		String assetPathPrefix = "assets/" + packDef.packID + "/";
-				if(!subDirectory.isEmpty()){
-					assetPathPrefix += subDirectory + "/";
-				}
-				
-				try{
-		    		ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
-					Enumeration<? extends ZipEntry> entries = jarFile.entries();
-					while(entries.hasMoreElements()){
-						//Get next entry and path.
-						ZipEntry entry = entries.nextElement();
+    		packSubDirectories.put(packDef, validSubDirectories);
+    	}
+    	
+    	//Load the definitions for all packs.  This is done in parallel, as it's the bulk of the loading time.
+    	//Preparing and registration are done afterwards in pack order, as legacy compats and item creation
+    	//aren't thread-safe, and order matters.
+    	List<LoadedPack> loadedPacks = packSubDirectories.entrySet().parallelStream().map(packEntry -> loadPackDefinitions(packEntry.getKey(), packEntry.getValue())).collect(Collectors.toList());
+    	for(LoadedPack loadedPack : loadedPacks){
+    		if(!loadedPack.fromCache){
+    			preparePackDefinitions(loadedPack);
+    		}
+    		for(AJSONItem definition : loadedPack.definitions){
+    			createItems(definition);
+    		}
+    	}
+    }
+    
+    /**
+     * Helper method to load all definitions for the passed-in pack.  If the pack is cached, the cached
+     * definitions are returned, which have had legacy compats performed and have been validated.  Otherwise, the
+     * pack is parsed from its jar, and the definitions need to be prepared via {@link #preparePackDefinitions(LoadedPack)}.
+     */
+    private static LoadedPack loadPackDefinitions(JSONPack packDef, List<String> validSubDirectories){
+    	File packJar = packJarMap.get(packDef.packID);
+    	List<AJSONItem> definitions = PackDefinitionCache.loadDefinitions(packJar, packDef.packID, validSubDirectories);
+    	if(definitions != null){
+    		return new LoadedPack(packDef, validSubDirectories, definitions, true, false);
+    	}else{
+    		definitions = new ArrayList<AJSONItem>();
+    		boolean hadErrors = false;
+	    	try{
+	    		ZipFile jarFile = new ZipFile(packJar);
+	    		
+	    		//Get all the JSONs we need to parse.  We iterate over all the sub-folders we found from the packDef checks.
+	    		List<PackEntry> packEntries = new ArrayList<PackEntry>();
+	    		PackStructure structure = PackStructure.values()[packDef.fileStructure];
+	    		List<? extends ZipEntry> entries = Collections.list(jarFile.entries());
+	    		for(String subDirectory : validSubDirectories){
+		    		String assetPathPrefix = "assets/" + packDef.packID + "/";
+					if(!subDirectory.isEmpty()){
+						assetPathPrefix += subDirectory + "/";
+					}
+					
+					for(ZipEntry entry : entries){
 						String entryFullPath = entry.getName();
 						if(entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")){
 							//JSON is in correct folder.  Get path properties and ensure they match our specs.
@@ -345,40 +380,86 @@ public final class PackParserSystem{
 									classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
 								}catch(Exception e){
 									InterfaceCore.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
+									hadErrors = true;
 									continue;
 								}
-								
-								//Create the JSON instance.
-								String systemName = fileName.substring(0, fileName.length() - ".json".length());
-								AJSONItem definition;
-								try{
-									definition = JSONParser.parseStream(new InputStreamReader(jarFile.getInputStream(entry), "UTF-8"), classification.representingClass, packDef.packID, systemName);
-								}catch(Exception e){
-									InterfaceCore.logError("Could not parse: " + packDef.packID + ":" + fileName);
-						    		InterfaceCore.logError(e.getMessage());
-						    		continue;
-								}
-								
-								//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
-								//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
-								//if we are loading a non-default pack format.
-								definition.packID = packDef.packID;
-								definition.systemName = systemName;
-								definition.classification = classification;
-								definition.prefixFolders = assetPath.substring(classification.toDirectory().length()); 
-								registerItem(definition);
+								packEntries.add(new PackEntry(entry, fileName, assetPath, classification));
 							}
 						}
 					}
-					
-					//Done parsing.  Close the jarfile.
-					jarFile.close();
-				}catch(Exception e){
-					InterfaceCore.logError("Could not start parsing of pack: " + packDef.packID);
-					e.printStackTrace();
-				}
+	    		}
+	    		
+	    		//Parse all the JSONs.  Entries that fail to parse are returned as null.
+	    		List<AJSONItem> parsedDefinitions = packEntries.parallelStream().map(packEntry -> parseDefinition(jarFile, packDef, packEntry)).collect(Collectors.toList());
+	    		for(AJSONItem definition : parsedDefinitions){
+	    			if(definition != null){
+	    				definitions.add(definition);
+	    			}else{
+	    				hadErrors = true;
+	    			}
+	    		}
+	    		
+	    		//Done parsing.  Close the jarfile.
+				jarFile.close();
+	    	}catch(Exception e){
+				InterfaceCore.logError("Could not start parsing of pack: " + packDef.packID);
+				e.printStackTrace();
+				hadErrors = true;
+			}
+	    	return new LoadedPack(packDef, validSubDirectories, definitions, false, hadErrors);
+    	}
+    }
+    
+    /**
+     * Helper method to prepare the definitions of the passed-in pack that was parsed from its jar.
+     * Definitions that fail to prepare are removed.  The prepared definitions are then cached if there
+     * were no errors.  This is done on the loading thread, one definition at a time, as legacy compats
+     * may load models and modify shared state.
+     */
+    private static void preparePackDefinitions(LoadedPack loadedPack){
+    	List<byte[]> definitionData = new ArrayList<byte[]>();
+    	boolean hadErrors = loadedPack.hadParsingErrors;
+    	Iterator<AJSONItem> iterator = loadedPack.definitions.iterator();
+    	while(iterator.hasNext()){
+    		AJSONItem definition = iterator.next();
+    		if(prepareDefinition(definition)){
+    			definitionData.add(PackDefinitionCache.getCacheData(definition));
+    		}else{
+    			iterator.remove();
+    			hadErrors = true;
     		}
     	}
+    	
+    	//Only cache packs without errors.  Otherwise, we wouldn't show the errors on the next launch.
+    	if(!hadErrors){
+    		PackDefinitionCache.saveDefinitions(packJarMap.get(loadedPack.packDef.packID), loadedPack.packDef.packID, loadedPack.validSubDirectories, loadedPack.definitions, definitionData);
+    	}
+    }
+    
+    /**
+     * Helper method to parse the definition for the passed-in entry of a pack jar.  The definition
+     * still needs to be prepared via {@link #prepareDefinition(AJSONItem)}.  If parsing fails, null is returned.
+     */
+    private static AJSONItem parseDefinition(ZipFile jarFile, JSONPack packDef, PackEntry packEntry){
+    	//Create the JSON instance.
+		String systemName = packEntry.fileName.substring(0, packEntry.fileName.length() - ".json".length());
+		AJSONItem definition;
+		try{
+			definition = JSONParser.parseStream(new InputStreamReader(jarFile.getInputStream(packEntry.entry), "UTF-8"), packEntry.classification.representingClass, packDef.packID, systemName);
+		}catch(Exception e){
+			InterfaceCore.logError("Could not parse: " + packDef.packID + ":" + packEntry.fileName);
+    		InterfaceCore.logError(e.getMessage());
+    		return null;
+		}
+		
+		//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
+		//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
+		//if we are loading a non-default pack format.
+		definition.packID = packDef.packID;
+		definition.systemName = systemName;
+		definition.classification = packEntry.classification;
+		definition.prefixFolders = packEntry.assetPath.substring(packEntry.classification.toDirectory().length());
+		return definition;
     }
     
     /**
@@ -396,13 +477,35 @@ public final class PackParserSystem{
      * A fault in the compatibility system or in the validation will result in the item not being registered. 
      */
     public static void registerItem(AJSONItem itemDef){
+    	if(prepareDefinition(itemDef)){
+    		createItems(itemDef);
+    	}
+    }
+    
+    /**
+     * Helper method to perform legacy compats on, and validate, the passed-in definition.
+     * Returns true if this succeeded, false if the definition is invalid and should not be registered.
+     */
+    private static boolean prepareDefinition(AJSONItem itemDef){
     	try{
 	    	//Do legacy compats before validating the JSON.
 	    	//This will populate any required fields that were not in older versions.
 			LegacyCompatSystem.performLegacyCompats(itemDef);
 			JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
-	    			
-	    	//Create all required items.
+			return true;
+    	}catch(Exception e){
+    		InterfaceCore.logError(e.getMessage());
+    		return false;
+    	}
+    }
+    
+    /**
+     * Helper method to create all items for the passed-in definition, and add them to the registry.
+     * The definition should have been prepared via {@link #prepareDefinition(AJSONItem)} prior to this call.
+     */
+    private static void createItems(AJSONItem itemDef){
+    	try{
+			//Create all required items.
 			if(itemDef instanceof AJSONMultiModelProvider){
 				//Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
 				//We don't create skin items right away as the pack they go to might not yet be loaded.
@@ -577,4 +680,40 @@ public final class PackParserSystem{
     	}
     	return packItems;
     }
+    
+    /**
+     * Class used to hold the JSON entries of a pack jar while they wait to be parsed.
+     */
+    private static class PackEntry{
+    	private final ZipEntry entry;
+    	private final String fileName;
+    	private final String assetPath;
+    	private final ItemClassification classification;
+    	
+    	private PackEntry(ZipEntry entry, String fileName, String assetPath, ItemClassification classification){
+    		this.entry = entry;
+    		this.fileName = fileName;
+    		this.assetPath = assetPath;
+    		this.classification = classification;
+    	}
+    }
+    
+    /**
+     * Helper class for the definitions loaded for a pack, and if they came from the cache.
+     */
+    private static class LoadedPack{
+    	private final JSONPack packDef;
+    	private final List<String> validSubDirectories;
+    	private final List<AJSONItem> definitions;
+    	private final boolean fromCache;
+    	private final boolean hadParsingErrors;
+    	
+    	private LoadedPack(JSONPack packDef, List<String> validSubDirectories, List<AJSONItem> definitions, boolean fromCache, boolean hadParsingErrors){
+    		this.packDef = packDef;
+    		this.validSubDirectories = validSubDirectories;
+    		this.definitions = definitions;
+    		this.fromCache = fromCache;
+    		this.hadParsingErrors = hadParsingErrors;
+    	}
+    }
 }
@@ -0,0 +1,102 @@
+package minecrafttransportsimulator.systems;
+
+import java.awt.Color;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.entities.components.AEntityC_Definable;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.InterfaceRender;
+import minecrafttransportsimulator.mcinterface.WrapperWorld;
+import minecrafttransportsimulator.rendering.components.ParticlePool;
+
+/**System for handling particles.  Particles are client-side only, and are kept in a
+ * {@link ParticlePool} for each type rather than being entities.  Spawning particles adds
+ * them to the pool for their type, and tells the interface to render the pools.  The interface
+ * is also responsible for calling the update methods for the pools each tick.  Only one world
+ * has particles at a time, so if particles are spawned in a new world, the old ones are removed.
+ *
+ * @author don_bruce
+ */
+public class ParticleSystem{
+	private static final Map<ParticleType, ParticlePool> pools = new EnumMap<ParticleType, ParticlePool>(ParticleType.class);
+	private static final Map<JSONParticle, float[]> colors = new HashMap<JSONParticle, float[]>();
+	private static final Point3d spawnPosition = new Point3d();
+	private static final Point3d spawnMotion = new Point3d();
+	private static WrapperWorld particleWorld;
+
+	static{
+		for(ParticleType type : ParticleType.values()){
+			pools.put(type, new ParticlePool(type));
+		}
+	}
+
+	/**
+	 *  Spawns a particle from the passed-in entity with the passed-in definition.
+	 */
+	public static void spawnParticle(AEntityC_Definable<?> entitySpawning, JSONParticle definition){
+		if(entitySpawning.world != particleWorld){
+			for(ParticlePool pool : pools.values()){
+				pool.clear();
+			}
+			particleWorld = entitySpawning.world;
+		}
+
+		spawnPosition.setTo(entitySpawning.position);
+		if(definition.pos != null){
+			spawnPosition.add(spawnMotion.setTo(definition.pos).rotateFine(entitySpawning.angles));
+		}
+		if(definition.initialVelocity != null){
+			//Set initial velocity, but add some randomness so particles don't all go in a line.
+			spawnMotion.setTo(definition.initialVelocity).rotateFine(entitySpawning.angles);
+			spawnMotion.x = spawnMotion.x/10D + 0.02 - Math.random()*0.04;
+			spawnMotion.y = spawnMotion.y/10D + 0.02 - Math.random()*0.04;
+			spawnMotion.z = spawnMotion.z/10D + 0.02 - Math.random()*0.04;
+		}else{
+			spawnMotion.set(0, 0, 0);
+		}
+
+		boolean blockTextured = definition.type.equals(ParticleType.BREAK);
+		float[] textureBounds = blockTextured ? InterfaceRender.getBlockTextureBounds(spawnPosition.copy().add(0, -1, 0)) : null;
+		if(pools.get(definition.type).spawn(definition, spawnPosition, spawnMotion, getColor(definition), textureBounds) != -1){
+			InterfaceRender.addParticleRenderer(particleWorld, blockTextured);
+		}
+	}
+
+	/**
+	 *  Updates all particles that are, or are not, block-textured.  Block-textured particles
+	 *  are updated separately from the others, as they are rendered separately.
+	 */
+	public static void updateParticles(boolean blockTextured){
+		for(ParticlePool pool : pools.values()){
+			if(pool.type.equals(ParticleType.BREAK) == blockTextured){
+				pool.update(particleWorld);
+			}
+		}
+	}
+
+	/**
+	 *  Returns the pool for the passed-in particle type.  Used for rendering.
+	 */
+	public static ParticlePool getPool(ParticleType type){
+		return pools.get(type);
+	}
+
+	/**
+	 *  Returns the starting and ending RGB values for particles with the passed-in definition.
+	 *  Values are decoded once and then cached, as decoding them for every particle is wasteful.
+	 */
+	private static float[] getColor(JSONParticle definition){
+		float[] color = colors.get(definition);
+		if(color == null){
+			Color startColor = definition.color != null ? Color.decode(definition.color) : Color.WHITE;
+			Color endColor = definition.color != null && definition.toColor != null ? Color.decode(definition.toColor) : startColor;
+			color = new float[]{startColor.getRed()/255F, startColor.getGreen()/255F, startColor.getBlue()/255F, endColor.getRed()/255F, endColor.getGreen()/255F, endColor.getBlue()/255F};
+			colors.put(definition, color);
+		}
+		return color;
+	}
+}
@@ -0,0 +1,303 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.mcinterface.WrapperWorld;
+
+/**Class responsible for profiling how long entity updates take on the server.  Code to be profiled calls
+ * {@link #start(WrapperWorld)} before the section and {@link #end(Section, AJSONItem, long)} after it.  The time is then added to the
+ * histogram for that section and the pack item of the entity that did it.  Histograms are kept per-thread,
+ * and are pre-allocated, so profiling does not create objects or lock anything, save for the first time a
+ * thread or pack item is seen.  Profiling is off by default, in which case these calls do nothing.
+ * Results are combined from all threads when they are printed or exported.
+ *
+ * @author don_bruce
+ */
+public final class ProfilerSystem{
+	/**Number of histogram buckets.  Bucket n holds times from 2^n to 2^(n+1) nanoseconds.**/
+	private static final int BUCKETS = 40;
+	/**Index for sections not done by a pack item.**/
+	private static final int NO_ITEM_INDEX = 0;
+
+	private static volatile boolean enabled;
+	private static final Map<AJSONItem, Integer> itemIndexes = new ConcurrentHashMap<AJSONItem, Integer>();
+	private static final List<String> itemNames = new ArrayList<String>();
+	private static final List<ThreadProfile> threadProfiles = new ArrayList<ThreadProfile>();
+	private static final ThreadLocal<ThreadProfile> threadProfile = ThreadLocal.withInitial(() -> {
+		ThreadProfile profile = new ThreadProfile();
+		synchronized(threadProfiles){
+			threadProfiles.add(profile);
+		}
+		return profile;
+	});
+
+	static{
+		itemNames.add("-");
+	}
+
+	/**
+	 *  Turns profiling on or off.  Data is kept when profiling is turned off.
+	 */
+	public static void setEnabled(boolean enable){
+		enabled = enable;
+	}
+
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 *  Clears all profiling data.
+	 */
+	public static void reset(){
+		synchronized(threadProfiles){
+			for(ThreadProfile profile : threadProfiles){
+				profile.reset = true;
+			}
+		}
+	}
+
+	/**
+	 *  Call before a profiled section in the passed-in world.  The returned value should be passed to
+	 *  {@link #end(Section, AJSONItem, long)} at the end of the section.  Only server worlds are profiled.
+	 */
+	public static long start(WrapperWorld world){
+		return enabled && !world.isClient() ? System.nanoTime() : 0;
+	}
+
+	/**
+	 *  Call after a profiled section.  Adds the time since the passed-in start time to the
+	 *  passed-in section for the passed-in item.  The item may be null if the section isn't
+	 *  done by a pack item.  If profiling was off when the section started, this does nothing.
+	 */
+	public static void end(Section section, AJSONItem item, long startTime){
+		if(startTime != 0 && enabled){
+			long duration = System.nanoTime() - startTime;
+			threadProfile.get().add(section, getItemIndex(item), duration);
+		}
+	}
+
+	/**
+	 *  Returns the results for the passed-in number of section and item combinations that took the most
+	 *  total time, as lines of text.  The first line is a header for the lines after it.
+	 */
+	public static List<String> getTopResults(int count){
+		List<Result> results = getResults();
+		results.sort((result1, result2) -> Long.compare(result2.totalTime, result1.totalTime));
+		List<String> lines = new ArrayList<String>();
+		lines.add("Section | Item | Calls | Total ms | Avg us | P99 us | Max us");
+		for(Result result : results.subList(0, Math.min(count, results.size()))){
+			lines.add(String.format("%s | %s | %d | %.2f | %.2f | %.2f | %.2f", result.section.name(), result.itemName, result.calls, result.totalTime/1000000D, result.totalTime/1000D/result.calls, result.getPercentile(0.99)/1000D, result.maxTime/1000D));
+		}
+		return lines;
+	}
+
+	/**
+	 *  Exports all results to the passed-in file as CSV.  Histogram buckets are included, so
+	 *  the distribution of times can be analyzed.  Returns true if the export was successful.
+	 */
+	public static boolean exportResults(File file){
+		try(PrintWriter writer = new PrintWriter(file, "UTF-8")){
+			StringBuilder header = new StringBuilder("section,item,calls,totalNanos,maxNanos");
+			for(int i=0; i<BUCKETS; ++i){
+				header.append(",bucket").append(i);
+			}
+			writer.println(header);
+			for(Result result : getResults()){
+				StringBuilder line = new StringBuilder();
+				line.append(result.section.name()).append(',').append(result.itemName).append(',').append(result.calls).append(',').append(result.totalTime).append(',').append(result.maxTime);
+				for(long bucketCount : result.buckets){
+					line.append(',').append(bucketCount);
+				}
+				writer.println(line);
+			}
+			return true;
+		}catch(Exception e){
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	private static int getItemIndex(AJSONItem item){
+		if(item == null){
+			return NO_ITEM_INDEX;
+		}
+		Integer index = itemIndexes.get(item);
+		if(index == null){
+			synchronized(itemNames){
+				index = itemIndexes.get(item);
+				if(index == null){
+					index = itemNames.size();
+					itemNames.add(item.packID + ":" + item.systemName);
+					itemIndexes.put(item, index);
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 *  Combines the data from all threads into results.  Only section and item combinations
+	 *  that were called are included.
+	 */
+	private static List<Result> getResults(){
+		List<String> names;
+		synchronized(itemNames){
+			names = new ArrayList<String>(itemNames);
+		}
+		Result[][] results = new Result[Section.values().length][names.size()];
+		synchronized(threadProfiles){
+			for(ThreadProfile profile : threadProfiles){
+				if(!profile.reset){
+					for(Section section : Section.values()){
+						SectionProfile sectionProfile = profile.sections[section.ordinal()];
+						for(int itemIndex=0; itemIndex<Math.min(names.size(), sectionProfile.calls.length); ++itemIndex){
+							if(sectionProfile.calls[itemIndex] > 0){
+								if(results[section.ordinal()][itemIndex] == null){
+									results[section.ordinal()][itemIndex] = new Result(section, names.get(itemIndex));
+								}
+								results[section.ordinal()][itemIndex].add(sectionProfile, itemIndex);
+							}
+						}
+					}
+				}
+			}
+		}
+		List<Result> resultList = new ArrayList<Result>();
+		for(Result[] sectionResults : results){
+			for(Result result : sectionResults){
+				if(result != null){
+					resultList.add(result);
+				}
+			}
+		}
+		return resultList;
+	}
+
+	/**
+	 *  The profiled sections.  Each section is profiled separately, so nested sections are included
+	 *  in the times of the sections they are in.
+	 */
+	public static enum Section{
+		ENTITY_UPDATE,
+		VEHICLE_FORCES,
+		VEHICLE_GROUND_OPERATIONS,
+		VEHICLE_MOVEMENT,
+		VEHICLE_COLLISION_CORRECTION,
+		VEHICLE_POST_MOVEMENT,
+		PART_UPDATE;
+	}
+
+	/**
+	 *  Profiling data for one thread.  Only the thread it belongs to writes to it.
+	 *  Resets are flagged and done by that thread to avoid clearing data mid-write.
+	 */
+	private static class ThreadProfile{
+		private final SectionProfile[] sections = new SectionProfile[Section.values().length];
+		private volatile boolean reset;
+
+		private ThreadProfile(){
+			for(int i=0; i<sections.length; ++i){
+				sections[i] = new SectionProfile();
+			}
+		}
+
+		private void add(Section section, int itemIndex, long duration){
+			if(reset){
+				for(SectionProfile sectionProfile : sections){
+					sectionProfile.clear();
+				}
+				reset = false;
+			}
+			sections[section.ordinal()].add(itemIndex, duration);
+		}
+	}
+
+	/**
+	 *  Profiling data for one section on one thread, indexed by item.  Arrays are grown when
+	 *  new items are seen, which is the only time this creates objects.
+	 */
+	private static class SectionProfile{
+		private volatile long[] calls = new long[64];
+		private long[] totalTimes = new long[64];
+		private long[] maxTimes = new long[64];
+		private long[][] buckets = new long[64][BUCKETS];
+
+		private void add(int itemIndex, long duration){
+			if(itemIndex >= calls.length){
+				int newLength = Math.max(calls.length*2, itemIndex + 1);
+				totalTimes = Arrays.copyOf(totalTimes, newLength);
+				maxTimes = Arrays.copyOf(maxTimes, newLength);
+				buckets = Arrays.copyOf(buckets, newLength);
+				for(int i=calls.length; i<newLength; ++i){
+					buckets[i] = new long[BUCKETS];
+				}
+				calls = Arrays.copyOf(calls, newLength);
+			}
+			++calls[itemIndex];
+			totalTimes[itemIndex] += duration;
+			if(duration > maxTimes[itemIndex]){
+				maxTimes[itemIndex] = duration;
+			}
+			++buckets[itemIndex][Math.min(Math.max(63 - Long.numberOfLeadingZeros(duration), 0), BUCKETS - 1)];
+		}
+
+		private void clear(){
+			Arrays.fill(calls, 0);
+			Arrays.fill(totalTimes, 0);
+			Arrays.fill(maxTimes, 0);
+			for(long[] itemBuckets : buckets){
+				Arrays.fill(itemBuckets, 0);
+			}
+		}
+	}
+
+	/**
+	 *  Results for one section and item, combined from all threads.
+	 */
+	private static class Result{
+		private final Section section;
+		private final String itemName;
+		private long calls;
+		private long totalTime;
+		private long maxTime;
+		private final long[] buckets = new long[BUCKETS];
+
+		private Result(Section section, String itemName){
+			this.section = section;
+			this.itemName = itemName;
+		}
+
+		private void add(SectionProfile profile, int itemIndex){
+			calls += profile.calls[itemIndex];
+			totalTime += profile.totalTimes[itemIndex];
+			maxTime = Math.max(maxTime, profile.maxTimes[itemIndex]);
+			for(int i=0; i<BUCKETS; ++i){
+				buckets[i] += profile.buckets[itemIndex][i];
+			}
+		}
+
+		/**
+		 *  Returns the time the passed-in fraction of calls took less than.  As times are
+		 *  in histogram buckets, this is the upper bound of the bucket the time is in.
+		 */
+		private long getPercentile(double fraction){
+			long callsToCount = (long) Math.ceil(calls*fraction);
+			long callsCounted = 0;
+			for(int i=0; i<BUCKETS; ++i){
+				callsCounted += buckets[i];
+				if(callsCounted >= callsToCount){
+					return Math.min(1L << (i + 1), maxTime);
+				}
+			}
+			return maxTime;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package minecrafttransportsimulator.baseclasses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**Tests for {@link LongKeyedMap}.  Besides single operations, the map is checked against a HashMap
+ * over a random mix of puts and removes, with keys packed like block positions so many of them collide.
+ *
+ * @author don_bruce
+ */
+public class LongKeyedMapTest{
+
+	@Test
+	public void testPutGetRemove(){
+		LongKeyedMap<String> map = new LongKeyedMap<String>();
+		assertTrue(map.isEmpty());
+		assertNull(map.put(5, "five"));
+		assertNull(map.put(-5, "minus five"));
+		assertNull(map.put(0, "zero"));
+		assertEquals("five", map.put(5, "FIVE"));
+		assertEquals(3, map.size());
+		assertEquals("FIVE", map.get(5));
+		assertEquals("minus five", map.get(-5));
+		assertEquals("zero", map.get(0));
+		assertNull(map.get(6));
+
+		assertEquals("minus five", map.remove(-5));
+		assertNull(map.remove(-5));
+		assertNull(map.get(-5));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void testMapGrowsAndClears(){
+		LongKeyedMap<Long> map = new LongKeyedMap<Long>();
+		for(long i=0; i<1000; ++i){
+			map.put(i << 20, i);
+		}
+		assertEquals(1000, map.size());
+		for(long i=0; i<1000; ++i){
+			assertEquals(Long.valueOf(i), map.get(i << 20));
+		}
+		long[] valueSum = new long[1];
+		map.forEachValue(value -> valueSum[0] += value);
+		assertEquals(999*1000/2, valueSum[0]);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(0));
+		map.forEachValue(value -> valueSum[0] = -1);
+		assertEquals(999*1000/2, valueSum[0]);
+	}
+
+	@Test
+	public void testMatchesHashMap(){
+		//Removes shift entries back, so a random mix of puts and removes checks every entry stays reachable.
+		LongKeyedMap<Integer> map = new LongKeyedMap<Integer>();
+		Map<Long, Integer> expectedMap = new HashMap<Long, Integer>();
+		Random random = new Random(42);
+		for(int i=0; i<100000; ++i){
+			long key = getPackedKey(random.nextInt(32) - 16, random.nextInt(8), random.nextInt(32) - 16);
+			if(random.nextInt(3) == 0){
+				assertEquals(expectedMap.remove(key), map.remove(key));
+			}else{
+				assertEquals(expectedMap.put(key, i), map.put(key, i));
+			}
+		}
+		assertEquals(expectedMap.size(), map.size());
+		for(int x=-16; x<16; ++x){
+			for(int y=0; y<8; ++y){
+				for(int z=-16; z<16; ++z){
+					long key = getPackedKey(x, y, z);
+					assertEquals(expectedMap.get(key), map.get(key));
+				}
+			}
+		}
+	}
+
+	private static long getPackedKey(int x, int y, int z){
+		return (((long) x) & 0x3FFFFFL) << 42 | (((long) z) & 0x3FFFFFL) << 20 | (((long) y) & 0xFFFFFL);
+	}
+}
@@ -0,0 +1,107 @@
+package minecrafttransportsimulator.baseclasses;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**Tests for {@link ViewFrustum}.  The camera has a 90 degree field of view with a square aspect ratio, and
+ * looks down the negative z-axis, so the left and right planes are at x = z, and the top and bottom at y = z.
+ * Boxes are tested inside the frustum, outside each of its planes, and straddling them.
+ *
+ * @author don_bruce
+ */
+public class ViewFrustumTest{
+	private static final float NEAR = 0.05F;
+	private static final float FAR = 100;
+
+	private ViewFrustum frustum;
+
+	@Before
+	public void setup(){
+		frustum = new ViewFrustum();
+		frustum.setToMatrices(getProjection(), getTranslation(0, 0, 0));
+	}
+
+	@Test
+	public void testUnsetFrustumHasEverythingInView(){
+		ViewFrustum unsetFrustum = new ViewFrustum();
+		assertTrue(unsetFrustum.isBoxInView(0, 0, 10, 1, 1, 1));
+		assertTrue(unsetFrustum.isBoxInView(0, 0, -1000, 1, 1, 1));
+	}
+
+	@Test
+	public void testInside(){
+		assertTrue(frustum.isBoxInView(0, 0, -10, 0.5, 0.5, 0.5));
+		assertTrue(frustum.isBoxInView(8, -8, -10, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(0, 0, -90, 5, 5, 5));
+	}
+
+	@Test
+	public void testOutside(){
+		//Behind the camera.
+		assertFalse(frustum.isBoxInView(0, 0, 10, 1, 1, 1));
+		//Past the far plane.
+		assertFalse(frustum.isBoxInView(0, 0, -200, 1, 1, 1));
+		//Outside the left, right, bottom, and top planes.
+		assertFalse(frustum.isBoxInView(-30, 0, -10, 1, 1, 1));
+		assertFalse(frustum.isBoxInView(30, 0, -10, 1, 1, 1));
+		assertFalse(frustum.isBoxInView(0, -30, -10, 1, 1, 1));
+		assertFalse(frustum.isBoxInView(0, 30, -10, 1, 1, 1));
+		//Just outside the left plane, by less than the box's radius on the other axes.
+		assertFalse(frustum.isBoxInView(-12, 0, -10, 1, 0.5, 0.5));
+	}
+
+	@Test
+	public void testStraddling(){
+		//Straddling the left, right, bottom, and top planes.
+		assertTrue(frustum.isBoxInView(-10.5, 0, -10, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(10.5, 0, -10, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(0, -10.5, -10, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(0, 10.5, -10, 1, 1, 1));
+		//Straddling the near and far planes.
+		assertTrue(frustum.isBoxInView(0, 0, 0, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(0, 0, -100.5, 1, 1, 1));
+		//Larger than the whole frustum.
+		assertTrue(frustum.isBoxInView(0, 0, 0, 500, 500, 500));
+	}
+
+	@Test
+	public void testModelViewIsApplied(){
+		//Move the camera to x = 50.  Boxes need to be relative to that to be in view.
+		frustum.setToMatrices(getProjection(), getTranslation(-50, 0, 0));
+		assertTrue(frustum.isBoxInView(50, 0, -10, 1, 1, 1));
+		assertFalse(frustum.isBoxInView(0, 0, -10, 1, 1, 1));
+		assertTrue(frustum.isBoxInView(39.5, 0, -10, 1, 1, 1));
+	}
+
+	/**
+	 * Returns a perspective projection matrix with a 90 degree field of view, in column-major order.
+	 */
+	private static float[] getProjection(){
+		float[] matrix = new float[16];
+		float focalLength = (float) (1/Math.tan(Math.toRadians(90)/2));
+		matrix[0] = focalLength;
+		matrix[5] = focalLength;
+		matrix[10] = (FAR + NEAR)/(NEAR - FAR);
+		matrix[11] = -1;
+		matrix[14] = 2*FAR*NEAR/(NEAR - FAR);
+		return matrix;
+	}
+
+	/**
+	 * Returns a translation matrix for the passed-in offset, in column-major order.
+	 */
+	private static float[] getTranslation(float x, float y, float z){
+		float[] matrix = new float[16];
+		matrix[0] = 1;
+		matrix[5] = 1;
+		matrix[10] = 1;
+		matrix[15] = 1;
+		matrix[12] = x;
+		matrix[13] = y;
+		matrix[14] = z;
+		return matrix;
+	}
+}
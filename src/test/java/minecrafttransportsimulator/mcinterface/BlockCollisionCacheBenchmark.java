@@ -0,0 +1,200 @@
+package minecrafttransportsimulator.mcinterface;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Point3d;
+
+/**Benchmark for the block collision sweeps vehicles do every tick.  A trace of sweeps is recorded from a
+ * vehicle driving over a synthetic block grid, using the same sweeps {@link minecrafttransportsimulator.baseclasses.VehicleGroundDeviceBox}
+ * does for each ground device and the retries done when correcting colliding movement.  The trace is then replayed
+ * against the cache, once with the cache kept for each tick as it is in the game, and once with the cache cleared
+ * before every sweep, which is the cost of getting every block again for every sweep.  Run with the jmh task.
+ *
+ * @author don_bruce
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockCollisionCacheBenchmark{
+	/**Values per recorded sweep: box center, box radii, collision motion, and flags.**/
+	private static final int SWEEP_SIZE = 10;
+	private static final int FLAG_IGNORE_IF_GREATER = 1;
+	private static final int FLAG_LIQUIDS = 2;
+	private static final int TICKS = 200;
+
+	private SyntheticCollisionCache cache;
+	private double[] sweeps;
+	private long[] sweepTicks;
+	private int sweepCount;
+	private BoundingBox solidBox;
+	private BoundingBox liquidBox;
+	private final Point3d collisionMotion = new Point3d();
+
+	@Setup
+	public void setup(){
+		cache = new SyntheticCollisionCache();
+		solidBox = new BoundingBox(new Point3d(), new Point3d(), 0, 0, 0, false, false, true, 0);
+		liquidBox = new BoundingBox(new Point3d(), new Point3d(), 0, 0, 0, true, false, true, 0);
+		recordTrace();
+	}
+
+	@Benchmark
+	public int replayCached(){
+		return replay(false);
+	}
+
+	@Benchmark
+	public int replayUncached(){
+		return replay(true);
+	}
+
+	/**
+	 *  Replays all recorded sweeps, and returns the number of colliding blocks found.
+	 *  If clearEachSweep is true, the cache is cleared before every sweep.
+	 */
+	private int replay(boolean clearEachSweep){
+		int collidingBlocks = 0;
+		for(int i=0; i<sweepCount; ++i){
+			int index = i*SWEEP_SIZE;
+			int flags = (int) sweeps[index + 9];
+			BoundingBox box = (flags & FLAG_LIQUIDS) != 0 ? liquidBox : solidBox;
+			box.globalCenter.set(sweeps[index], sweeps[index + 1], sweeps[index + 2]);
+			box.widthRadius = sweeps[index + 3];
+			box.heightRadius = sweeps[index + 4];
+			box.depthRadius = sweeps[index + 5];
+			collisionMotion.set(sweeps[index + 6], sweeps[index + 7], sweeps[index + 8]);
+			if(clearEachSweep){
+				cache.clear();
+			}
+			cache.currentTick = sweepTicks[i];
+			cache.updateBoundingBoxCollisions(box, collisionMotion, (flags & FLAG_IGNORE_IF_GREATER) != 0);
+			collidingBlocks += box.collidingBlockPositions.size();
+		}
+		return collidingBlocks;
+	}
+
+	/**
+	 *  Records the sweeps of a vehicle with four wheels, a front and rear ground box, and a body box driving
+	 *  over the grid in a long arc.  Each wheel does the motion, ground detection, and ground operation sweeps,
+	 *  the ground boxes also sweep for liquids, and the body box does a collision sweep followed by four
+	 *  sweeps as the movement is bisected back to a non-colliding one.
+	 */
+	private void recordTrace(){
+		sweeps = new double[1024*SWEEP_SIZE];
+		sweepTicks = new long[1024];
+		sweepCount = 0;
+		Point3d position = new Point3d(0, 66, 0);
+		double yaw = 0;
+		double speed = 0.6;
+		double[][] wheelOffsets = new double[][]{{-0.9, 0, 1.4}, {0.9, 0, 1.4}, {-0.9, 0, -1.4}, {0.9, 0, -1.4}};
+		Point3d offset = new Point3d();
+		Point3d angles = new Point3d();
+		for(long tick=0; tick<TICKS; ++tick){
+			yaw += 0.9;
+			angles.set(0, yaw, 0);
+			double motionX = -Math.sin(Math.toRadians(yaw))*speed;
+			double motionZ = Math.cos(Math.toRadians(yaw))*speed;
+			double motionY = -0.08;
+			position.add(motionX, 0, motionZ);
+			position.y = SyntheticCollisionCache.getGroundHeight((int) Math.floor(position.x), (int) Math.floor(position.z)) + 1.3;
+
+			for(double[] wheelOffset : wheelOffsets){
+				offset.set(wheelOffset[0], wheelOffset[1], wheelOffset[2]).rotateFine(angles).add(position).add(motionX, motionY, motionZ);
+				recordSweep(tick, offset, 0.25, 0.35, 0.25, motionX, motionY, motionZ, 0);
+				recordSweep(tick, offset.add(0, -0.05, 0), 0.25, 0.35, 0.25, motionX, motionY - 0.05, motionZ, 0);
+				recordSweep(tick, offset.add(0, -0.45, 0), 0.25, 0.35, 0.25, motionX, motionY - 0.5, motionZ, 0);
+			}
+			for(int i=-1; i<=1; i+=2){
+				offset.set(0, -0.3, i*1.4).rotateFine(angles).add(position).add(motionX, motionY, motionZ);
+				recordSweep(tick, offset, 1.2, 0.4, 0.6, motionX, motionY, motionZ, FLAG_LIQUIDS);
+			}
+			double factor = 1;
+			for(int i=0; i<5; ++i){
+				offset.set(0, 0.6, 0).rotateFine(angles).add(position).add(motionX*factor, motionY*factor, motionZ*factor);
+				recordSweep(tick, offset, 1.0, 0.6, 2.0, motionX*factor, motionY*factor, motionZ*factor, FLAG_IGNORE_IF_GREATER);
+				factor /= 2;
+			}
+		}
+	}
+
+	private void recordSweep(long tick, Point3d center, double widthRadius, double heightRadius, double depthRadius, double motionX, double motionY, double motionZ, int flags){
+		if(sweepTicks.length == sweepCount){
+			sweepTicks = Arrays.copyOf(sweepTicks, sweepCount*2);
+			sweeps = Arrays.copyOf(sweeps, sweepCount*2*SWEEP_SIZE);
+		}
+		int index = sweepCount*SWEEP_SIZE;
+		sweeps[index] = center.x;
+		sweeps[index + 1] = center.y;
+		sweeps[index + 2] = center.z;
+		sweeps[index + 3] = widthRadius;
+		sweeps[index + 4] = heightRadius;
+		sweeps[index + 5] = depthRadius;
+		sweeps[index + 6] = motionX;
+		sweeps[index + 7] = motionY;
+		sweeps[index + 8] = motionZ;
+		sweeps[index + 9] = flags;
+		sweepTicks[sweepCount++] = tick;
+	}
+
+	/**
+	 *  Cache with blocks from a synthetic grid rather than a world.  The ground is terraced in 8x8 steps, with
+	 *  fences and slabs scattered on top, and strips of water every 80 blocks.  Boxes are allocated on every
+	 *  cache miss, as MC allocates them for every query.
+	 */
+	static class SyntheticCollisionCache extends ABlockCollisionCache{
+		long currentTick;
+
+		static int getGroundHeight(int x, int z){
+			return 64 + Math.floorMod(hash(x >> 3, 0, z >> 3), 3);
+		}
+
+		private static int hash(int x, int y, int z){
+			int hash = x*73856093 ^ y*19349663 ^ z*83492791;
+			return hash ^ (hash >>> 16);
+		}
+
+		@Override
+		protected long getCurrentTick(){
+			return currentTick;
+		}
+
+		@Override
+		protected boolean cacheBlock(CollisionSection section, int index, int x, int y, int z){
+			int groundHeight = getGroundHeight(x, z);
+			double[] collisionBoxes = NO_BOXES;
+			double[] liquidBox = NO_BOXES;
+			if(y < groundHeight){
+				collisionBoxes = new double[]{x, y, z, x + 1, y + 1, z + 1};
+			}else if(y == groundHeight){
+				if(Math.floorMod(x, 80) < 6){
+					liquidBox = new double[]{x, y, z, x + 1, y + 0.875, z + 1};
+				}else{
+					int blockType = Math.floorMod(hash(x, y, z), 24);
+					if(blockType == 0){
+						collisionBoxes = new double[]{x + 0.375, y, z + 0.375, x + 0.625, y + 1.5, z + 0.625};
+					}else if(blockType == 1){
+						collisionBoxes = new double[]{x, y, z, x + 1, y + 0.5, z + 1};
+					}
+				}
+			}
+			section.setBoxes(index, collisionBoxes, liquidBox);
+			return true;
+		}
+	}
+}
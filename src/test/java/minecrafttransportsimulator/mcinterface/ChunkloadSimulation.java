@@ -0,0 +1,184 @@
+package minecrafttransportsimulator.mcinterface;
+
+/**Simulation of the chunkloading tickets of moving entities.  Entities are driven along synthetic
+ * trajectories, and their tickets updated every tick as {@link InterfaceChunkloader} does.  For each
+ * trajectory, this reports the ticket churn: how many times the path was updated, and how many chunks
+ * were forced and un-forced.  It also reports how many times the entity moved into a chunk its ticket
+ * wasn't already forcing, which is where it would stall if no player was nearby to load the chunk.
+ * These are compared with the old behavior of forcing the entity's chunk every tick with a depth of one.
+ * Run with the chunkloadSimulation task.
+ *
+ * @author don_bruce
+ */
+public class ChunkloadSimulation{
+	private static final int TICKS = 20*60*5;
+	private static final double LOOK_AHEAD_TICKS = 5*20;
+	/**Default max chunks per ticket in Forge's config.**/
+	private static final int MAX_CHUNKS = 25;
+
+	public static void main(String[] args){
+		Trajectory[] trajectories = new Trajectory[]{
+			new Trajectory("Parked on a chunk border"){
+				@Override
+				void setPosition(int tick, double[] position){
+					position[0] = 16 + 0.05*Math.sin(tick*0.3);
+					position[1] = 8;
+				}
+			},
+			new Trajectory("Car, straight at 20m/s"){
+				@Override
+				void setPosition(int tick, double[] position){
+					position[0] = tick;
+					position[1] = 8;
+				}
+			},
+			new Trajectory("Car, city blocks at 10m/s"){
+				@Override
+				void setPosition(int tick, double[] position){
+					//Drive 64 blocks east, then 64 blocks north, and repeat.
+					double distance = tick*0.5;
+					int leg = (int) (distance/64);
+					double legDistance = distance - leg*64;
+					position[0] = (leg + 1)/2*64 + (leg%2 == 0 ? legDistance : 0);
+					position[1] = leg/2*64 + (leg%2 == 1 ? legDistance : 0);
+				}
+			},
+			new Trajectory("Train, 30m/s with a turn every 400m"){
+				@Override
+				void setPosition(int tick, double[] position){
+					double distance = tick*1.5;
+					int leg = (int) (distance/400);
+					double legDistance = distance - leg*400;
+					position[0] = (leg + 1)/2*400 + (leg%2 == 0 ? legDistance : 0);
+					position[1] = leg/2*400 + (leg%2 == 1 ? legDistance : 0);
+				}
+			},
+			new Trajectory("Aircraft, straight at 80m/s"){
+				@Override
+				void setPosition(int tick, double[] position){
+					position[0] = tick*4*Math.cos(Math.toRadians(30));
+					position[1] = tick*4*Math.sin(Math.toRadians(30));
+				}
+			},
+			new Trajectory("Aircraft, circling at 60m/s"){
+				@Override
+				void setPosition(int tick, double[] position){
+					double angle = tick*3/300D;
+					position[0] = 300*Math.cos(angle);
+					position[1] = 300*Math.sin(angle);
+				}
+			}
+		};
+
+		System.out.println(String.format("Simulated %d ticks with a look-ahead of %.0f ticks and %d max chunks per ticket.", TICKS, LOOK_AHEAD_TICKS, MAX_CHUNKS));
+		System.out.println(String.format("%-40s%-10s%10s%10s%10s%10s%10s", "Trajectory", "Strategy", "Updates", "Forced", "Unforced", "MaxChunks", "Stalls"));
+		for(Trajectory trajectory : trajectories){
+			SimulationResult pathResult = simulatePathTicket(trajectory);
+			SimulationResult oldResult = simulateOldTicket(trajectory);
+			System.out.println(String.format("%-40s%-10s%s", trajectory.name, "Path", pathResult));
+			System.out.println(String.format("%-40s%-10s%s", "", "Old", oldResult));
+		}
+	}
+
+	/**
+	 *  Simulates the passed-in trajectory with a path ticket, updated only when the entity's path changes.
+	 */
+	private static SimulationResult simulatePathTicket(Trajectory trajectory){
+		SimulationResult result = new SimulationResult();
+		SimulatedTicket ticket = new SimulatedTicket(result);
+		double[] position = new double[2];
+		double[] prevPosition = new double[2];
+		trajectory.setPosition(0, prevPosition);
+		for(int tick=1; tick<=TICKS; ++tick){
+			trajectory.setPosition(tick, position);
+			if(tick > 1 && !ticket.isChunkForced(((int) Math.floor(position[0])) >> 4, ((int) Math.floor(position[1])) >> 4)){
+				++result.stalls;
+			}
+			if(ticket.update(position[0], position[1], prevPosition[0], prevPosition[1], LOOK_AHEAD_TICKS, MAX_CHUNKS)){
+				++result.updates;
+			}
+			prevPosition[0] = position[0];
+			prevPosition[1] = position[1];
+		}
+		return result;
+	}
+
+	/**
+	 *  Simulates the passed-in trajectory with the old ticket behavior.  The entity's chunk is forced every
+	 *  tick, and as the ticket has a depth of one, forcing a new chunk un-forces the prior one.
+	 */
+	private static SimulationResult simulateOldTicket(Trajectory trajectory){
+		SimulationResult result = new SimulationResult();
+		double[] position = new double[2];
+		int forcedChunkX = 0;
+		int forcedChunkZ = 0;
+		for(int tick=1; tick<=TICKS; ++tick){
+			trajectory.setPosition(tick, position);
+			int chunkX = ((int) Math.floor(position[0])) >> 4;
+			int chunkZ = ((int) Math.floor(position[1])) >> 4;
+			if(tick > 1 && (chunkX != forcedChunkX || chunkZ != forcedChunkZ)){
+				++result.stalls;
+				++result.unforcedChunks;
+			}
+			++result.updates;
+			++result.forcedChunks;
+			result.maxForcedChunks = 1;
+			forcedChunkX = chunkX;
+			forcedChunkZ = chunkZ;
+		}
+		return result;
+	}
+
+	/**
+	 *  A synthetic trajectory.  Positions are in blocks, and are only on the x and z-axis, as chunks don't depend on y.
+	 */
+	private static abstract class Trajectory{
+		private final String name;
+
+		private Trajectory(String name){
+			this.name = name;
+		}
+
+		/**
+		 *  Sets the passed-in array to the x and z-position of the entity at the passed-in tick.
+		 */
+		abstract void setPosition(int tick, double[] position);
+	}
+
+	/**
+	 *  Ticket that counts chunks forced and un-forced, rather than forcing them in a world.
+	 */
+	private static class SimulatedTicket extends AChunkloadTicket{
+		private final SimulationResult result;
+		private int currentForcedChunks;
+
+		private SimulatedTicket(SimulationResult result){
+			this.result = result;
+		}
+
+		@Override
+		protected void forceChunk(int chunkX, int chunkZ){
+			++result.forcedChunks;
+			result.maxForcedChunks = Math.max(result.maxForcedChunks, ++currentForcedChunks);
+		}
+
+		@Override
+		protected void unforceChunk(int chunkX, int chunkZ){
+			++result.unforcedChunks;
+			--currentForcedChunks;
+		}
+	}
+
+	private static class SimulationResult{
+		private int updates;
+		private int forcedChunks;
+		private int unforcedChunks;
+		private int maxForcedChunks;
+		private int stalls;
+
+		@Override
+		public String toString(){
+			return String.format("%10d%10d%10d%10d%10d", updates, forcedChunks, unforcedChunks, maxForcedChunks, stalls);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package minecrafttransportsimulator.packets.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import minecrafttransportsimulator.packets.components.InterfacePacket.PacketDecoder;
+
+/**Benchmark for decoding and indexing packets.  Each registered packet is decoded from a zero-filled buffer,
+ * once with its registered decoder, and once with the reflective constructor lookup that was used before
+ * decoders were added.  Indexes are got both from the {@link ClassValue} in the interface and from the
+ * class to index map that was used before it.  Packets that can't be decoded from a zero-filled buffer,
+ * such as ones that look up objects in the world when decoded, are skipped and printed.  Run with the jmh task.
+ *
+ * @author don_bruce
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketDecodeBenchmark{
+	/**Size of the buffers packets are decoded from.  Larger than any packet reads with all-zero data.**/
+	private static final int BUFFER_SIZE = 256;
+
+	private final List<PacketDecoder> decoders = new ArrayList<PacketDecoder>();
+	private final List<Class<? extends APacketBase>> packetClasses = new ArrayList<Class<? extends APacketBase>>();
+	private final List<APacketBase> packets = new ArrayList<APacketBase>();
+	private final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+	private ByteBuf buffer;
+
+	@Setup
+	public void setup(){
+		InterfacePacket.registerPackets();
+		buffer = Unpooled.buffer(BUFFER_SIZE);
+		buffer.writeZero(BUFFER_SIZE);
+		List<String> skippedPackets = new ArrayList<String>();
+		for(int i=0; i<256; ++i){
+			PacketDecoder decoder = InterfacePacket.getPacketDecoder((byte) i);
+			if(decoder != null){
+				APacketBase packet;
+				try{
+					buffer.readerIndex(0);
+					packet = decoder.decode(buffer);
+				}catch(Exception e){
+					skippedPackets.add(i + ": " + e);
+					continue;
+				}
+				decoders.add(decoder);
+				packetClasses.add(packet.getClass());
+				packets.add(packet);
+				packetMappings.put((byte) i, packet.getClass());
+			}
+		}
+		System.out.println("Benchmarking " + packets.size() + " packets, skipped " + skippedPackets.size() + ": " + skippedPackets);
+	}
+
+	@Benchmark
+	public void decodeWithDecoders(Blackhole blackhole){
+		for(PacketDecoder decoder : decoders){
+			buffer.readerIndex(0);
+			blackhole.consume(decoder.decode(buffer));
+		}
+	}
+
+	@Benchmark
+	public void decodeWithReflection(Blackhole blackhole) throws ReflectiveOperationException{
+		for(Class<? extends APacketBase> packetClass : packetClasses){
+			buffer.readerIndex(0);
+			blackhole.consume(packetClass.getConstructor(ByteBuf.class).newInstance(buffer));
+		}
+	}
+
+	@Benchmark
+	public void indexWithClassValue(Blackhole blackhole){
+		for(APacketBase packet : packets){
+			blackhole.consume(InterfacePacket.getPacketIndex(packet));
+		}
+	}
+
+	@Benchmark
+	public void indexWithBiMap(Blackhole blackhole){
+		for(APacketBase packet : packets){
+			blackhole.consume(packetMappings.inverse().get(packet.getClass()));
+		}
+	}
+}
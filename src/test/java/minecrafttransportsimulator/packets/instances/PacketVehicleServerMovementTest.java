@@ -0,0 +1,110 @@
+package minecrafttransportsimulator.packets.instances;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement.MovementReceiver;
+
+/**Tests for applying the movement in {@link PacketVehicleServerMovement}.  Vehicles need a world, so movement
+ * is applied to receivers that act like vehicles: they sleep, and only apply deltas they got while awake.
+ *
+ * @author don_bruce
+ */
+public class PacketVehicleServerMovementTest{
+
+	@Test
+	public void testSleepingVehicleWakesUpForMovement(){
+		TestVehicle sleepingVehicle = new TestVehicle(true);
+		TestVehicle awakeVehicle = new TestVehicle(false);
+		Map<Integer, MovementReceiver> vehicles = new HashMap<Integer, MovementReceiver>();
+		vehicles.put(1, sleepingVehicle);
+		vehicles.put(2, awakeVehicle);
+
+		PacketVehicleServerMovement packet = new PacketVehicleServerMovement();
+		packet.addMovement(1, new short[]{0, -1024, 0, 0, 0, 0});
+		packet.addMovement(2, new short[]{512, 0, 0, 0, 256, 0});
+		packet.applyMovement(vehicles::get);
+
+		//The sleeping vehicle, such as one whose block was broken under it on the server, must apply the movement.
+		assertFalse(sleepingVehicle.sleeping);
+		assertTrue(sleepingVehicle.wasAwakeForDeltas);
+		assertEquals(-1, sleepingVehicle.serverDeltaM.y, 0);
+		assertFalse(awakeVehicle.sleeping);
+		assertEquals(0.5, awakeVehicle.serverDeltaM.x, 0);
+		assertEquals(0.5, awakeVehicle.serverDeltaR.y, 0);
+	}
+
+	@Test
+	public void testMovementIsAddedForEachBatch(){
+		TestVehicle vehicle = new TestVehicle(true);
+		for(int i=0; i<3; ++i){
+			PacketVehicleServerMovement packet = new PacketVehicleServerMovement();
+			packet.addMovement(1, new short[]{1, 2, 3, -4, -5, -6});
+			packet.applyMovement(lookupID -> lookupID == 1 ? vehicle : null);
+		}
+		assertEquals(3*PacketVehicleServerMovement.MOTION_STEP, vehicle.serverDeltaM.x, 1E-12);
+		assertEquals(6*PacketVehicleServerMovement.MOTION_STEP, vehicle.serverDeltaM.y, 1E-12);
+		assertEquals(9*PacketVehicleServerMovement.MOTION_STEP, vehicle.serverDeltaM.z, 1E-12);
+		assertEquals(-12*PacketVehicleServerMovement.ROTATION_STEP, vehicle.serverDeltaR.x, 1E-12);
+		assertEquals(-15*PacketVehicleServerMovement.ROTATION_STEP, vehicle.serverDeltaR.y, 1E-12);
+		assertEquals(-18*PacketVehicleServerMovement.ROTATION_STEP, vehicle.serverDeltaR.z, 1E-12);
+	}
+
+	@Test
+	public void testMovementForMissingVehiclesIsSkipped(){
+		TestVehicle vehicle = new TestVehicle(true);
+		PacketVehicleServerMovement packet = new PacketVehicleServerMovement();
+		for(int i=0; i<20; ++i){
+			packet.addMovement(i, new short[]{(short) i, 0, 0, 0, 0, 0});
+		}
+		packet.applyMovement(lookupID -> lookupID == 17 ? vehicle : null);
+		assertFalse(vehicle.sleeping);
+		assertEquals(17*PacketVehicleServerMovement.MOTION_STEP, vehicle.serverDeltaM.x, 0);
+	}
+
+	@Test
+	public void testClampedMovementIsReturned(){
+		short[] queuedDeltas = new short[]{Short.MAX_VALUE - 10, 0, Short.MIN_VALUE + 5, 100, 0, 0};
+		short[] movementDeltas = new short[]{30, 20, -20, -50, 0, 0};
+		PacketVehicleServerMovement.addQueuedMovement(queuedDeltas, movementDeltas);
+		assertArrayEquals(new short[]{Short.MAX_VALUE, 20, Short.MIN_VALUE, 50, 0, 0}, queuedDeltas);
+
+		//Only what fit was added, so the vehicle keeps the rest to send with its next batch.
+		assertArrayEquals(new short[]{10, 20, -5, -50, 0, 0}, movementDeltas);
+	}
+
+	/**
+	 *  Receiver that sleeps like a vehicle.  Vehicles only apply their deltas when awake, so this records
+	 *  if it was awake for all deltas it got.
+	 */
+	private static class TestVehicle implements MovementReceiver{
+		private final Point3d serverDeltaM = new Point3d();
+		private final Point3d serverDeltaR = new Point3d();
+		private boolean sleeping;
+		private boolean wasAwakeForDeltas = true;
+
+		private TestVehicle(boolean sleeping){
+			this.sleeping = sleeping;
+		}
+
+		@Override
+		public void wakeUp(){
+			sleeping = false;
+		}
+
+		@Override
+		public void addToServerDeltas(Point3d motionAdded, Point3d rotationAdded){
+			wasAwakeForDeltas &= !sleeping;
+			serverDeltaM.add(motionAdded);
+			serverDeltaR.add(rotationAdded);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package minecrafttransportsimulator.packloading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.jsondefs.JSONItem;
+import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
+
+/**Tests for {@link PackDefinitionCache}.  Caches are saved to and loaded from a temporary file with a
+ * fixed key, rather than the cache file and key of a pack jar.
+ *
+ * @author don_bruce
+ */
+public class PackDefinitionCacheTest{
+	private static final String PACK_ID = "testpack";
+	private static final String CACHE_KEY = "testpack.jar|1024|0";
+
+	private File cacheDirectory;
+	private File cacheFile;
+
+	@Before
+	public void createCacheDirectory() throws IOException{
+		cacheDirectory = Files.createTempDirectory("mts_packcachetest").toFile();
+		cacheFile = new File(cacheDirectory, PACK_ID + ".bin");
+	}
+
+	@After
+	public void deleteCacheDirectory(){
+		cacheFile.delete();
+		cacheDirectory.delete();
+	}
+
+	@Test
+	public void testDefinitionsAreLoaded(){
+		saveItems("wrench", "fuel_hose", "jumper_cables");
+		List<AJSONItem> definitions = PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID);
+		assertNotNull(definitions);
+		assertEquals(3, definitions.size());
+		for(int i=0; i<definitions.size(); ++i){
+			AJSONItem definition = definitions.get(i);
+			assertTrue(definition instanceof JSONItem);
+			assertEquals(ItemClassification.ITEM, definition.classification);
+			assertEquals(PACK_ID, definition.packID);
+			assertEquals(Arrays.asList("wrench", "fuel_hose", "jumper_cables").get(i), definition.systemName);
+			assertEquals(definition.systemName + " name", definition.general.name);
+		}
+	}
+
+	@Test
+	public void testCacheForOtherKeyIsKept(){
+		//A cache for another state of the pack isn't corrupt, it will just be replaced when the pack is next cached.
+		saveItems("wrench");
+		assertNull(PackDefinitionCache.loadDefinitions(cacheFile, "testpack.jar|2048|0", PACK_ID));
+		assertTrue(cacheFile.exists());
+		assertNotNull(PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID));
+	}
+
+	@Test
+	public void testTruncatedCacheIsDeleted() throws IOException{
+		saveItems("wrench", "fuel_hose", "jumper_cables");
+		try(RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")){
+			file.setLength(file.length()/2);
+		}
+
+		//The pack should be parsed instead, and the cache deleted so it can be saved again.
+		assertNull(PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID));
+		assertFalse(cacheFile.exists());
+		saveItems("wrench");
+		assertEquals(1, PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID).size());
+	}
+
+	@Test
+	public void testCorruptCacheIsDeleted() throws IOException{
+		Files.write(cacheFile.toPath(), "Not a cache".getBytes(StandardCharsets.UTF_8));
+		assertNull(PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID));
+		assertFalse(cacheFile.exists());
+	}
+
+	@Test
+	public void testCorruptDefinitionIsDeleted(){
+		//Each definition is parsed separately, after the cache is read, so check a definition that doesn't parse.
+		List<AJSONItem> definitions = new ArrayList<AJSONItem>();
+		List<byte[]> definitionData = new ArrayList<byte[]>();
+		definitions.add(createItem("wrench"));
+		definitionData.add("{\"systemName\": [".getBytes(StandardCharsets.UTF_8));
+		PackDefinitionCache.saveDefinitions(cacheFile, CACHE_KEY, PACK_ID, definitions, definitionData);
+		assertTrue(cacheFile.exists());
+		assertNull(PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID));
+		assertFalse(cacheFile.exists());
+
+		//Empty definitions parse to null, so they are corrupt too.
+		definitionData.set(0, new byte[0]);
+		PackDefinitionCache.saveDefinitions(cacheFile, CACHE_KEY, PACK_ID, definitions, definitionData);
+		assertNull(PackDefinitionCache.loadDefinitions(cacheFile, CACHE_KEY, PACK_ID));
+		assertFalse(cacheFile.exists());
+	}
+
+	/**
+	 *  Saves items with the passed-in system names to the cache file.
+	 */
+	private void saveItems(String... systemNames){
+		List<AJSONItem> definitions = new ArrayList<AJSONItem>();
+		List<byte[]> definitionData = new ArrayList<byte[]>();
+		for(String systemName : systemNames){
+			AJSONItem definition = createItem(systemName);
+			definitions.add(definition);
+			definitionData.add(PackDefinitionCache.getCacheData(definition));
+		}
+		PackDefinitionCache.saveDefinitions(cacheFile, CACHE_KEY, PACK_ID, definitions, definitionData);
+	}
+
+	private static AJSONItem createItem(String systemName){
+		JSONItem definition = new JSONItem();
+		definition.packID = PACK_ID;
+		definition.systemName = systemName;
+		definition.classification = ItemClassification.ITEM;
+		definition.general = definition.new General();
+		definition.general.name = systemName + " name";
+		return definition;
+	}
+}
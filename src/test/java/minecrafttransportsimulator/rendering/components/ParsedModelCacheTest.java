@@ -0,0 +1,99 @@
+package minecrafttransportsimulator.rendering.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**Tests for {@link ParsedModelCache}.  Repeated and concurrent requests for a model must share one
+ * parse, and one parsed model, until the model is removed.  Each test uses its own model, as
+ * parsed models stay in the cache for the rest of the run.
+ *
+ * @author don_bruce
+ */
+public class ParsedModelCacheTest{
+	private static final String MODEL_PREFIX = "/assets/mts/objmodels/decors/";
+
+	@Test
+	public void testRepeatedRequestsShareFuture() throws Exception{
+		String modelLocation = MODEL_PREFIX + "itembench.obj";
+		Future<Map<String, VertexArray>> parsedModel = ParsedModelCache.requestModel(modelLocation);
+		assertSame(parsedModel, ParsedModelCache.requestModel(modelLocation));
+		parsedModel.get();
+		assertSame(parsedModel, ParsedModelCache.requestModel(modelLocation));
+	}
+
+	@Test
+	public void testRepeatedGetsShareModel() throws Exception{
+		String modelLocation = MODEL_PREFIX + "enginebench.obj";
+		Map<String, VertexArray> model = ParsedModelCache.requestModel(modelLocation).get();
+		assertFalse(model.isEmpty());
+		assertSame(model, ParsedModelCache.getModel(modelLocation));
+		assertSame(model, ParsedModelCache.getModel(modelLocation));
+	}
+
+	@Test
+	public void testConcurrentRequestsShareFuture() throws Exception{
+		String modelLocation = MODEL_PREFIX + "wheelbench.obj";
+		int threadCount = 8;
+		CountDownLatch startLatch = new CountDownLatch(1);
+		List<Future<Map<String, VertexArray>>> parsedModels = new ArrayList<Future<Map<String, VertexArray>>>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int i=0; i<threadCount; ++i){
+			Thread thread = new Thread(() -> {
+				try{
+					startLatch.await();
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				Future<Map<String, VertexArray>> parsedModel = ParsedModelCache.requestModel(modelLocation);
+				synchronized(parsedModels){
+					parsedModels.add(parsedModel);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		startLatch.countDown();
+		for(Thread thread : threads){
+			thread.join();
+		}
+
+		assertEquals(threadCount, parsedModels.size());
+		for(Future<Map<String, VertexArray>> parsedModel : parsedModels){
+			assertSame(parsedModels.get(0), parsedModel);
+			assertSame(parsedModels.get(0).get(), parsedModel.get());
+		}
+	}
+
+	@Test
+	public void testRemovedModelIsParsedAgain() throws Exception{
+		String modelLocation = MODEL_PREFIX + "seatbench.obj";
+		Future<Map<String, VertexArray>> parsedModel = ParsedModelCache.requestModel(modelLocation);
+		Map<String, VertexArray> model = parsedModel.get();
+		ParsedModelCache.removeModel(modelLocation);
+
+		Future<Map<String, VertexArray>> reparsedModel = ParsedModelCache.requestModel(modelLocation);
+		assertNotSame(parsedModel, reparsedModel);
+		assertNotSame(model, reparsedModel.get());
+		assertEquals(model.keySet(), reparsedModel.get().keySet());
+		assertSame(reparsedModel, ParsedModelCache.requestModel(modelLocation));
+	}
+
+	@Test
+	public void testMissingModelHasNoObjects() throws Exception{
+		String modelLocation = MODEL_PREFIX + "missing.obj";
+		Map<String, VertexArray> model = ParsedModelCache.requestModel(modelLocation).get();
+		assertTrue(model.isEmpty());
+		assertSame(model, ParsedModelCache.getModel(modelLocation));
+	}
+}
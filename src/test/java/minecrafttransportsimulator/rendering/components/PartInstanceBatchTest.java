@@ -0,0 +1,187 @@
+package minecrafttransportsimulator.rendering.components;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.Point3d;
+import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
+import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
+import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition.AnimationComponentType;
+import minecrafttransportsimulator.jsondefs.JSONLight;
+import minecrafttransportsimulator.jsondefs.JSONRendering;
+import minecrafttransportsimulator.jsondefs.JSONText;
+
+/**Tests for {@link PartInstanceBatch}.  Parts can't be made without a world, so the batch is driven
+ * with the raw model, rendering section, texture, and transform of each instance, and no part.
+ *
+ * @author don_bruce
+ */
+public class PartInstanceBatchTest{
+	private static final String WHEEL_MODEL = "mts:objmodels/parts/wheel.obj";
+	private static final String SEAT_MODEL = "mts:objmodels/parts/seat.obj";
+	private static final String TEXTURE = "mts:textures/parts/wheel.png";
+
+	@Test
+	public void testInstancesAreGroupedByModelRenderingAndTexture(){
+		PartInstanceBatch batch = new PartInstanceBatch();
+		JSONRendering rendering = new JSONRendering();
+		JSONRendering otherRendering = new JSONRendering();
+		PartInstanceBatch.Group wheels = batch.getGroup(WHEEL_MODEL, rendering, TEXTURE);
+		addInstances(wheels, 4);
+
+		//Texture and model locations are compared by value, as they are made by each part.
+		assertSame(wheels, batch.getGroup(new String(WHEEL_MODEL), rendering, new String(TEXTURE)));
+		assertNotSame(wheels, batch.getGroup(SEAT_MODEL, rendering, TEXTURE));
+		assertNotSame(wheels, batch.getGroup(WHEEL_MODEL, otherRendering, TEXTURE));
+		assertNotSame(wheels, batch.getGroup(WHEEL_MODEL, rendering, "mts:textures/parts/wheel_dark.png"));
+		assertNotSame(wheels, batch.getGroup(WHEEL_MODEL, null, TEXTURE));
+		assertSame(batch.getGroup(WHEEL_MODEL, null, TEXTURE), batch.getGroup(WHEEL_MODEL, null, TEXTURE));
+		assertEquals(5, batch.getGroups().size());
+		assertEquals(4, wheels.parts.size());
+	}
+
+	@Test
+	public void testAnimatedWheelsAreInstanced(){
+		//Wheels always have rotation animations.  These are applied to each instance when it's rendered, so they can be instanced.
+		JSONRendering wheelRendering = createWheelRendering();
+		assertTrue(PartInstanceBatch.canInstance(wheelRendering));
+		assertTrue(PartInstanceBatch.canInstance(null));
+		
+		//All wheels with the same model share their rendering section, so they all go in one group, each with its own transform.
+		PartInstanceBatch batch = new PartInstanceBatch();
+		for(int i=0; i<4; ++i){
+			batch.getGroup(WHEEL_MODEL, wheelRendering, TEXTURE).addInstance(null, i%2 == 0 ? 1 : -1, 0, i < 2 ? 2 : -2, 0, 0, 0, 1, i%2 == 1);
+		}
+		batch.removeEmptyGroups();
+		assertEquals(1, batch.getGroups().size());
+		PartInstanceBatch.Group wheels = batch.getGroups().get(0);
+		assertSame(wheelRendering, wheels.rendering);
+		assertEquals(4, wheels.parts.size());
+		assertEquals(-1, wheels.getTransforms()[3*PartInstanceBatch.TRANSFORM_SIZE], 0);
+		assertEquals(-2, wheels.getTransforms()[3*PartInstanceBatch.TRANSFORM_SIZE + 2], 0);
+	}
+
+	@Test
+	public void testLightsAndTextAreNotInstanced(){
+		JSONRendering litRendering = createWheelRendering();
+		JSONLight light = new JSONLight();
+		light.objectName = "&hub_light";
+		litRendering.lightObjects = new ArrayList<JSONLight>();
+		litRendering.lightObjects.add(light);
+		assertFalse(PartInstanceBatch.canInstance(litRendering));
+		
+		JSONRendering textRendering = createWheelRendering();
+		JSONText text = new JSONText();
+		text.fieldName = "Tire Size";
+		textRendering.textObjects = new ArrayList<JSONText>();
+		textRendering.textObjects.add(text);
+		assertFalse(PartInstanceBatch.canInstance(textRendering));
+	}
+
+	@Test
+	public void testTransformsAreStoredInOrder(){
+		PartInstanceBatch batch = new PartInstanceBatch();
+		PartInstanceBatch.Group group = batch.getGroup(WHEEL_MODEL, null, TEXTURE);
+		group.addInstance(null, 1.5, -2, 3, 0, 90, 0, 1, true);
+		group.addInstance(null, -1.5, -2, 3, 10, -90, 5, 0.5, false);
+
+		double[] transforms = group.getTransforms();
+		assertArrayEquals(new double[]{1.5, -2, 3, 0, 90, 0, 1, 1}, Arrays.copyOfRange(transforms, 0, PartInstanceBatch.TRANSFORM_SIZE), 0);
+		assertArrayEquals(new double[]{-1.5, -2, 3, 10, -90, 5, 0.5, 0}, Arrays.copyOfRange(transforms, PartInstanceBatch.TRANSFORM_SIZE, 2*PartInstanceBatch.TRANSFORM_SIZE), 0);
+	}
+
+	@Test
+	public void testTransformsGrowForLargeGroups(){
+		PartInstanceBatch batch = new PartInstanceBatch();
+		PartInstanceBatch.Group group = batch.getGroup(WHEEL_MODEL, null, TEXTURE);
+		int instances = 50;
+		addInstances(group, instances);
+
+		double[] transforms = group.getTransforms();
+		assertEquals(instances, group.parts.size());
+		assertTrue(transforms.length >= instances*PartInstanceBatch.TRANSFORM_SIZE);
+		for(int i=0; i<instances; ++i){
+			int index = i*PartInstanceBatch.TRANSFORM_SIZE;
+			assertEquals(i, transforms[index], 0);
+			assertEquals(-i, transforms[index + 4], 0);
+			assertEquals(i%2, transforms[index + 7], 0);
+		}
+	}
+
+	@Test
+	public void testGroupsAreReusedBetweenUpdates(){
+		PartInstanceBatch batch = new PartInstanceBatch();
+		PartInstanceBatch.Group wheels = batch.getGroup(WHEEL_MODEL, null, TEXTURE);
+		addInstances(wheels, 10);
+		double[] transforms = wheels.getTransforms();
+
+		//Clearing keeps the group and its transform array, so a frame with the same parts makes nothing new.
+		batch.clearGroups();
+		assertEquals(0, wheels.parts.size());
+		assertSame(wheels, batch.getGroup(WHEEL_MODEL, null, TEXTURE));
+		addInstances(wheels, 10);
+		assertSame(transforms, wheels.getTransforms());
+		batch.removeEmptyGroups();
+		assertEquals(1, batch.getGroups().size());
+		assertSame(wheels, batch.getGroups().get(0));
+	}
+
+	@Test
+	public void testEmptyGroupsAreRemoved(){
+		PartInstanceBatch batch = new PartInstanceBatch();
+		addInstances(batch.getGroup(WHEEL_MODEL, null, TEXTURE), 4);
+		addInstances(batch.getGroup(SEAT_MODEL, null, TEXTURE), 2);
+		batch.removeEmptyGroups();
+		assertEquals(2, batch.getGroups().size());
+
+		//The seats are removed, so only the wheels are left.
+		batch.clearGroups();
+		PartInstanceBatch.Group wheels = batch.getGroup(WHEEL_MODEL, null, TEXTURE);
+		addInstances(wheels, 4);
+		batch.removeEmptyGroups();
+		assertEquals(1, batch.getGroups().size());
+		assertSame(wheels, batch.getGroups().get(0));
+
+		batch.clearGroups();
+		batch.removeEmptyGroups();
+		assertTrue(batch.getGroups().isEmpty());
+	}
+
+	/**
+	 *  Creates a rendering section like the ones on wheels, with the wheel rotating about the x-axis as it rolls.
+	 */
+	private static JSONRendering createWheelRendering(){
+		JSONAnimationDefinition rotation = new JSONAnimationDefinition();
+		rotation.animationType = AnimationComponentType.ROTATION;
+		rotation.variable = "ground_rotation";
+		rotation.centerPoint = new Point3d(0, 0.5, 0);
+		rotation.axis = new Point3d(1, 0, 0);
+		JSONAnimatedObject wheel = new JSONAnimatedObject();
+		wheel.objectName = "wheel";
+		wheel.animations = new ArrayList<JSONAnimationDefinition>();
+		wheel.animations.add(rotation);
+		JSONRendering rendering = new JSONRendering();
+		rendering.animatedObjects = new ArrayList<JSONAnimatedObject>();
+		rendering.animatedObjects.add(wheel);
+		return rendering;
+	}
+
+	/**
+	 *  Adds the passed-in number of instances to the group.  Each instance has its index as its x-position,
+	 *  and the negative of its index as its y-rotation, with every odd instance mirrored.
+	 */
+	private static void addInstances(PartInstanceBatch.Group group, int count){
+		for(int i=0; i<count; ++i){
+			group.addInstance(null, i, 0, 0, 0, -i, 0, 1, i%2 == 1);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**Vertex backend for tests.  Rather than caching vertices, this records all calls made to it,
+ * and the vertices it was asked to cache.  Indexes are handed out in order, starting at 1.
+ *
+ * @author don_bruce
+ */
+class RecordingVertexBackend implements IVertexBackend{
+	/**All calls made to this backend, in order, in the form "method index".**/
+	final List<String> calls = new ArrayList<String>();
+	/**All vertices this backend was asked to cache, in order.**/
+	final List<VertexArray> cachedVertices = new ArrayList<VertexArray>();
+
+	@Override
+	public int cacheVertices(VertexArray vertices){
+		cachedVertices.add(vertices);
+		calls.add("cache " + cachedVertices.size());
+		return cachedVertices.size();
+	}
+
+	@Override
+	public void renderVertices(int index){
+		calls.add("render " + index);
+	}
+
+	@Override
+	public void deleteVertices(int index){
+		calls.add("delete " + index);
+	}
+}
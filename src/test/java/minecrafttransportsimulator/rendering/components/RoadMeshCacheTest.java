@@ -0,0 +1,260 @@
+package minecrafttransportsimulator.rendering.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3d;
+
+/**Tests for {@link RoadMeshCache}.  Mesh keys are checked to be the same for roads with the same shape, and
+ * different for roads with different shapes.  Meshes are checked against the sweep roads used before meshes
+ * were cached, which is kept here as {@link #sweepLegacyMesh(Map, boolean, float, BezierCurve, Point3d)}.
+ * The legacy sweep sent its vertices to OpenGL as doubles, and meshes store floats, so positions are compared
+ * after being cast to floats.  Floats are compared by their bits, so even the smallest difference is caught.
+ *
+ * @author don_bruce
+ */
+public class RoadMeshCacheTest{
+	private static final String MODEL = "mts:objmodels/roads/asphalt.obj";
+	private static final float BORDER_OFFSET = 4.5F;
+
+	@Test
+	public void testKeysAreStable(){
+		String key = RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 0, 200), null);
+		assertEquals(key, RoadMeshCache.getMeshKey(new String(MODEL), true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 0, 200), null));
+		String staticKey = RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, null, new Point3d(0, 90, 0));
+		assertEquals(staticKey, RoadMeshCache.getMeshKey(new String(MODEL), false, BORDER_OFFSET, null, new Point3d(0, 90, 0)));
+		assertNotEquals(key, staticKey);
+
+		//Keys are prefixed by the model, so all meshes of a model can be removed when it is hotloaded.
+		assertTrue(key.startsWith(MODEL + "|"));
+		assertTrue(staticKey.startsWith(MODEL + "|"));
+	}
+
+	@Test
+	public void testKeysDependOnlyOnMeshInputs(){
+		//Dynamic meshes don't depend on rotation, and static meshes don't depend on curves or border offsets.
+		BezierCurve curve = createCurve(0, 0, 0, 10, 0, 20, 0, 200);
+		assertEquals(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, curve, new Point3d()), RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, curve, new Point3d(0, 180, 0)));
+		assertEquals(RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, curve, new Point3d(0, 90, 0)), RoadMeshCache.getMeshKey(MODEL, false, 1.5F, null, new Point3d(0, 90, 0)));
+	}
+
+	@Test
+	public void testKeysDifferForDifferentMeshes(){
+		Set<String> keys = new HashSet<String>();
+		List<String> keyList = new ArrayList<String>();
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey("mts:objmodels/roads/concrete.obj", true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, 2.5F, createCurve(0, 0, 0, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(1, 0, 0, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 1, 0, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 1, 10, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 11, 0, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 1, 20, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 21, 0, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 15, 200), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, createCurve(0, 0, 0, 10, 0, 20, 0, 180), null));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, null, new Point3d(0, 0, 0)));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, null, new Point3d(0, 90, 0)));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, null, new Point3d(5, 90, 0)));
+		keyList.add(RoadMeshCache.getMeshKey(MODEL, false, BORDER_OFFSET, null, new Point3d(0, 90, 5)));
+		keyList.add(RoadMeshCache.getMeshKey("mts:objmodels/roads/concrete.obj", false, BORDER_OFFSET, null, new Point3d(0, 90, 0)));
+		keys.addAll(keyList);
+		assertEquals(keyList.toString(), keyList.size(), keys.size());
+	}
+
+	@Test
+	public void testDynamicRoadWithoutCurveHasNoKey(){
+		assertNull(RoadMeshCache.getMeshKey(MODEL, true, BORDER_OFFSET, null, new Point3d()));
+	}
+
+	@Test
+	public void testStaticMeshesMatchLegacySweep(){
+		Map<String, Float[][]> legacyModel = createLegacyModel();
+		VertexArray model = toVertexArray(legacyModel);
+		for(double yaw : new double[]{0, 45, 90, 180, 270, 337.5}){
+			Point3d rotation = new Point3d(0, yaw, 0);
+			assertMeshEquals("Static, yaw " + yaw, sweepLegacyMesh(legacyModel, false, BORDER_OFFSET, null, rotation), RoadMeshCache.generateStaticMesh(model, rotation));
+		}
+	}
+
+	@Test
+	public void testDynamicMeshesMatchLegacySweep(){
+		Map<String, Float[][]> legacyModel = createLegacyModel();
+		VertexArray model = toVertexArray(legacyModel);
+		Map<String, BezierCurve> curves = new LinkedHashMap<String, BezierCurve>();
+		curves.put("Straight", createCurve(0, 0, 0, 0, 0, 32, 0, 180));
+		curves.put("Gentle turn", createCurve(0, 0, 0, 12, 0, 40, 0, 210));
+		curves.put("Sharp turn", createCurve(0, 0, 0, 10, 0, 10, 0, 270));
+		curves.put("Hairpin", createCurve(0, 0, 0, 8, 0, 0, 0, 0));
+		curves.put("Slope", createCurve(0, 0, 0, 0, 6, 24, 0, 180));
+		curves.put("Fractional length", createCurve(0.5, 0, 0.5, 3.25, 0.75, 7.5, 15, 200));
+		curves.put("Short", createCurve(0, 0, 0, 0, 0, 1.5, 0, 180));
+		for(Entry<String, BezierCurve> curveEntry : curves.entrySet()){
+			//The widest offset makes segments on the inside of the sharp turns invert, so they are skipped.
+			for(float borderOffset : new float[]{BORDER_OFFSET, -BORDER_OFFSET, 0, 9}){
+				String message = curveEntry.getKey() + ", border offset " + borderOffset;
+				VertexArray mesh = RoadMeshCache.generateDynamicMesh(model, curveEntry.getValue(), borderOffset);
+				assertMeshEquals(message, sweepLegacyMesh(legacyModel, true, borderOffset, curveEntry.getValue(), null), mesh);
+			}
+		}
+	}
+
+	private static BezierCurve createCurve(double startX, double startY, double startZ, double endX, double endY, double endZ, float startAngle, float endAngle){
+		return new BezierCurve(new Point3d(startX, startY, startZ), new Point3d(endX, endY, endZ), startAngle, endAngle);
+	}
+
+	private static void assertMeshEquals(String message, List<float[]> expectedVertices, VertexArray mesh){
+		assertEquals(message, expectedVertices.size(), mesh.vertexCount);
+		for(int i=0; i<mesh.vertexCount; ++i){
+			float[] expectedVertex = expectedVertices.get(i);
+			for(int j=0; j<VertexArray.VERTEX_SIZE; ++j){
+				assertEquals(message + ", vertex " + i + ", element " + j, Float.floatToIntBits(expectedVertex[j]), Float.floatToIntBits(mesh.get(i, j)));
+			}
+		}
+	}
+
+	/**
+	 *  Creates a road model in the format models were parsed to before they were stored in float arrays.
+	 *  This is an 8-wide slab one block long, split into two objects, with all vertices having different UVs and normals.
+	 */
+	private static Map<String, Float[][]> createLegacyModel(){
+		Map<String, Float[][]> model = new LinkedHashMap<String, Float[][]>();
+		model.put("surface", createSlab(-4, 0, 0, 4, 0.0625F, 1));
+		model.put("base", createSlab(-4.25F, -0.5F, 0, 4.25F, 0, 1));
+		return model;
+	}
+
+	/**
+	 *  Creates the triangles of a box with the passed-in bounds.  Only the top, bottom, and sides are made,
+	 *  as roads don't have ends.
+	 */
+	private static Float[][] createSlab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ){
+		float[][] corners = new float[][]{
+			{minX, minY, minZ}, {maxX, minY, minZ}, {maxX, maxY, minZ}, {minX, maxY, minZ},
+			{minX, minY, maxZ}, {maxX, minY, maxZ}, {maxX, maxY, maxZ}, {minX, maxY, maxZ}
+		};
+		int[][] quads = new int[][]{{3, 2, 6, 7}, {0, 4, 5, 1}, {0, 3, 7, 4}, {1, 5, 6, 2}};
+		float[][] normals = new float[][]{{0, 1, 0}, {0, -1, 0}, {-1, 0, 0}, {1, 0, 0}};
+		List<Float[]> vertices = new ArrayList<Float[]>();
+		for(int i=0; i<quads.length; ++i){
+			for(int cornerIndex : new int[]{0, 1, 2, 0, 2, 3}){
+				float[] corner = corners[quads[i][cornerIndex]];
+				vertices.add(new Float[]{corner[0], corner[1], corner[2], corner[0]/8F + 0.5F, corner[2]*0.3F + i*0.1F, normals[i][0], normals[i][1], normals[i][2]});
+			}
+		}
+		return vertices.toArray(new Float[vertices.size()][]);
+	}
+
+	private static VertexArray toVertexArray(Map<String, Float[][]> legacyModel){
+		List<VertexArray> objects = new ArrayList<VertexArray>();
+		for(Float[][] legacyObject : legacyModel.values()){
+			VertexArray object = new VertexArray(legacyObject.length);
+			for(int i=0; i<legacyObject.length; ++i){
+				for(int j=0; j<VertexArray.VERTEX_SIZE; ++j){
+					object.set(i, j, legacyObject[i][j]);
+				}
+			}
+			objects.add(object);
+		}
+		return VertexArray.merge(objects);
+	}
+
+	/**
+	 *  The sweep that roads rendered their core components with before meshes were cached.  This is unchanged, save
+	 *  for taking the road's properties as parameters, and adding vertices to a list in the same order as the mesh
+	 *  format rather than sending them to OpenGL.  Positions are cast to floats, as meshes store them as floats.
+	 */
+	private static List<float[]> sweepLegacyMesh(Map<String, Float[][]> parsedModel, boolean isDynamic, float borderOffset, BezierCurve dynamicCurve, Point3d roadRotation){
+		List<float[]> renderedVertices = new ArrayList<float[]>();
+		Point3d position = new Point3d();
+		Point3d rotation = new Point3d();
+
+		//If we are a dynamic curve, cache the dynamic vertex paths.
+		//If we are static, just render the model as-is.
+		if(isDynamic && dynamicCurve != null){
+			//Core components need to be transformed to wedges.
+			List<Float[]> transformedVertices = new ArrayList<Float[]>();
+			Point3d priorPosition = new Point3d();
+			Point3d priorRotation = new Point3d();
+			Point3d rotationDelta = new Point3d();
+			float priorIndex = 0;
+
+			for(float currentIndex=1; currentIndex<=dynamicCurve.pathLength; ++currentIndex){
+				//Copy the master vertices to our transformed ones.
+				transformedVertices.clear();
+				for(Float[][] vertexSet : parsedModel.values()){
+					for(Float[] vertex : vertexSet){
+						transformedVertices.add(new Float[]{vertex[0], vertex[1], vertex[2], vertex[3], vertex[4], vertex[5], vertex[6], vertex[7]});
+					}
+				}
+
+				//Get current and prior curve position and rotation.
+				//From this, we know how much to stretch the model to that point's rendering area.
+				dynamicCurve.setPointToPositionAt(priorPosition, priorIndex);
+				dynamicCurve.setPointToRotationAt(priorRotation, priorIndex);
+				dynamicCurve.setPointToPositionAt(position, currentIndex);
+				dynamicCurve.setPointToRotationAt(rotation, currentIndex);
+
+				//If we are a really sharp curve, we might have inverted our model at the inner corner.
+				//Check for this, and if we have done so, skip this segment.
+				//If we detect this in the last 3 segments, skip right to the end.
+				//This prevents a missing end segment due to collision.
+				rotationDelta.setTo(rotation).subtract(priorRotation);
+				Point3d testPoint1 = new Point3d(borderOffset, 0, 0).rotateFine(priorRotation).add(priorPosition);
+				Point3d testPoint2 = new Point3d(borderOffset, 0, 0).rotateFine(rotation).add(position);
+				if(currentIndex != dynamicCurve.pathLength && (position.x - priorPosition.x)*(testPoint2.x - testPoint1.x) < 0 || (position.z - priorPosition.z)*(testPoint2.z - testPoint1.z) < 0){
+					if(currentIndex != dynamicCurve.pathLength && currentIndex + 3 > dynamicCurve.pathLength){
+						currentIndex = dynamicCurve.pathLength - 1;
+					}
+					continue;
+				}
+
+				//Depending on the vertex position in the model, transform it to match with the offset rotation.
+				//This depends on how far the vertex is from the origin of the model, and how big the delta is.
+				//For all points, their magnitude depends on how far away they are on the Z-axis.
+				for(Float[] vertex : transformedVertices){
+					Point3d vertexOffsetPrior = new Point3d(vertex[0], vertex[1], 0);
+					vertexOffsetPrior.rotateFine(priorRotation).add(priorPosition);
+					Point3d vertexOffsetCurrent = new Point3d(vertex[0], vertex[1], vertex[2]);
+					vertexOffsetCurrent.rotateFine(rotation).add(position);
+
+					Point3d segmentVector = vertexOffsetPrior.copy().subtract(vertexOffsetCurrent).multiply(Math.abs(vertex[2]));
+					Point3d renderedVertex = vertexOffsetCurrent.copy().add(segmentVector);
+
+					renderedVertices.add(new float[]{(float) renderedVertex.x, (float) renderedVertex.y, (float) renderedVertex.z, vertex[3], vertex[4], vertex[5], vertex[6], vertex[7]});
+				}
+
+				//Set the last index.
+				priorIndex = currentIndex;
+
+				//If we are at the last index, do special logic to get the very end point.
+				if(currentIndex != dynamicCurve.pathLength && currentIndex + 1 > dynamicCurve.pathLength){
+					currentIndex -= ((currentIndex + 1) - dynamicCurve.pathLength);
+				}
+			}
+		}else if(!isDynamic){
+			for(Float[][] vertexSet : parsedModel.values()){
+				for(Float[] vertex : vertexSet){
+					//Need to offset by 0.5 to match the offset of the TE as we're block-aligned.
+					position.set(vertex[0] - 0.5, vertex[1], vertex[2] - 0.5);
+					position.rotateFine(roadRotation);
+					renderedVertices.add(new float[]{(float) position.x, (float) position.y, (float) position.z, vertex[3], vertex[4], vertex[5], vertex[6], vertex[7]});
+				}
+			}
+		}
+		return renderedVertices;
+	}
+}
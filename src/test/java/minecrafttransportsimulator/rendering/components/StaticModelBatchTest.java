@@ -0,0 +1,105 @@
+package minecrafttransportsimulator.rendering.components;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**Tests for {@link StaticModelBatch}.  Batches are given their static objects directly, and a
+ * {@link RecordingVertexBackend}, so no model objects or OpenGL are required.
+ *
+ * @author don_bruce
+ */
+public class StaticModelBatchTest{
+
+	@Test
+	public void testStaticObjectsAreMergedInOrder(){
+		Map<String, VertexArray> staticObjects = new LinkedHashMap<String, VertexArray>();
+		staticObjects.put("body", createVertices(2, 1));
+		staticObjects.put("frame", createVertices(1, 10));
+		RecordingVertexBackend backend = new RecordingVertexBackend();
+		StaticModelBatch batch = new StaticModelBatch(staticObjects, true, backend);
+		assertTrue(batch.contains("body"));
+		assertTrue(batch.contains("frame"));
+		assertFalse(batch.contains("door"));
+		assertTrue(batch.isInstanceable());
+		assertFalse(new StaticModelBatch(staticObjects, false, backend).isInstanceable());
+
+		//Merging is done without the backend, so it isn't used until the batch is rendered.
+		assertTrue(backend.calls.isEmpty());
+		batch.render();
+		assertEquals(1, backend.cachedVertices.size());
+		VertexArray merged = backend.cachedVertices.get(0);
+		assertEquals(3, merged.vertexCount);
+		float[] expected = new float[3*VertexArray.VERTEX_SIZE];
+		Arrays.fill(expected, 0, 2*VertexArray.VERTEX_SIZE, 1);
+		Arrays.fill(expected, 2*VertexArray.VERTEX_SIZE, expected.length, 10);
+		assertArrayEquals(expected, merged.data, 0);
+	}
+
+	@Test
+	public void testVerticesAreCachedOnFirstRender(){
+		RecordingVertexBackend backend = new RecordingVertexBackend();
+		StaticModelBatch batch = new StaticModelBatch(createObjects("body"), true, backend);
+		batch.render();
+		batch.render();
+		batch.render();
+		assertEquals(Arrays.asList("cache 1", "render 1", "render 1", "render 1"), backend.calls);
+	}
+
+	@Test
+	public void testEmptyBatchesAreNotCached(){
+		//Models with no static objects have empty batches.  These shouldn't make any calls to the backend.
+		RecordingVertexBackend backend = new RecordingVertexBackend();
+		StaticModelBatch batch = new StaticModelBatch(new LinkedHashMap<String, VertexArray>(), false, backend);
+		assertFalse(batch.contains("body"));
+		batch.render();
+		batch.render();
+		batch.destroy();
+		assertTrue(backend.calls.isEmpty());
+	}
+
+	@Test
+	public void testDestroyDeletesCachedVertices(){
+		RecordingVertexBackend backend = new RecordingVertexBackend();
+		StaticModelBatch unrenderedBatch = new StaticModelBatch(createObjects("body"), true, backend);
+		unrenderedBatch.destroy();
+		assertTrue(backend.calls.isEmpty());
+
+		//Each batch only deletes its own vertices, and only once.
+		StaticModelBatch firstBatch = new StaticModelBatch(createObjects("body"), true, backend);
+		StaticModelBatch secondBatch = new StaticModelBatch(createObjects("body", "frame"), true, backend);
+		firstBatch.render();
+		secondBatch.render();
+		secondBatch.destroy();
+		secondBatch.destroy();
+		firstBatch.destroy();
+		assertEquals(Arrays.asList("cache 1", "render 1", "cache 2", "render 2", "delete 2", "delete 1"), backend.calls);
+	}
+
+	/**
+	 *  Returns a map of objects with the passed-in names, each with one vertex.
+	 */
+	private static Map<String, VertexArray> createObjects(String... objectNames){
+		Map<String, VertexArray> objects = new LinkedHashMap<String, VertexArray>();
+		for(String objectName : objectNames){
+			objects.put(objectName, createVertices(1, 0));
+		}
+		return objects;
+	}
+
+	/**
+	 *  Returns vertices with the passed-in count, with all their values set to the passed-in value.
+	 */
+	private static VertexArray createVertices(int vertexCount, float value){
+		float[] data = new float[vertexCount*VertexArray.VERTEX_SIZE];
+		Arrays.fill(data, value);
+		return new VertexArray(data);
+	}
+}
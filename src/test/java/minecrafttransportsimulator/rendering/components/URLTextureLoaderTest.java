@@ -0,0 +1,300 @@
+package minecrafttransportsimulator.rendering.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import minecrafttransportsimulator.MasterLoader;
+import minecrafttransportsimulator.rendering.components.URLTextureLoader.LoadedTexture;
+
+/**Tests for {@link URLTextureLoader}, against a local HTTP server that stands in for image hosts.
+ * The server serves a PNG, a two-frame GIF, and a text file, and counts the requests for each path.
+ * Paths can also be set to serve other data.  Responses have an ETag of their data, and paths under
+ * /expiring/ are sent as expiring right away, so the loader checks them for changes every time.
+ * Each test uses its own paths, as loaded URLs stay in the loader's cache for the rest of the run.
+ *
+ * @author don_bruce
+ */
+public class URLTextureLoaderTest{
+	private static final long LOAD_TIMEOUT = 10000;
+
+	private static HttpServer server;
+	private static File cacheRoot;
+	private static byte[] pngData;
+	private static byte[] gifData;
+	private static final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<String, AtomicInteger>();
+	private static final Map<String, AtomicInteger> notModifiedCounts = new ConcurrentHashMap<String, AtomicInteger>();
+	private static final Map<String, byte[]> pathData = new ConcurrentHashMap<String, byte[]>();
+	private static final Map<String, LoadedTexture> loadedTextures = new HashMap<String, LoadedTexture>();
+	private static volatile CountDownLatch blockedRequests = new CountDownLatch(0);
+
+	@BeforeClass
+	public static void startServer() throws IOException{
+		cacheRoot = Files.createTempDirectory("mts_texturetest").toFile();
+		MasterLoader.gameDirectory = cacheRoot.getAbsolutePath();
+		pngData = createPNG(Color.RED, Color.BLUE);
+		gifData = createGIF();
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			String path = exchange.getRequestURI().getPath();
+			requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+			try{
+				blockedRequests.await(LOAD_TIMEOUT, TimeUnit.MILLISECONDS);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			byte[] data;
+			String contentType;
+			if(pathData.containsKey(path)){
+				data = pathData.get(path);
+				contentType = "image/png";
+			}else if(path.endsWith(".png")){
+				data = pngData;
+				contentType = "image/png";
+			}else if(path.endsWith(".gif")){
+				data = gifData;
+				contentType = "image/gif";
+			}else{
+				data = "Not an image".getBytes(StandardCharsets.UTF_8);
+				contentType = "text/plain";
+			}
+			String eTag = "\"" + Arrays.hashCode(data) + "\"";
+			exchange.getResponseHeaders().set("ETag", eTag);
+			if(path.startsWith("/expiring/")){
+				exchange.getResponseHeaders().set("Cache-Control", "max-age=0");
+			}
+			if(eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))){
+				notModifiedCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", contentType);
+			exchange.sendResponseHeaders(200, data.length);
+			try(OutputStream stream = exchange.getResponseBody()){
+				stream.write(data);
+			}
+		});
+		server.start();
+	}
+
+	@AfterClass
+	public static void stopServer(){
+		server.stop(0);
+	}
+
+	@Test
+	public void testPNGLoads(){
+		LoadedTexture texture = load("/testPNGLoads.png");
+		assertNull(texture.errorMessage);
+		assertNotNull(texture.image);
+		assertNull(texture.gif);
+		assertEquals(16, texture.image.getWidth());
+		assertEquals(0xFFFF0000, texture.image.getRGB(0, 0));
+		assertEquals(0xFF0000FF, texture.image.getRGB(15, 15));
+	}
+
+	@Test
+	public void testGIFLoadsAllFrames(){
+		LoadedTexture texture = load("/testGIFLoadsAllFrames.gif");
+		assertNull(texture.errorMessage);
+		assertNull(texture.image);
+		assertNotNull(texture.gif);
+		assertEquals(2, texture.gif.frames.size());
+		assertEquals(20, texture.gif.totalDuration);
+	}
+
+	@Test
+	public void testInvalidContentTypeReturnsError(){
+		LoadedTexture texture = load("/testInvalidContentTypeReturnsError.txt");
+		assertNull(texture.image);
+		assertNull(texture.gif);
+		assertTrue(texture.errorMessage.startsWith("Invalid content type found.  Found:text/plain"));
+	}
+
+	@Test
+	public void testLoadingURLIsOnlyRequestedOnce(){
+		String path = "/testLoadingURLIsOnlyRequestedOnce.png";
+		blockedRequests = new CountDownLatch(1);
+		for(int i=0; i<5; ++i){
+			URLTextureLoader.requestTexture(getURL(path));
+		}
+		blockedRequests.countDown();
+		assertNotNull(waitForTexture(path).image);
+		assertEquals(1, requestCounts.get(path).get());
+	}
+
+	@Test
+	public void testLoadedURLIsCached() throws NoSuchAlgorithmException{
+		String path = "/testLoadedURLIsCached.png";
+		assertNotNull(load(path).image);
+		assertNotNull(load(path).image);
+		assertEquals(1, requestCounts.get(path).get());
+
+		//Cached images are stored by the hash of their data.
+		File cacheDirectory = new File(new File(cacheRoot, "config"), MasterLoader.MODID + "_texturecache");
+		assertTrue(new File(cacheDirectory, "index.txt").exists());
+		StringBuilder hash = new StringBuilder();
+		for(byte hashByte : MessageDigest.getInstance("SHA-256").digest(pngData)){
+			hash.append(String.format("%02x", hashByte));
+		}
+		assertTrue(new File(cacheDirectory, hash.toString()).exists());
+	}
+
+	@Test
+	public void testExpiredURLIsCheckedForChanges(){
+		String path = "/expiring/testExpiredURLIsCheckedForChanges.png";
+		assertNotNull(load(path).image);
+
+		//The image didn't change, so the server doesn't send it again, and the cached image is used.
+		LoadedTexture texture = load(path);
+		assertNull(texture.errorMessage);
+		assertEquals(0xFFFF0000, texture.image.getRGB(0, 0));
+		assertEquals(2, requestCounts.get(path).get());
+		assertEquals(1, notModifiedCounts.get(path).get());
+	}
+
+	@Test
+	public void testChangedURLIsDownloadedAgain() throws IOException{
+		String path = "/expiring/testChangedURLIsDownloadedAgain.png";
+		assertEquals(0xFFFF0000, load(path).image.getRGB(0, 0));
+
+		//Change the image at the URL.  The loader should get the new one rather than using the old cached one.
+		pathData.put(path, createPNG(Color.GREEN, Color.BLUE));
+		LoadedTexture texture = load(path);
+		assertNull(texture.errorMessage);
+		assertEquals(0xFF00FF00, texture.image.getRGB(0, 0));
+		assertEquals(2, requestCounts.get(path).get());
+		assertNull(notModifiedCounts.get(path));
+
+		//The new image is now the cached one.
+		assertEquals(0xFF00FF00, load(path).image.getRGB(0, 0));
+		assertEquals(1, notModifiedCounts.get(path).get());
+	}
+
+	/**
+	 *  Requests the texture at the passed-in path on the server, and waits for it to load.
+	 */
+	private static LoadedTexture load(String path){
+		URLTextureLoader.requestTexture(getURL(path));
+		return waitForTexture(path);
+	}
+
+	/**
+	 *  Polls the loader until the texture at the passed-in path on the server has loaded.  Textures
+	 *  for other paths that are polled while waiting are kept for the tests waiting on them.
+	 */
+	private static LoadedTexture waitForTexture(String path){
+		String url = getURL(path);
+		long timeoutTime = System.currentTimeMillis() + LOAD_TIMEOUT;
+		while(System.currentTimeMillis() < timeoutTime){
+			LoadedTexture texture;
+			while((texture = URLTextureLoader.pollLoadedTexture()) != null){
+				loadedTextures.put(texture.url, texture);
+			}
+			texture = loadedTextures.remove(url);
+			if(texture != null){
+				return texture;
+			}
+			try{
+				Thread.sleep(10);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+		fail("Timed out loading " + url);
+		return null;
+	}
+
+	private static String getURL(String path){
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+	/**
+	 *  Creates a 16x16 PNG that's the first passed-in color in the top-left, and the second in the bottom-right.
+	 */
+	private static byte[] createPNG(Color topLeftColor, Color bottomRightColor) throws IOException{
+		BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(topLeftColor);
+		graphics.fillRect(0, 0, 8, 8);
+		graphics.setColor(bottomRightColor);
+		graphics.fillRect(8, 8, 8, 8);
+		graphics.dispose();
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", data);
+		return data.toByteArray();
+	}
+
+	/**
+	 *  Creates an 8x8 GIF with two frames, each shown for 10 hundredths of a second.
+	 */
+	private static byte[] createGIF() throws IOException{
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		try(ImageOutputStream stream = ImageIO.createImageOutputStream(data)){
+			writer.setOutput(stream);
+			writer.prepareWriteSequence(null);
+			for(Color color : new Color[]{Color.RED, Color.GREEN}){
+				BufferedImage frame = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+				Graphics2D graphics = frame.createGraphics();
+				graphics.setColor(color);
+				graphics.fillRect(0, 0, 8, 8);
+				graphics.dispose();
+
+				IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(frame), null);
+				String format = metadata.getNativeMetadataFormatName();
+				IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+				IIOMetadataNode controlExtension = new IIOMetadataNode("GraphicControlExtension");
+				controlExtension.setAttribute("disposalMethod", "none");
+				controlExtension.setAttribute("userInputFlag", "FALSE");
+				controlExtension.setAttribute("transparentColorFlag", "FALSE");
+				controlExtension.setAttribute("delayTime", "10");
+				controlExtension.setAttribute("transparentColorIndex", "0");
+				root.appendChild(controlExtension);
+				metadata.setFromTree(format, root);
+				writer.writeToSequence(new IIOImage(frame, null, metadata), null);
+			}
+			writer.endWriteSequence();
+		}
+		writer.dispose();
+		return data.toByteArray();
+	}
+}
@@ -0,0 +1,385 @@
+package minecrafttransportsimulator.rendering.instances;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.mcinterface.InterfaceCore;
+import minecrafttransportsimulator.rendering.components.VertexArray;
+
+/**Tests for {@link ModelParserOBJ}.  The parser must give exactly the same output as the String-based
+ * parser it replaced, which is kept here as {@link LegacyParser}.  This is checked for all bundled models,
+ * and for models made to test face triangulation, number formats, and float rounding.  Floats are compared
+ * by their bits, so values that are equal but not the same, such as 0 and -0, are caught.
+ *
+ * @author don_bruce
+ */
+public class ModelParserOBJTest{
+	private static final String[] BUNDLED_MODELS = {
+		"/assets/mts/objmodels/parts/jerrycan.obj",
+		"/assets/mts/objmodels/decors/custombench.obj",
+		"/assets/mts/objmodels/decors/decorbench.obj",
+		"/assets/mts/objmodels/decors/enginebench.obj",
+		"/assets/mts/objmodels/decors/fuelpump.obj",
+		"/assets/mts/objmodels/decors/gunbench.obj",
+		"/assets/mts/objmodels/decors/instrumentbench.obj",
+		"/assets/mts/objmodels/decors/itembench.obj",
+		"/assets/mts/objmodels/decors/propellerbench.obj",
+		"/assets/mts/objmodels/decors/seatbench.obj",
+		"/assets/mts/objmodels/decors/vehiclebench.obj",
+		"/assets/mts/objmodels/decors/wheelbench.obj"
+	};
+
+	@Test
+	public void testBundledModelsMatchLegacyParser() throws IOException{
+		for(String modelLocation : BUNDLED_MODELS){
+			Map<String, VertexArray> model;
+			try(InputStream stream = ModelParserOBJTest.class.getResourceAsStream(modelLocation)){
+				assertNotNull("Missing model: " + modelLocation, stream);
+				model = ModelParserOBJ.parseStream(stream, modelLocation);
+			}
+			Map<String, VertexArray> legacyModel;
+			try(InputStream stream = ModelParserOBJTest.class.getResourceAsStream(modelLocation)){
+				legacyModel = LegacyParser.parse(stream, modelLocation);
+			}
+			assertFalse(modelLocation, model.isEmpty());
+			assertModelsEqual(modelLocation, legacyModel, model);
+		}
+	}
+
+	@Test
+	public void testFacesAreTriangulated() throws IOException{
+		String modelText = "o polygons\n"
+				+ "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nv -1 2 0\nv -2 1 0\n"
+				+ "vt 0 0\nvt 1 0\nvt 1 1\nvt 0 1\nvt 0.5 0.5\nvt 0.25 0.75\n"
+				+ "vn 0 0 1\n"
+				+ "f 1/1/1 2/2/1 3/3/1\n"
+				+ "f 1/1/1 2/2/1 3/3/1 4/4/1\n"
+				+ "f 1/1/1 2/2/1 3/3/1 4/4/1 5/5/1\n"
+				+ "f 1/1/1 2/2/1 3/3/1 4/4/1 5/5/1 6/6/1\n";
+		VertexArray object = parseAndCompare(modelText).get("polygons");
+		assertNotNull(object);
+
+		//Faces are fans from their first vertex: 1 triangle for the triangle, 2 for the quad, 3 and 4 for the others.
+		int[] expectedVertices = {
+			0, 1, 2,
+			0, 1, 2, 0, 2, 3,
+			0, 1, 2, 0, 2, 3, 0, 3, 4,
+			0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 5
+		};
+		float[][] positions = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}, {-1, 2, 0}, {-2, 1, 0}};
+		assertEquals(expectedVertices.length, object.vertexCount);
+		for(int i=0; i<expectedVertices.length; ++i){
+			assertEquals(positions[expectedVertices[i]][0], object.get(i, 0), 0);
+			assertEquals(positions[expectedVertices[i]][1], object.get(i, 1), 0);
+		}
+	}
+
+	@Test
+	public void testFloatRounding() throws IOException{
+		String[] values = {
+			"0", "-0", "0.0", "-0.000000", "1", "+1.5", ".5", "5.", "0.1", "0.2", "0.3", "-0.7071068", "0.70710677",
+			"1.0000001", "1.00000006", "0.30000001192092896", "123.456789", "-98765.4321", "0.000001", "1234567.8",
+			//Exactly half-way between two floats, so these need to round to even.
+			"16777217", "16777219", "1.000000059604644775390625",
+			//Too many digits to be parsed exactly as a double.
+			"0.1000000000000000055511151231257827", "3.14159265358979323846",
+			//Exponents, and values past the range of floats.
+			"1e3", "1.5E-3", "3.4028235E38", "1.4E-45", "1e-50", "1e50"
+		};
+		StringBuilder modelText = new StringBuilder("o numbers\n");
+		for(String value : values){
+			modelText.append("v ").append(value).append(" ").append(value).append(" ").append(value).append("\n");
+		}
+		modelText.append("vt 0 0\nvn 0 0 1\n");
+		for(int i=0; i<values.length; i+=3){
+			modelText.append("f");
+			for(int j=0; j<3; ++j){
+				modelText.append(" ").append(Math.min(i + j, values.length - 1) + 1).append("/1/1");
+			}
+			modelText.append("\n");
+		}
+		VertexArray object = parseAndCompare(modelText.toString()).get("numbers");
+		assertNotNull(object);
+		for(int i=0; i<values.length; ++i){
+			float expected = Float.parseFloat(values[i]);
+			for(int j=0; j<3; ++j){
+				assertEquals(values[i], Float.floatToRawIntBits(expected), Float.floatToRawIntBits(object.get(i, j)));
+			}
+		}
+	}
+
+	@Test
+	public void testLineEndingsAndTextureCoordinates() throws IOException{
+		//Windows line endings, extra spaces, and a third texture coordinate, which is ignored.
+		String modelText = "o first\r\n"
+				+ "v 0 0 0\r\nv  1 0  0\r\nv 1 1 0\r\n"
+				+ "vt 0.25 0.5 0\r\nvt 1 0\r\n"
+				+ "vn 0 0 1\r\n"
+				+ "f 1/1/1 2/2/1 3/1/1\r\n"
+				+ "o second\r\n"
+				+ "f 3/2/1 2/1/1 1/2/1\r\n";
+		Map<String, VertexArray> model = parseAndCompare(modelText);
+		assertEquals(2, model.size());
+		VertexArray first = model.get("first");
+		assertEquals(0.25F, first.get(0, 3), 0);
+		assertEquals(0.5F, first.get(0, 4), 0);
+		assertEquals(1F, first.get(1, 4), 0);
+	}
+
+	@Test
+	public void testFacesWithoutTexturesAreNotCompiled() throws IOException{
+		String modelText = "o textured\n"
+				+ "v 0 0 0\nv 1 0 0\nv 1 1 0\n"
+				+ "vt 0 0\nvn 0 0 1\n"
+				+ "f 1/1/1 2/1/1 3/1/1\n"
+				+ "o untextured\n"
+				+ "f 1//1 2//1 3//1\n";
+		Map<String, VertexArray> model = parseAndCompare(modelText);
+		assertTrue(model.containsKey("textured"));
+		assertFalse(model.containsKey("untextured"));
+	}
+
+	/**
+	 *  Parses the passed-in model text with both parsers, checks they are equal, and returns the parsed model.
+	 */
+	private static Map<String, VertexArray> parseAndCompare(String modelText) throws IOException{
+		byte[] data = modelText.getBytes(StandardCharsets.UTF_8);
+		Map<String, VertexArray> model = ModelParserOBJ.parseStream(new ByteArrayInputStream(data), "test.obj");
+		Map<String, VertexArray> legacyModel = LegacyParser.parse(new ByteArrayInputStream(data), "test.obj");
+		assertModelsEqual("test.obj", legacyModel, model);
+		return model;
+	}
+
+	private static void assertModelsEqual(String modelLocation, Map<String, VertexArray> expected, Map<String, VertexArray> actual){
+		assertEquals(modelLocation, expected.keySet(), actual.keySet());
+		for(Entry<String, VertexArray> objectEntry : expected.entrySet()){
+			String message = modelLocation + ":" + objectEntry.getKey();
+			assertEquals(message, objectEntry.getValue().vertexCount, actual.get(objectEntry.getKey()).vertexCount);
+			assertArrayEquals(message, getBits(objectEntry.getValue().data), getBits(actual.get(objectEntry.getKey()).data));
+		}
+	}
+
+	private static int[] getBits(float[] values){
+		int[] bits = new int[values.length];
+		for(int i=0; i<values.length; ++i){
+			bits[i] = Float.floatToRawIntBits(values[i]);
+		}
+		return bits;
+	}
+
+	/**
+	 *  The String-based parser that {@link ModelParserOBJ} replaced.  Unchanged, other than reading
+	 *  from a stream rather than a resource, so the output can be compared to it.
+	 */
+	private static class LegacyParser{
+		private static Map<String, VertexArray> parse(InputStream stream, String modelLocation){
+			Map<String, VertexArray> objectMap = new HashMap<String, VertexArray>();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+
+			String objectName = null;
+			final FloatList vertexList = new FloatList();
+			final FloatList normalList = new FloatList();
+			final FloatList textureList = new FloatList();
+			final List<String> faceList = new ArrayList<String>();
+
+			try{
+				int lineNumber = 0;
+				while(reader.ready()){
+					String line = reader.readLine();
+					++lineNumber;
+
+					//Do normal parsing.
+					if(line.startsWith("o ")){
+						//Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
+						if(objectName != null){
+							if(faceList.isEmpty()){
+								InterfaceCore.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
+							}else{
+								compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+								objectName = null;
+							}
+						}
+						try{
+							objectName = line.trim().substring(2, line.length());
+						}catch(Exception e){
+							InterfaceCore.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
+						}
+					}else if(line.startsWith("v ")){
+						try{
+							line = line.trim().substring(2, line.trim().length()).trim();
+							float x = Float.parseFloat(line.substring(0, line.indexOf(' ')));
+							float y = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
+							float z = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1, line.length()));
+							vertexList.add(x);
+							vertexList.add(y);
+							vertexList.add(z);
+						}catch(Exception e){
+							InterfaceCore.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
+						}
+					}else if(line.startsWith("vt ")){
+						try{
+							line = line.trim().substring(3, line.trim().length()).trim();
+							int space = line.indexOf(' ');
+							int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
+							float u = Float.parseFloat(line.substring(0, space));
+							float v = 1 - Float.parseFloat(line.substring(space + 1, vertexEnd));
+							textureList.add(u);
+							textureList.add(v);
+						}catch(Exception e){
+							InterfaceCore.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
+						}
+					}else if(line.startsWith("vn ")){
+						try{
+							line = line.trim().substring(2, line.trim().length()).trim();
+							float x = Float.parseFloat(line.substring(0, line.indexOf(' ')));
+							float y = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
+							float z = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1, line.length()));
+							normalList.add(x);
+							normalList.add(y);
+							normalList.add(z);
+						}catch(Exception e){
+							InterfaceCore.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+						}
+					}else if(line.startsWith("f ")){
+						try{
+							faceList.add(line.trim().substring(2, line.trim().length()));
+						}catch(Exception e){
+							InterfaceCore.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
+						}
+					}
+				}
+
+				//End of file.  Save the last part in process and close the file.
+				compileVertexArray(objectMap, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+				reader.close();
+				return objectMap;
+
+			}catch(IOException e){
+				throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
+			}
+		}
+
+		private static void compileVertexArray(Map<String, VertexArray> objectMap, FloatList vertexList, FloatList normalList, FloatList textureList, List<String> faceList, String modelLocation, String objectName){
+			if(objectName == null){
+				InterfaceCore.logError("No object name found in the entire OBJ model file.  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
+				objectName = "model";
+			}
+
+			try{
+				//Vertex data is stored as sets of vertex, texture, and normal indexes.
+				int[] vertexDataSets = new int[faceList.size()*9];
+				int vertexDataCount = 0;
+				for(String faceString : faceList){
+					int faceStart = vertexDataCount;
+					int facePoints = 0;
+					while(!faceString.isEmpty()){
+						//Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
+						int defEnd = faceString.indexOf(' ');
+						String faceDef;
+						if(defEnd != -1){
+							//Take the faceDef from the faceString and store it.
+							faceDef = faceString.substring(0, defEnd);
+							faceString = faceString.substring(defEnd + 1);
+						}else{
+							//We are at the last face vertex here, so just mark the face as the existing string.
+							faceDef = faceString;
+							faceString = "";
+						}
+
+						//Vertex number is the first entry before the slash.
+						//Texture number is the second entry between the two slashes.
+						//Normal number is the third entry after the second slash.
+						//Parse all these out and store them in the array.
+						int firstSlash = faceDef.indexOf('/');
+						int secondSlash = faceDef.lastIndexOf('/');
+						int vertexNumber = Integer.parseInt(faceDef.substring(0, firstSlash)) - 1;
+						int textureNumber = Integer.parseInt(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
+						int normalNumber = Integer.parseInt(faceDef.substring(secondSlash + 1)) - 1;
+
+						//Make sure we have room for this point, and the two points we may add for it.
+						if(vertexDataCount + 9 > vertexDataSets.length){
+							vertexDataSets = Arrays.copyOf(vertexDataSets, vertexDataSets.length*2 + 9);
+						}
+
+						//If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
+						//Add the first point, the most recent point, and this point to make a triangle.
+						//Otherwise, just add the face as-is.
+						if(facePoints >= 3){
+							System.arraycopy(vertexDataSets, faceStart, vertexDataSets, vertexDataCount, 3);
+							System.arraycopy(vertexDataSets, vertexDataCount - 3, vertexDataSets, vertexDataCount + 3, 3);
+							vertexDataCount += 6;
+							facePoints += 2;
+						}
+						vertexDataSets[vertexDataCount++] = vertexNumber;
+						vertexDataSets[vertexDataCount++] = textureNumber;
+						vertexDataSets[vertexDataCount++] = normalNumber;
+						++facePoints;
+					}
+				}
+
+				//Compile array.
+				VertexArray compiledArray = new VertexArray(vertexDataCount/3);
+				for(int i=0; i<compiledArray.vertexCount; ++i){
+					int vertexIndex = vertexDataSets[i*3]*3;
+					int textureIndex = vertexDataSets[i*3 + 1]*2;
+					int normalIndex = vertexDataSets[i*3 + 2]*3;
+					compiledArray.set(i, 0, vertexList.get(vertexIndex));
+					compiledArray.set(i, 1, vertexList.get(vertexIndex + 1));
+					compiledArray.set(i, 2, vertexList.get(vertexIndex + 2));
+					compiledArray.set(i, 3, textureList.get(textureIndex));
+					compiledArray.set(i, 4, textureList.get(textureIndex + 1));
+					compiledArray.set(i, 5, normalList.get(normalIndex));
+					compiledArray.set(i, 6, normalList.get(normalIndex + 1));
+					compiledArray.set(i, 7, normalList.get(normalIndex + 2));
+				}
+				objectMap.put(objectName, compiledArray);
+			}catch(Exception e){
+				InterfaceCore.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+			}
+
+			//Clear face list as we don't want to compile them on the next pass.
+			faceList.clear();
+		}
+
+		/**
+		 *  Growable list of primitive floats.  Used for storing the points of the model as it is
+		 *  parsed, as we don't know how many there will be until we've parsed the whole file.
+		 */
+		private static class FloatList{
+			private float[] values = new float[1024];
+			private int size;
+
+			private void add(float value){
+				if(size == values.length){
+					values = Arrays.copyOf(values, values.length*2);
+				}
+				values[size++] = value;
+			}
+
+			private float get(int index){
+				if(index >= size){
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+				}
+				return values[index];
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package minecrafttransportsimulator.sound;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**Benchmark for decoding the sounds bundled in assets/mts/sounds.  Each sound is decoded as
+ * {@link DecodedSoundCache} does when it isn't cached, which gives the time per file.  The stereo to mono
+ * conversion is also run on its own, once with the block conversion, and once with the per-sample conversion
+ * it replaced, which allocated an array for every sample.  Run with the jmh task, adding the gc profiler
+ * to get the allocation rate: -Pbenchmarks="DecodedSoundBenchmark -prof gc".
+ *
+ * @author don_bruce
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodedSoundBenchmark{
+	@Param({"air_brake_activating", "backup_beeper", "engine_shifting_grinding", "scanner_beep", "wheel_blowout", "wheel_skidding", "wheel_striking"})
+	public String soundName;
+
+	/**Decoded data of the sound, before any conversion.  Converted as if it were stereo even if it isn't.**/
+	private ByteBuffer decodedData;
+
+	@Setup
+	public void setup(){
+		DecodedFile sound = OGGDecoder.parseInternalFile("mts:" + soundName);
+		if(sound == null){
+			throw new IllegalStateException("Could not decode sound: " + soundName);
+		}
+		decodedData = sound.decodedData;
+	}
+
+	@Benchmark
+	public ByteBuffer decodeFile(){
+		DecodedFile sound = OGGDecoder.parseInternalFile("mts:" + soundName);
+		return sound.isStereo ? DecodedSoundCache.stereoToMono(sound.decodedData) : sound.decodedData;
+	}
+
+	@Benchmark
+	public ByteBuffer convertBlocks(){
+		return DecodedSoundCache.stereoToMono(decodedData.duplicate());
+	}
+
+	@Benchmark
+	public ByteBuffer convertPerSample(){
+		ByteBuffer stereoBuffer = decodedData.duplicate();
+		ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.limit()/2);
+		while(stereoBuffer.remaining() >= 4){
+			//Combine samples using little-endian ordering.
+			byte[] sampleSet = new byte[4];
+			stereoBuffer.get(sampleSet);
+			int leftSample = (sampleSet[1] << 8) | (sampleSet[0] & 0xFF);
+			int rightSample = (sampleSet[3] << 8) | (sampleSet[2] & 0xFF);
+			int combinedSample = (leftSample + rightSample)/2;
+			monoBuffer.put((byte) (combinedSample & 0xFF));
+			monoBuffer.put((byte) (combinedSample >> 8));
+		}
+		return (ByteBuffer) monoBuffer.flip();
+	}
+}